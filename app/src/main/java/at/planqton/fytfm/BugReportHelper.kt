@@ -4,6 +4,7 @@ import android.content.Context
 import android.os.Build
 import android.os.Environment
 import android.util.Log
+import at.planqton.fytfm.data.http.HttpStack
 import at.planqton.fytfm.deezer.ParserLogger
 import at.planqton.fytfm.deezer.TrackInfo
 import java.io.BufferedReader
@@ -172,6 +173,11 @@ class BugReportHelper(private val context: Context) {
             appendLine(ParserLogger.export())
             appendLine()
 
+            // Shared HTTP stack: disk cache and per-host counters
+            appendLine("## HTTP")
+            appendLine("-".repeat(60))
+            appendLine(HttpStack.shared.export())
+
             // Logcat
             appendLine("## Logcat (last $MAX_LOGCAT_LINES lines)")
             appendLine("-".repeat(60))
@@ -268,6 +274,11 @@ class BugReportHelper(private val context: Context) {
             appendLine(ParserLogger.export())
             appendLine()
 
+            // Shared HTTP stack: disk cache and per-host counters
+            appendLine("## HTTP")
+            appendLine("-".repeat(60))
+            appendLine(HttpStack.shared.export())
+
             // Logcat
             appendLine("## Logcat (last $MAX_LOGCAT_LINES lines)")
             appendLine("-".repeat(60))
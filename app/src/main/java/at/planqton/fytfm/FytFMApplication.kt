@@ -1,14 +1,24 @@
 package at.planqton.fytfm
 
 import android.app.Application
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.NetworkCapabilities
 import android.util.Log
 import at.planqton.fytfm.controller.FmNativeAdapter
+import at.planqton.fytfm.controller.FmNativeApi
+import at.planqton.fytfm.controller.QueuedFmNativeApi
 import at.planqton.fytfm.controller.RadioController
+import at.planqton.fytfm.controller.TunerCommandQueue
 import at.planqton.fytfm.dab.DabTunerManager
 import at.planqton.fytfm.dab.MockDabTunerManager
 import at.planqton.fytfm.data.PresetRepository
+import at.planqton.fytfm.data.band.BandMapRepository
+import at.planqton.fytfm.data.http.HttpStack
+import at.planqton.fytfm.data.pi.PiPsIndexRepository
 import at.planqton.fytfm.data.settings.AppSettingsRepository
 import com.android.fmradio.FmNative
+import java.io.File
 
 /**
  * Application-scoped Holder für die Audio- und Radio-Komponenten. Liegt
@@ -37,6 +47,20 @@ class FytFMApplication : Application() {
     lateinit var rdsManager: RdsManager
         private set
 
+    /** Serialisiert alle Aufrufe in den FM-Chip (User > Scan > RDS-Poll). */
+    val tunerCommandQueue = TunerCommandQueue()
+
+    /** PS → PI-Index (Seed-Asset, Logo-Templates, rds_log, live gelernt). */
+    lateinit var piPsIndexRepository: PiPsIndexRepository
+        private set
+
+    /** Kanal-Tabelle mit letztem RSSI/PI/PS/AF pro FM-Kanal, wird nebenbei gepflegt. */
+    lateinit var bandMapRepository: BandMapRepository
+        private set
+
+    /** Direkter, ungequeueter Zugriff — nur für die Queue-Views unten. */
+    private lateinit var fmNativeApi: FmNativeApi
+
     val dabTunerManager = DabTunerManager()
     val mockDabTunerManager = MockDabTunerManager()
 
@@ -55,6 +79,10 @@ class FytFMApplication : Application() {
         CrashHandler.install(this)
         Log.i("FytFMApplication", "Crash handler installed")
 
+        // Ein HTTP-Stack für alle Clients (Deezer, Logos, Cover): gemeinsamer
+        // Connection-Pool und Disk-Cache; ohne Netz liefert er aus dem Cache.
+        HttpStack.install(HttpStack(File(cacheDir, HttpStack.DIR_NAME), isOnline = ::isNetworkAvailable))
+
         // Seed an application context into the demo DAB backend so
         // playRandomTrack() never hits a null context — it would otherwise
         // happen if setBackend(mock) is called without a prior powerOn()
@@ -72,6 +100,14 @@ class FytFMApplication : Application() {
         FmNative.initAudio(this)
         fmNative = FmNative.getInstance()
         rdsManager = RdsManager(fmNative)
+        rdsManager.setCommandQueue(tunerCommandQueue)
+        piPsIndexRepository = PiPsIndexRepository(this)
+        rdsManager.setPiPsIndex(piPsIndexRepository.index)
+        piPsIndexRepository.reload()
+        bandMapRepository = BandMapRepository(this)
+        rdsManager.setBandMap(bandMapRepository.bandMap)
+        bandMapRepository.load()
+        fmNativeApi = FmNativeAdapter(fmNative)
 
         // TWUtil ist optional: Nicht-FYT-Geräte haben den Klassenpfad nicht
         // — `isAvailable` deckt das ab. open() liefert für nicht-verfügbare
@@ -82,7 +118,7 @@ class FytFMApplication : Application() {
 
         radioController = RadioController(
             context = this,
-            fmNative = FmNativeAdapter(fmNative),
+            fmNative = QueuedFmNativeApi(fmNativeApi, tunerCommandQueue, TunerCommandQueue.Priority.USER),
             rdsManager = rdsManager,
             realDabBackend = dabTunerManager,
             mockDabBackend = mockDabTunerManager,
@@ -91,4 +127,17 @@ class FytFMApplication : Application() {
         )
         radioController.initialize()
     }
+
+    private fun isNetworkAvailable(): Boolean {
+        val connectivityManager = getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
+        val network = connectivityManager.activeNetwork ?: return false
+        val capabilities = connectivityManager.getNetworkCapabilities(network) ?: return false
+        return capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+    }
+
+    /** FmNativeApi-View für den Sendersuchlauf: läuft mit Scan-Priorität über die Tuner-Queue. */
+    fun scannerFmNative(): FmNativeApi? =
+        if (FmNative.isLibraryLoaded()) {
+            QueuedFmNativeApi(fmNativeApi, tunerCommandQueue, TunerCommandQueue.Priority.SCAN)
+        } else null
 }
@@ -48,6 +48,7 @@ import at.planqton.fytfm.data.rdslog.RdsLogRepository
 import at.planqton.fytfm.data.rdslog.RdsDatabase
 import at.planqton.fytfm.data.rdslog.RtCorrection
 import at.planqton.fytfm.data.rdslog.RtCorrectionDao
+import at.planqton.fytfm.rds.RdsSnapshot
 import at.planqton.fytfm.media.FytFMMediaService
 import at.planqton.fytfm.ui.StationAdapter
 import kotlinx.coroutines.CoroutineScope
@@ -60,6 +61,7 @@ import kotlinx.coroutines.withContext
 import com.android.fmradio.FmNative
 import com.android.fmradio.FmService
 import com.syu.jni.SyuJniNative
+import at.planqton.fytfm.deezer.CoverSize
 import at.planqton.fytfm.deezer.DeezerClient
 import at.planqton.fytfm.deezer.DeezerCache
 import at.planqton.fytfm.deezer.RtCombiner
@@ -513,6 +515,16 @@ class MainActivity : AppCompatActivity(),
     private var dabDeezerSearchJob: Job? = null
     private var fmDeezerSearchJob: Job? = null
 
+    // Skala-Drag / Lenkrad-Tasten: UI folgt jedem Schritt sofort, der Chip
+    // bekommt nur die Frequenz, auf der die Eingabe zur Ruhe kommt.
+    private val tuneCoalescer by lazy {
+        at.planqton.fytfm.controller.TuneCoalescer(
+            handler = android.os.Handler(android.os.Looper.getMainLooper()),
+            settleWindowMs = presetRepository.getTuneSettleWindowMs(),
+            hardwareTune = ::tuneHardware,
+        )
+    }
+
     override fun onNewIntent(intent: Intent?) {
         super.onNewIntent(intent)
         // Silently ignore com.syu.radio intents - we're already the active radio app
@@ -694,6 +706,7 @@ class MainActivity : AppCompatActivity(),
         if (lastMode != FrequencyScaleView.RadioMode.DAB) {
             binding.frequencyScale.setFrequency(lastFreq)
             rdsManager.setUiFrequency(lastFreq)  // Für AF-Vergleich
+            rdsManager.noteTuned(lastFreq)       // Chip steht schon dort (initialize)
             rdsLogRepository.setInitialFrequency(lastFreq, lastMode == FrequencyScaleView.RadioMode.AM)
             updateFrequencyDisplay(lastFreq)
         }
@@ -860,6 +873,10 @@ class MainActivity : AppCompatActivity(),
         if (deezerCache == null) {
             deezerCache = DeezerCache(this)
         }
+        deezerCache?.setBudget(
+            presetRepository.getDeezerCacheMaxBytes(),
+            presetRepository.getDeezerCacheMaxTracks()
+        )
 
         // Initialize correction DAOs
         if (rtCorrectionDao == null) {
@@ -867,7 +884,9 @@ class MainActivity : AppCompatActivity(),
         }
 
         // Deezer doesn't need credentials - just create the client
-        deezerClient = DeezerClient()
+        deezerClient = DeezerClient().apply {
+            onStrategyStep = at.planqton.fytfm.deezer.ParserLogger::logStrategy
+        }
         rtCombiner = RtCombiner(
             deezerClient = deezerClient,
             deezerCache = deezerCache,
@@ -981,36 +1000,52 @@ class MainActivity : AppCompatActivity(),
 
     /**
      * Startet das RDS-Polling mit Callback für PS, RT, RSSI, PI, PTY, TP, TA, AF.
+     *
+     * Der RdsManager liefert nur Snapshots mit geänderten Feldern; jeder
+     * Konsument hier reagiert nur auf die Felder, die er wirklich braucht.
      */
     private fun startRdsPolling() {
         rdsManager.startPolling(object : RdsManager.RdsCallback {
             override fun onRdsUpdate(ps: String?, rt: String?, rssi: Int, pi: Int, pty: Int, tp: Int, ta: Int, afList: ShortArray?) {
-                // Log RDS data
-                rdsLogRepository.onRdsUpdate(ps, rt, pi, pty, tp, ta, rssi, afList)
+                // Wird nicht benutzt — onRdsSnapshot ist überschrieben.
+            }
 
-                // RT-DLS Parser Log
-                if (!rt.isNullOrBlank()) {
-                    handleRdsParserLog(rt, ps)
-                }
+            override fun onRdsSnapshot(snapshot: RdsSnapshot) {
+                val ps = snapshot.ps
+                val rt = snapshot.rt
+                val pi = snapshot.pi
+                val afList = snapshot.afList
+
+                // Log RDS data (hält den aktuellen Stand für RT-Einträge)
+                rdsLogRepository.onRdsUpdate(ps, rt, pi, snapshot.pty, snapshot.tp, snapshot.ta, snapshot.rssi, afList)
 
-                // Deezer Integration oder Raw-RT Update
-                val deezerEnabled = presetRepository.isDeezerEnabledFm()
-                if (rtCombiner != null && !rt.isNullOrBlank() && !debugDeezerBlocked && deezerEnabled) {
-                    handleRdsDeezerSearch(rt, ps, pi)
-                } else if (!rt.isNullOrBlank()) {
-                    handleRdsRawRtUpdate(rt, ps, pi)
+                if (snapshot.hasChanged(RdsSnapshot.CHANGED_RT or RdsSnapshot.CHANGED_PS or RdsSnapshot.CHANGED_PI)) {
+                    // RT-DLS Parser Log
+                    if (!rt.isNullOrBlank()) {
+                        handleRdsParserLog(rt, ps)
+                    }
+
+                    // Deezer Integration oder Raw-RT Update
+                    val deezerEnabled = presetRepository.isDeezerEnabledFm()
+                    if (rtCombiner != null && !rt.isNullOrBlank() && !debugDeezerBlocked && deezerEnabled) {
+                        handleRdsDeezerSearch(rt, ps, pi)
+                    } else if (!rt.isNullOrBlank()) {
+                        handleRdsRawRtUpdate(rt, ps, pi)
+                    }
                 }
 
-                runOnUiThread {
-                    // Auto-Sync RDS → Preset-Name. Mode kommt aus der
-                    // Settings-„Stationname Parsing"-Einstellung (NONE / PS /
-                    // PI / PI_FALLBACK_PS). PS-Path nutzt den
-                    // Stabilitäts-/Plausibilitäts-Filter im RdsManager.
+                // Auto-Sync RDS → Preset-Name. Mode kommt aus der
+                // Settings-„Stationname Parsing"-Einstellung (NONE / PS /
+                // PI / PI_FALLBACK_PS). PS-Path nutzt den
+                // Stabilitäts-/Plausibilitäts-Filter im RdsManager.
+                if (snapshot.hasChanged(RdsSnapshot.CHANGED_PS or RdsSnapshot.CHANGED_PI)) {
                     handleRdsAutoSync(ps, pi)
-                    // Debug-UI aktualisieren
-                    handleRdsDebugUpdate(ps, rt, rssi, pi, pty, tp, ta, afList)
-                    // Signal-Bars-Icon
-                    updateSignalBars(rssi, rdsManager.rssiAgeMs)
+                }
+                // Debug-UI aktualisieren
+                handleRdsDebugUpdate(ps, rt, snapshot.rssi, pi, snapshot.pty, snapshot.tp, snapshot.ta, afList)
+                // Signal-Bars-Icon
+                if (snapshot.hasChanged(RdsSnapshot.CHANGED_RSSI)) {
+                    updateSignalBars(snapshot.rssi, rdsManager.rssiAgeMs)
                 }
             }
 
@@ -1216,7 +1251,9 @@ class MainActivity : AppCompatActivity(),
      * (NONE / PS / PI / PI_FALLBACK_PS) und entscheidet, welcher Sync-Pfad
      * den Preset-Namen aktualisiert.
      */
-    private fun handleRdsAutoSync(ps: String?, pi: Int) {
+    private fun handleRdsAutoSync(ps: String?, rdsPi: Int) {
+        // Ohne PI vom Sender über den gelernten PS → PI-Index auflösen
+        val pi = if (rdsPi != 0) rdsPi else app.piPsIndexRepository.index.lookup(ps)
         val mode = at.planqton.fytfm.data.pi.FmAutoparseMode
             .fromId(presetRepository.getFmAutoparseMode())
         when (mode) {
@@ -1303,7 +1340,14 @@ class MainActivity : AppCompatActivity(),
         binding.labelTpTa.text = if (tpTaAge >= 0) "(${tpTaAge / 1000}s) TP/TA:" else "TP/TA:"
 
         // Werte formatieren
-        val psStr = ps ?: ""
+        // Vor dem Lock den Zwischenstand der Zeichen-Abstimmung zeigen ("OE_ ____"),
+        // danach die Zeit von tune bis zum akzeptierten PS
+        val timeToPs = rdsManager.timeToPsMs
+        val psStr = when {
+            !ps.isNullOrEmpty() && timeToPs >= 0 -> "$ps (TTP ${timeToPs} ms)"
+            !ps.isNullOrEmpty() -> ps
+            else -> rdsManager.partialPs
+        }
         val piStr = if (pi != 0) String.format("0x%04X", pi and 0xFFFF) else ""
         val ptyStr = if (pty > 0) "$pty (${RdsManager.getPtyName(pty)})" else ""
         val rtStr = rt ?: ""
@@ -1323,8 +1367,12 @@ class MainActivity : AppCompatActivity(),
             else "No (${String.format("%.1f", hwFreq)} MHz)"
         } else "-- (not available)"
 
+        // Adaptiver Poll-Scheduler: Phase, Intervall, readRds()-Iterationen
+        val pollStr = "${rdsManager.pollPhaseName} ${rdsManager.pollIntervalMs}ms ×${rdsManager.pollReadIterations}" +
+            " | ${app.tunerCommandQueue.summary()}"
+
         debugManager.setRdsHeaderTitle("RDS Debug")
-        debugManager.updateDebugInfo(ps = psStr, rt = rtStr, rssiStr = rssiStr, pi = piStr, pty = ptyStr, tpTa = tpTaStr, af = afStr, afUsing = afUsingStr)
+        debugManager.updateDebugInfo(ps = psStr, rt = rtStr, rssiStr = rssiStr, pi = piStr, pty = ptyStr, tpTa = tpTaStr, af = afStr, afUsing = afUsingStr, poll = pollStr)
     }
 
     override fun onPictureInPictureModeChanged(isInPictureInPictureMode: Boolean, newConfig: android.content.res.Configuration) {
@@ -1467,12 +1515,13 @@ class MainActivity : AppCompatActivity(),
             runOnUiThread { toast(R.string.root_required_message, long = true) }
         }
 
-        radioScanner = at.planqton.fytfm.scanner.RadioScanner(rdsManager)
+        radioScanner = at.planqton.fytfm.scanner.RadioScanner(rdsManager, app.scannerFmNative(), app.bandMapRepository.bandMap)
         // updateRepository is now initialized in onCreate() before super.onCreate()
         // so it's available when restored fragments call back into the activity.
         rdsLogRepository = RdsLogRepository(this)
         rdsLogRepository.performCleanup()
         radioLogoRepository = at.planqton.fytfm.data.logo.RadioLogoRepository(this)
+        radioLogoRepository.piPsIndex = app.piPsIndexRepository.index
     }
 
     /**
@@ -2876,7 +2925,7 @@ class MainActivity : AppCompatActivity(),
         when {
             deezerEnabled && !localCover.isNullOrBlank() -> {
                 coverDisplayController.currentUiCoverSource = localCover
-                binding.nowPlayingCover.loadCoverOrFallback(localCover, placeholderDrawable, accentTint)
+                binding.nowPlayingCover.loadCoverOrFallback(localCover, placeholderDrawable, accentTint, CoverSize.NOW_PLAYING)
             }
             stationLogo != null -> {
                 coverDisplayController.currentUiCoverSource = stationLogo
@@ -4139,7 +4188,7 @@ class MainActivity : AppCompatActivity(),
             val mode = if (station.isAM) FrequencyScaleView.RadioMode.AM else FrequencyScaleView.RadioMode.FM
             binding.frequencyScale.setMode(mode)
             binding.frequencyScale.setFrequency(station.frequency)
-            fmNative?.tune(station.frequency)
+            radioController.fmAmController.tuneRaw(station.frequency)
             updateCarouselSelection()
         } catch (e: Exception) {
             android.util.Log.e(TAG, "FM tune error: ${e.message}", e)
@@ -4510,6 +4559,7 @@ class MainActivity : AppCompatActivity(),
     // ========== DeezerCacheCallback Implementation ==========
 
     override fun getDeezerCache(): at.planqton.fytfm.deezer.DeezerCache? = deezerCache
+    override fun getDeezerClient(): DeezerClient? = deezerClient
 
     private fun showDeezerCacheDialogFragment() {
         at.planqton.fytfm.ui.cache.DeezerCacheDialogFragment.newInstance()
@@ -5264,6 +5314,8 @@ class MainActivity : AppCompatActivity(),
             return
         }
         val highSensitivity = presetRepository.isAutoScanSensitivity()
+        val area = at.planqton.fytfm.data.region.WorldAreas.byId(presetRepository.getWorldAreaId())
+        val amBand = at.planqton.fytfm.scanner.RadioScanner.AmBand(area.amMinKHz, area.amMaxKHz, area.amStep)
 
         // Erst ScanOptionsDialog anzeigen für Methode + Filter-Einstellungen
         at.planqton.fytfm.ui.ScanOptionsDialog(this, presetRepository) { config ->
@@ -5292,11 +5344,25 @@ class MainActivity : AppCompatActivity(),
                     // Station ausgewählt - tune zur Frequenz
                     binding.frequencyScale.setFrequency(station.frequency)
                     updateFrequencyDisplay(station.frequency)
-                    rdsManager.tune(station.frequency)
+                    rdsManager.tuneAsync(station.frequency, null)
                 },
                 initialMode = isFmMode,
                 highSensitivity = highSensitivity,
-                config = config
+                config = config,
+                amBand = amBand,
+                knownFmStations = if (config.incremental) presetRepository.loadFmStations() else emptyList(),
+                onDiffApplied = { diff ->
+                    // Rescan: nur den Diff übernehmen, ungeprüfte Sender bleiben
+                    val (_, overwritten) = presetRepository.applyFmDiff(diff)
+                    overwritten.forEach { old ->
+                        radioLogoRepository.removeLogoForStation(
+                            ps = old.name,
+                            pi = null,
+                            frequency = old.frequency,
+                        )
+                    }
+                    loadStationsForCurrentMode()
+                }
             )
             dialog.show()
         }.show()
@@ -5923,14 +5989,28 @@ class MainActivity : AppCompatActivity(),
         // Parser-Cache zurücksetzen bei Frequenzwechsel
         lastParsedFmRt = null
 
+        // UI-Frequenz setzen für AF-Vergleich
+        rdsManager.setUiFrequency(frequency)
+        tuneCoalescer.request(frequency)
+    }
+
+    /**
+     * Der eigentliche Chip-Tune — wird vom [tuneCoalescer] nur für die
+     * letzte Frequenz einer Eingabe-Serie aufgerufen.
+     */
+    private fun tuneHardware(frequency: Float) {
         try {
-            // UI-Frequenz setzen für AF-Vergleich
-            rdsManager.setUiFrequency(frequency)
-            rdsManager.tune(frequency)
+            // Nicht blockierend — der Main-Thread wartet nicht auf den Chip
+            rdsManager.tuneAsync(frequency) { success ->
+                if (!success) android.util.Log.w(TAG, "Tune to $frequency MHz failed")
+            }
             // Persistieren — sonst geht beim nächsten FM/AM-Mode-Reload die
             // gerade getunte Frequenz verloren und der Tuner springt zurück
             // auf den Default 98.4 / 1008.
             radioController.persistFrequency(frequency)
+            if (tuneCoalescer.droppedCount > 0) {
+                android.util.Log.d(TAG, "Tuned $frequency MHz (${tuneCoalescer.summary()})")
+            }
         } catch (e: Throwable) {
             android.util.Log.w(TAG, "tune failed: ${e.message}")
             toast(getString(R.string.tuner_error, e.message), long = true)
@@ -6319,6 +6399,8 @@ class MainActivity : AppCompatActivity(),
 
     override fun onDestroy() {
         super.onDestroy()
+        // Chip soll auf der zuletzt angezeigten Frequenz landen.
+        tuneCoalescer.flush()
         stopRdsPolling()
         stopTunerInfoUpdates()
         stopDlsTimestampUpdates()
@@ -6343,6 +6425,8 @@ class MainActivity : AppCompatActivity(),
      * Alten Radio-Modus aufräumen bevor gewechselt wird.
      */
     private fun cleanupOldRadioMode(oldMode: FrequencyScaleView.RadioMode) {
+        // Ausstehender FM/AM-Tune gehört zum alten Modus.
+        tuneCoalescer.cancel()
         // Defensive: clear any RtCombiner state from the previous mode so
         // residual buffers can't leak across FM ↔ DAB switches.
         rtCombiner?.clearAll()
@@ -6844,11 +6928,11 @@ class MainActivity : AppCompatActivity(),
     }
 
     override fun onLocalModeChanged(enabled: Boolean) {
-        fmNative?.setLocalMode(enabled)
+        radioController.fmAmController.setLocalMode(enabled)
     }
 
     override fun onMonoModeChanged(enabled: Boolean) {
-        fmNative?.setMonoMode(enabled)
+        radioController.fmAmController.setMonoMode(enabled)
     }
 
     override fun onDabVisualizerToggled(enabled: Boolean) {
@@ -6923,6 +7007,7 @@ class MainActivity : AppCompatActivity(),
 
     override fun clearDeezerCache() {
         deezerCache?.clearCache()
+        deezerClient?.clearLookupCache()
     }
 
     override fun onRecordingPathCallbackSet(callback: (String?) -> Unit) {
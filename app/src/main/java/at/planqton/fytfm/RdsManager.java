@@ -2,12 +2,25 @@ package at.planqton.fytfm;
 
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
 import android.util.Log;
 
+import at.planqton.fytfm.controller.FmNativeAdapter;
+import at.planqton.fytfm.controller.FmNativeApi;
+import at.planqton.fytfm.controller.TunerCommandQueue;
+import at.planqton.fytfm.data.band.BandMap;
+import at.planqton.fytfm.data.pi.PiPsIndex;
+import at.planqton.fytfm.rds.RdsPollScheduler;
+import at.planqton.fytfm.rds.RdsSnapshot;
+import at.planqton.fytfm.rds.RdsTextBuffer;
+import at.planqton.fytfm.rds.RdsTextVoter;
+
 import com.android.fmradio.FmNative;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 
 /**
  * RdsManager - Saubere RDS-Implementierung für FYT Head Units
@@ -19,6 +32,16 @@ import java.nio.charset.StandardCharsets;
  */
 public class RdsManager {
     private static final String TAG = "RdsManager";
+    /**
+     * Per-Tick-Debug-Logs (readRds-Ergebnisse, fetchPs/fetchRt, Bundle-Dumps).
+     * Standardmäßig aus — die String-Konkatenationen liefen sonst bei jedem
+     * Tick. Aktivieren mit {@code adb shell setprop log.tag.RdsManager DEBUG}
+     * (wirkt nach App-Neustart).
+     */
+    private static final boolean DEBUG = Log.isLoggable(TAG, Log.DEBUG);
+
+    /** Ab hier ist eine getunte Frequenz AM (kHz) statt FM (MHz). */
+    private static final float AM_MIN_KHZ = 500f;
 
     // JNI Command Codes (aus NavRadio+ FmNative.smali)
     private static final int CMD_CURRENTFREQ = 0x12;   // 18 - Get current hardware frequency
@@ -30,28 +53,119 @@ public class RdsManager {
     private static final int CMD_RDSGETTEXT = 0x1f;    // 31 - RT abrufen
     private static final int CMD_RDSGETFREQPS = 0x20;  // 32 - Get FreqPS (enthält PI!)
 
-    // Polling (optimiert für langsame RDS-Sender)
-    private static final int POLL_INTERVAL_MS = 150;
-    private static final int RDS_READ_ITERATIONS = 12;  // Mehrere readRds() für besseren RT-Empfang
+    // Polling: Intervall und Anzahl readRds() pro Tick kommen adaptiv aus dem
+    // RdsPollScheduler (Burst nach tune(), Backoff wenn PS/PI/RT stabil sind).
 
-    private final FmNative fmNative;
+    private final FmNativeApi fmNative;
+    /** Main-Thread: Callbacks (onRdsUpdate/onAfSwitch) laufen immer hier. */
     private final Handler handler;
 
-    private RdsCallback callback;
-    private Runnable pollingRunnable;
-    private boolean isPolling = false;
+    /**
+     * Eigener Tuner-Thread für das Polling. Ein Tick macht 12× readRds()
+     * plus ein gutes Dutzend fmsyu_jni-Aufrufe — auf dem Main-Looper hat
+     * das auf UIS7870 sichtbar im Karussell und in der Skala geruckelt.
+     * Wird lazy in startPolling() angelegt und lebt dann so lange wie der
+     * (Application-scoped) RdsManager.
+     */
+    private HandlerThread pollThread;
+    private volatile Handler pollHandler;
+
+    /**
+     * Gemeinsame Tuner-Queue (siehe {@link TunerCommandQueue}). Ist sie
+     * gesetzt, läuft jeder Poll-Tick als ein RDS_POLL-Kommando auf dem
+     * Tuner-Worker — der Poll-Thread taktet nur noch und wartet auf das
+     * Ergebnis. Ein User-tune() hat Vorrang und verwirft wartende Ticks.
+     * Ohne Queue (Tests, alter Aufbau) wird direkt aufgerufen.
+     */
+    private volatile TunerCommandQueue commandQueue;
+    private final Callable<Void> pollTickCommand = () -> {
+        pollRds();
+        return null;
+    };
+
+    private volatile RdsCallback callback;
+    private volatile Runnable pollingRunnable;
+    private volatile boolean isPolling = false;
     private boolean isRadioOn = false;
 
+    /**
+     * Wird von clearRds() hochgezählt. pollRds() merkt sich den Wert zu
+     * Beginn eines Ticks und verwirft das Ergebnis, wenn sich die
+     * Generation währenddessen geändert hat — sonst könnte ein Tick, der
+     * noch auf der alten Frequenz gelesen hat, nach tune()/clearRds() den
+     * PS des vorigen Senders zurückschreiben (Scanner Phase 2!).
+     */
+    private volatile int rdsGeneration = 0;
+    /** Generation, für die psVoter/rtVoter gelten (nur Poll-Thread). */
+    private int pollGeneration = 0;
+    /** Schützt das Übernehmen eines Poll-Ergebnisses gegen clearRds(). */
+    private final Object stateLock = new Object();
+
+    /** Nur vom Poll-Thread benutzt; Debug-Spiegelwerte siehe unten. */
+    private final RdsPollScheduler pollScheduler = new RdsPollScheduler(System.currentTimeMillis());
+    private volatile RdsPollScheduler.Phase pollPhase = RdsPollScheduler.Phase.BURST;
+    private volatile int pollIntervalMs = RdsPollScheduler.BURST_INTERVAL_MS;
+    private volatile int pollReadIterations = RdsPollScheduler.BURST_READ_ITERATIONS;
+
+    /** Zuletzt ausgelieferter Snapshot (nur Poll-Thread); null nach clearRds(). */
+    private RdsSnapshot lastDeliveredSnapshot = null;
+    /** Gesetzt wenn ein neuer Callback registriert wurde — der braucht einmal den vollen Stand. */
+    private volatile boolean deliverFullSnapshot = false;
+
+    /**
+     * Änderungszähler für Warter außerhalb des Callbacks (Scanner Phase 2):
+     * wird bei jedem ausgelieferten Snapshot erhöht, {@link #awaitChange}
+     * blockiert auf {@code changeSignal} statt im Takt zu pollen.
+     */
+    private final Object changeSignal = new Object();
+    private long changeVersion = 0;
+
+    /**
+     * Wiederverwendete Puffer für den Poll-Pfad (nur Poll-Thread). Ein Tick
+     * macht bis zu sechs fmsyu_jni-Aufrufe; früher jeweils mit frischem
+     * Bundle-Paar und neuem String pro Dekodierung, auch wenn sich nichts
+     * geändert hat. Die out-Bundles werden vor jedem Aufruf geleert, damit
+     * keine Keys vom vorigen Tick stehen bleiben.
+     */
+    private final Bundle pollInBundle = new Bundle();
+    private final Bundle pollOutBundle = new Bundle();
+    private final RdsTextBuffer psTextBuffer = new RdsTextBuffer(8);
+    private final RdsTextBuffer rtTextBuffer = new RdsTextBuffer(64);
+
+    /** PS → PI für Sender ohne PI vom Chip; lernt aus Chip-PI + akzeptiertem PS. */
+    private volatile PiPsIndex piPsIndex;
+    private String lookupMemoPs = null;
+    private int lookupMemoVersion = -1;
+    private int lookupMemoPi = 0;
+    /** Kanal-Tabelle, die jeder Poll-Tick nebenbei mit RSSI/PI/PS/AF füttert. */
+    private volatile BandMap bandMap;
+    /**
+     * Frequenz, auf der der Chip zuletzt tatsächlich getunt wurde (tune(),
+     * noteTuned() vom Scanner bzw. beim Start) — Schlüssel für die BandMap,
+     * wenn der Chip seine Frequenz in diesem Tick nicht meldet. Bewusst nicht
+     * die UI-Frequenz: während der TuneCoalescer noch wartet, steht der
+     * Chip auf dem alten Kanal.
+     */
+    private volatile float tunedFrequency = 0f;
+    /** Zuletzt gelerntes Paar dieser Generation (nur Poll-Thread) — einmal pro Sender reicht. */
+    private String learnedPs = null;
+    private int learnedPi = 0;
+
     // Aktuelle RDS-Daten (volatile für Thread-Sicherheit - Scanner liest aus Background-Thread)
     private volatile String currentPs = "";
-    /** Stabilitäts-Filter: zuletzt vom Chip gelieferter PS und wie oft er
-     *  in Folge gleich kam. currentPs wird erst übernommen, wenn der Chip
-     *  zwei Polls in Folge denselben Wert liefert — filtert die typischen
-     *  PS-Bit-Errors (Group-0A-Position falsch dekodiert → Lücken/„E E E").
+    /** Zeichenweise Abstimmung über die Samples eines Senders — filtert die
+     *  typischen PS-Bit-Errors (Group-0A-Position falsch dekodiert →
+     *  Lücken/„E E E"), ohne bei jedem Einzelfehler von vorn zu zählen.
+     *  Nur vom Poll-Thread gelesen/geschrieben.
      */
-    private String lastFetchedPs = "";
-    private int psStableCount = 0;
-    private static final int PS_STABLE_REQUIRED = 5;
+    private final RdsTextVoter psVoter = RdsTextVoter.forPs();
+    private final RdsTextVoter rtVoter = RdsTextVoter.forRt();
+    /** Zwischenstand von psVoter für die Anzeige ("OE_ ____"), "" vor dem ersten Sample. */
+    private volatile String partialPs = "";
+    /** Beginn der aktuellen Generation (tune/clearRds) für die Time-to-PS-Messung. */
+    private volatile long generationStartMs = 0;
+    /** Zeit von tune/clearRds bis zum ersten akzeptierten PS, -1 solange noch keiner. */
+    private volatile long timeToPsMs = -1;
     private volatile String currentRt = "";
     private volatile int currentRssi = 0;
     private volatile int currentPi = 0;
@@ -63,14 +177,14 @@ public class RdsManager {
     private volatile float hardwareFrequency = 0f;  // Echte Frequenz vom FM-Chip
     private volatile float uiFrequency = 0f;        // Vom User eingestellte Frequenz
 
-    // Timestamps für jeden RDS-Wert
-    private long lastPsTimestamp = 0;
-    private long lastPiTimestamp = 0;
-    private long lastPtyTimestamp = 0;
-    private long lastRtTimestamp = 0;
-    private long lastRssiTimestamp = 0;
-    private long lastTpTaTimestamp = 0;
-    private long lastAfTimestamp = 0;
+    // Timestamps für jeden RDS-Wert (Poll-Thread schreibt, Main-Thread liest)
+    private volatile long lastPsTimestamp = 0;
+    private volatile long lastPiTimestamp = 0;
+    private volatile long lastPtyTimestamp = 0;
+    private volatile long lastRtTimestamp = 0;
+    private volatile long lastRssiTimestamp = 0;
+    private volatile long lastTpTaTimestamp = 0;
+    private volatile long lastAfTimestamp = 0;
 
     // Root-Fallback für UIS7870/DUDU7 Geräte (wenn sqlfmservice Binder-Zugriff verweigert wird)
     private SqlFMServiceClient sqlFmClient;
@@ -89,8 +203,55 @@ public class RdsManager {
         this.rootListener = listener;
     }
 
+    public void setCommandQueue(TunerCommandQueue queue) {
+        this.commandQueue = queue;
+    }
+
+    /** Index für den PS → PI-Fallback; null = kein Fallback, kein Lernen. */
+    public void setPiPsIndex(PiPsIndex index) {
+        this.piPsIndex = index;
+    }
+
+    public void setBandMap(BandMap map) {
+        this.bandMap = map;
+    }
+
+    public BandMap getBandMap() {
+        return bandMap;
+    }
+
+    /**
+     * Meldet einen Tune, der nicht über {@link #tune} lief (Scanner, Start
+     * auf der gespeicherten Frequenz), damit die folgenden Poll-Ticks dem
+     * richtigen Kanal zugeordnet werden.
+     */
+    public void noteTuned(float frequency) {
+        tunedFrequency = frequency;
+    }
+
+    public PiPsIndex getPiPsIndex() {
+        return piPsIndex;
+    }
+
+    /** Führt {@code block} über die Tuner-Queue aus, ohne Queue direkt. */
+    private <T> T runOnTuner(TunerCommandQueue.Priority priority, String name, Callable<T> block) throws Exception {
+        TunerCommandQueue queue = commandQueue;
+        if (queue == null) return block.call();
+        return queue.execute(priority, name, block);
+    }
+
     public interface RdsCallback {
         void onRdsUpdate(String ps, String rt, int rssi, int pi, int pty, int tp, int ta, short[] afList);
+        /**
+         * Wird nur gefeuert, wenn sich seit dem letzten Snapshot mindestens
+         * ein Feld geändert hat. Default leitet auf onRdsUpdate() weiter;
+         * Konsumenten, die nur bestimmte Felder brauchen, überschreiben
+         * diese Methode und prüfen {@link RdsSnapshot#hasChanged(int)}.
+         */
+        default void onRdsSnapshot(RdsSnapshot snapshot) {
+            onRdsUpdate(snapshot.ps, snapshot.rt, snapshot.rssi, snapshot.pi, snapshot.pty,
+                    snapshot.tp, snapshot.ta, snapshot.getAfList());
+        }
         /**
          * Default no-op so existing implementers stay valid. Wird gefeuert wenn
          * der FM-Chip auf eine alternative Frequenz (AF) geschaltet hat.
@@ -100,6 +261,11 @@ public class RdsManager {
     }
 
     public RdsManager(FmNative fmNative) {
+        this(new FmNativeAdapter(fmNative));
+    }
+
+    /** Mit beliebiger {@link FmNativeApi} — Tests hängen hier den Simulator an. */
+    public RdsManager(FmNativeApi fmNative) {
         this.fmNative = fmNative;
         this.handler = new Handler(Looper.getMainLooper());
 
@@ -121,11 +287,29 @@ public class RdsManager {
     public boolean enableRds() {
         Log.i(TAG, "=== enableRds() called ===");
 
-        if (!FmNative.isLibraryLoaded()) {
+        if (!fmNative.isLibraryLoaded()) {
             Log.e(TAG, "enableRds: Library not loaded!");
             return false;
         }
 
+        boolean success = false;
+        try {
+            success = runOnTuner(TunerCommandQueue.Priority.USER, "enableRds", this::enableRdsOnChip);
+        } catch (Throwable e) {
+            Log.w(TAG, "enableRds: tuner command failed: " + e.getMessage());
+        }
+
+        // Root-Fallback für UIS7870/DUDU7 Geräte
+        if (!success) {
+            success = enableRdsViaRootFallback();
+        }
+
+        Log.i(TAG, "=== enableRds() done, success=" + success + " ===");
+        return success;
+    }
+
+    /** Die eigentlichen JNI-Aufrufe von enableRds() — ein Tuner-Kommando. */
+    private boolean enableRdsOnChip() {
         boolean success = false;
 
         // Methode 1: Direkt über setRds
@@ -157,13 +341,6 @@ public class RdsManager {
         } catch (Throwable e) {
             Log.w(TAG, "enableRds: readRds failed: " + e.getMessage());
         }
-
-        // Root-Fallback für UIS7870/DUDU7 Geräte
-        if (!success) {
-            success = enableRdsViaRootFallback();
-        }
-
-        Log.i(TAG, "=== enableRds() done, success=" + success + " ===");
         return success;
     }
 
@@ -196,7 +373,7 @@ public class RdsManager {
      * Muss aufgerufen werden um AF-Listen zu empfangen.
      */
     public boolean enableAf(boolean enable) {
-        if (!FmNative.isLibraryLoaded()) return false;
+        if (!fmNative.isLibraryLoaded()) return false;
 
         try {
             Bundle inBundle = new Bundle();
@@ -206,7 +383,8 @@ public class RdsManager {
             inBundle.putInt("configdata", configValue);
             Log.i(TAG, "enableAf: setting configdata=" + configValue);
 
-            int result = fmNative.fmsyu_jni(CMD_RDSAFCONFIG, inBundle, outBundle);
+            int result = runOnTuner(TunerCommandQueue.Priority.USER, "enableAf",
+                    () -> fmNative.fmsyu_jni(CMD_RDSAFCONFIG, inBundle, outBundle));
             Log.i(TAG, "enableAf(" + enable + "): ret=" + result);
 
             return result == 0;
@@ -217,57 +395,106 @@ public class RdsManager {
     }
 
     /**
-     * Startet das RDS-Polling.
+     * Startet das RDS-Polling auf dem Tuner-Thread. Der Callback wird
+     * weiterhin auf dem Main-Thread aufgerufen.
      */
     public void startPolling(RdsCallback callback) {
         this.callback = callback;
+        deliverFullSnapshot = true;
         if (isPolling) return;
 
         isPolling = true;
         isRadioOn = true;
+        if (generationStartMs == 0) generationStartMs = System.currentTimeMillis();
 
-        // AF aktivieren für Alternative Frequencies
-        enableAf(true);
+        Handler poller = ensurePollHandler();
 
         pollingRunnable = new Runnable() {
             @Override
             public void run() {
                 if (!isPolling) return;
-                pollRds();
-                handler.postDelayed(this, POLL_INTERVAL_MS);
+                runPollTick();
+                if (isPolling) {
+                    poller.postDelayed(this, pollScheduler.getIntervalMs());
+                }
             }
         };
-        handler.postDelayed(pollingRunnable, POLL_INTERVAL_MS);
+        // AF aktivieren für Alternative Frequencies — ebenfalls JNI, daher
+        // schon auf dem Tuner-Thread statt beim Aufrufer.
+        poller.post(() -> enableAf(true));
+        poller.postDelayed(pollingRunnable, RdsPollScheduler.BURST_INTERVAL_MS);
         Log.i(TAG, "RDS polling started");
     }
 
+    private synchronized Handler ensurePollHandler() {
+        if (pollHandler == null) {
+            pollThread = new HandlerThread("RdsPoll");
+            pollThread.start();
+            pollHandler = new Handler(pollThread.getLooper());
+        }
+        return pollHandler;
+    }
+
     /**
      * Stoppt das RDS-Polling.
      */
     public void stopPolling() {
         isPolling = false;
         isRadioOn = false;
-        if (pollingRunnable != null) {
-            handler.removeCallbacks(pollingRunnable);
+        if (pollingRunnable != null && pollHandler != null) {
+            pollHandler.removeCallbacks(pollingRunnable);
         }
         Log.i(TAG, "RDS polling stopped");
     }
 
+    private void runPollTick() {
+        try {
+            runOnTuner(TunerCommandQueue.Priority.RDS_POLL, "rdsPoll", pollTickCommand);
+        } catch (CancellationException e) {
+            // User-tune() kam dazwischen — Tick verworfen, der nächste läuft im Burst
+        } catch (Throwable e) {
+            Log.w(TAG, "pollRds failed: " + e.getMessage());
+        }
+    }
+
     /**
-     * Pollt RDS-Daten von der Hardware.
+     * Pollt RDS-Daten von der Hardware. Läuft auf dem Tuner-Worker der
+     * {@link TunerCommandQueue} (bzw. ohne Queue auf dem Poll-Thread) —
+     * in beiden Fällen nie parallel zu sich selbst.
+     *
+     * Alle JNI-Werte werden zuerst in lokale Variablen gelesen und erst am
+     * Ende unter {@link #stateLock} übernommen — so sehen die volatile
+     * Getter (Scanner, MainActivity) nie einen halb geschriebenen Tick,
+     * und ein zwischenzeitliches clearRds() verwirft den Tick komplett.
      */
     private void pollRds() {
-        if (!FmNative.isLibraryLoaded()) {
+        if (!fmNative.isLibraryLoaded()) {
             Log.w(TAG, "pollRds: Library not loaded!");
             return;
         }
 
+        final int generation = rdsGeneration;
+        final float tickTunedFrequency = tunedFrequency;
+        if (generation != pollGeneration) {
+            pollGeneration = generation;
+            psVoter.reset();
+            rtVoter.reset();
+            learnedPs = null;
+            learnedPi = 0;
+            lastDeliveredSnapshot = null;
+            psTextBuffer.reset();
+            rtTextBuffer.reset();
+            pollScheduler.reset(System.currentTimeMillis());
+        }
+
         // WICHTIG: readRds() mehrfach aufrufen um RDS-Decoder zu triggern!
-        // Dies gibt dem Chip mehr Zeit, RT-Daten zu akkumulieren
-        for (int i = 0; i < RDS_READ_ITERATIONS; i++) {
+        // Dies gibt dem Chip mehr Zeit, RT-Daten zu akkumulieren. Im Burst
+        // nach tune() mehr Iterationen, im eingeschwungenen Zustand weniger.
+        final int readIterations = pollScheduler.getReadIterations();
+        for (int i = 0; i < readIterations; i++) {
             try {
                 short rdsResult = fmNative.readRds();
-                if (rdsResult != 0) {
+                if (DEBUG && rdsResult != 0) {
                     Log.d(TAG, "pollRds: readRds()[" + i + "] = " + rdsResult);
                 }
             } catch (Throwable e) {
@@ -275,104 +502,80 @@ public class RdsManager {
             }
         }
 
-        // PS abrufen — zwei Schutz-Ebenen:
-        //  1. Plausibilitäts-Reject: PS mit klaren Korruptions-Mustern
-        //     (Greek/Cyrillic-Mix, „E E E"-Lücken, „E TETEHi"-Singleton-Prefix)
-        //     wird gar nicht erst in den Stabilitäts-Counter eingespeist.
-        //  2. Stabilitäts-Filter: gleicher Wert muss PS_STABLE_REQUIRED-mal
-        //     in Folge ankommen, sonst verworfen.
+        // PS abrufen — zeichenweise Abstimmung statt „N-mal identisch":
+        //  - Samples mit klaren Korruptions-Mustern (Greek/Cyrillic-Mix,
+        //    „E E E"-Lücken, „E TETEHi"-Singleton-Prefix) zählen nur halb,
+        //    Greek/Cyrillic-Zeichen neben Latein gar nicht.
+        //  - Übernommen wird erst, wenn jede Position die Schwelle erreicht;
+        //    ein Einzelfehler kostet nur an seiner Position Zuversicht.
+        String stablePs = null;
         String ps = fetchPs();
-        Log.d(TAG, "pollRds: fetchPs() returned: '" + ps + "'");
+        if (DEBUG) Log.d(TAG, "pollRds: fetchPs() returned: '" + ps + "'");
         if (ps != null && !ps.isEmpty()) {
-            if (isPsSuspicious(ps)) {
-                Log.w(TAG, "PS rejected (suspicious): '" + ps + "'");
-                // Counter NICHT zurücksetzen — sonst würde stabiler Müll
-                // den vorigen plausiblen Wert auf Dauer blockieren. Wir
-                // ignorieren den korrupten Sample einfach.
-            } else {
-                if (ps.equals(lastFetchedPs)) {
-                    psStableCount++;
-                } else {
-                    lastFetchedPs = ps;
-                    psStableCount = 1;
-                    Log.d(TAG, "PS unstable: new value '" + ps + "', count reset");
-                }
-                if (psStableCount >= PS_STABLE_REQUIRED) {
-                    lastPsTimestamp = System.currentTimeMillis();
-                    if (!ps.equals(currentPs)) {
-                        currentPs = ps;
-                        Log.i(TAG, "PS: '" + ps + "' (stable after " + psStableCount + " polls)");
-                    }
-                } else {
-                    Log.d(TAG, "PS held: '" + ps + "' (stable=" + psStableCount + "/" + PS_STABLE_REQUIRED + ")");
-                }
+            boolean suspicious = isPsSuspicious(ps);
+            if (suspicious && DEBUG) Log.d(TAG, "PS suspicious, reduced weight: '" + ps + "'");
+            psVoter.addSample(ps, suspicious);
+            if (psVoter.isLocked()) {
+                stablePs = psVoter.getText();
+            } else if (DEBUG) {
+                Log.d(TAG, "PS held: '" + psVoter.getPartial() + "' (" + psVoter.getSampleCount() + " samples)");
             }
         }
+        final String psPartial = psVoter.getPartial();
 
-        // RT abrufen
+        // RT abrufen — gleiche Abstimmung, niedrigere Schwelle (RT ist lang
+        // und ändert sich oft, zwei übereinstimmende Samples reichen)
         String rt = fetchRt();
-        Log.d(TAG, "pollRds: fetchRt() returned: '" + rt + "'");
+        if (DEBUG) Log.d(TAG, "pollRds: fetchRt() returned: '" + rt + "'");
         if (rt != null && !rt.isEmpty()) {
-            lastRtTimestamp = System.currentTimeMillis();  // RT empfangen - Timestamp aktualisieren
-            if (!rt.equals(currentRt)) {
-                currentRt = rt;
-                Log.i(TAG, "RT: '" + rt + "'");
-            }
+            rtVoter.addSample(rt, false);
+            rt = rtVoter.isLocked() ? rtVoter.getText() : null;
+        } else {
+            rt = null;
         }
 
         // RSSI abrufen
+        boolean rssiRead = false;
+        int rssi = 0;
         try {
-            currentRssi = fmNative.getrssi();
-            lastRssiTimestamp = System.currentTimeMillis();
+            rssi = fmNative.getrssi();
+            rssiRead = true;
         } catch (Throwable e) {
             // Ignorieren
         }
 
-        // PI, PTY, TP, TA via GETRDSSTATE abrufen
+        // PI, PTY, TP, TA via GETRDSSTATE abrufen (-1 bzw. 0 = nicht geliefert)
+        int pty = -1;
+        int pi = 0;
+        int tp = -1;
+        int ta = -1;
         try {
-            Bundle inBundle = new Bundle();
-            Bundle outBundle = new Bundle();
-            int result = fmNative.fmsyu_jni(CMD_GETRDSSTATE, inBundle, outBundle);
+            Bundle outBundle = resetPollBundles();
+            int result = fmNative.fmsyu_jni(CMD_GETRDSSTATE, pollInBundle, outBundle);
 
             if (result == 0) {
-                // PTY
-                int pty = outBundle.getInt("PTYstate", outBundle.getInt("pty", -1));
-                if (pty >= 0) {
-                    currentPty = pty;
-                    lastPtyTimestamp = System.currentTimeMillis();
-                }
+                pty = outBundle.getInt("PTYstate", outBundle.getInt("pty", -1));
+                pi = outBundle.getInt("PIcode", outBundle.getInt("PIstate", 0));
+                tp = outBundle.getInt("TPstate", -1);
+                ta = outBundle.getInt("TAstate", -1);
 
-                // PI
-                int pi = outBundle.getInt("PIcode", outBundle.getInt("PIstate", 0));
-                if (pi != 0) {
-                    currentPi = pi;
-                    lastPiTimestamp = System.currentTimeMillis();
-                }
-
-                // TP/TA
-                int tp = outBundle.getInt("TPstate", -1);
-                int ta = outBundle.getInt("TAstate", -1);
-                if (tp >= 0 || ta >= 0) {
-                    if (tp >= 0) currentTp = tp;
-                    if (ta >= 0) currentTa = ta;
-                    lastTpTaTimestamp = System.currentTimeMillis();
-                }
-
-                Log.d(TAG, "pollRds: GETRDSSTATE -> PI=0x" + Integer.toHexString(currentPi) +
-                      " PTY=" + currentPty + " TP=" + currentTp + " TA=" + currentTa);
+                if (DEBUG) Log.d(TAG, "pollRds: GETRDSSTATE -> PI=0x" + Integer.toHexString(pi) +
+                      " PTY=" + pty + " TP=" + tp + " TA=" + ta);
             }
         } catch (Throwable e) {
             Log.w(TAG, "GETRDSSTATE failed: " + e.getMessage());
         }
+        // Nur der vom Chip dekodierte PI taugt zum Lernen — die Fallbacks
+        // unten raten bzw. kommen selbst aus dem Index.
+        final int chipPi = pi;
 
         // Fallback 1: PI von FmService holen (via Rdscallback Event 14)
-        if (currentPi == 0) {
+        if (pi == 0 && currentPi == 0) {
             try {
                 int fmSvcPi = com.android.fmradio.FmService.getPi();
                 if (fmSvcPi != 0) {
-                    currentPi = fmSvcPi;
-                    lastPiTimestamp = System.currentTimeMillis();
-                    Log.d(TAG, "pollRds: PI from FmService callback: 0x" + Integer.toHexString(currentPi));
+                    pi = fmSvcPi;
+                    Log.d(TAG, "pollRds: PI from FmService callback: 0x" + Integer.toHexString(pi));
                 }
             } catch (Throwable e) {
                 // Ignorieren
@@ -380,11 +583,10 @@ public class RdsManager {
         }
 
         // Fallback 2: PI via RDSGETFREQPS (0x20) - NavRadio+ Methode
-        if (currentPi == 0) {
+        if (pi == 0 && currentPi == 0) {
             try {
-                Bundle inBundle = new Bundle();
-                Bundle outBundle = new Bundle();
-                int result = fmNative.fmsyu_jni(CMD_RDSGETFREQPS, inBundle, outBundle);
+                Bundle outBundle = resetPollBundles();
+                int result = fmNative.fmsyu_jni(CMD_RDSGETFREQPS, pollInBundle, outBundle);
 
                 if (result == 0) {
                     byte[] freqPsData = outBundle.getByteArray("FreqPSname");
@@ -396,14 +598,13 @@ public class RdsManager {
                         int pi3 = ((freqPsData[0] & 0xFF) << 8) | (freqPsData[1] & 0xFF); // BE bytes 0-1
                         int pi4 = ((freqPsData[2] & 0xFF) << 8) | (freqPsData[3] & 0xFF); // BE bytes 2-3
 
-                        // Finde gültigen PI (0x1000-0xFFFF)
-                        for (int candidatePi : new int[]{pi1, pi2, pi3, pi4}) {
-                            if (candidatePi >= 0x1000 && candidatePi <= 0xFFFF) {
-                                currentPi = candidatePi;
-                                lastPiTimestamp = System.currentTimeMillis();
-                                Log.i(TAG, "pollRds: PI from RDSGETFREQPS: 0x" + Integer.toHexString(currentPi));
-                                break;
-                            }
+                        // Finde gültigen PI (0x1000-0xFFFF), Reihenfolge pi1..pi4
+                        if (isPlausiblePi(pi1)) pi = pi1;
+                        else if (isPlausiblePi(pi2)) pi = pi2;
+                        else if (isPlausiblePi(pi3)) pi = pi3;
+                        else if (isPlausiblePi(pi4)) pi = pi4;
+                        if (pi != 0) {
+                            Log.i(TAG, "pollRds: PI from RDSGETFREQPS: 0x" + Integer.toHexString(pi));
                         }
                     }
                 }
@@ -412,29 +613,31 @@ public class RdsManager {
             }
         }
 
-        // Fallback 3: PI anhand PS-Name nachschlagen (bekannte Sender)
-        if (currentPi == 0 && currentPs != null && !currentPs.isEmpty()) {
-            int lookupPi = lookupPiByPs(currentPs);
+        // Fallback 3: PI anhand PS-Name nachschlagen (PiPsIndex)
+        String psForLookup = stablePs != null ? stablePs : currentPs;
+        if (pi == 0 && currentPi == 0 && psForLookup != null && !psForLookup.isEmpty()) {
+            int lookupPi = lookupPiByPs(psForLookup);
             if (lookupPi != 0) {
-                currentPi = lookupPi;
-                lastPiTimestamp = System.currentTimeMillis();
-                Log.d(TAG, "pollRds: PI from PS lookup '" + currentPs + "': 0x" + Integer.toHexString(currentPi));
+                pi = lookupPi;
+                if (DEBUG) Log.d(TAG, "pollRds: PI from PS lookup '" + psForLookup + "': 0x" + Integer.toHexString(pi));
             }
         }
 
         // Hardware-Frequenz abfragen via CMD_CURRENTFREQ (0x12)
         // Um zu erkennen ob sqlfm zu einer AF gewechselt hat
+        float hwFreq = -1f;
         try {
-            Bundle inBundle = new Bundle();
-            Bundle outBundle = new Bundle();
-            int result = fmNative.fmsyu_jni(CMD_CURRENTFREQ, inBundle, outBundle);
-            Log.d(TAG, "pollRds: CMD_CURRENTFREQ returned: " + result + ", bundle size: " + outBundle.size());
+            Bundle outBundle = resetPollBundles();
+            int result = fmNative.fmsyu_jni(CMD_CURRENTFREQ, pollInBundle, outBundle);
+            if (DEBUG) Log.d(TAG, "pollRds: CMD_CURRENTFREQ returned: " + result + ", bundle size: " + outBundle.size());
 
             if (result == 0 && !outBundle.isEmpty()) {
-                // Debug: Alle Keys anzeigen
-                for (String key : outBundle.keySet()) {
-                    Object val = outBundle.get(key);
-                    Log.d(TAG, "pollRds: CURRENTFREQ key='" + key + "' = " + val);
+                // Debug: Alle Keys anzeigen (keySet() allokiert — nur im Debug-Modus)
+                if (DEBUG) {
+                    for (String key : outBundle.keySet()) {
+                        Object val = outBundle.get(key);
+                        Log.d(TAG, "pollRds: CURRENTFREQ key='" + key + "' = " + val);
+                    }
                 }
 
                 // Versuche verschiedene Keys für Frequenz
@@ -442,11 +645,13 @@ public class RdsManager {
                 if (freqInt > 0) {
                     // Frequenz könnte in verschiedenen Formaten sein: 1037 = 103.7, 10370 = 103.70
                     if (freqInt > 10000) {
-                        hardwareFrequency = freqInt / 100.0f;  // 10370 -> 103.70
+                        hwFreq = freqInt / 100.0f;  // 10370 -> 103.70
                     } else {
-                        hardwareFrequency = freqInt / 10.0f;   // 1037 -> 103.7
+                        hwFreq = freqInt / 10.0f;   // 1037 -> 103.7
+                    }
+                    if (hwFreq != hardwareFrequency) {
+                        Log.i(TAG, "pollRds: Hardware freq = " + hwFreq + " MHz (raw: " + freqInt + ")");
                     }
-                    Log.i(TAG, "pollRds: Hardware freq = " + hardwareFrequency + " MHz (raw: " + freqInt + ")");
                 }
             }
         } catch (Throwable e) {
@@ -454,31 +659,25 @@ public class RdsManager {
         }
 
         // AF (Alternative Frequencies) Status abrufen via CMD_GETRDSCONFIG (0x1a)
+        int afConfig = -1;
         try {
-            Bundle inBundle = new Bundle();
-            Bundle outBundle = new Bundle();
-            int result = fmNative.fmsyu_jni(CMD_GETRDSCONFIG, inBundle, outBundle);
+            Bundle outBundle = resetPollBundles();
+            int result = fmNative.fmsyu_jni(CMD_GETRDSCONFIG, pollInBundle, outBundle);
 
             if (result == 0 && !outBundle.isEmpty()) {
-                // AF enabled status
-                int afConfig = outBundle.getInt("AFconfig", -1);
-                if (afConfig >= 0) {
-                    afEnabled = (afConfig == 1);
-                    lastAfTimestamp = System.currentTimeMillis();
-                }
+                afConfig = outBundle.getInt("AFconfig", -1);
             }
         } catch (Throwable e) {
             Log.d(TAG, "pollRds: GETRDSCONFIG failed: " + e.getMessage());
         }
 
         // Methode 2: Via native activeAf() - gibt einzelne AF zurück
+        short activeAf = 0;
         if (currentAfList == null) {
             try {
-                short afFreq = fmNative.activeAf();
-                if (afFreq > 0) {
-                    currentAfList = new short[]{afFreq};
-                    lastAfTimestamp = System.currentTimeMillis();
-                    float freqMhz = afFreq / 10.0f;
+                activeAf = fmNative.activeAf();
+                if (activeAf > 0) {
+                    float freqMhz = activeAf / 10.0f;
                     Log.i(TAG, "pollRds: AF from activeAf(): " + String.format("%.1f MHz", freqMhz));
                 }
             } catch (Throwable e) {
@@ -486,11 +685,141 @@ public class RdsManager {
             }
         }
 
-        Log.d(TAG, "pollRds: currentPs='" + currentPs + "' currentRt='" + currentRt + "' rssi=" + currentRssi);
+        // Ergebnis übernehmen — nur wenn inzwischen niemand clearRds() gerufen hat.
+        final String snapPs;
+        final String snapPsPartial;
+        final String snapRt;
+        final int snapRssi;
+        final int snapPi;
+        final int snapPty;
+        final int snapTp;
+        final int snapTa;
+        final short[] snapAf;
+        final long now;
+        boolean rtChanged = false;
+        synchronized (stateLock) {
+            if (generation != rdsGeneration) {
+                Log.d(TAG, "pollRds: tick discarded (RDS cleared during poll)");
+                return;
+            }
+            now = System.currentTimeMillis();
+
+            partialPs = psPartial;
+            if (stablePs != null) {
+                lastPsTimestamp = now;
+                if (timeToPsMs < 0 && generationStartMs > 0) {
+                    timeToPsMs = now - generationStartMs;
+                }
+                if (!stablePs.equals(currentPs)) {
+                    currentPs = stablePs;
+                    Log.i(TAG, "PS: '" + stablePs + "' (locked after " + psVoter.getSampleCount()
+                            + " samples, time-to-PS " + timeToPsMs + " ms)");
+                }
+            }
+            if (rt != null) {
+                lastRtTimestamp = now;  // RT empfangen - Timestamp aktualisieren
+                if (!rt.equals(currentRt)) {
+                    currentRt = rt;
+                    rtChanged = true;
+                    Log.i(TAG, "RT: '" + rt + "'");
+                }
+            }
+            if (rssiRead) {
+                currentRssi = rssi;
+                lastRssiTimestamp = now;
+            }
+            if (pty >= 0) {
+                currentPty = pty;
+                lastPtyTimestamp = now;
+            }
+            if (pi != 0) {
+                currentPi = pi;
+                lastPiTimestamp = now;
+            }
+            if (tp >= 0 || ta >= 0) {
+                if (tp >= 0) currentTp = tp;
+                if (ta >= 0) currentTa = ta;
+                lastTpTaTimestamp = now;
+            }
+            if (hwFreq > 0) {
+                hardwareFrequency = hwFreq;
+            }
+            if (afConfig >= 0) {
+                afEnabled = (afConfig == 1);
+                lastAfTimestamp = now;
+            }
+            if (activeAf > 0 && currentAfList == null) {
+                currentAfList = new short[]{activeAf};
+                lastAfTimestamp = now;
+            }
+
+            snapPs = currentPs;
+            snapPsPartial = partialPs;
+            snapRt = currentRt;
+            snapRssi = currentRssi;
+            snapPi = currentPi;
+            snapPty = currentPty;
+            snapTp = currentTp;
+            snapTa = currentTa;
+            snapAf = currentAfList;
+        }
+
+        PiPsIndex index = piPsIndex;
+        if (index != null && chipPi != 0 && stablePs != null
+                && !(chipPi == learnedPi && stablePs.equals(learnedPs))) {
+            index.learn(chipPi, stablePs);
+            learnedPi = chipPi;
+            learnedPs = stablePs;
+        }
+
+        // BandMap nur für FM: AM-Frequenzen kommen in kHz (>= 522) und
+        // würden über hwFreq/10 sonst auf einem FM-Kanal landen. Nur der
+        // Chip-PI, nicht der aus dem Index geratene. Ein Tune während des
+        // Ticks (Scanner Phase 1) macht die Zuordnung unsicher → verwerfen.
+        BandMap map = bandMap;
+        float mapFreq = hwFreq > 0 ? hwFreq : tickTunedFrequency;
+        if (map != null && mapFreq > 0 && tickTunedFrequency < AM_MIN_KHZ
+                && tickTunedFrequency == tunedFrequency) {
+            if (rssiRead) map.recordRssi(mapFreq, rssi, now);
+            map.recordRds(mapFreq, chipPi, snapPs, now);
+            map.recordAf(mapFreq, snapAf);
+        }
 
-        // Callback aufrufen
-        if (callback != null) {
-            handler.post(() -> callback.onRdsUpdate(currentPs, currentRt, currentRssi, currentPi, currentPty, currentTp, currentTa, currentAfList));
+        if (DEBUG) Log.d(TAG, "pollRds: currentPs='" + snapPs + "' currentRt='" + snapRt + "' rssi=" + snapRssi);
+
+        pollScheduler.onTick(now, !snapPs.isEmpty(), snapPi != 0, rtChanged, rssiRead ? rssi : -1);
+        RdsPollScheduler.Phase phase = pollScheduler.getPhase();
+        if (phase != pollPhase) {
+            Log.i(TAG, "pollRds: scheduler " + pollPhase + " -> " + phase
+                    + " (" + pollScheduler.getIntervalMs() + " ms, " + pollScheduler.getReadIterations() + "× readRds)");
+        }
+        pollPhase = phase;
+        pollIntervalMs = pollScheduler.getIntervalMs();
+        pollReadIterations = pollScheduler.getReadIterations();
+
+        // Nur Änderungen ausliefern: unveränderte Ticks erzeugen downstream
+        // (Logging, Parser, Deezer, Auto-Sync, Debug-UI) keine Arbeit.
+        if (deliverFullSnapshot) {
+            deliverFullSnapshot = false;
+            lastDeliveredSnapshot = null;
+        }
+        // changeMask() allokiert nichts; Snapshot + AF-Kopie nur bei Änderung.
+        if (RdsSnapshot.changeMask(lastDeliveredSnapshot,
+                snapPs, snapPsPartial, snapRt, snapRssi, snapPi, snapPty, snapTp, snapTa, snapAf) == 0) {
+            return;
+        }
+        final RdsSnapshot snapshot = RdsSnapshot.of(lastDeliveredSnapshot,
+                snapPs, snapPsPartial, snapRt, snapRssi, snapPi, snapPty, snapTp, snapTa, snapAf);
+        lastDeliveredSnapshot = snapshot;
+
+        synchronized (changeSignal) {
+            changeVersion++;
+            changeSignal.notifyAll();
+        }
+
+        final RdsCallback cb = callback;
+        if (cb != null) {
+            handler.post(() -> cb.onRdsSnapshot(snapshot));
         }
     }
 
@@ -501,19 +830,20 @@ public class RdsManager {
     private String fetchPs() {
         // Methode 1: Via fmsyu_jni (NavRadio-Stil) - FMJNI_CMD_30_RDSGETPS
         try {
-            Bundle inBundle = new Bundle();
-            Bundle outBundle = new Bundle();
+            Bundle outBundle = resetPollBundles();
 
-            int result = fmNative.fmsyu_jni(CMD_RDSGETPS, inBundle, outBundle);
-            Log.d(TAG, "fetchPs: fmsyu_jni(0x1e) returned: " + result);
+            int result = fmNative.fmsyu_jni(CMD_RDSGETPS, pollInBundle, outBundle);
+            if (DEBUG) Log.d(TAG, "fetchPs: fmsyu_jni(0x1e) returned: " + result);
 
             if (result == 0) {
                 byte[] psData = outBundle.getByteArray("PSname");
-                Log.d(TAG, "fetchPs: PSname bytes: " + (psData != null ? psData.length : "null"));
+                if (DEBUG) Log.d(TAG, "fetchPs: PSname bytes: " + (psData != null ? psData.length : "null"));
                 if (psData != null && psData.length > 0) {
-                    String ps = cleanRdsString(at.planqton.fytfm.rds.RdsCharset.decode(psData));
-                    Log.d(TAG, "fetchPs: fmsyu_jni PS = '" + ps + "'");
-                    logPsCorruptionDebug("M1-fmsyu_jni", psData, ps);
+                    String ps = psTextBuffer.decode(psData);
+                    if (DEBUG) Log.d(TAG, "fetchPs: fmsyu_jni PS = '" + ps + "'");
+                    if (psTextBuffer.lastDecodeChanged()) {
+                        logPsCorruptionDebug("M1-fmsyu_jni", psData, ps);
+                    }
                     if (!ps.isEmpty()) {
                         return ps;
                     }
@@ -526,11 +856,13 @@ public class RdsManager {
         // Methode 2: Direkter nativer Aufruf
         try {
             byte[] ps = fmNative.getPs();
-            Log.d(TAG, "fetchPs: native getPs() bytes: " + (ps != null ? ps.length : "null"));
+            if (DEBUG) Log.d(TAG, "fetchPs: native getPs() bytes: " + (ps != null ? ps.length : "null"));
             if (ps != null && ps.length > 0) {
-                String result = cleanRdsString(at.planqton.fytfm.rds.RdsCharset.decode(ps));
-                Log.d(TAG, "fetchPs: native getPs = '" + result + "'");
-                logPsCorruptionDebug("M2-getPs", ps, result);
+                String result = psTextBuffer.decode(ps);
+                if (DEBUG) Log.d(TAG, "fetchPs: native getPs = '" + result + "'");
+                if (psTextBuffer.lastDecodeChanged()) {
+                    logPsCorruptionDebug("M2-getPs", ps, result);
+                }
                 if (!result.isEmpty()) {
                     return result;
                 }
@@ -542,7 +874,7 @@ public class RdsManager {
         // Methode 3: getPsString Wrapper
         try {
             String ps = fmNative.getPsString();
-            Log.d(TAG, "fetchPs: getPsString = '" + ps + "'");
+            if (DEBUG) Log.d(TAG, "fetchPs: getPsString = '" + ps + "'");
             if (ps != null && !ps.isEmpty()) {
                 String cleaned = cleanRdsString(ps);
                 logPsCorruptionDebug("M3-getPsString", null, cleaned);
@@ -562,21 +894,22 @@ public class RdsManager {
     private String fetchRt() {
         // Methode 1: Via fmsyu_jni (NavRadio-Stil) - FMJNI_CMD_31_RDSGETTEXT
         try {
-            Bundle inBundle = new Bundle();
-            Bundle outBundle = new Bundle();
+            Bundle outBundle = resetPollBundles();
 
-            int result = fmNative.fmsyu_jni(CMD_RDSGETTEXT, inBundle, outBundle);
-            Log.d(TAG, "fetchRt: fmsyu_jni(0x1f) returned: " + result);
+            int result = fmNative.fmsyu_jni(CMD_RDSGETTEXT, pollInBundle, outBundle);
+            if (DEBUG) Log.d(TAG, "fetchRt: fmsyu_jni(0x1f) returned: " + result);
 
             if (result == 0) {
                 int textSize = outBundle.getInt("TextSize", 0);
-                Log.d(TAG, "fetchRt: TextSize = " + textSize);
+                if (DEBUG) Log.d(TAG, "fetchRt: TextSize = " + textSize);
                 if (textSize > 0) {
                     byte[] textData = outBundle.getByteArray("Text");
                     if (textData != null && textData.length > 0) {
-                        String rt = cleanRdsString(at.planqton.fytfm.rds.RdsCharset.decode(textData));
-                        Log.d(TAG, "fetchRt: fmsyu_jni RT = '" + rt + "'");
-                        logRtCorruptionDebug("M1-fmsyu_jni", textData, rt);
+                        String rt = rtTextBuffer.decode(textData);
+                        if (DEBUG) Log.d(TAG, "fetchRt: fmsyu_jni RT = '" + rt + "'");
+                        if (rtTextBuffer.lastDecodeChanged()) {
+                            logRtCorruptionDebug("M1-fmsyu_jni", textData, rt);
+                        }
                         if (!rt.isEmpty()) {
                             return rt;
                         }
@@ -590,11 +923,13 @@ public class RdsManager {
         // Methode 2: Direkter nativer Aufruf
         try {
             byte[] rt = fmNative.getLrText();
-            Log.d(TAG, "fetchRt: native getLrText() bytes: " + (rt != null ? rt.length : "null"));
+            if (DEBUG) Log.d(TAG, "fetchRt: native getLrText() bytes: " + (rt != null ? rt.length : "null"));
             if (rt != null && rt.length > 0) {
-                String result = cleanRdsString(at.planqton.fytfm.rds.RdsCharset.decode(rt));
-                Log.d(TAG, "fetchRt: native getLrText = '" + result + "'");
-                logRtCorruptionDebug("M2-getLrText", rt, result);
+                String result = rtTextBuffer.decode(rt);
+                if (DEBUG) Log.d(TAG, "fetchRt: native getLrText = '" + result + "'");
+                if (rtTextBuffer.lastDecodeChanged()) {
+                    logRtCorruptionDebug("M2-getLrText", rt, result);
+                }
                 if (!result.isEmpty()) {
                     return result;
                 }
@@ -606,7 +941,7 @@ public class RdsManager {
         // Methode 3: getRadioText Wrapper
         try {
             String rt = fmNative.getRadioText();
-            Log.d(TAG, "fetchRt: getRadioText = '" + rt + "'");
+            if (DEBUG) Log.d(TAG, "fetchRt: getRadioText = '" + rt + "'");
             if (rt != null && !rt.isEmpty()) {
                 String cleaned = cleanRdsString(rt);
                 logRtCorruptionDebug("M3-getRadioText", null, cleaned);
@@ -657,9 +992,9 @@ public class RdsManager {
     }
 
     /**
-     * Hard-Reject-Heuristik für PS. Trifft typische Bit-Error-Muster vom
+     * Plausibilitäts-Heuristik für PS. Trifft typische Bit-Error-Muster vom
      * FM-Chip-Buffer ohne legitime Sender-Namen falsch zu verwerfen. Wenn
-     * true → der Wert wird nicht in den Stabilitäts-Counter eingespeist.
+     * true → das Sample zählt im psVoter nur mit halbem Gewicht.
      *
      * Erkannte Muster:
      *  - Greek/Cyrillic-Codepoints im Mix mit Latin (z.B. „SupŒ;η4ts").
@@ -746,6 +1081,10 @@ public class RdsManager {
             + " hex=" + hex.toString().trim());
     }
 
+    private static boolean isPlausiblePi(int pi) {
+        return pi >= 0x1000 && pi <= 0xFFFF;
+    }
+
     /**
      * Bereinigt RDS-Strings von Steuerzeichen und "not support" Meldungen.
      */
@@ -763,16 +1102,30 @@ public class RdsManager {
         return s;
     }
 
+    /**
+     * Leert das wiederverwendete Bundle-Paar des Poll-Threads und gibt das
+     * out-Bundle zurück. Nur vom Poll-Thread aufrufen.
+     */
+    private Bundle resetPollBundles() {
+        pollInBundle.clear();
+        pollOutBundle.clear();
+        return pollOutBundle;
+    }
+
     /**
      * Tune zu einer Frequenz.
      * Falls FmNative fehlschlägt, wird automatisch Root-Fallback über sqlfmservice versucht.
      */
     public boolean tune(float frequency) {
         Log.i(TAG, "Tune to " + frequency + " MHz");
+        tunedFrequency = frequency;
         clearRds();
 
+        TunerCommandQueue queue = commandQueue;
+        if (queue != null) queue.cancelPending(TunerCommandQueue.Priority.RDS_POLL);
         try {
-            boolean success = fmNative.tune(frequency);
+            boolean success = runOnTuner(TunerCommandQueue.Priority.USER, "tune",
+                    () -> fmNative.tune(frequency));
             if (success) {
                 return true;
             }
@@ -784,6 +1137,49 @@ public class RdsManager {
         return tuneViaRootFallback(frequency);
     }
 
+    /** Rückmeldung von {@link #tuneAsync}, auf dem Main-Thread. */
+    public interface TuneCallback {
+        void onTuned(boolean success);
+    }
+
+    /**
+     * Wie {@link #tune}, wartet aber nicht auf den Chip — für den
+     * Main-Thread. Der Tune (samt Root-Fallback) läuft als USER-Kommando auf
+     * dem Tuner-Thread; {@code onDone} (darf null sein) kommt auf dem
+     * Main-Thread.
+     */
+    public void tuneAsync(float frequency, TuneCallback onDone) {
+        Log.i(TAG, "Tune (async) to " + frequency + " MHz");
+        tunedFrequency = frequency;
+        clearRds();
+
+        TunerCommandQueue queue = commandQueue;
+        if (queue == null) {
+            boolean success = tuneOnChip(frequency);
+            if (onDone != null) onDone.onTuned(success);
+            return;
+        }
+        queue.cancelPending(TunerCommandQueue.Priority.RDS_POLL);
+        queue.submit(TunerCommandQueue.Priority.USER, "tune", () -> tuneOnChip(frequency),
+                (result, error) -> {
+                    if (error != null) Log.w(TAG, "tune(" + frequency + ") failed: " + error.getMessage());
+                    if (onDone != null) {
+                        boolean success = Boolean.TRUE.equals(result);
+                        handler.post(() -> onDone.onTuned(success));
+                    }
+                });
+    }
+
+    /** FmNative-Tune mit Root-Fallback, ohne Queue — Aufrufer ist schon auf dem Tuner-Thread. */
+    private boolean tuneOnChip(float frequency) {
+        try {
+            if (fmNative.tune(frequency)) return true;
+        } catch (Throwable e) {
+            Log.w(TAG, "tune via FmNative failed: " + e.getMessage());
+        }
+        return tuneViaRootFallback(frequency);
+    }
+
     /**
      * Tune über Root-Fallback (sqlfmservice via su)
      */
@@ -815,28 +1211,71 @@ public class RdsManager {
      * Löscht die aktuellen RDS-Daten.
      */
     public void clearRds() {
-        currentPs = "";
-        lastFetchedPs = "";
-        psStableCount = 0;
-        currentRt = "";
-        currentRssi = 0;
-        currentPi = 0;
-        currentPty = 0;
-        currentTp = 0;
-        currentTa = 0;
-        currentAfList = null;
-        // Alle Timestamps zurücksetzen
-        lastPsTimestamp = 0;
-        lastPiTimestamp = 0;
-        lastPtyTimestamp = 0;
-        lastRtTimestamp = 0;
-        lastRssiTimestamp = 0;
-        lastTpTaTimestamp = 0;
-        lastAfTimestamp = 0;
+        synchronized (stateLock) {
+            rdsGeneration++;
+            generationStartMs = System.currentTimeMillis();
+            timeToPsMs = -1;
+            partialPs = "";
+            currentPs = "";
+            currentRt = "";
+            currentRssi = 0;
+            currentPi = 0;
+            currentPty = 0;
+            currentTp = 0;
+            currentTa = 0;
+            currentAfList = null;
+            // Alle Timestamps zurücksetzen
+            lastPsTimestamp = 0;
+            lastPiTimestamp = 0;
+            lastPtyTimestamp = 0;
+            lastRtTimestamp = 0;
+            lastRssiTimestamp = 0;
+            lastTpTaTimestamp = 0;
+            lastAfTimestamp = 0;
+        }
+
+        // Post-Tune-Burst sofort starten statt auf das (evtl. langsame
+        // STEADY-)Intervall des bereits geplanten Ticks zu warten.
+        Handler poller = pollHandler;
+        Runnable runnable = pollingRunnable;
+        if (isPolling && poller != null && runnable != null) {
+            poller.removeCallbacks(runnable);
+            poller.postDelayed(runnable, RdsPollScheduler.BURST_INTERVAL_MS);
+        }
+    }
+
+    /** Aktueller Stand des Änderungszählers, Ausgangswert für {@link #awaitChange}. */
+    public long getChangeVersion() {
+        synchronized (changeSignal) {
+            return changeVersion;
+        }
+    }
+
+    /**
+     * Blockiert, bis nach {@code sinceVersion} ein geänderter Snapshot
+     * ausgeliefert wurde oder {@code timeoutMs} um sind. Unabhängig davon,
+     * ob ein {@link RdsCallback} registriert ist.
+     *
+     * @return neuer Zählerstand; gleich {@code sinceVersion} bei Timeout
+     */
+    public long awaitChange(long sinceVersion, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (changeSignal) {
+            while (changeVersion == sinceVersion) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) break;
+                changeSignal.wait(remaining);
+            }
+            return changeVersion;
+        }
     }
 
     // Getter
     public String getPs() { return currentPs; }
+    /** PS-Zwischenstand der Zeichen-Abstimmung, unsichere Positionen als '_'. */
+    public String getPartialPs() { return partialPs; }
+    /** Zeit von tune/clearRds bis zum ersten akzeptierten PS, -1 wenn (noch) keiner. */
+    public long getTimeToPsMs() { return timeToPsMs; }
     public long getPsAgeMs() { return lastPsTimestamp > 0 ? System.currentTimeMillis() - lastPsTimestamp : -1; }
     public String getRt() { return currentRt; }
     public long getRtAgeMs() { return lastRtTimestamp > 0 ? System.currentTimeMillis() - lastRtTimestamp : -1; }
@@ -853,8 +1292,15 @@ public class RdsManager {
     public boolean isAfEnabled() { return afEnabled; }
     public long getAfAgeMs() { return lastAfTimestamp > 0 ? System.currentTimeMillis() - lastAfTimestamp : -1; }
     public boolean isPolling() { return isPolling; }
+    /** Aktuelle Scheduler-Phase (BURST/ACTIVE/STEADY) — für das Debug-Overlay. */
+    public String getPollPhaseName() { return pollPhase.name(); }
+    public int getPollIntervalMs() { return pollIntervalMs; }
+    public int getPollReadIterations() { return pollReadIterations; }
     public float getHardwareFrequency() { return hardwareFrequency; }
-    public void setUiFrequency(float freq) { this.uiFrequency = freq; }
+    /** Nur für den AF-Vergleich — der Chip-Tune meldet sich über tune()/noteTuned(). */
+    public void setUiFrequency(float freq) {
+        this.uiFrequency = freq;
+    }
     public boolean isUsingAlternateFrequency() {
         // Prüfen ob Hardware auf anderer Frequenz ist als UI zeigt
         // Toleranz von 0.05 MHz für Rundungsfehler
@@ -883,53 +1329,19 @@ public class RdsManager {
     }
 
     /**
-     * PI-Code Lookup anhand des PS-Namens (Fallback wenn Hardware keinen PI liefert).
-     * Bekannte österreichische Sender.
+     * PI-Code Lookup anhand des PS-Namens (Fallback wenn Hardware keinen PI
+     * liefert) über den {@link PiPsIndex}. Nur vom Poll-Thread: läuft bei
+     * unbekanntem PI jeden Tick, darum memoisiert auf (PS, Index-Version) —
+     * derselbe PS kostet danach nur einen Referenzvergleich.
      */
-    public static int lookupPiByPs(String ps) {
-        if (ps == null || ps.isEmpty()) return 0;
-        String psUpper = ps.toUpperCase().trim();
-
-        // ORF Sender (Österreich, Ländercode A = 0xA)
-        if (psUpper.contains("OE3") || psUpper.contains("Ö3") || psUpper.contains("OE 3") || psUpper.contains("HITRAD")) return 0xA503;
-        if (psUpper.contains("OE1") || psUpper.contains("Ö1") || psUpper.contains("OE 1")) return 0xA501;
-        if (psUpper.contains("FM4") || psUpper.contains("FM 4")) return 0xA504;
-        if (psUpper.contains("RADIO WIEN") || psUpper.contains("OE2W")) return 0xA209;
-        if (psUpper.contains("RADIO NOE") || psUpper.contains("OE2N") || psUpper.contains("NÖ")) return 0xA20E;
-        if (psUpper.contains("RADIO BGLD") || psUpper.contains("OE2B") || psUpper.contains("BURGENLAND")) return 0xA211;
-        if (psUpper.contains("RADIO STMK") || psUpper.contains("OE2ST") || psUpper.contains("STEIERMARK")) return 0xA206;
-        if (psUpper.contains("RADIO KTN") || psUpper.contains("OE2K") || psUpper.contains("KÄRNTEN")) return 0xA202;
-        if (psUpper.contains("RADIO OOE") || psUpper.contains("OE2O") || psUpper.contains("OBERÖSTERREICH")) return 0xA204;
-        if (psUpper.contains("RADIO SBG") || psUpper.contains("OE2S") || psUpper.contains("SALZBURG")) return 0xA205;
-        if (psUpper.contains("RADIO TIROL") || psUpper.contains("OE2T")) return 0xA207;
-        if (psUpper.contains("RADIO VBG") || psUpper.contains("OE2V") || psUpper.contains("VORARLBERG")) return 0xA208;
-
-        // Kronehit
-        if (psUpper.contains("KRONEHIT") || psUpper.contains("KRONE HIT")) return 0xA0CA;
-
-        // Antenne Sender
-        if (psUpper.contains("ANTENNE")) {
-            if (psUpper.contains("WIEN")) return 0xA318;
-            if (psUpper.contains("STEI") || psUpper.contains("STMK")) return 0xA31A;
-            if (psUpper.contains("KÄRN") || psUpper.contains("KTN")) return 0xA31B;
-            if (psUpper.contains("SALZ") || psUpper.contains("SBG")) return 0xA31C;
-            if (psUpper.contains("TIROL")) return 0xA31D;
-            if (psUpper.contains("VORARL") || psUpper.contains("VBG")) return 0xA31E;
-            if (psUpper.contains("BAYERN")) return 0xD318;
-        }
-
-        // Life Radio
-        if (psUpper.contains("LIFE RADIO") || psUpper.contains("LIFERADIO")) return 0xA320;
-
-        // Radio Arabella
-        if (psUpper.contains("ARABELLA")) return 0xA350;
-
-        // 88.6 Der Musiksender
-        if (psUpper.contains("88.6") || psUpper.contains("88,6")) return 0xA386;
-
-        // Energy
-        if (psUpper.contains("ENERGY") || psUpper.contains("NRJ")) return 0xA0E0;
-
-        return 0;
+    private int lookupPiByPs(String ps) {
+        PiPsIndex index = piPsIndex;
+        if (index == null || ps == null || ps.isEmpty()) return 0;
+        int version = index.getVersion();
+        if (ps.equals(lookupMemoPs) && version == lookupMemoVersion) return lookupMemoPi;
+        lookupMemoPi = index.lookup(ps);
+        lookupMemoPs = ps;
+        lookupMemoVersion = version;
+        return lookupMemoPi;
     }
 }
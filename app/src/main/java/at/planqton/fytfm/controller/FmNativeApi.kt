@@ -9,8 +9,9 @@ import com.android.fmradio.FmNative
  * Why this exists: `FmNative` declares native methods that load from
  * `libfmjni.so`. JVM-only unit tests can't satisfy those symbols, and
  * mocking native methods needs `mockk-agent-jvm` (not currently in the
- * classpath). Routing [FmAmController] / [at.planqton.fytfm.scanner.RadioScanner]
- * through this interface lets tests substitute a plain MockK mock instead.
+ * classpath). Routing [FmAmController] / [at.planqton.fytfm.scanner.RadioScanner] /
+ * [at.planqton.fytfm.RdsManager] through this interface lets tests
+ * substitute a plain MockK mock instead.
  *
  * Production wiring uses [FmNativeAdapter]. The interface lists exactly
  * the surface the callers need — no more — so the dependency stays minimal.
@@ -38,6 +39,16 @@ interface FmNativeApi {
     fun fmsyu_jni(cmd: Int, inBundle: Bundle, outBundle: Bundle): Int
     fun sql_getrssi(): Int
     fun stopScan(): Boolean
+
+    // ===== RDS-only surface =====
+    // The direct readers [at.planqton.fytfm.RdsManager] falls back to when
+    // `fmsyu_jni` delivers no PS/RT.
+    fun readRds(): Short
+    fun activeAf(): Short
+    fun getPs(): ByteArray?
+    fun getPsString(): String?
+    fun getLrText(): ByteArray?
+    fun getRadioText(): String?
 }
 
 /** Production adapter that forwards every call to the real [FmNative] singleton. */
@@ -59,4 +70,10 @@ class FmNativeAdapter(private val fmNative: FmNative) : FmNativeApi {
         fmNative.fmsyu_jni(cmd, inBundle, outBundle)
     override fun sql_getrssi(): Int = fmNative.sql_getrssi()
     override fun stopScan(): Boolean = fmNative.stopScan()
+    override fun readRds(): Short = fmNative.readRds()
+    override fun activeAf(): Short = fmNative.activeAf()
+    override fun getPs(): ByteArray? = fmNative.getPs()
+    override fun getPsString(): String? = fmNative.getPsString()
+    override fun getLrText(): ByteArray? = fmNative.getLrText()
+    override fun getRadioText(): String? = fmNative.getRadioText()
 }
@@ -0,0 +1,66 @@
+package at.planqton.fytfm.controller
+
+import android.os.Bundle
+import at.planqton.fytfm.controller.TunerCommandQueue.Priority
+import com.android.fmradio.FmNative
+
+/**
+ * [FmNativeApi] decorator that routes every call through a shared
+ * [TunerCommandQueue] at a fixed [priority]. [FmAmController] gets a
+ * [Priority.USER] view, [at.planqton.fytfm.scanner.RadioScanner] a
+ * [Priority.SCAN] view — same chip, same queue, no interleaving.
+ *
+ * A user-priority [tune] additionally drops any queued RDS poll: those
+ * reads were meant for the previous frequency.
+ *
+ * [isLibraryLoaded] is a static flag and bypasses the queue.
+ */
+class QueuedFmNativeApi(
+    private val delegate: FmNativeApi,
+    private val queue: TunerCommandQueue,
+    private val priority: Priority,
+) : FmNativeApi {
+
+    private fun <T> run(
+        name: String,
+        timeoutMs: Long = TunerCommandQueue.DEFAULT_TIMEOUT_MS,
+        block: () -> T,
+    ): T = queue.execute(priority, name, timeoutMs) { block() }
+
+    override fun powerOn(frequency: Float): Boolean = run("powerOn") { delegate.powerOn(frequency) }
+    override fun powerOff(): Boolean = run("powerOff") { delegate.powerOff() }
+    override fun openDev(): Boolean = run("openDev") { delegate.openDev() }
+    override fun powerUp(frequency: Float): Boolean = run("powerUp") { delegate.powerUp(frequency) }
+
+    override fun tune(frequency: Float): Boolean {
+        if (priority == Priority.USER) queue.cancelPending(Priority.RDS_POLL)
+        return run("tune") { delegate.tune(frequency) }
+    }
+
+    override fun seek(frequency: Float, isUp: Boolean): FloatArray? =
+        run("seek", TunerCommandQueue.LONG_TIMEOUT_MS) { delegate.seek(frequency, isUp) }
+    override fun setMute(mute: Boolean): Int = run("setMute") { delegate.setMute(mute) }
+    override fun setMonoMode(enabled: Boolean): Boolean = run("setMonoMode") { delegate.setMonoMode(enabled) }
+    override fun setLocalMode(enabled: Boolean): Boolean = run("setLocalMode") { delegate.setLocalMode(enabled) }
+    override fun setRadioArea(area: Int): Boolean = run("setRadioArea") { delegate.setRadioArea(area) }
+    override fun getrssi(): Int = run("getrssi") { delegate.getrssi() }
+    override fun isLibraryLoaded(): Boolean = delegate.isLibraryLoaded()
+    override fun setRds(enabled: Boolean): Int = run("setRds") { delegate.setRds(enabled) }
+    override fun fmsyu_jni(cmd: Int, inBundle: Bundle, outBundle: Bundle): Int {
+        val timeoutMs = if (cmd == FmNative.CMD_AUTOSCAN) TunerCommandQueue.LONG_TIMEOUT_MS
+                        else TunerCommandQueue.DEFAULT_TIMEOUT_MS
+        return run("fmsyu_jni", timeoutMs) { delegate.fmsyu_jni(cmd, inBundle, outBundle) }
+    }
+    override fun sql_getrssi(): Int = run("sql_getrssi") { delegate.sql_getrssi() }
+
+    // stopScan must be able to interrupt a running CMD_AUTOSCAN, which
+    // itself occupies the queue — so it goes straight to the chip.
+    override fun stopScan(): Boolean = delegate.stopScan()
+
+    override fun readRds(): Short = run("readRds") { delegate.readRds() }
+    override fun activeAf(): Short = run("activeAf") { delegate.activeAf() }
+    override fun getPs(): ByteArray? = run("getPs") { delegate.getPs() }
+    override fun getPsString(): String? = run("getPsString") { delegate.getPsString() }
+    override fun getLrText(): ByteArray? = run("getLrText") { delegate.getLrText() }
+    override fun getRadioText(): String? = run("getRadioText") { delegate.getRadioText() }
+}
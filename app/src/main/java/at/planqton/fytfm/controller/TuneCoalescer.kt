@@ -0,0 +1,98 @@
+package at.planqton.fytfm.controller
+
+import android.os.Handler
+import android.os.SystemClock
+
+/**
+ * Latest-wins coalescing for hardware tunes.
+ *
+ * Dragging the frequency scale, spinning the carousel or holding
+ * next/prev on the steering wheel produces a frequency change every few
+ * milliseconds. The UI should follow each one, but the chip only needs the
+ * frequency the user ends up on — every intermediate tune costs a JNI
+ * round-trip, an RDS reset and MCU traffic.
+ *
+ * Behaviour:
+ *  - A request while idle (no tune within [settleWindowMs]) goes to the
+ *    hardware immediately — a single tap never waits.
+ *  - Further requests inside the window replace the pending target and
+ *    re-arm the timer; only the last one is tuned once input has been
+ *    quiet for [settleWindowMs].
+ *
+ * Not thread-safe: call from the [handler]'s thread only (main thread).
+ */
+class TuneCoalescer(
+    private val handler: Handler,
+    settleWindowMs: Long = DEFAULT_SETTLE_WINDOW_MS,
+    private val hardwareTune: (Float) -> Unit,
+) {
+    companion object {
+        const val DEFAULT_SETTLE_WINDOW_MS = 150L
+        const val MAX_SETTLE_WINDOW_MS = 1_000L
+    }
+
+    var settleWindowMs: Long = settleWindowMs.coerceIn(0L, MAX_SETTLE_WINDOW_MS)
+        set(value) {
+            field = value.coerceIn(0L, MAX_SETTLE_WINDOW_MS)
+        }
+
+    /** All calls to [request]. */
+    var requestedCount = 0L
+        private set
+    /** Requests that actually reached the hardware. */
+    var tunedCount = 0L
+        private set
+    /** Requests superseded by a newer one or cancelled. */
+    var droppedCount = 0L
+        private set
+
+    private var hasPending = false
+    private var pendingFrequency = 0f
+    private var lastTuneAtMs = Long.MIN_VALUE / 2
+
+    private val settleRunnable = Runnable { fire() }
+
+    val hasPendingTune: Boolean get() = hasPending
+
+    fun request(frequency: Float) {
+        requestedCount++
+        val wasPending = hasPending
+        if (wasPending) droppedCount++
+        pendingFrequency = frequency
+        hasPending = true
+
+        handler.removeCallbacks(settleRunnable)
+        val idle = SystemClock.uptimeMillis() - lastTuneAtMs >= settleWindowMs
+        if (!wasPending && idle) {
+            fire()
+        } else {
+            handler.postDelayed(settleRunnable, settleWindowMs)
+        }
+    }
+
+    /** Sends a pending target to the hardware now (e.g. before the Activity goes away). */
+    fun flush() {
+        if (!hasPending) return
+        handler.removeCallbacks(settleRunnable)
+        fire()
+    }
+
+    /** Drops a pending target without tuning (e.g. on mode switch). */
+    fun cancel() {
+        if (!hasPending) return
+        handler.removeCallbacks(settleRunnable)
+        hasPending = false
+        droppedCount++
+    }
+
+    fun summary(): String = "req=$requestedCount tuned=$tunedCount dropped=$droppedCount"
+
+    private fun fire() {
+        if (!hasPending) return
+        hasPending = false
+        val frequency = pendingFrequency
+        lastTuneAtMs = SystemClock.uptimeMillis()
+        tunedCount++
+        hardwareTune(frequency)
+    }
+}
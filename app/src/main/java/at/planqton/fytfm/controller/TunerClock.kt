@@ -0,0 +1,22 @@
+package at.planqton.fytfm.controller
+
+/**
+ * Time source for code that paces itself against the tuner (settle waits,
+ * dwell statistics, scan ETAs).
+ *
+ * Production uses [SYSTEM]. A JVM test can pass a virtual clock together
+ * with a simulated [FmNativeApi], so a full-band scan runs in milliseconds
+ * and its measured duration is the modelled hardware time, not the time
+ * the test machine happened to take.
+ */
+interface TunerClock {
+    fun nowMs(): Long
+    fun sleep(ms: Long)
+
+    companion object {
+        val SYSTEM: TunerClock = object : TunerClock {
+            override fun nowMs(): Long = System.currentTimeMillis()
+            override fun sleep(ms: Long) = Thread.sleep(ms)
+        }
+    }
+}
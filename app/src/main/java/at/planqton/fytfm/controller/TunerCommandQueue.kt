@@ -0,0 +1,309 @@
+package at.planqton.fytfm.controller
+
+import android.util.Log
+import java.util.concurrent.Callable
+import java.util.concurrent.CancellationException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.PriorityBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Single-threaded, prioritised queue for every call into the FM chip.
+ *
+ * Why this exists: `RdsManager` polls from its own thread, `RadioScanner`
+ * tunes and reads RSSI from a `thread {}`, and [FmAmController] calls in
+ * from the main thread — all against the same `FmNative` singleton with
+ * nothing ordering them. A poll tick landing between a scan step's
+ * `tune()` and its RSSI read made the chip report the wrong station.
+ *
+ * All commands run one at a time on one worker thread, highest
+ * [Priority] first (FIFO within a priority). [execute] blocks on the
+ * result with a timeout, so a native call that never returns costs the
+ * caller at most that timeout instead of hanging forever; the main thread
+ * should use [submit], which only queues and reports back through a
+ * callback.
+ *
+ * There is only ever one worker — two threads inside the chip is exactly
+ * what this class prevents. If the running command exceeds
+ * [stuckThresholdMs] (or its own longer timeout), the queue reports it as
+ * stuck ([stuckCommand]) and [execute] fails right away with
+ * [TunerTimeoutException] instead of queueing behind it; commands already
+ * queued run once the native call finally returns.
+ *
+ * Calls made from the worker thread itself run inline (no deadlock on
+ * nested use). Timing per priority is available via [stats].
+ */
+class TunerCommandQueue(
+    private val threadName: String = "TunerCmd",
+    private val stuckThresholdMs: Long = DEFAULT_STUCK_THRESHOLD_MS,
+) {
+    companion object {
+        private const val TAG = "TunerCommandQueue"
+
+        /** Default caller-side timeout. Tune on UIS7870 takes ~40–80 ms. */
+        const val DEFAULT_TIMEOUT_MS = 2_000L
+        /** For commands that legitimately take long: seek, hardware autoscan. */
+        const val LONG_TIMEOUT_MS = 60_000L
+        const val DEFAULT_STUCK_THRESHOLD_MS = 3_000L
+    }
+
+    /** Lower ordinal = served first. */
+    enum class Priority { USER, SCAN, RDS_POLL }
+
+    /**
+     * Thrown to the caller when a command did not finish within its
+     * timeout, or right away while the worker is stuck.
+     */
+    class TunerTimeoutException(message: String) : RuntimeException(message)
+
+    /**
+     * Completion callback for [submit]: the result, or the failure
+     * ([CancellationException] when dropped via [cancelPending]).
+     */
+    fun interface Callback<T> {
+        fun onDone(result: T?, error: Throwable?)
+    }
+
+    /** Per-priority counters. Times are in milliseconds. */
+    data class Stats(
+        val executed: Long,
+        val cancelled: Long,
+        val timedOut: Long,
+        val totalRunMs: Long,
+        val maxRunMs: Long,
+        val totalWaitMs: Long,
+        val maxWaitMs: Long,
+    ) {
+        val avgRunMs: Long get() = if (executed > 0) totalRunMs / executed else 0
+        val avgWaitMs: Long get() = if (executed > 0) totalWaitMs / executed else 0
+    }
+
+    private class Counters {
+        val executed = AtomicLong()
+        val cancelled = AtomicLong()
+        val timedOut = AtomicLong()
+        val totalRunNs = AtomicLong()
+        val maxRunNs = AtomicLong()
+        val totalWaitNs = AtomicLong()
+        val maxWaitNs = AtomicLong()
+    }
+
+    private inner class Command<T>(
+        val name: String,
+        val priority: Priority,
+        val timeoutMs: Long,
+        callable: Callable<T>,
+        private val onDone: Callback<T>? = null,
+    ) : FutureTask<T>(callable), Comparable<Command<*>> {
+        val seq = sequence.getAndIncrement()
+        val enqueuedNs = System.nanoTime()
+
+        override fun compareTo(other: Command<*>): Int {
+            val p = priority.ordinal.compareTo(other.priority.ordinal)
+            return if (p != 0) p else seq.compareTo(other.seq)
+        }
+
+        override fun done() {
+            val callback = onDone ?: return
+            var result: T? = null
+            var error: Throwable? = null
+            try {
+                result = get()
+            } catch (e: ExecutionException) {
+                error = e.cause ?: e
+            } catch (e: CancellationException) {
+                error = e
+            }
+            try {
+                callback.onDone(result, error)
+            } catch (e: Exception) {
+                Log.w(TAG, "callback of '$name' failed: ${e.message}")
+            }
+        }
+    }
+
+    private val sequence = AtomicLong()
+    private val queue = PriorityBlockingQueue<Command<*>>()
+    private val counters = Priority.values().associateWith { Counters() }
+
+    private val lock = Any()
+    private var worker: Thread? = null
+    private var stuckCount = 0
+    private var lastStuck: Command<*>? = null
+
+    @Volatile private var running: Command<*>? = null
+    @Volatile private var runningSinceNs = 0L
+
+    /**
+     * Runs [block] on the tuner thread and waits for the result.
+     *
+     * @throws TunerTimeoutException if it did not finish within [timeoutMs]
+     *         (the command is cancelled if it had not started yet), or
+     *         right away while [stuckCommand] is set
+     * @throws CancellationException if it was cancelled via [cancelPending]
+     * @throws Exception whatever [block] threw
+     */
+    @JvmOverloads
+    fun <T> execute(
+        priority: Priority,
+        name: String,
+        timeoutMs: Long = DEFAULT_TIMEOUT_MS,
+        block: Callable<T>,
+    ): T {
+        if (isWorkerThread()) return block.call()
+
+        stuckCommand()?.let { stuck ->
+            counters.getValue(priority).timedOut.incrementAndGet()
+            throw TunerTimeoutException("$name not queued, tuner stuck in '$stuck'")
+        }
+        val command = Command(name, priority, timeoutMs, block)
+        enqueue(command)
+        try {
+            return command.get(timeoutMs, TimeUnit.MILLISECONDS)
+        } catch (e: TimeoutException) {
+            command.cancel(false)
+            counters.getValue(priority).timedOut.incrementAndGet()
+            Log.w(TAG, "$priority '$name' timed out after ${timeoutMs}ms (running: ${running?.name})")
+            throw TunerTimeoutException("$name timed out after ${timeoutMs}ms")
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    /**
+     * Queues [block] without waiting — for callers on the main thread.
+     * [onDone] runs on the tuner thread once it finished (or on the thread
+     * that cancelled it). Calls from the worker thread are queued as well.
+     */
+    @JvmOverloads
+    fun <T> submit(
+        priority: Priority,
+        name: String,
+        block: Callable<T>,
+        onDone: Callback<T>? = null,
+    ): Future<T> {
+        val command = Command(name, priority, DEFAULT_TIMEOUT_MS, block, onDone)
+        enqueue(command)
+        return command
+    }
+
+    /**
+     * Drops all not-yet-started commands of [priority]. Their callers get a
+     * [CancellationException]. Used on user tune to throw away RDS reads
+     * queued for the previous frequency.
+     */
+    fun cancelPending(priority: Priority): Int {
+        var dropped = 0
+        val it = queue.iterator()
+        while (it.hasNext()) {
+            val command = it.next()
+            if (command.priority == priority) {
+                it.remove()
+                command.cancel(false)
+                dropped++
+            }
+        }
+        if (dropped > 0) counters.getValue(priority).cancelled.addAndGet(dropped.toLong())
+        return dropped
+    }
+
+    fun stats(priority: Priority): Stats {
+        val c = counters.getValue(priority)
+        return Stats(
+            executed = c.executed.get(),
+            cancelled = c.cancelled.get(),
+            timedOut = c.timedOut.get(),
+            totalRunMs = TimeUnit.NANOSECONDS.toMillis(c.totalRunNs.get()),
+            maxRunMs = TimeUnit.NANOSECONDS.toMillis(c.maxRunNs.get()),
+            totalWaitMs = TimeUnit.NANOSECONDS.toMillis(c.totalWaitNs.get()),
+            maxWaitMs = TimeUnit.NANOSECONDS.toMillis(c.maxWaitNs.get()),
+        )
+    }
+
+    /** Number of commands waiting to run. */
+    fun pendingCount(): Int = queue.size
+
+    /**
+     * Name of the running command if it exceeded [stuckThresholdMs] (or its
+     * own longer timeout), null otherwise.
+     */
+    fun stuckCommand(): String? {
+        synchronized(lock) {
+            val current = running ?: return null
+            // Long-running commands (CMD_AUTOSCAN, seek) pass a larger
+            // timeout and are only considered stuck after that.
+            val limitMs = maxOf(stuckThresholdMs, current.timeoutMs)
+            if (System.nanoTime() - runningSinceNs <= TimeUnit.MILLISECONDS.toNanos(limitMs)) return null
+            if (current !== lastStuck) {
+                lastStuck = current
+                stuckCount++
+                Log.e(TAG, "'${current.name}' stuck for >${limitMs}ms — failing callers until it returns")
+            }
+            return current.name
+        }
+    }
+
+    /** How many commands got stuck since start. */
+    fun stuckCount(): Int = synchronized(lock) { stuckCount }
+
+    /** Compact one-liner for the debug overlay. */
+    fun summary(): String = Priority.values().joinToString(" ") { p ->
+        val s = stats(p)
+        "${p.name.first()}:${s.executed}/${s.avgRunMs}ms"
+    } + if (queue.isNotEmpty()) " q=${queue.size}" else ""
+
+    private fun isWorkerThread(): Boolean = Thread.currentThread() === synchronized(lock) { worker }
+
+    private fun enqueue(command: Command<*>) {
+        synchronized(lock) {
+            if (worker == null) {
+                worker = Thread(::runLoop, threadName).apply {
+                    isDaemon = true
+                    start()
+                }
+            }
+        }
+        queue.add(command)
+    }
+
+    private fun runLoop() {
+        while (true) {
+            val command = try {
+                queue.take()
+            } catch (e: InterruptedException) {
+                return
+            }
+            if (command.isCancelled) continue
+
+            val startNs = System.nanoTime()
+            synchronized(lock) {
+                runningSinceNs = startNs
+                running = command
+            }
+            command.run()
+            val endNs = System.nanoTime()
+
+            synchronized(lock) {
+                running = null
+                if (lastStuck === command) {
+                    lastStuck = null
+                    Log.w(TAG, "'${command.name}' returned after ${TimeUnit.NANOSECONDS.toMillis(endNs - startNs)}ms")
+                }
+            }
+            record(command, startNs - command.enqueuedNs, endNs - startNs)
+        }
+    }
+
+    private fun record(command: Command<*>, waitNs: Long, runNs: Long) {
+        val c = counters.getValue(command.priority)
+        c.executed.incrementAndGet()
+        c.totalRunNs.addAndGet(runNs)
+        c.totalWaitNs.addAndGet(waitNs)
+        c.maxRunNs.accumulateAndGet(runNs) { a, b -> maxOf(a, b) }
+        c.maxWaitNs.accumulateAndGet(waitNs) { a, b -> maxOf(a, b) }
+    }
+}
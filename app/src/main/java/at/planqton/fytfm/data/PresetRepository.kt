@@ -2,6 +2,7 @@ package at.planqton.fytfm.data
 
 import android.content.Context
 import at.planqton.fytfm.data.settings.AppSettingsRepository
+import at.planqton.fytfm.data.stations.StationDiff
 import at.planqton.fytfm.data.stations.StationRepository
 import kotlinx.coroutines.flow.StateFlow
 
@@ -59,6 +60,10 @@ class PresetRepository(context: Context) {
     ): Pair<List<RadioStation>, List<RadioStation>> =
         stationRepository.mergeScannedStations(scannedStations, isAM)
 
+    /** Inkrementeller FM-Rescan: wie [mergeScannedStations], aber als Diff. */
+    fun applyFmDiff(diff: StationDiff): Pair<List<RadioStation>, List<RadioStation>> =
+        stationRepository.applyFmDiff(diff)
+
     fun mergeDabScannedStations(scannedStations: List<RadioStation>): List<RadioStation> =
         stationRepository.mergeDabScannedStations(scannedStations)
 
@@ -80,6 +85,10 @@ class PresetRepository(context: Context) {
         settings.setDeezerEnabledForFrequency(frequency, enabled)
     fun isDeezerCacheEnabled(): Boolean = settings.isDeezerCacheEnabled()
     fun setDeezerCacheEnabled(enabled: Boolean) = settings.setDeezerCacheEnabled(enabled)
+    fun getDeezerCacheMaxBytes(): Long = settings.getDeezerCacheMaxBytes()
+    fun setDeezerCacheMaxBytes(bytes: Long) = settings.setDeezerCacheMaxBytes(bytes)
+    fun getDeezerCacheMaxTracks(): Int = settings.getDeezerCacheMaxTracks()
+    fun setDeezerCacheMaxTracks(tracks: Int) = settings.setDeezerCacheMaxTracks(tracks)
 
     fun isShowDebugInfos(): Boolean = settings.isShowDebugInfos()
     fun setShowDebugInfos(enabled: Boolean) = settings.setShowDebugInfos(enabled)
@@ -185,6 +194,9 @@ class PresetRepository(context: Context) {
     fun getTickSoundVolume(): Int = settings.getTickSoundVolume()
     fun setTickSoundVolume(volume: Int) = settings.setTickSoundVolume(volume)
 
+    fun getTuneSettleWindowMs(): Long = settings.getTuneSettleWindowMs()
+    fun setTuneSettleWindowMs(ms: Long) = settings.setTuneSettleWindowMs(ms)
+
     fun isCoverSourceLocked(): Boolean = settings.isCoverSourceLocked()
     fun setCoverSourceLocked(locked: Boolean) = settings.setCoverSourceLocked(locked)
     fun getLockedCoverSource(): String? = settings.getLockedCoverSource()
@@ -0,0 +1,277 @@
+package at.planqton.fytfm.data.band
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+
+/**
+ * What the app last saw on every FM channel, kept up to date as a side
+ * effect of normal operation instead of only by an explicit scan.
+ *
+ * One slot per 100 kHz channel, indexed by `(freq - FM_MIN) / FM_STEP`,
+ * backed by parallel primitive arrays: last RSSI and when it was read,
+ * last PI/PS and when they were decoded, and the AF channels the station
+ * announced (one bit per channel). Every read and write is O(1) and
+ * never touches the tuner.
+ *
+ * Writers: the RDS poll (RSSI/PI/PS/AF of whatever the chip is tuned to,
+ * which covers tunes and seeks) and the scanner (RSSI of every channel in
+ * Phase 1, PS/PI in Phase 2). [BandMapRepository] persists it.
+ *
+ * Thread-safe; writers come from the poll thread, the scan thread and
+ * the main thread.
+ */
+class BandMap {
+
+    companion object {
+        const val FM_MIN = 87.5f
+        const val FM_MAX = 108.0f
+        const val FM_STEP = 0.1f
+
+        /** 87.5 … 108.0 MHz in 100 kHz steps. */
+        const val CHANNELS = 206
+
+        private const val AF_WORDS = (CHANNELS + 63) / 64
+        private const val MAGIC = 0x464D424D // "FMBM"
+        private const val FORMAT_VERSION = 1
+        private const val RDS_REFRESH_MS = 1_000L
+
+        /** Slot for [freqMHz], -1 outside the FM band. */
+        fun channelOf(freqMHz: Float): Int {
+            val channel = Math.round((freqMHz - FM_MIN) / FM_STEP)
+            return if (channel in 0 until CHANNELS) channel else -1
+        }
+
+        fun frequencyOf(channel: Int): Float = Math.round((FM_MIN + channel * FM_STEP) * 10f) / 10f
+    }
+
+    private val lock = Any()
+    private val rssi = IntArray(CHANNELS)
+    private val rssiTime = LongArray(CHANNELS)
+    private val pi = IntArray(CHANNELS)
+    private val ps = arrayOfNulls<String>(CHANNELS)
+    private val rdsTime = LongArray(CHANNELS)
+    private val af = LongArray(CHANNELS * AF_WORDS)
+
+    /** Bumped on every change; lets readers and the persister skip unchanged maps. */
+    @Volatile
+    var version = 0
+        private set
+
+    /** Called after a change, outside the lock. Used for debounced saving. */
+    @Volatile
+    var onChanged: (() -> Unit)? = null
+
+    // ===== Writers =====
+
+    fun recordRssi(freqMHz: Float, value: Int, now: Long = System.currentTimeMillis()) {
+        val ch = channelOf(freqMHz)
+        if (ch < 0 || value !in 1..99) return
+        synchronized(lock) {
+            rssi[ch] = value
+            rssiTime[ch] = now
+            version++
+        }
+        onChanged?.invoke()
+    }
+
+    /** PI 0 and empty PS count as "not decoded" and leave the stored value alone. */
+    fun recordRds(freqMHz: Float, piCode: Int, psName: String?, now: Long = System.currentTimeMillis()) {
+        val ch = channelOf(freqMHz)
+        val name = psName?.trim()?.ifEmpty { null }
+        if (ch < 0 || (piCode == 0 && name == null)) return
+        synchronized(lock) {
+            val changed = (piCode != 0 && piCode != pi[ch]) || (name != null && name != ps[ch])
+            // Unchanged data from every poll tick only refreshes the timestamp once a second
+            if (!changed && now - rdsTime[ch] < RDS_REFRESH_MS) return
+            if (piCode != 0) pi[ch] = piCode
+            if (name != null) ps[ch] = name
+            rdsTime[ch] = now
+            version++
+        }
+        onChanged?.invoke()
+    }
+
+    /**
+     * AF list as delivered by the chip (MHz × 10, e.g. 985 = 98.5 MHz).
+     * Replaces the channel's previous AF set.
+     */
+    fun recordAf(freqMHz: Float, afList: ShortArray?) {
+        val ch = channelOf(freqMHz)
+        if (ch < 0 || afList == null || afList.isEmpty()) return
+        synchronized(lock) {
+            val base = ch * AF_WORDS
+            var changed = false
+            val words = LongArray(AF_WORDS)
+            for (raw in afList) {
+                val target = channelOf(raw / 10f)
+                if (target >= 0 && target != ch) words[target ushr 6] = words[target ushr 6] or (1L shl (target and 63))
+            }
+            for (w in 0 until AF_WORDS) {
+                if (af[base + w] != words[w]) {
+                    af[base + w] = words[w]
+                    changed = true
+                }
+            }
+            if (!changed) return
+            version++
+        }
+        onChanged?.invoke()
+    }
+
+    fun clear() {
+        synchronized(lock) {
+            rssi.fill(0)
+            rssiTime.fill(0)
+            pi.fill(0)
+            ps.fill(null)
+            rdsTime.fill(0)
+            af.fill(0)
+            version++
+        }
+        onChanged?.invoke()
+    }
+
+    // ===== Readers =====
+
+    /** Last RSSI on [freqMHz], 0 if never measured. */
+    fun rssiAt(freqMHz: Float): Int {
+        val ch = channelOf(freqMHz)
+        return if (ch < 0) 0 else synchronized(lock) { rssi[ch] }
+    }
+
+    /** Age of the RSSI on [freqMHz] in ms, -1 if never measured. */
+    fun rssiAgeMs(freqMHz: Float, now: Long = System.currentTimeMillis()): Long {
+        val ch = channelOf(freqMHz)
+        if (ch < 0) return -1
+        val t = synchronized(lock) { rssiTime[ch] }
+        return if (t == 0L) -1 else now - t
+    }
+
+    fun piAt(freqMHz: Float): Int {
+        val ch = channelOf(freqMHz)
+        return if (ch < 0) 0 else synchronized(lock) { pi[ch] }
+    }
+
+    fun psAt(freqMHz: Float): String? {
+        val ch = channelOf(freqMHz)
+        return if (ch < 0) null else synchronized(lock) { ps[ch] }
+    }
+
+    /** Age of the PI/PS on [freqMHz] in ms, -1 if never decoded. */
+    fun rdsAgeMs(freqMHz: Float, now: Long = System.currentTimeMillis()): Long {
+        val ch = channelOf(freqMHz)
+        if (ch < 0) return -1
+        val t = synchronized(lock) { rdsTime[ch] }
+        return if (t == 0L) -1 else now - t
+    }
+
+    /** AF frequencies announced on [freqMHz], ascending. */
+    fun afsOf(freqMHz: Float): FloatArray {
+        val ch = channelOf(freqMHz)
+        if (ch < 0) return FloatArray(0)
+        val words = synchronized(lock) { af.copyOfRange(ch * AF_WORDS, (ch + 1) * AF_WORDS) }
+        var count = 0
+        for (w in words) count += java.lang.Long.bitCount(w)
+        val result = FloatArray(count)
+        var i = 0
+        for (target in 0 until CHANNELS) {
+            if (words[target ushr 6] and (1L shl (target and 63)) != 0L) result[i++] = frequencyOf(target)
+        }
+        return result
+    }
+
+    /** Channels with the same PI as [freqMHz] — the station's other transmitters we have seen. */
+    fun sameProgrammeAs(freqMHz: Float): FloatArray {
+        val ch = channelOf(freqMHz)
+        if (ch < 0) return FloatArray(0)
+        synchronized(lock) {
+            val code = pi[ch]
+            if (code == 0) return FloatArray(0)
+            return (0 until CHANNELS).filter { it != ch && pi[it] == code }.map { frequencyOf(it) }.toFloatArray()
+        }
+    }
+
+    /**
+     * Channels whose RSSI, measured within [maxAgeMs], reached [threshold]
+     * — the candidates a scan can start from. Ascending.
+     */
+    fun channelsAbove(threshold: Int, maxAgeMs: Long, now: Long = System.currentTimeMillis()): FloatArray {
+        synchronized(lock) {
+            return (0 until CHANNELS)
+                .filter { rssiTime[it] != 0L && now - rssiTime[it] <= maxAgeMs && rssi[it] >= threshold }
+                .map { frequencyOf(it) }
+                .toFloatArray()
+        }
+    }
+
+    // ===== Persistence =====
+
+    /**
+     * Writes only the channels we know something about: per channel its
+     * index, RSSI, timestamps, PI, PS and AF words. A few KB for a full band.
+     */
+    fun writeTo(out: DataOutputStream) {
+        synchronized(lock) {
+            val used = (0 until CHANNELS).filter { rssiTime[it] != 0L || rdsTime[it] != 0L || hasAf(it) }
+            out.writeInt(MAGIC)
+            out.writeByte(FORMAT_VERSION)
+            out.writeShort(used.size)
+            for (ch in used) {
+                out.writeShort(ch)
+                out.writeByte(rssi[ch])
+                out.writeLong(rssiTime[ch])
+                out.writeInt(pi[ch])
+                out.writeUTF(ps[ch] ?: "")
+                out.writeLong(rdsTime[ch])
+                for (w in 0 until AF_WORDS) out.writeLong(af[ch * AF_WORDS + w])
+            }
+        }
+    }
+
+    /**
+     * Replaces the content with what [writeTo] produced. Unknown format or
+     * a truncated stream leaves the map empty rather than half-filled.
+     */
+    @Throws(IOException::class)
+    fun readFrom(input: DataInputStream): Boolean {
+        if (input.readInt() != MAGIC || input.readUnsignedByte() != FORMAT_VERSION) return false
+        val count = input.readUnsignedShort()
+        val channels = IntArray(count)
+        val rssiIn = IntArray(count)
+        val rssiTimeIn = LongArray(count)
+        val piIn = IntArray(count)
+        val psIn = arrayOfNulls<String>(count)
+        val rdsTimeIn = LongArray(count)
+        val afIn = LongArray(count * AF_WORDS)
+        for (i in 0 until count) {
+            channels[i] = input.readUnsignedShort()
+            rssiIn[i] = input.readUnsignedByte()
+            rssiTimeIn[i] = input.readLong()
+            piIn[i] = input.readInt()
+            psIn[i] = input.readUTF().ifEmpty { null }
+            rdsTimeIn[i] = input.readLong()
+            for (w in 0 until AF_WORDS) afIn[i * AF_WORDS + w] = input.readLong()
+            if (channels[i] >= CHANNELS) return false
+        }
+        synchronized(lock) {
+            rssi.fill(0); rssiTime.fill(0); pi.fill(0); ps.fill(null); rdsTime.fill(0); af.fill(0)
+            for (i in 0 until count) {
+                val ch = channels[i]
+                rssi[ch] = rssiIn[i]
+                rssiTime[ch] = rssiTimeIn[i]
+                pi[ch] = piIn[i]
+                ps[ch] = psIn[i]
+                rdsTime[ch] = rdsTimeIn[i]
+                for (w in 0 until AF_WORDS) af[ch * AF_WORDS + w] = afIn[i * AF_WORDS + w]
+            }
+            version++
+        }
+        return true
+    }
+
+    private fun hasAf(ch: Int): Boolean {
+        for (w in 0 until AF_WORDS) if (af[ch * AF_WORDS + w] != 0L) return true
+        return false
+    }
+}
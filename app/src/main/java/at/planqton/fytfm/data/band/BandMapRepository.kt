@@ -0,0 +1,79 @@
+package at.planqton.fytfm.data.band
+
+import android.content.Context
+import android.util.Log
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Loads and persists the [BandMap] as a small binary file in `filesDir`.
+ *
+ * The map changes on every RDS poll tick, so saving is debounced: the
+ * first change schedules one write [SAVE_DELAY_MS] later, everything in
+ * between rides along. The write goes to a temp file that is renamed
+ * over the old one, so a crash mid-write keeps the previous map.
+ */
+class BandMapRepository(context: Context) {
+
+    companion object {
+        private const val TAG = "BandMapRepo"
+        private const val FILE_NAME = "band_map.bin"
+        private const val SAVE_DELAY_MS = 30_000L
+    }
+
+    val bandMap = BandMap()
+
+    private val file = File(context.filesDir, FILE_NAME)
+    private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+    private val saveScheduled = AtomicBoolean(false)
+    private var savedVersion = -1
+
+    init {
+        bandMap.onChanged = { scheduleSave() }
+    }
+
+    /** Reads the persisted map in the background. Call once on app start. */
+    fun load(): Job = scope.launch {
+        if (!file.exists()) return@launch
+        try {
+            val ok = DataInputStream(file.inputStream().buffered()).use { bandMap.readFrom(it) }
+            savedVersion = bandMap.version
+            Log.i(TAG, if (ok) "Band map loaded (${file.length()} bytes)" else "Band map format unknown, starting empty")
+        } catch (e: Exception) {
+            Log.w(TAG, "Band map not loaded: ${e.message}")
+        }
+    }
+
+    private fun scheduleSave() {
+        if (!saveScheduled.compareAndSet(false, true)) return
+        scope.launch {
+            delay(SAVE_DELAY_MS)
+            saveScheduled.set(false)
+            save()
+        }
+    }
+
+    private fun save() {
+        val version = bandMap.version
+        if (version == savedVersion) return
+        try {
+            val tmp = File(file.parentFile, "$FILE_NAME.tmp")
+            DataOutputStream(tmp.outputStream().buffered()).use { bandMap.writeTo(it) }
+            if (!tmp.renameTo(file)) {
+                Log.w(TAG, "Band map rename failed")
+                return
+            }
+            savedVersion = version
+        } catch (e: Exception) {
+            Log.w(TAG, "Band map not saved: ${e.message}")
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package at.planqton.fytfm.data.http
+
+import okhttp3.Cache
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.asResponseBody
+import okio.Buffer
+import okio.ForwardingSource
+import okio.buffer
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * The app's one HTTP stack: a single [OkHttpClient] (one connection pool,
+ * one dispatcher) with a bounded disk [Cache] in `cacheDir`. Callers that
+ * need their own timeouts derive a client with [client]`(connect, read)`,
+ * which keeps pool and cache shared.
+ *
+ * On top of plain HTTP caching:
+ * - Images (covers, logos) are treated as immutable: their responses are
+ *   rewritten to `max-age` of [IMMUTABLE_MAX_AGE_DAYS] days, so a repeat
+ *   fetch never touches the network.
+ * - Offline mode: while [isOnline] reports no network, GETs are answered
+ *   from the cache only, stale entries included (504 when not cached). A
+ *   check that throws counts as online. A GET that fails with an
+ *   IOException on a flaky link falls back to the cache the same way
+ *   before the error is passed on; a cancelled call is not a failure and
+ *   gets neither fallback nor counter.
+ * - Per-host counters, see [hostStats]. Network bytes are the body bytes
+ *   actually read off the wire (compressed size for gzip), added when the
+ *   body is exhausted or closed — `Content-Length` is missing for chunked
+ *   and gzip responses.
+ *
+ * Plain JVM (no Android types), so the Deezer code using it still builds
+ * in the benchmark module. `FytFMApplication` installs the app instance
+ * with a cache directory and a connectivity check; before that — and in
+ * tests — [shared] is a stack without disk cache.
+ */
+class HttpStack(
+    cacheDir: File?,
+    maxCacheBytes: Long = DEFAULT_MAX_CACHE_BYTES,
+    private val isOnline: () -> Boolean = { true },
+) {
+    companion object {
+        /** Directory name below the app's cacheDir. */
+        const val DIR_NAME = "http"
+        const val DEFAULT_MAX_CACHE_BYTES = 32L * 1024 * 1024
+        const val IMMUTABLE_MAX_AGE_DAYS = 30
+
+        private val IMMUTABLE_CACHE_CONTROL = CacheControl.Builder()
+            .maxAge(IMMUTABLE_MAX_AGE_DAYS, TimeUnit.DAYS)
+            .build()
+
+        @Volatile
+        private var instance: HttpStack? = null
+
+        /** The app-wide stack; a cacheless one until [install] is called. */
+        val shared: HttpStack
+            get() = instance ?: synchronized(this) {
+                instance ?: HttpStack(null).also { instance = it }
+            }
+
+        fun install(stack: HttpStack) {
+            instance = stack
+        }
+    }
+
+    /** Counters for one host since process start. */
+    data class HostStats(
+        val host: String,
+        val requests: Int = 0,
+        val network: Int = 0,
+        val cacheHits: Int = 0,
+        val revalidated: Int = 0,
+        val staleHits: Int = 0,
+        val failures: Int = 0,
+        val networkBytes: Long = 0,
+        val networkMs: Long = 0,
+    ) {
+        val avgNetworkMs: Long
+            get() = if (network == 0) 0 else networkMs / network
+
+        fun format(): String =
+            "$host: $requests req, $network net (avg ${avgNetworkMs}ms, ${networkBytes / 1024} KB), " +
+                "$cacheHits cached, $revalidated revalidated, $staleHits stale, $failures failed"
+    }
+
+    private enum class Served { NETWORK, CACHE, REVALIDATED, STALE, FAILED }
+
+    private val cache: Cache? = cacheDir?.let { Cache(it, maxCacheBytes) }
+    private val stats = LinkedHashMap<String, HostStats>()
+
+    val client: OkHttpClient = OkHttpClient.Builder()
+        .cache(cache)
+        .addInterceptor(::offlineAndMetrics)
+        .addNetworkInterceptor(::immutableImages)
+        .addNetworkInterceptor(::countNetworkBytes)
+        .build()
+
+    /**
+     * [client] with its own timeouts — sharing connection pool, dispatcher
+     * and cache with every other caller.
+     */
+    fun client(connectTimeoutSeconds: Long, readTimeoutSeconds: Long): OkHttpClient =
+        client.newBuilder()
+            .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+            .readTimeout(readTimeoutSeconds, TimeUnit.SECONDS)
+            .build()
+
+    fun hostStats(): List<HostStats> = synchronized(stats) { stats.values.toList() }
+
+    /** Bytes currently in the disk cache, 0 without one. */
+    fun cacheSize(): Long = try {
+        cache?.size() ?: 0L
+    } catch (e: IOException) {
+        0L
+    }
+
+    fun export(): String = buildString {
+        appendLine("HTTP cache: ${cacheSize() / 1024} KB")
+        hostStats().forEach { appendLine(it.format()) }
+    }
+
+    // ===== Interceptors =====
+
+    private fun offlineAndMetrics(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val host = request.url.host
+        val start = System.nanoTime()
+        val cacheable = request.method == "GET" && cache != null
+
+        if (cacheable && !online()) {
+            val response = chain.proceed(request.forceCache())
+            record(host, if (response.isSuccessful) Served.STALE else Served.FAILED, start)
+            return response
+        }
+
+        val response = try {
+            chain.proceed(request)
+        } catch (e: IOException) {
+            // The caller gave up (e.g. a superseded lookup): nothing to count or fall back to
+            if (chain.call().isCanceled()) throw e
+            if (!cacheable) {
+                record(host, Served.FAILED, start)
+                throw e
+            }
+            // Flaky link: whatever is cached, however stale, beats an error
+            val cached = try {
+                chain.proceed(request.forceCache())
+            } catch (ignored: IOException) {
+                null
+            }
+            if (cached == null || !cached.isSuccessful) {
+                cached?.close()
+                record(host, Served.FAILED, start)
+                throw e
+            }
+            record(host, Served.STALE, start)
+            return cached
+        }
+
+        val served = when {
+            response.networkResponse == null && response.cacheResponse != null -> Served.CACHE
+            response.networkResponse != null && response.cacheResponse != null -> Served.REVALIDATED
+            response.networkResponse != null -> Served.NETWORK
+            else -> Served.FAILED
+        }
+        record(host, served, start)
+        return response
+    }
+
+    /** [isOnline], with a failing check (e.g. a missing permission) taken as online. */
+    private fun online(): Boolean = try {
+        isOnline()
+    } catch (e: Exception) {
+        true
+    }
+
+    private fun immutableImages(chain: Interceptor.Chain): Response {
+        val response = chain.proceed(chain.request())
+        val contentType = response.header("Content-Type") ?: return response
+        if (!response.isSuccessful || !contentType.startsWith("image/")) return response
+        return response.newBuilder()
+            .removeHeader("Pragma")
+            .header("Cache-Control", IMMUTABLE_CACHE_CONTROL.toString())
+            .build()
+    }
+
+    /** Wraps the wire body so the bytes the caller really reads end up in [HostStats.networkBytes]. */
+    private fun countNetworkBytes(chain: Interceptor.Chain): Response {
+        val response = chain.proceed(chain.request())
+        val body = response.body ?: return response
+        val host = chain.request().url.host
+        val counting = object : ForwardingSource(body.source()) {
+            private var bytes = 0L
+            private var reported = false
+
+            override fun read(sink: Buffer, byteCount: Long): Long {
+                val read = super.read(sink, byteCount)
+                if (read == -1L) report() else bytes += read
+                return read
+            }
+
+            override fun close() {
+                report()
+                super.close()
+            }
+
+            private fun report() {
+                if (reported) return
+                reported = true
+                addNetworkBytes(host, bytes)
+            }
+        }
+        return response.newBuilder()
+            .body(counting.buffer().asResponseBody(body.contentType(), body.contentLength()))
+            .build()
+    }
+
+    private fun Request.forceCache(): Request = newBuilder().cacheControl(CacheControl.FORCE_CACHE).build()
+
+    private fun record(host: String, served: Served, startNanos: Long) {
+        val elapsedMs = (System.nanoTime() - startNanos) / 1_000_000
+        synchronized(stats) {
+            val s = stats[host] ?: HostStats(host)
+            stats[host] = when (served) {
+                Served.NETWORK -> s.copy(
+                    requests = s.requests + 1,
+                    network = s.network + 1,
+                    networkMs = s.networkMs + elapsedMs
+                )
+                Served.REVALIDATED -> s.copy(requests = s.requests + 1, revalidated = s.revalidated + 1)
+                Served.CACHE -> s.copy(requests = s.requests + 1, cacheHits = s.cacheHits + 1)
+                Served.STALE -> s.copy(requests = s.requests + 1, staleHits = s.staleHits + 1)
+                Served.FAILED -> s.copy(requests = s.requests + 1, failures = s.failures + 1)
+            }
+        }
+    }
+
+    private fun addNetworkBytes(host: String, bytes: Long) {
+        if (bytes == 0L) return
+        synchronized(stats) {
+            val s = stats[host] ?: HostStats(host)
+            stats[host] = s.copy(networkBytes = s.networkBytes + bytes)
+        }
+    }
+}
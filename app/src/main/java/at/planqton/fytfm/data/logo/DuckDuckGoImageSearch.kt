@@ -1,12 +1,11 @@
 package at.planqton.fytfm.data.logo
 
 import android.util.Log
+import at.planqton.fytfm.data.http.HttpStack
 import at.planqton.fytfm.ui.ImageResult
-import okhttp3.OkHttpClient
 import okhttp3.Request
 import org.json.JSONObject
 import java.net.URLEncoder
-import java.util.concurrent.TimeUnit
 
 /**
  * Scrapes DuckDuckGo image search results for use as manual station-logo
@@ -37,11 +36,7 @@ class DuckDuckGoImageSearch {
         private val IMAGE_EXTENSIONS = listOf(".jpg", ".png", ".jpeg", ".webp")
     }
 
-    private val client = OkHttpClient.Builder()
-        .connectTimeout(15, TimeUnit.SECONDS)
-        .readTimeout(20, TimeUnit.SECONDS)
-        .followRedirects(true)
-        .build()
+    private val client = HttpStack.shared.client(connectTimeoutSeconds = 15, readTimeoutSeconds = 20)
 
     /**
      * Runs the search on a background thread and posts the list via [callback].
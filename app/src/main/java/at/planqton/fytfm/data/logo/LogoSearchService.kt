@@ -2,12 +2,11 @@ package at.planqton.fytfm.data.logo
 
 import android.util.Log
 import at.planqton.fytfm.data.RadioStation
+import at.planqton.fytfm.data.http.HttpStack
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
-import okhttp3.OkHttpClient
 import okhttp3.Request
 import org.json.JSONArray
-import java.util.concurrent.TimeUnit
 
 /**
  * EXPERIMENTAL FEATURE - See docs/EXPERIMENTAL_LOGO_SEARCH.md for removal instructions.
@@ -30,11 +29,7 @@ class LogoSearchService {
         private const val GCC_AUSTRIA = "at0"
     }
 
-    private val client = OkHttpClient.Builder()
-        .connectTimeout(10, TimeUnit.SECONDS)
-        .readTimeout(15, TimeUnit.SECONDS)
-        .followRedirects(true)
-        .build()
+    private val client = HttpStack.shared.client(connectTimeoutSeconds = 10, readTimeoutSeconds = 15)
 
     data class LogoSearchResult(
         val station: RadioStation,
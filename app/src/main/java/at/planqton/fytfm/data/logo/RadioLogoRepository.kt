@@ -2,15 +2,15 @@ package at.planqton.fytfm.data.logo
 
 import android.content.Context
 import android.util.Log
+import at.planqton.fytfm.data.http.HttpStack
+import at.planqton.fytfm.data.pi.PiPsIndex
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
-import okhttp3.OkHttpClient
 import okhttp3.Request
 import org.json.JSONArray
 import java.io.File
 import java.io.FileOutputStream
 import java.security.MessageDigest
-import java.util.concurrent.TimeUnit
 
 /**
  * Repository for managing radio logo templates.
@@ -27,14 +27,14 @@ class RadioLogoRepository(private val context: Context) {
     }
 
     private val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-    private val client = OkHttpClient.Builder()
-        .connectTimeout(10, TimeUnit.SECONDS)
-        .readTimeout(30, TimeUnit.SECONDS)
-        .build()
+    private val client = HttpStack.shared.client(connectTimeoutSeconds = 10, readTimeoutSeconds = 30)
 
     // Cached active template for fast lookup
     private var cachedTemplate: RadioLogoTemplate? = null
 
+    /** Resolves a PI from the PS when the station sends none, so PI-keyed logos still match. */
+    var piPsIndex: PiPsIndex? = null
+
     /**
      * Get the logos directory
      */
@@ -256,12 +256,14 @@ class RadioLogoRepository(private val context: Context) {
      */
     fun getLogoForStation(ps: String?, pi: Int?, frequency: Float?): String? {
         val template = getActiveTemplate() ?: return null
+        val effectivePi = pi?.takeIf { it != 0 }
+            ?: piPsIndex?.lookup(ps)?.takeIf { it != 0 }
 
         var bestMatch: StationLogo? = null
         var bestPriority = 0
 
         for (station in template.stations) {
-            val priority = station.matchPriority(ps, pi, frequency)
+            val priority = station.matchPriority(ps, effectivePi, frequency)
             if (priority > bestPriority) {
                 bestPriority = priority
                 bestMatch = station
@@ -0,0 +1,365 @@
+package at.planqton.fytfm.data.pi
+
+import org.json.JSONArray
+import org.json.JSONObject
+
+/**
+ * PS → PI lookup for stations whose chip never reports a PI.
+ *
+ * Replaces the hardcoded `contains()` chain that used to live in
+ * `RdsManager.lookupPiByPs` (Austrian stations only). Entries come from
+ * three sources:
+ *  - **seed**: the bundled `pi_ps_seed.json` asset and logo templates
+ *    that carry both PS and PI,
+ *  - **log**: PI/PS pairs seen together in `rds_log`,
+ *  - **learned**: pairs the RdsManager observed live (chip PI + locked PS),
+ *    persisted by [PiPsIndexRepository].
+ *
+ * Every source adds evidence to a count per (normalized PS, PI); the PI with
+ * the most evidence wins as long as it clearly dominates the runner-up.
+ *
+ * Lookup:
+ *  1. exact hash hit on the normalized PS (O(1)),
+ *  2. otherwise a token trie: each PS token (and the PS without spaces, so
+ *     "KRONE HIT" finds "KRONEHIT") votes for the stations it occurs in,
+ *     weighted by how specific it is. A token that is only a prefix of an
+ *     indexed token (8-char PS cut off mid-word) votes with half weight.
+ *     A tie goes to the station listed first among the seed entries —
+ *     the asset is ordered like the old chain, so "SALZBURG" still means
+ *     Radio Salzburg (A205), not Antenne Salzburg (A31C). A tie without a
+ *     seeded candidate gives 0.
+ *
+ * Reads go against an immutable [Table] that is swapped on change, so the
+ * RDS poll thread never blocks on a writer.
+ */
+class PiPsIndex {
+
+    companion object {
+        /** Evidence weight of seed entries (asset/template). */
+        const val SEED_WEIGHT = 3
+        /** Live-learned pairs become active after this many observations. */
+        const val LEARN_MIN_COUNT = 2
+        /** Upper bound for persisted learned keys — lowest counts go first. */
+        const val MAX_LEARNED = 2000
+        /** Minimum length of a query token for prefix matches. */
+        private const val MIN_PREFIX = 3
+        /** Prefixes matching more stations than this are useless as a vote. */
+        private const val MAX_PREFIX_CANDIDATES = 8
+        /** Scores closer than this count as a tie. */
+        private const val TIE_EPSILON = 1e-4f
+
+        /** Tokens that occur in too many station names to identify one. */
+        private val STOP_TOKENS = setOf(
+            "RADIO", "FM", "DAB", "THE", "DER", "DIE", "DAS", "HIT", "HITS",
+            "MUSIC", "MUSIK", "NEWS", "LIVE", "ON", "AIR"
+        )
+
+        /**
+         * Uppercase, umlauts folded (Ö → OE, so "Ö3" == "OE3"), "," → ".",
+         * everything except A–Z, 0–9 and "." becomes a single space.
+         */
+        @JvmStatic
+        fun normalize(ps: String?): String {
+            if (ps == null) return ""
+            val sb = StringBuilder(ps.length + 4)
+            var pendingSpace = false
+            for (raw in ps) {
+                val c = raw.uppercaseChar()
+                val folded = when (c) {
+                    'Ä' -> "AE"
+                    'Ö' -> "OE"
+                    'Ü' -> "UE"
+                    'ß' -> "SS"
+                    ',', '.' -> "."
+                    in 'A'..'Z', in '0'..'9' -> null
+                    else -> {
+                        pendingSpace = sb.isNotEmpty()
+                        continue
+                    }
+                }
+                if (pendingSpace) {
+                    sb.append(' ')
+                    pendingSpace = false
+                }
+                if (folded != null) sb.append(folded) else sb.append(c)
+            }
+            return sb.toString()
+        }
+
+        /**
+         * Seed format (asset `pi_ps_seed.json`):
+         * `{"stations": [{"pi": "A503", "ps": ["OE3", "Ö3"]}, ...]}`
+         */
+        fun seedEntriesFromJson(json: JSONObject): List<Entry> {
+            val stations = json.optJSONArray("stations") ?: return emptyList()
+            val result = mutableListOf<Entry>()
+            for (i in 0 until stations.length()) {
+                val station = stations.optJSONObject(i) ?: continue
+                val pi = parsePiHex(station.optString("pi"))
+                val names = station.optJSONArray("ps") ?: continue
+                for (j in 0 until names.length()) {
+                    result.add(Entry(pi, names.optString(j), 1, Source.SEED))
+                }
+            }
+            return result
+        }
+
+        /** Counterpart of [learnedToJson]. */
+        fun learnedEntriesFromJson(array: JSONArray): List<Entry> {
+            val result = mutableListOf<Entry>()
+            for (i in 0 until array.length()) {
+                val o = array.optJSONObject(i) ?: continue
+                result.add(Entry(o.optInt("pi"), o.optString("ps"), o.optInt("n", 1), Source.LEARNED))
+            }
+            return result
+        }
+
+        /** "A503" / "0xA503" → 0xA503, 0 if not parseable. */
+        fun parsePiHex(hex: String?): Int =
+            hex?.trim()?.uppercase()?.removePrefix("0X")?.toIntOrNull(16) ?: 0
+
+        /** Index/query tokens: words (≥ 2 chars, no stop words) plus the PS without spaces. */
+        internal fun tokens(normalized: String): List<String> {
+            if (normalized.isEmpty()) return emptyList()
+            val words = normalized.split(' ')
+            val result = ArrayList<String>(words.size + 1)
+            for (w in words) {
+                if (w.length >= 2 && w !in STOP_TOKENS && w !in result) result.add(w)
+            }
+            if (words.size > 1) {
+                val joined = normalized.replace(" ", "")
+                if (joined !in result) result.add(joined)
+            }
+            return result
+        }
+    }
+
+    enum class Source { SEED, LOG, LEARNED }
+
+    /** One piece of evidence: [pi] was seen with [ps] [count] times. */
+    data class Entry(val pi: Int, val ps: String, val count: Int, val source: Source)
+
+    private class TrieNode {
+        val children = HashMap<Char, TrieNode>(4)
+        /** Stations having a token that ends exactly here. */
+        var terminal: IntArray? = null
+        /** Stations having a token below this node (null = too many). */
+        var subtree: IntArray? = null
+    }
+
+    private class Table(
+        val exact: Map<String, Int>,
+        val root: TrieNode,
+        /** PI → position of its first seed entry, the tie-break in [lookup]. */
+        val seedRank: Map<Int, Int>,
+        val version: Int,
+    )
+
+    private val lock = Any()
+    /** normalized PS → (PI → evidence), all sources combined. */
+    private val evidence = HashMap<String, HashMap<Int, Int>>()
+    /** normalized PS → (PI → count), live-learned only (what gets persisted). */
+    private val learned = HashMap<String, HashMap<Int, Int>>()
+    /** PI → position of its first seed entry. */
+    private val seedRank = HashMap<Int, Int>()
+
+    @Volatile
+    private var table = Table(emptyMap(), TrieNode(), emptyMap(), 0)
+
+    /** Called (on the writer's thread) after live learning changed the persisted set. */
+    @Volatile
+    var onLearned: (() -> Unit)? = null
+
+    /** Bumped on every rebuild — lets callers memoize lookups. */
+    val version: Int get() = table.version
+
+    val size: Int get() = table.exact.size
+
+    /**
+     * PI for [ps], or 0 if unknown/ambiguous.
+     */
+    fun lookup(ps: String?): Int {
+        val key = normalize(ps)
+        if (key.isEmpty()) return 0
+        val t = table
+        t.exact[key]?.let { return it }
+
+        val scores = HashMap<Int, Float>()
+        for (token in tokens(key)) {
+            val node = walk(t.root, token) ?: continue
+            val terminal = node.terminal
+            if (terminal != null) {
+                val w = 1f / terminal.size
+                for (pi in terminal) scores[pi] = (scores[pi] ?: 0f) + w
+            } else if (token.length >= MIN_PREFIX) {
+                val subtree = node.subtree ?: continue
+                val w = 0.5f / subtree.size
+                for (pi in subtree) scores[pi] = (scores[pi] ?: 0f) + w
+            }
+        }
+        var best = 0
+        var bestScore = 0f
+        for ((pi, s) in scores) {
+            if (s > bestScore) {
+                bestScore = s
+                best = pi
+            }
+        }
+        if (bestScore < 0.5f) return 0
+
+        var tied = 0
+        var seeded = 0
+        var seededRank = Int.MAX_VALUE
+        for ((pi, s) in scores) {
+            if (bestScore - s > TIE_EPSILON) continue
+            tied++
+            val rank = t.seedRank[pi] ?: continue
+            if (rank < seededRank) {
+                seededRank = rank
+                seeded = pi
+            }
+        }
+        return if (tied == 1) best else seeded
+    }
+
+    private fun walk(root: TrieNode, token: String): TrieNode? {
+        var node = root
+        for (c in token) node = node.children[c] ?: return null
+        return node
+    }
+
+    /**
+     * Replaces all evidence with [entries] and swaps in the new table in one
+     * step — readers see either the old or the complete new index.
+     */
+    fun replaceAll(entries: List<Entry>) {
+        synchronized(lock) {
+            evidence.clear()
+            learned.clear()
+            seedRank.clear()
+            for (e in entries) {
+                if (!isValidPi(e.pi) || e.count <= 0) continue
+                val key = normalize(e.ps)
+                if (key.isEmpty()) continue
+                if (e.source == Source.SEED && e.pi !in seedRank) seedRank[e.pi] = seedRank.size
+                val weight = if (e.source == Source.SEED) e.count * SEED_WEIGHT else e.count
+                addTo(evidence, key, e.pi, weight)
+                if (e.source == Source.LEARNED) addTo(learned, key, e.pi, e.count)
+            }
+            trimLearned()
+            rebuildLocked()
+        }
+    }
+
+    /**
+     * Live observation from the RDS poll thread: [pi] came from the chip and
+     * [ps] passed the PS voter. Rebuilds only when the winning PI for this
+     * PS changes; [onLearned] fires every time so the count gets persisted.
+     */
+    fun learn(pi: Int, ps: String?) {
+        if (!isValidPi(pi)) return
+        val key = normalize(ps)
+        if (key.isEmpty()) return
+        synchronized(lock) {
+            val before = table.exact[key]
+            addTo(evidence, key, pi, 1)
+            addTo(learned, key, pi, 1)
+            trimLearned()
+            if (winner(key) != before) rebuildLocked()
+        }
+        onLearned?.invoke()
+    }
+
+    fun learnedPairs(): List<Entry> = synchronized(lock) {
+        learned.flatMap { (ps, byPi) -> byPi.map { (pi, n) -> Entry(pi, ps, n, Source.LEARNED) } }
+    }
+
+    fun learnedToJson(): JSONArray = JSONArray().apply {
+        learnedPairs().forEach { e ->
+            put(JSONObject().put("ps", e.ps).put("pi", e.pi).put("n", e.count))
+        }
+    }
+
+    private fun addTo(map: HashMap<String, HashMap<Int, Int>>, key: String, pi: Int, n: Int) {
+        val byPi = map.getOrPut(key) { HashMap(2) }
+        byPi[pi] = (byPi[pi] ?: 0) + n
+    }
+
+    private fun trimLearned() {
+        if (learned.size <= MAX_LEARNED) return
+        val victims = learned.entries
+            .sortedBy { e -> e.value.values.sum() }
+            .take(learned.size - MAX_LEARNED)
+            .map { it.key }
+        for (key in victims) {
+            val byPi = learned.remove(key) ?: continue
+            val ev = evidence[key] ?: continue
+            for ((pi, n) in byPi) {
+                val left = (ev[pi] ?: 0) - n
+                if (left > 0) ev[pi] = left else ev.remove(pi)
+            }
+            if (ev.isEmpty()) evidence.remove(key)
+        }
+    }
+
+    /**
+     * Winning PI for [key]: most evidence, at least twice the runner-up, and
+     * learned-only pairs need [LEARN_MIN_COUNT] observations.
+     */
+    private fun winner(key: String): Int? {
+        val byPi = evidence[key] ?: return null
+        var best = 0
+        var bestN = 0
+        var secondN = 0
+        for ((pi, n) in byPi) {
+            if (n > bestN) {
+                secondN = bestN
+                bestN = n
+                best = pi
+            } else if (n > secondN) {
+                secondN = n
+            }
+        }
+        if (bestN < LEARN_MIN_COUNT || bestN < 2 * secondN) return null
+        return best
+    }
+
+    private fun rebuildLocked() {
+        val exact = HashMap<String, Int>(evidence.size * 2)
+        for (key in evidence.keys) {
+            winner(key)?.let { exact[key] = it }
+        }
+
+        val tokenPis = HashMap<String, MutableSet<Int>>()
+        for ((key, pi) in exact) {
+            for (token in tokens(key)) tokenPis.getOrPut(token) { HashSet(2) }.add(pi)
+        }
+        val root = TrieNode()
+        for ((token, pis) in tokenPis) {
+            var node = root
+            for (c in token) node = node.children.getOrPut(c) { TrieNode() }
+            node.terminal = pis.toIntArray()
+        }
+        fillSubtree(root)
+        table = Table(exact, root, HashMap(seedRank), table.version + 1)
+    }
+
+    /** Collects the station set below each node; nodes above the cap get null. */
+    private fun fillSubtree(node: TrieNode): Set<Int>? {
+        val all = HashSet<Int>()
+        var overflow = false
+        node.terminal?.let { t -> t.forEach { all.add(it) } }
+        for (child in node.children.values) {
+            val sub = fillSubtree(child)
+            if (sub == null) overflow = true else all.addAll(sub)
+        }
+        if (overflow || all.size > MAX_PREFIX_CANDIDATES) {
+            node.subtree = null
+            return null
+        }
+        node.subtree = all.toIntArray()
+        return all
+    }
+
+    private fun isValidPi(pi: Int): Boolean = pi in 0x1000..0xFFFE
+}
@@ -0,0 +1,104 @@
+package at.planqton.fytfm.data.pi
+
+import android.content.Context
+import android.util.Log
+import at.planqton.fytfm.data.logo.RadioLogoRepository
+import at.planqton.fytfm.data.rdslog.RdsDatabase
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import org.json.JSONArray
+import org.json.JSONObject
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Loads and persists the [PiPsIndex].
+ *
+ * Sources on [reload]: the bundled seed asset, logo templates with both PS
+ * and PI, PI/PS pairs from `rds_log` and the live-learned pairs persisted
+ * in SharedPreferences. Live learning (from RdsManager) is saved with a
+ * short delay so a burst of observations costs one write.
+ */
+class PiPsIndexRepository(private val context: Context) {
+
+    companion object {
+        private const val TAG = "PiPsIndexRepo"
+        private const val PREFS_NAME = "pi_ps_index"
+        private const val KEY_LEARNED = "learned"
+        private const val SEED_ASSET = "pi_ps_seed.json"
+        private const val SAVE_DELAY_MS = 5_000L
+    }
+
+    val index = PiPsIndex()
+
+    private val prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+    private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
+    private val saveScheduled = AtomicBoolean(false)
+
+    init {
+        index.onLearned = { scheduleSave() }
+    }
+
+    /**
+     * Rebuilds the index from all sources in the background. Call on app
+     * start and after logo templates changed.
+     */
+    fun reload(): Job = scope.launch {
+        val seed = loadSeed()
+        val templates = loadTemplates()
+        val log = loadLog()
+        val learned = loadLearned()
+        index.replaceAll(seed + templates + log + learned)
+        Log.i(TAG, "PI index: ${index.size} PS keys (seed=${seed.size}, templates=${templates.size}, " +
+            "log=${log.size}, learned=${learned.size})")
+    }
+
+    private fun loadSeed(): List<PiPsIndex.Entry> = try {
+        val json = context.assets.open(SEED_ASSET).bufferedReader().use { it.readText() }
+        PiPsIndex.seedEntriesFromJson(JSONObject(json))
+    } catch (e: Exception) {
+        Log.w(TAG, "Seed asset not loaded: ${e.message}")
+        emptyList()
+    }
+
+    private fun loadTemplates(): List<PiPsIndex.Entry> = try {
+        RadioLogoRepository(context).getTemplates().flatMap { template ->
+            template.stations.mapNotNull { station ->
+                val ps = station.ps ?: return@mapNotNull null
+                val pi = PiPsIndex.parsePiHex(station.pi)
+                if (pi == 0) null else PiPsIndex.Entry(pi, ps, 1, PiPsIndex.Source.SEED)
+            }
+        }
+    } catch (e: Exception) {
+        Log.w(TAG, "Templates not loaded: ${e.message}")
+        emptyList()
+    }
+
+    private suspend fun loadLog(): List<PiPsIndex.Entry> = try {
+        RdsDatabase.getInstance(context).rdsLogDao().getPiPsPairs().map {
+            PiPsIndex.Entry(it.pi, it.ps, it.count, PiPsIndex.Source.LOG)
+        }
+    } catch (e: Exception) {
+        Log.w(TAG, "rds_log pairs not loaded: ${e.message}")
+        emptyList()
+    }
+
+    private fun loadLearned(): List<PiPsIndex.Entry> = try {
+        PiPsIndex.learnedEntriesFromJson(JSONArray(prefs.getString(KEY_LEARNED, "[]") ?: "[]"))
+    } catch (e: Exception) {
+        Log.w(TAG, "Learned pairs not loaded: ${e.message}")
+        emptyList()
+    }
+
+    private fun scheduleSave() {
+        if (!saveScheduled.compareAndSet(false, true)) return
+        scope.launch {
+            delay(SAVE_DELAY_MS)
+            saveScheduled.set(false)
+            prefs.edit().putString(KEY_LEARNED, index.learnedToJson().toString()).apply()
+        }
+    }
+}
@@ -51,6 +51,15 @@ interface RdsLogDao {
         ORDER BY frequency
     """)
     fun getDistinctFrequencies(): Flow<List<FrequencyStats>>
+
+    // PI/PS pairs seen together (input for the PS → PI index)
+    @Query("""
+        SELECT pi, ps, COUNT(*) as count
+        FROM rds_log
+        WHERE pi != 0 AND ps IS NOT NULL AND ps != ''
+        GROUP BY pi, ps
+    """)
+    suspend fun getPiPsPairs(): List<PiPsPair>
 }
 
 data class FrequencyStats(
@@ -58,3 +67,9 @@ data class FrequencyStats(
     val count: Int,
     val latestPs: String?
 )
+
+data class PiPsPair(
+    val pi: Int,
+    val ps: String,
+    val count: Int
+)
@@ -65,6 +65,32 @@ class AppSettingsRepository(context: Context) {
         prefs.edit().putBoolean(SettingsKeys.DEEZER_CACHE_ENABLED, enabled).apply()
     }
 
+    /** Byte budget of the Deezer cache (rows + covers); LRU eviction above it. */
+    fun getDeezerCacheMaxBytes(): Long = prefs.getLong(
+        SettingsKeys.DEEZER_CACHE_MAX_BYTES,
+        at.planqton.fytfm.deezer.DeezerCache.DEFAULT_MAX_BYTES,
+    )
+
+    fun setDeezerCacheMaxBytes(bytes: Long) {
+        prefs.edit().putLong(
+            SettingsKeys.DEEZER_CACHE_MAX_BYTES,
+            bytes.coerceAtLeast(at.planqton.fytfm.deezer.DeezerCache.MIN_MAX_BYTES),
+        ).apply()
+    }
+
+    /** Track budget of the Deezer cache; LRU eviction above it. */
+    fun getDeezerCacheMaxTracks(): Int = prefs.getInt(
+        SettingsKeys.DEEZER_CACHE_MAX_TRACKS,
+        at.planqton.fytfm.deezer.DeezerCache.DEFAULT_MAX_TRACKS,
+    )
+
+    fun setDeezerCacheMaxTracks(tracks: Int) {
+        prefs.edit().putInt(
+            SettingsKeys.DEEZER_CACHE_MAX_TRACKS,
+            tracks.coerceAtLeast(at.planqton.fytfm.deezer.DeezerCache.MIN_MAX_TRACKS),
+        ).apply()
+    }
+
     // ===== Debug overlay =====
 
     fun isShowDebugInfos(): Boolean = prefs.getBoolean(SettingsKeys.SHOW_DEBUG_INFOS, false)
@@ -382,6 +408,21 @@ class AppSettingsRepository(context: Context) {
         prefs.edit().putInt(SettingsKeys.TICK_SOUND_VOLUME, volume.coerceIn(0, 100)).apply()
     }
 
+    // ===== Tune coalescing =====
+
+    /** Settle window for hardware tunes while scrubbing, 0–1000 ms. 0 = every step tunes. */
+    fun getTuneSettleWindowMs(): Long = prefs.getLong(
+        SettingsKeys.TUNE_SETTLE_WINDOW_MS,
+        at.planqton.fytfm.controller.TuneCoalescer.DEFAULT_SETTLE_WINDOW_MS,
+    )
+
+    fun setTuneSettleWindowMs(ms: Long) {
+        prefs.edit().putLong(
+            SettingsKeys.TUNE_SETTLE_WINDOW_MS,
+            ms.coerceIn(0L, at.planqton.fytfm.controller.TuneCoalescer.MAX_SETTLE_WINDOW_MS),
+        ).apply()
+    }
+
     // ===== Cover source lock (DAB) =====
 
     fun isCoverSourceLocked(): Boolean = prefs.getBoolean(SettingsKeys.COVER_SOURCE_LOCKED, false)
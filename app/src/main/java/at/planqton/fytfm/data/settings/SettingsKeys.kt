@@ -21,6 +21,8 @@ internal object SettingsKeys {
     const val DEEZER_ENABLED_DAB = "deezer_enabled_dab"
     const val DEEZER_DISABLED_FREQUENCIES = "deezer_disabled_frequencies"
     const val DEEZER_CACHE_ENABLED = "deezer_cache_enabled"
+    const val DEEZER_CACHE_MAX_BYTES = "deezer_cache_max_bytes"
+    const val DEEZER_CACHE_MAX_TRACKS = "deezer_cache_max_tracks"
 
     // Debug
     const val SHOW_DEBUG_INFOS = "show_debug_infos"
@@ -94,6 +96,9 @@ internal object SettingsKeys {
     const val TICK_SOUND_ENABLED = "tick_sound_enabled"
     const val TICK_SOUND_VOLUME = "tick_sound_volume"
 
+    // Tune coalescing (scale drag / steering wheel)
+    const val TUNE_SETTLE_WINDOW_MS = "tune_settle_window_ms"
+
     // Cover source
     const val COVER_SOURCE_LOCKED = "cover_source_locked"
     const val LOCKED_COVER_SOURCE = "locked_cover_source"
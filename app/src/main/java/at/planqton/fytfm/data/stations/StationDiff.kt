@@ -0,0 +1,72 @@
+package at.planqton.fytfm.data.stations
+
+import at.planqton.fytfm.data.RadioStation
+
+/**
+ * Result of an incremental FM rescan, relative to the saved preset list.
+ *
+ * Only frequencies the scan actually checked can end up in [vanished]; a
+ * rescan that was skipped halfway never deletes stations it did not look
+ * at. Stations are matched by frequency, rounded to 100 kHz ([keyOf]).
+ * [StationRepository.applyFmDiff] writes the diff into the preset list.
+ */
+data class StationDiff(
+    val added: List<RadioStation>,
+    val vanished: List<RadioStation>,
+    val psChanged: List<Change>,
+    val piChanged: List<Change>,
+    val unchanged: List<RadioStation>,
+) {
+    /** Saved entry and what the scan found on the same frequency. */
+    data class Change(val before: RadioStation, val after: RadioStation)
+
+    val isEmpty: Boolean
+        get() = added.isEmpty() && vanished.isEmpty() && psChanged.isEmpty() && piChanged.isEmpty()
+
+    companion object {
+        val EMPTY = StationDiff(emptyList(), emptyList(), emptyList(), emptyList(), emptyList())
+
+        fun keyOf(frequency: Float): Int = Math.round(frequency * 10f)
+
+        /**
+         * @param existing saved FM presets
+         * @param found stations the rescan confirmed (with PS/PI as decoded)
+         * @param checkedKeys [keyOf] of every frequency the rescan measured
+         */
+        fun compute(
+            existing: List<RadioStation>,
+            found: List<RadioStation>,
+            checkedKeys: Set<Int>,
+        ): StationDiff {
+            val existingByKey = existing.associateBy { keyOf(it.frequency) }
+            val foundKeys = HashSet<Int>(found.size * 2)
+            val added = mutableListOf<RadioStation>()
+            val psChanged = mutableListOf<Change>()
+            val piChanged = mutableListOf<Change>()
+            val unchanged = mutableListOf<RadioStation>()
+
+            for (station in found) {
+                val key = keyOf(station.frequency)
+                foundKeys.add(key)
+                val before = existingByKey[key]
+                if (before == null) {
+                    added.add(station)
+                    continue
+                }
+                // Not decoded is not changed: empty PS / PI 0 never count
+                val ps = station.name?.trim().orEmpty()
+                val psDiffers = ps.isNotEmpty() && ps != before.name?.trim().orEmpty()
+                val piDiffers = station.pi != 0 && station.pi != before.pi
+                if (psDiffers) psChanged.add(Change(before, station))
+                if (piDiffers) piChanged.add(Change(before, station))
+                if (!psDiffers && !piDiffers) unchanged.add(before)
+            }
+
+            val vanished = existing.filter {
+                val key = keyOf(it.frequency)
+                key in checkedKeys && key !in foundKeys
+            }
+            return StationDiff(added, vanished, psChanged, piChanged, unchanged)
+        }
+    }
+}
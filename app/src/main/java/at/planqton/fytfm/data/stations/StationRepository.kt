@@ -172,6 +172,53 @@ class StationRepository(
         return Pair(merged, overwritten)
     }
 
+    /**
+     * Wendet das Ergebnis eines inkrementellen Rescans auf die FM-Liste an,
+     * statt sie wie [mergeScannedStations] zu ersetzen: neue Sender kommen
+     * dazu, verschwundene Nicht-Favoriten fallen weg, geänderte PS/PI werden
+     * nachgetragen. Sender, die der Rescan nicht geprüft hat, bleiben
+     * unangetastet. Favoriten folgen denselben Regeln wie beim Merge
+     * (overwriteFavorites ersetzt, sonst nur leeren Namen auffüllen).
+     * Liefert `(mergedList, overwrittenFavorites)`.
+     */
+    fun applyFmDiff(diff: StationDiff): Pair<List<RadioStation>, List<RadioStation>> {
+        val overwriteFavorites = isOverwriteFavorites()
+        val byKey = loadFmStations().associateByTo(LinkedHashMap()) { StationDiff.keyOf(it.frequency) }
+        val overwritten = mutableListOf<RadioStation>()
+
+        for (gone in diff.vanished) {
+            val key = StationDiff.keyOf(gone.frequency)
+            if (byKey[key]?.isFavorite == false) byKey.remove(key)
+        }
+        for (change in diff.psChanged + diff.piChanged) {
+            val key = StationDiff.keyOf(change.after.frequency)
+            val current = byKey[key] ?: continue
+            val found = change.after
+            byKey[key] = when {
+                !current.isFavorite -> current.copy(
+                    name = found.name?.takeIf { it.isNotBlank() } ?: current.name,
+                    pi = if (found.pi != 0) found.pi else current.pi,
+                    rssi = found.rssi,
+                )
+                overwriteFavorites -> {
+                    // Beide Listen können denselben Favoriten enthalten
+                    if (overwritten.none { it === current }) overwritten.add(current)
+                    found.copy(isFavorite = false)
+                }
+                current.name.isNullOrBlank() && !found.name.isNullOrBlank() ->
+                    current.copy(name = found.name, rssi = found.rssi)
+                else -> current
+            }
+        }
+        for (station in diff.added) {
+            byKey.putIfAbsent(StationDiff.keyOf(station.frequency), station)
+        }
+
+        val merged = byKey.values.sortedBy { it.frequency }
+        saveFmStations(merged)
+        return Pair(merged, overwritten)
+    }
+
     fun mergeDabScannedStations(scannedStations: List<RadioStation>): List<RadioStation> {
         val (merged, _) = mergeStations(
             existing = loadDabStations(),
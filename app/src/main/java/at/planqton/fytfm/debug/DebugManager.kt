@@ -208,6 +208,7 @@ class DebugManager(
         binding.debugRssi.text = "..."
         binding.debugTpTa.text = ""
         binding.debugAfUsing.text = ""
+        binding.debugPoll.text = ""
         binding.labelRt.text = "DLS:"
     }
 
@@ -223,7 +224,8 @@ class DebugManager(
         freq: Float? = null,
         af: String? = null,
         tpTa: String? = null,
-        afUsing: String? = null
+        afUsing: String? = null,
+        poll: String? = null
     ) {
         if (binding.debugOverlay.visibility != View.VISIBLE) return
 
@@ -236,6 +238,7 @@ class DebugManager(
         af?.let { binding.debugAf.text = it.ifEmpty { "----" } }
         afUsing?.let { binding.debugAfUsing.text = it }
         tpTa?.let { binding.debugTpTa.text = it }
+        poll?.let { binding.debugPoll.text = it }
     }
 
     /**
@@ -273,6 +276,7 @@ class DebugManager(
             binding.debugAf.text = String.format("0x%04X %s", station.ensembleId, station.ensembleLabel)
             binding.debugTpTa.text = ""
             binding.debugAfUsing.text = ""
+            binding.debugPoll.text = ""
         }
 
         dls?.let { binding.debugRt.text = it.ifEmpty { "--------------------------------" } }
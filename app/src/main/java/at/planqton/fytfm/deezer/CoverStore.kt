@@ -0,0 +1,169 @@
+package at.planqton.fytfm.deezer
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.util.Log
+import at.planqton.fytfm.data.http.HttpStack
+import okhttp3.Request
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+
+/**
+ * The sizes the app displays a Deezer cover at. [CoverStore] keeps one
+ * JPEG per size next to the original, so no consumer decodes a 1000 px
+ * cover to show it at a fraction of that.
+ */
+enum class CoverSize(val px: Int) {
+    /** Station carousel tiles, DAB list and PiP. */
+    CAROUSEL(200),
+
+    /** MediaSession artwork (see MediaMetadataImageLoader). */
+    ARTWORK(300),
+
+    /** Now-playing cover. */
+    NOW_PLAYING(600),
+}
+
+/**
+ * Cover files of [DeezerCache] in [dir].
+ *
+ * [download] streams the original bytes to disk as served by the CDN — no
+ * decode/re-encode on the download path. [generateSizes] then derives one
+ * JPEG per [CoverSize] from a single decode, meant to run in the
+ * background. Variants are named `<original>_<px>.jpg`; [pathFor] maps an
+ * original to the variant for a size, falling back to the original when
+ * the variant doesn't exist (yet, or because the original isn't larger).
+ */
+class CoverStore(private val dir: File) {
+
+    companion object {
+        private const val TAG = "CoverStore"
+        private const val HTTP_TIMEOUT_S = 5L
+        private const val JPEG_QUALITY = 85
+
+        /** Directory name below filesDir; [pathFor] only looks for variants there. */
+        const val DIR_NAME = "deezer_covers"
+
+        private fun variantFile(original: File, size: CoverSize): File =
+            File(original.parentFile, "${original.nameWithoutExtension}_${size.px}.jpg")
+
+        /**
+         * The file to display [path] at [size]: its variant if one exists,
+         * else [path] itself. Paths outside the cover directory (station
+         * logos, URLs) are returned unchanged.
+         */
+        fun pathFor(path: String, size: CoverSize): String {
+            val file = File(path)
+            if (file.parentFile?.name != DIR_NAME) return path
+            val variant = variantFile(file, size)
+            return if (variant.isFile) variant.path else path
+        }
+
+        /**
+         * Largest power-of-two subsample that still leaves both sides of a
+         * [width]×[height] image at least [target] px.
+         */
+        fun sampleSizeFor(width: Int, height: Int, target: Int): Int {
+            var sample = 1
+            while (width / (sample * 2) >= target && height / (sample * 2) >= target) sample *= 2
+            return sample
+        }
+    }
+
+    private val client = HttpStack.shared.client(HTTP_TIMEOUT_S, HTTP_TIMEOUT_S)
+
+    /**
+     * Downloads [url] into [target] unchanged. Only the image header is
+     * read to reject non-images (e.g. an HTML error page). Returns the
+     * file, or null on failure; an existing [target] is returned as is.
+     */
+    fun download(url: String, target: File): File? {
+        if (target.exists()) return target
+        val part = File(dir, "${target.name}.part")
+        return try {
+            client.newCall(Request.Builder().url(url).build()).execute().use { response ->
+                if (!response.isSuccessful) throw IOException("HTTP ${response.code}")
+                response.body!!.byteStream().use { input ->
+                    FileOutputStream(part).use { output -> input.copyTo(output) }
+                }
+            }
+            if (readBounds(part) == null || !part.renameTo(target)) {
+                Log.w(TAG, "Discarded cover download: $url")
+                part.delete()
+                null
+            } else {
+                Log.d(TAG, "Downloaded cover: ${target.name} (${target.length()} bytes)")
+                target
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to download cover: $url", e)
+            part.delete()
+            null
+        }
+    }
+
+    /**
+     * Writes the missing [CoverSize] variants of [original] from one
+     * subsampled decode. Sizes the original isn't larger than are skipped —
+     * [pathFor] serves the original for them. Only the header is read when
+     * nothing is missing. Returns the bytes written.
+     */
+    fun generateSizes(original: File): Long {
+        val bounds = readBounds(original) ?: return 0L
+        val longestSide = maxOf(bounds.outWidth, bounds.outHeight)
+        val missing = CoverSize.values().filter { it.px < longestSide && !variantFile(original, it).exists() }
+        if (missing.isEmpty()) return 0L
+        val largest = missing.maxOf { it.px }
+        val options = BitmapFactory.Options().apply {
+            inSampleSize = sampleSizeFor(bounds.outWidth, bounds.outHeight, largest)
+        }
+        val bitmap = try {
+            BitmapFactory.decodeFile(original.path, options)
+        } catch (e: OutOfMemoryError) {
+            Log.e(TAG, "OutOfMemory decoding cover: ${original.name}", e)
+            null
+        } ?: return 0L
+
+        var written = 0L
+        try {
+            for (size in missing) {
+                val longest = maxOf(bitmap.width, bitmap.height)
+                if (longest <= size.px) continue
+                val scale = size.px.toFloat() / longest
+                val scaled = Bitmap.createScaledBitmap(
+                    bitmap,
+                    (bitmap.width * scale).toInt().coerceAtLeast(1),
+                    (bitmap.height * scale).toInt().coerceAtLeast(1),
+                    true
+                )
+                val target = variantFile(original, size)
+                val part = File(dir, "${target.name}.part")
+                FileOutputStream(part).use { scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, it) }
+                if (scaled !== bitmap) scaled.recycle()
+                if (part.renameTo(target)) written += target.length() else part.delete()
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to generate cover sizes: ${original.name}", e)
+        } finally {
+            bitmap.recycle()
+        }
+        Log.d(TAG, "Generated cover sizes for ${original.name}: $written bytes")
+        return written
+    }
+
+    /** [original] and its existing variants. */
+    fun filesOf(original: File): List<File> =
+        (listOf(original) + CoverSize.values().map { variantFile(original, it) }).filter { it.isFile }
+
+    /** Deletes [original] together with its variants. */
+    fun delete(original: File) {
+        filesOf(original).forEach { it.delete() }
+    }
+
+    private fun readBounds(file: File): BitmapFactory.Options? {
+        val bounds = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        BitmapFactory.decodeFile(file.path, bounds)
+        return bounds.takeIf { it.outWidth > 0 && it.outHeight > 0 }
+    }
+}
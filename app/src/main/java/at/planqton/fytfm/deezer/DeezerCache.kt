@@ -4,33 +4,89 @@ import android.content.ContentValues
 import android.content.Context
 import android.database.sqlite.SQLiteDatabase
 import android.database.sqlite.SQLiteOpenHelper
-import android.graphics.Bitmap
-import android.graphics.BitmapFactory
 import android.util.Log
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import org.json.JSONArray
 import java.io.File
-import java.io.FileOutputStream
-import java.net.URL
 import java.security.MessageDigest
+import java.util.concurrent.atomic.AtomicBoolean
 
 /**
  * Local SQLite cache for Deezer track data and cover images.
  * Stores ALL tracks returned by Deezer API - independent of search queries.
  * Used as offline fallback and for local search.
+ * Covers are kept as downloaded, plus one variant per displayed size
+ * generated in the background (see [CoverStore]).
+ *
+ * Local search goes through an FTS4 index ([TABLE_FTS], docid = rowid in
+ * [TABLE_TRACKS]) over the normalised artist/title: a query only loads the
+ * rows that share a word with it, and the STRICT checks of
+ * [DeezerCacheMatcher] run on those candidates alone.
+ *
+ * In front of that sits [TrackTextIndex], an in-memory automaton that
+ * finds the STRICT matches of an RT in one scan. It is filled lazily on a
+ * background thread at the first [searchLocal], kept current by
+ * [cacheTrack] and dropped by [clearCache]/[importFromZip]; until the fill
+ * has finished, [searchLocal] uses the FTS path.
+ *
+ * The cache is bounded by a byte and a track budget ([setBudget]). Every
+ * row carries its share of the database file (`size_bytes`) and the time
+ * of its last hit in a search or cover lookup. Cover files are counted
+ * once in [TABLE_COVERS], with the number of rows referencing them, since
+ * several tracks can share one. Triggers keep the totals in [TABLE_STATS],
+ * so [getCacheStats] never scans the cover directory. Once an insert (on
+ * the IO dispatcher) or a lower budget pushes the totals above budget, the
+ * least recently hit tracks are evicted off the main thread.
  */
 class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATABASE_NAME, null, DATABASE_VERSION) {
 
     companion object {
         private const val TAG = "DeezerCache"
         private const val DATABASE_NAME = "deezer_cache.db"
-        private const val DATABASE_VERSION = 1
+        // v2: FTS4 index tracks_fts
+        // v3: last_hit_at/size_bytes + cache_stats for the LRU budget
+        // v4: covers with a reference count; size_bytes is the row share only
+        private const val DATABASE_VERSION = 4
         private const val TABLE_TRACKS = "tracks"
-        private const val COVER_DIR = "deezer_covers"
+        private const val TABLE_FTS = "tracks_fts"
+        private const val TABLE_STATS = "cache_stats"
+        private const val TABLE_COVERS = "covers"
+        private const val COVER_DIR = CoverStore.DIR_NAME
+
+        const val DEFAULT_MAX_BYTES = 100L * 1024 * 1024
+        const val DEFAULT_MAX_TRACKS = 5000
+        const val MIN_MAX_BYTES = 1L * 1024 * 1024
+        const val MIN_MAX_TRACKS = 50
+
+        /** Rough share of the database file per track (row, indexes, FTS entry). */
+        private const val ROW_BYTES = 512L
+
+        /** Eviction stops at this fraction of the budget, so it doesn't run on every insert. */
+        private const val EVICT_TARGET = 0.9
+
+        /** Hits closer together than this don't rewrite last_hit_at. */
+        private const val HIT_RESOLUTION_MS = 60_000L
     }
 
     private val coverDir: File = File(context.filesDir, COVER_DIR).apply { mkdirs() }
+    private val coverStore = CoverStore(coverDir)
+    private val coverSizesRequested: MutableSet<String> = java.util.concurrent.ConcurrentHashMap.newKeySet()
+
+    private val textIndex = TrackTextIndex()
+    private val textIndexLoading = AtomicBoolean(false)
+
+    @Volatile var maxBytes: Long = DEFAULT_MAX_BYTES
+        private set
+    @Volatile var maxTracks: Int = DEFAULT_MAX_TRACKS
+        private set
+    private val evicting = AtomicBoolean(false)
+
+    // Text index fill, cover variants and budget eviction; lives as long as the cache
+    private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
 
     override fun onCreate(db: SQLiteDatabase) {
         db.execSQL("""
@@ -58,7 +114,9 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
                 cover_url_medium TEXT,
                 deezer_url TEXT,
                 local_cover_path TEXT,
-                cached_at INTEGER NOT NULL
+                cached_at INTEGER NOT NULL,
+                last_hit_at INTEGER NOT NULL DEFAULT 0,
+                size_bytes INTEGER NOT NULL DEFAULT 0
             )
         """)
 
@@ -66,13 +124,167 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
         db.execSQL("CREATE INDEX idx_artist ON $TABLE_TRACKS(artist COLLATE NOCASE)")
         db.execSQL("CREATE INDEX idx_title ON $TABLE_TRACKS(title COLLATE NOCASE)")
         db.execSQL("CREATE INDEX idx_cached_at ON $TABLE_TRACKS(cached_at DESC)")
+        db.execSQL("CREATE INDEX idx_last_hit_at ON $TABLE_TRACKS(last_hit_at)")
+        createFtsIndex(db)
+        createCovers(db)
+        createStats(db)
 
         Log.d(TAG, "Database created with version $DATABASE_VERSION")
     }
 
     override fun onUpgrade(db: SQLiteDatabase, oldVersion: Int, newVersion: Int) {
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_TRACKS")
-        onCreate(db)
+        // Keeps the cached tracks; also runs for an imported v1 export
+        if (oldVersion < 2) {
+            createFtsIndex(db)
+            val indexed = rebuildFtsIndex(db)
+            Log.d(TAG, "Upgraded from v$oldVersion: indexed $indexed cached tracks")
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE $TABLE_TRACKS ADD COLUMN last_hit_at INTEGER NOT NULL DEFAULT 0")
+            db.execSQL("ALTER TABLE $TABLE_TRACKS ADD COLUMN size_bytes INTEGER NOT NULL DEFAULT 0")
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_last_hit_at ON $TABLE_TRACKS(last_hit_at)")
+            db.execSQL("UPDATE $TABLE_TRACKS SET last_hit_at = cached_at")
+            Log.d(TAG, "Upgraded from v$oldVersion: LRU columns added")
+        }
+        if (oldVersion < 4) {
+            // v3 charged every cover to each row using it; recount with covers counted once
+            db.execSQL("DROP TRIGGER IF EXISTS tracks_stats_insert")
+            db.execSQL("DROP TRIGGER IF EXISTS tracks_stats_delete")
+            db.execSQL("DROP TRIGGER IF EXISTS tracks_stats_update")
+            db.execSQL("DROP TABLE IF EXISTS $TABLE_STATS")
+            db.execSQL("UPDATE $TABLE_TRACKS SET size_bytes = $ROW_BYTES")
+            createCovers(db)
+            createStats(db)
+            Log.d(TAG, "Upgraded from v$oldVersion: covers counted once")
+        }
+    }
+
+    /**
+     * Creates [TABLE_COVERS] (one row per local cover path: size of the
+     * file and its variants, number of rows using it) from the current
+     * rows. One-time look at the cover files; afterwards [cacheTrack] and
+     * the cover-size generation keep the sizes current.
+     */
+    private fun createCovers(db: SQLiteDatabase) {
+        db.execSQL("""
+            CREATE TABLE $TABLE_COVERS (
+                path TEXT PRIMARY KEY,
+                size_bytes INTEGER NOT NULL,
+                refs INTEGER NOT NULL
+            )
+        """)
+        val covers = db.rawQuery(
+            "SELECT local_cover_path, COUNT(*) FROM $TABLE_TRACKS WHERE local_cover_path IS NOT NULL GROUP BY local_cover_path",
+            null
+        ).use { cursor ->
+            buildList { while (cursor.moveToNext()) add(cursor.getString(0) to cursor.getInt(1)) }
+        }
+        covers.forEach { (path, refs) ->
+            db.execSQL(
+                "INSERT INTO $TABLE_COVERS(path, size_bytes, refs) VALUES (?, ?, ?)",
+                arrayOf<Any>(path, coverBytes(path), refs)
+            )
+        }
+    }
+
+    /**
+     * Creates [TABLE_STATS] (one row: track count, total bytes) from the
+     * current rows and the triggers that keep it current. Total bytes are
+     * the rows' size_bytes plus every cover with at least one reference;
+     * a cover's size enters on its first reference and leaves with its
+     * last, and a row's insert/delete moves the reference count. Inserts
+     * must not rely on REPLACE dropping the old row: that delete fires no
+     * trigger. [createCovers] must have run before.
+     */
+    private fun createStats(db: SQLiteDatabase) {
+        db.execSQL("""
+            CREATE TABLE $TABLE_STATS (
+                id INTEGER PRIMARY KEY CHECK (id = 0),
+                track_count INTEGER NOT NULL,
+                total_bytes INTEGER NOT NULL
+            )
+        """)
+        db.execSQL("""
+            INSERT INTO $TABLE_STATS SELECT 0, COUNT(*),
+                COALESCE(SUM(size_bytes), 0)
+                    + (SELECT COALESCE(SUM(size_bytes), 0) FROM $TABLE_COVERS WHERE refs > 0)
+            FROM $TABLE_TRACKS
+        """)
+        db.execSQL("""
+            CREATE TRIGGER tracks_stats_insert AFTER INSERT ON $TABLE_TRACKS BEGIN
+                UPDATE $TABLE_STATS SET track_count = track_count + 1,
+                    total_bytes = total_bytes + NEW.size_bytes WHERE id = 0;
+                UPDATE $TABLE_COVERS SET refs = refs + 1 WHERE path = NEW.local_cover_path;
+            END
+        """)
+        db.execSQL("""
+            CREATE TRIGGER tracks_stats_delete AFTER DELETE ON $TABLE_TRACKS BEGIN
+                UPDATE $TABLE_STATS SET track_count = track_count - 1,
+                    total_bytes = total_bytes - OLD.size_bytes WHERE id = 0;
+                UPDATE $TABLE_COVERS SET refs = refs - 1 WHERE path = OLD.local_cover_path;
+                DELETE FROM $TABLE_COVERS WHERE path = OLD.local_cover_path AND refs <= 0;
+            END
+        """)
+        db.execSQL("""
+            CREATE TRIGGER tracks_stats_update AFTER UPDATE OF size_bytes ON $TABLE_TRACKS BEGIN
+                UPDATE $TABLE_STATS SET total_bytes = total_bytes - OLD.size_bytes + NEW.size_bytes WHERE id = 0;
+            END
+        """)
+        // Covers count while referenced: first reference, last reference and resizes
+        db.execSQL("""
+            CREATE TRIGGER covers_stats_update AFTER UPDATE ON $TABLE_COVERS BEGIN
+                UPDATE $TABLE_STATS SET total_bytes = total_bytes
+                    - (CASE WHEN OLD.refs > 0 THEN OLD.size_bytes ELSE 0 END)
+                    + (CASE WHEN NEW.refs > 0 THEN NEW.size_bytes ELSE 0 END) WHERE id = 0;
+            END
+        """)
+        db.execSQL("""
+            CREATE TRIGGER covers_stats_delete AFTER DELETE ON $TABLE_COVERS BEGIN
+                UPDATE $TABLE_STATS SET total_bytes = total_bytes
+                    - (CASE WHEN OLD.refs > 0 THEN OLD.size_bytes ELSE 0 END) WHERE id = 0;
+            END
+        """)
+    }
+
+    private fun createFtsIndex(db: SQLiteDatabase) {
+        // Default tokenizer: the indexed text is already normalised
+        // (lowercase a-z, 0-9, umlauts, single words split by spaces)
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS $TABLE_FTS USING fts4(artist, title)")
+    }
+
+    /** Refills [TABLE_FTS] from [TABLE_TRACKS]; returns the number of indexed rows. */
+    private fun rebuildFtsIndex(db: SQLiteDatabase): Int {
+        var count = 0
+        db.beginTransaction()
+        try {
+            db.execSQL("DELETE FROM $TABLE_FTS")
+            db.rawQuery("SELECT rowid, artist, title FROM $TABLE_TRACKS", null).use { cursor ->
+                while (cursor.moveToNext()) {
+                    indexTrack(db, cursor.getLong(0), cursor.getString(1) ?: "", cursor.getString(2) ?: "")
+                    count++
+                }
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+        return count
+    }
+
+    private fun indexTrack(db: SQLiteDatabase, rowId: Long, artist: String, title: String) {
+        db.execSQL(
+            "INSERT INTO $TABLE_FTS(docid, artist, title) VALUES (?, ?, ?)",
+            arrayOf<Any>(rowId, DeezerCacheMatcher.normalize(artist), DeezerCacheMatcher.normalize(title))
+        )
+    }
+
+    /** Drops the index entry of the row stored under [trackId], if any. */
+    private fun unindexTrack(db: SQLiteDatabase, trackId: String) {
+        db.rawQuery("SELECT rowid FROM $TABLE_TRACKS WHERE track_id = ?", arrayOf(trackId)).use { cursor ->
+            if (cursor.moveToFirst()) {
+                db.execSQL("DELETE FROM $TABLE_FTS WHERE docid = ?", arrayOf<Any>(cursor.getLong(0)))
+            }
+        }
     }
 
     /**
@@ -88,8 +300,10 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
             }
 
             val db = writableDatabase
+            val trackId = track.trackId ?: "${track.artist}|${track.title}".lowercase()
+            val now = System.currentTimeMillis()
             val values = ContentValues().apply {
-                put("track_id", track.trackId ?: "${track.artist}|${track.title}".lowercase())
+                put("track_id", trackId)
                 put("artist", track.artist)
                 put("title", track.title)
                 put("all_artists", JSONArray(track.allArtists).toString())
@@ -112,17 +326,44 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
                 put("cover_url_medium", track.coverUrlMedium)
                 put("deezer_url", track.deezerUrl)
                 put("local_cover_path", localCoverPath)
-                put("cached_at", System.currentTimeMillis())
+                put("cached_at", now)
+                put("last_hit_at", now)
+                put("size_bytes", ROW_BYTES)
             }
 
-            val rowsAffected = db.insertWithOnConflict(
-                TABLE_TRACKS,
-                null,
-                values,
-                SQLiteDatabase.CONFLICT_REPLACE
-            )
+            // The new row gets a new rowid, so the index entry moves with it.
+            // Explicit delete instead of REPLACE so the stats trigger sees it.
+            db.beginTransaction()
+            val rowId = try {
+                unindexTrack(db, trackId)
+                db.delete(TABLE_TRACKS, "track_id = ?", arrayOf(trackId))
+                // After the delete, which drops a cover row it held the last reference to;
+                // the insert trigger then takes the reference
+                if (localCoverPath != null) {
+                    db.execSQL(
+                        "INSERT OR IGNORE INTO $TABLE_COVERS(path, size_bytes, refs) VALUES (?, ?, 0)",
+                        arrayOf<Any>(localCoverPath, coverBytes(localCoverPath))
+                    )
+                }
+                val id = db.insertWithOnConflict(
+                    TABLE_TRACKS,
+                    null,
+                    values,
+                    SQLiteDatabase.CONFLICT_REPLACE
+                )
+                if (id != -1L) indexTrack(db, id, track.artist, track.title)
+                db.setTransactionSuccessful()
+                id
+            } finally {
+                db.endTransaction()
+            }
+
+            if (rowId != -1L) textIndex.put(trackId, track.artist, track.title, track.popularity)
 
-            Log.d(TAG, "Cached track: ${track.artist} - ${track.title} (row=$rowsAffected)")
+            Log.d(TAG, "Cached track: ${track.artist} - ${track.title} (row=$rowId)")
+            localCoverPath?.let { generateCoverSizesAsync(it) }
+            // Already on the IO dispatcher: evict in line, off the caller's thread
+            evictIfOverBudget()
         } catch (e: Exception) {
             Log.e(TAG, "Failed to cache track", e)
         }
@@ -131,49 +372,52 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
     /**
      * Search for a track in local cache by query string.
      * STRICT matching: Only returns if BOTH artist AND title are found in the query.
+     * Answered by [TrackTextIndex] once it is filled; before that, candidates
+     * come from the FTS index: rows sharing a word with the query in artist
+     * and in title.
      */
     fun searchLocal(query: String): TrackInfo? {
-        val normalizedQuery = normalizeForSearch(query)
+        val normalizedQuery = DeezerCacheMatcher.normalize(query)
         if (normalizedQuery.length < 3) return null
 
-        val db = readableDatabase
-
-        // Get all cached tracks and check for strict match
-        val cursor = db.rawQuery("""
-            SELECT * FROM $TABLE_TRACKS
-            ORDER BY popularity DESC
-        """, null)
-
-        cursor.use {
-            while (it.moveToNext()) {
-                val track = cursorToTrackInfo(it) ?: continue
-                val normalizedArtist = normalizeForSearch(track.artist ?: "")
-                val normalizedTitle = normalizeForSearch(track.title ?: "")
-
-                // STRICT: Both artist AND title must be present in query
-                if (normalizedArtist.length >= 2 && normalizedTitle.length >= 2) {
-                    val artistInQuery = normalizedQuery.contains(normalizedArtist)
-                    val titleInQuery = normalizedQuery.contains(normalizedTitle)
-
-                    if (artistInQuery && titleInQuery) {
-                        Log.d(TAG, "Local search STRICT hit: ${track.artist} - ${track.title}")
-                        return track
-                    }
-                }
+        if (textIndex.isComplete) {
+            // The automaton applies the STRICT rule itself, so an empty result is final
+            val track = textIndex.find(normalizedQuery).firstNotNullOfOrNull { loadTrack(it) }
+            if (track != null) {
+                Log.d(TAG, "Local search STRICT hit (index): ${track.artist} - ${track.title}")
+            } else {
+                Log.d(TAG, "Local search: no strict match for '$query'")
             }
+            return track
+        }
+        loadTextIndexAsync()
+
+        val words = DeezerCacheMatcher.tokens(normalizedQuery)
+        val track = findFirstCandidate(
+            DeezerCacheMatcher.ftsMatch("artist", words),
+            DeezerCacheMatcher.ftsMatch("title", words)
+        ) { artist, title ->
+            // STRICT: Both artist AND title must be present in query
+            DeezerCacheMatcher.matchesQuery(normalizedQuery, artist, title)
         }
 
-        Log.d(TAG, "Local search: no strict match for '$query'")
-        return null
+        if (track != null) {
+            Log.d(TAG, "Local search STRICT hit: ${track.artist} - ${track.title}")
+        } else {
+            Log.d(TAG, "Local search: no strict match for '$query'")
+        }
+        return track
     }
 
     /**
      * Search by artist and title separately.
      * STRICT: Requires BOTH artist AND title to match closely.
+     * Candidates come from the FTS index as prefix matches, so a shorter
+     * input ("Radio") still finds the longer cached name ("Radiohead").
      */
     fun searchLocalByParts(artist: String?, title: String?): TrackInfo? {
-        val normalizedArtist = artist?.let { normalizeForSearch(it) }?.takeIf { it.length >= 2 }
-        val normalizedTitle = title?.let { normalizeForSearch(it) }?.takeIf { it.length >= 2 }
+        val normalizedArtist = artist?.let { DeezerCacheMatcher.normalize(it) }?.takeIf { it.length >= 2 }
+        val normalizedTitle = title?.let { DeezerCacheMatcher.normalize(it) }?.takeIf { it.length >= 2 }
 
         // STRICT: Require BOTH artist AND title
         if (normalizedArtist == null || normalizedTitle == null) {
@@ -181,36 +425,124 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
             return null
         }
 
+        val track = findFirstCandidate(
+            DeezerCacheMatcher.ftsMatch("artist", DeezerCacheMatcher.tokens(normalizedArtist), prefix = true),
+            DeezerCacheMatcher.ftsMatch("title", DeezerCacheMatcher.tokens(normalizedTitle), prefix = true)
+        ) { cachedArtist, cachedTitle ->
+            DeezerCacheMatcher.matchesParts(normalizedArtist, normalizedTitle, cachedArtist, cachedTitle)
+        }
+
+        if (track != null) {
+            Log.d(TAG, "Local search STRICT hit (parts): ${track.artist} - ${track.title}")
+        } else {
+            Log.d(TAG, "Local search (parts): no strict match for '$artist - $title'")
+        }
+        return track
+    }
+
+    /**
+     * Walks the rows hit by both FTS expressions in popularity order and
+     * returns the first one [verify] accepts. Only artist/title are read
+     * per candidate; the full [TrackInfo] is built for the hit alone.
+     */
+    private fun findFirstCandidate(
+        artistMatch: String,
+        titleMatch: String,
+        verify: (artist: String, title: String) -> Boolean
+    ): TrackInfo? {
         val db = readableDatabase
 
-        // Get all cached tracks and check for strict match
+        // Two MATCHes joined by INTERSECT: an OR-only expression reads the
+        // same under the standard and the enhanced FTS query syntax
         val cursor = db.rawQuery("""
-            SELECT * FROM $TABLE_TRACKS
+            SELECT rowid, artist, title FROM $TABLE_TRACKS
+            WHERE rowid IN (
+                SELECT docid FROM $TABLE_FTS WHERE $TABLE_FTS MATCH ?
+                INTERSECT
+                SELECT docid FROM $TABLE_FTS WHERE $TABLE_FTS MATCH ?
+            )
             ORDER BY popularity DESC
-        """, null)
+        """, arrayOf(artistMatch, titleMatch))
+
+        val hitRowId = cursor.use {
+            var hit: Long? = null
+            while (hit == null && it.moveToNext()) {
+                if (verify(it.getString(1) ?: "", it.getString(2) ?: "")) hit = it.getLong(0)
+            }
+            hit
+        } ?: return null
 
+        recordHit("rowid = ?", hitRowId.toString())
+        return db.rawQuery("SELECT * FROM $TABLE_TRACKS WHERE rowid = ?", arrayOf(hitRowId.toString())).use {
+            if (it.moveToFirst()) cursorToTrackInfo(it) else null
+        }
+    }
+
+    private fun loadTrack(trackId: String): TrackInfo? {
+        val track = readableDatabase.rawQuery(
+            "SELECT * FROM $TABLE_TRACKS WHERE track_id = ? LIMIT 1",
+            arrayOf(trackId)
+        ).use {
+            if (it.moveToFirst()) cursorToTrackInfo(it) else null
+        }
+        if (track != null) recordHit("track_id = ?", trackId)
+        return track
+    }
+
+    /**
+     * Stamps last_hit_at for the LRU order. Skips rows hit within
+     * [HIT_RESOLUTION_MS], so a repeating RT doesn't write on every update.
+     */
+    private fun recordHit(where: String, arg: String) {
+        val now = System.currentTimeMillis()
+        try {
+            writableDatabase.execSQL(
+                "UPDATE $TABLE_TRACKS SET last_hit_at = ? WHERE $where AND last_hit_at < ?",
+                arrayOf<Any>(now, arg, now - HIT_RESOLUTION_MS)
+            )
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to record cache hit", e)
+        }
+    }
+
+    /** Starts filling [textIndex] on a background thread unless it is filled or filling. */
+    private fun loadTextIndexAsync() {
+        if (textIndex.isComplete || !textIndexLoading.compareAndSet(false, true)) return
+        scope.launch {
+            try {
+                loadTextIndex()
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to build text index", e)
+            } finally {
+                textIndexLoading.set(false)
+            }
+        }
+    }
+
+    /**
+     * Fills [textIndex] from [TABLE_TRACKS]. Tracks cached meanwhile are
+     * already in the index and are not overwritten; a [clearCache] or
+     * [importFromZip] in between aborts the fill.
+     */
+    internal fun loadTextIndex() {
+        val generation = textIndex.generation()
+        val cursor = readableDatabase.rawQuery(
+            "SELECT track_id, artist, title, popularity FROM $TABLE_TRACKS", null
+        )
         cursor.use {
             while (it.moveToNext()) {
-                val track = cursorToTrackInfo(it) ?: continue
-                val cachedArtist = normalizeForSearch(track.artist ?: "")
-                val cachedTitle = normalizeForSearch(track.title ?: "")
-
-                // Check if artist matches (either direction)
-                val artistMatches = cachedArtist.contains(normalizedArtist) ||
-                                   normalizedArtist.contains(cachedArtist)
-                // Check if title matches (either direction)
-                val titleMatches = cachedTitle.contains(normalizedTitle) ||
-                                  normalizedTitle.contains(cachedTitle)
-
-                if (artistMatches && titleMatches) {
-                    Log.d(TAG, "Local search STRICT hit (parts): ${track.artist} - ${track.title}")
-                    return track
-                }
+                val added = textIndex.putIfAbsent(
+                    generation,
+                    it.getString(0),
+                    it.getString(1) ?: "",
+                    it.getString(2) ?: "",
+                    it.getInt(3)
+                )
+                if (!added) return
             }
         }
-
-        Log.d(TAG, "Local search (parts): no strict match for '$artist - $title'")
-        return null
+        textIndex.markComplete(generation)
+        Log.d(TAG, "Text index built: ${textIndex.size} tracks")
     }
 
     /**
@@ -223,11 +555,17 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
             "SELECT local_cover_path FROM $TABLE_TRACKS WHERE track_id = ? LIMIT 1",
             arrayOf(trackId)
         )
-        return cursor.use {
+        val path = cursor.use {
             if (it.moveToFirst()) {
                 it.getString(0)?.takeIf { path -> path.startsWith("/") }
             } else null
         }
+        if (path != null) {
+            recordHit("track_id = ?", trackId)
+            // Covers cached before the size variants existed get them on first use
+            generateCoverSizesAsync(path)
+        }
+        return path
     }
 
     /**
@@ -254,12 +592,105 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
      */
     fun getCacheStats(): Pair<Int, Long> {
         val db = readableDatabase
-        val cursor = db.rawQuery("SELECT COUNT(*) FROM $TABLE_TRACKS", null)
-        val count = cursor.use {
-            if (it.moveToFirst()) it.getInt(0) else 0
+        val cursor = db.rawQuery("SELECT track_count, total_bytes FROM $TABLE_STATS WHERE id = 0", null)
+        return cursor.use {
+            if (it.moveToFirst()) Pair(it.getInt(0), it.getLong(1)) else Pair(0, 0L)
+        }
+    }
+
+    /**
+     * Sets the byte and track budget (see [DEFAULT_MAX_BYTES] and
+     * [DEFAULT_MAX_TRACKS]); a lower budget is enforced right away.
+     */
+    fun setBudget(maxBytes: Long, maxTracks: Int) {
+        this.maxBytes = maxBytes.coerceAtLeast(MIN_MAX_BYTES)
+        this.maxTracks = maxTracks.coerceAtLeast(MIN_MAX_TRACKS)
+        evictInBackground()
+    }
+
+    private fun evictInBackground() {
+        scope.launch {
+            try {
+                evictIfOverBudget()
+            } catch (e: Exception) {
+                Log.e(TAG, "Eviction failed", e)
+            }
+        }
+    }
+
+    /** Runs [evictToBudget] unless within budget or another eviction is running. */
+    private fun evictIfOverBudget() {
+        val (count, bytes) = getCacheStats()
+        if (count <= maxTracks && bytes <= maxBytes) return
+        if (!evicting.compareAndSet(false, true)) return
+        try {
+            evictToBudget()
+        } finally {
+            evicting.set(false)
         }
-        val coverSize = coverDir.listFiles()?.sumOf { it.length() } ?: 0L
-        return Pair(count, coverSize)
+    }
+
+    /**
+     * Deletes the least recently hit tracks until both totals are at
+     * [EVICT_TARGET] of the budget, together with their index entries and
+     * covers. No-op while within budget. Returns the number of evicted tracks.
+     */
+    internal fun evictToBudget(): Int {
+        val (count, bytes) = getCacheStats()
+        if (count <= maxTracks && bytes <= maxBytes) return 0
+        val targetTracks = (maxTracks * EVICT_TARGET).toInt()
+        val targetBytes = (maxBytes * EVICT_TARGET).toLong()
+
+        // Pick the victims first; deleting under an open cursor on the same table is unsafe
+        class Victim(val rowId: Long, val trackId: String, val coverPath: String?)
+        val victims = ArrayList<Victim>()
+        var remainingTracks = count
+        var remainingBytes = bytes
+        // References each victim's cover has left; its bytes go with the last one
+        val coverRefsLeft = HashMap<String, Int>()
+        val db = writableDatabase
+        db.rawQuery("""
+            SELECT t.rowid, t.track_id, t.size_bytes, t.local_cover_path, c.size_bytes, c.refs
+            FROM $TABLE_TRACKS t LEFT JOIN $TABLE_COVERS c ON c.path = t.local_cover_path
+            ORDER BY t.last_hit_at ASC
+        """, null).use { cursor ->
+            while ((remainingTracks > targetTracks || remainingBytes > targetBytes) && cursor.moveToNext()) {
+                val coverPath = cursor.getString(3)
+                victims += Victim(cursor.getLong(0), cursor.getString(1), coverPath)
+                remainingTracks--
+                remainingBytes -= cursor.getLong(2)
+                if (coverPath != null && !cursor.isNull(5)) {
+                    val left = (coverRefsLeft[coverPath] ?: cursor.getInt(5)) - 1
+                    coverRefsLeft[coverPath] = left
+                    if (left == 0) remainingBytes -= cursor.getLong(4)
+                }
+            }
+        }
+
+        var evicted = 0
+        db.beginTransaction()
+        try {
+            for (victim in victims) {
+                db.execSQL("DELETE FROM $TABLE_FTS WHERE docid = ?", arrayOf<Any>(victim.rowId))
+                // Matched by rowid: a track re-cached meanwhile has a new row and stays
+                if (db.delete(TABLE_TRACKS, "rowid = ?", arrayOf(victim.rowId.toString())) > 0) {
+                    // Before the commit, so a concurrent cacheTrack re-adds after us
+                    textIndex.remove(victim.trackId)
+                    evicted++
+                }
+            }
+            db.setTransactionSuccessful()
+        } catch (e: Exception) {
+            // The index may have lost live tracks; let it refill
+            textIndex.clear()
+            throw e
+        } finally {
+            db.endTransaction()
+        }
+
+        victims.mapNotNull { it.coverPath }.distinct().forEach { deleteCoverIfUnused(it) }
+        Log.d(TAG, "Evicted $evicted tracks (was $count tracks, $bytes bytes)")
+        return evicted
     }
 
     /**
@@ -267,7 +698,11 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
      */
     fun clearCache() {
         writableDatabase.execSQL("DELETE FROM $TABLE_TRACKS")
+        writableDatabase.execSQL("DELETE FROM $TABLE_FTS")
+        writableDatabase.execSQL("DELETE FROM $TABLE_COVERS")
+        textIndex.clear()
         coverDir.listFiles()?.forEach { it.delete() }
+        coverSizesRequested.clear()
         Log.d(TAG, "Cache cleared")
     }
 
@@ -352,6 +787,9 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
                 }
             }
 
+            // The index describes the replaced database; it refills on the next search
+            textIndex.clear()
+
             // Count imported tracks
             val (count, _) = getCacheStats()
             importedCount = count
@@ -360,48 +798,58 @@ class DeezerCache(private val context: Context) : SQLiteOpenHelper(context, DATA
             importedCount
         } catch (e: Exception) {
             Log.e(TAG, "Import failed", e)
+            textIndex.clear()
             -1
         }
     }
 
     // --- Private helper methods ---
 
-    private fun normalizeForSearch(text: String): String {
-        return text.lowercase()
-            .replace(Regex("\\s+"), " ")
-            .replace(Regex("[^a-z0-9äöüß\\s]"), "")
-            .trim()
+    /** Size of a cover in [coverDir] incl. its size variants; 0 for remote URLs and missing files. */
+    private fun coverBytes(path: String?): Long {
+        if (path == null) return 0L
+        val file = File(path)
+        return if (file.parentFile == coverDir) coverStore.filesOf(file).sumOf { it.length() } else 0L
     }
 
-    private suspend fun downloadCover(url: String, identifier: String): String? = withContext(Dispatchers.IO) {
-        try {
-            val fileName = "${md5(identifier)}.jpg"
-            val file = File(coverDir, fileName)
-
-            if (file.exists()) return@withContext file.absolutePath
-
-            val connection = URL(url).openConnection()
-            connection.connectTimeout = 5000
-            connection.readTimeout = 5000
+    private fun deleteCoverIfUnused(path: String) {
+        val file = File(path)
+        if (file.parentFile != coverDir) return
+        // The covers row goes with the last track referencing it
+        val inUse = readableDatabase.rawQuery(
+            "SELECT 1 FROM $TABLE_COVERS WHERE path = ?",
+            arrayOf(path)
+        ).use { it.moveToFirst() }
+        if (!inUse) coverStore.delete(file)
+    }
 
-            connection.getInputStream().use { input ->
-                val bitmap = BitmapFactory.decodeStream(input)
-                if (bitmap != null) {
-                    FileOutputStream(file).use { output ->
-                        bitmap.compress(Bitmap.CompressFormat.JPEG, 85, output)
-                    }
-                    bitmap.recycle()
-                    Log.d(TAG, "Downloaded cover: $fileName")
-                    return@withContext file.absolutePath
+    /**
+     * Derives the [CoverSize] variants of a cached cover on the IO
+     * dispatcher (once per path and process) and recounts its size in
+     * [TABLE_COVERS].
+     */
+    private fun generateCoverSizesAsync(path: String) {
+        val file = File(path)
+        if (file.parentFile != coverDir || !coverSizesRequested.add(path)) return
+        scope.launch {
+            try {
+                if (coverStore.generateSizes(file) > 0) {
+                    writableDatabase.execSQL(
+                        "UPDATE $TABLE_COVERS SET size_bytes = ? WHERE path = ?",
+                        arrayOf<Any>(coverBytes(path), path)
+                    )
                 }
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to generate cover sizes", e)
             }
-            null
-        } catch (e: Exception) {
-            Log.e(TAG, "Failed to download cover: $url", e)
-            null
         }
     }
 
+    /** Stores the cover bytes as downloaded; size variants follow after the insert. */
+    private suspend fun downloadCover(url: String, identifier: String): String? = withContext(Dispatchers.IO) {
+        coverStore.download(url, File(coverDir, "${md5(identifier)}.jpg"))?.absolutePath
+    }
+
     private fun cursorToTrackInfo(cursor: android.database.Cursor): TrackInfo? {
         return try {
             fun getString(col: String) = cursor.getString(cursor.getColumnIndexOrThrow(col))
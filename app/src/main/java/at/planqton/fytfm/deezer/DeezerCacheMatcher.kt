@@ -0,0 +1,84 @@
+package at.planqton.fytfm.deezer
+
+/**
+ * Pure matching rules behind [DeezerCache.searchLocal] and
+ * [DeezerCache.searchLocalByParts]. Extracted from the SQLite loop so the
+ * normalisation, the full-text query and the STRICT artist+title checks
+ * can be unit-tested and benchmarked on the JVM without a database.
+ *
+ * All functions are stateless. The cache narrows the table to candidates
+ * through its full-text index (built from [normalize]d artist/title), then
+ * feeds them one row at a time in popularity order to the STRICT checks
+ * and returns the first hit.
+ */
+internal object DeezerCacheMatcher {
+
+    /** Upper bound on words per full-text query; a long RT still gives a bounded query. */
+    const val MAX_QUERY_TOKENS = 32
+
+    private val WHITESPACE = Regex("\\s+")
+    private val NON_SEARCH_CHARS = Regex("[^a-z0-9äöüß\\s]")
+
+    /**
+     * Lowercases, collapses whitespace and drops everything except
+     * `a-z`, `0-9`, umlauts/ß and spaces.
+     *
+     * Example: `"AC/DC - Thunderstruck!"` → `"acdc  thunderstruck"` (whitespace
+     * is collapsed before punctuation is removed, so `" - "` leaves two spaces).
+     */
+    fun normalize(text: String): String {
+        return text.lowercase()
+            .replace(WHITESPACE, " ")
+            .replace(NON_SEARCH_CHARS, "")
+            .trim()
+    }
+
+    /**
+     * STRICT free-text match: both the normalised [artist] and [title] of a
+     * cached row must appear inside [normalizedQuery]. Fields shorter than
+     * two characters never match, so an empty row can't hit everything.
+     */
+    fun matchesQuery(normalizedQuery: String, artist: String, title: String): Boolean {
+        val normalizedArtist = normalize(artist)
+        val normalizedTitle = normalize(title)
+        if (normalizedArtist.length < 2 || normalizedTitle.length < 2) return false
+        return normalizedQuery.contains(normalizedArtist) && normalizedQuery.contains(normalizedTitle)
+    }
+
+    /**
+     * STRICT parts match: artist and title each match when either side
+     * contains the other (after normalisation). Both inputs must already
+     * be normalised and at least two characters long.
+     */
+    fun matchesParts(normalizedArtist: String, normalizedTitle: String, artist: String, title: String): Boolean {
+        val cachedArtist = normalize(artist)
+        val cachedTitle = normalize(title)
+        val artistMatches = cachedArtist.contains(normalizedArtist) || normalizedArtist.contains(cachedArtist)
+        val titleMatches = cachedTitle.contains(normalizedTitle) || normalizedTitle.contains(cachedTitle)
+        return artistMatches && titleMatches
+    }
+
+    /**
+     * Distinct words of a [normalize]d text, in order, at most
+     * [MAX_QUERY_TOKENS] — the terms of a full-text query. The index
+     * splits the stored normalised text into the same words.
+     */
+    fun tokens(normalized: String): List<String> {
+        return normalized.split(' ')
+            .filter { it.isNotEmpty() }
+            .distinct()
+            .take(MAX_QUERY_TOKENS)
+    }
+
+    /**
+     * FTS `MATCH` expression that hits rows whose [column] contains any of
+     * [tokens] (`artist:a OR artist:b`). With [prefix] each token also
+     * matches longer words (`artist:a*`). Only ORs, so the expression
+     * means the same under the standard and the enhanced FTS query syntax.
+     * Tokens come from [normalize], so they need no quoting.
+     */
+    fun ftsMatch(column: String, tokens: List<String>, prefix: Boolean = false): String {
+        val suffix = if (prefix) "*" else ""
+        return tokens.joinToString(" OR ") { "$column:$it$suffix" }
+    }
+}
@@ -1,8 +1,11 @@
 package at.planqton.fytfm.deezer
 
 import android.util.Log
+import at.planqton.fytfm.data.http.HttpStack
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import okhttp3.*
 import org.json.JSONException
@@ -10,7 +13,7 @@ import org.json.JSONObject
 import java.io.IOException
 import java.net.SocketTimeoutException
 import java.net.UnknownHostException
-import java.util.concurrent.TimeUnit
+import kotlin.coroutines.resumeWithException
 
 data class TrackInfo(
     // Track basics
@@ -59,6 +62,11 @@ class DeezerClient {
         private const val MAX_RETRIES = 2
         private const val RETRY_DELAY_MS = 500L
 
+        // searchTrackByParts: strategies running at once, and how long one
+        // runs before the next is started alongside it (see StrategyRace)
+        private const val MAX_PARALLEL_STRATEGIES = 3
+        private const val STRATEGY_HEDGE_DELAY_MS = 400L
+
         // Debug: Simuliert fehlende Internetverbindung
         @Volatile
         var debugInternetDisabled = false
@@ -67,11 +75,19 @@ class DeezerClient {
     // Callback for network errors (optional)
     var onNetworkError: ((DeezerError) -> Unit)? = null
 
-    private val client = OkHttpClient.Builder()
-        .connectTimeout(10, TimeUnit.SECONDS)
-        .readTimeout(10, TimeUnit.SECONDS)
-        .retryOnConnectionFailure(true)
-        .build()
+    // Callback per searchTrackByParts strategy step (optional, e.g. ParserLogger)
+    var onStrategyStep: ((label: String, latencyMs: Long, outcome: StrategyOutcome) -> Unit)? = null
+
+    private val client = HttpStack.shared.client(connectTimeoutSeconds = 10, readTimeoutSeconds = 10)
+
+    // Search steps: single-flight + TTL cache for hits and misses
+    private val lookups = DeezerLookupCache<TrackInfo>()
+
+    /** Hit/miss counters of the search-step cache, for the cache dialog. */
+    internal fun getLookupStats(): DeezerLookupCache.Stats = lookups.stats()
+
+    /** Forget cached hits and misses, e.g. when the Deezer cache is cleared. */
+    fun clearLookupCache() = lookups.clear()
 
     /**
      * Search for a track on Deezer with multiple fallback strategies
@@ -83,13 +99,13 @@ class DeezerClient {
         }
 
         // Try simple search first
-        var result = doSearch(query, "simple")
+        var result = search(query, "simple")
 
         // Try cleaned query
         if (result == null) {
             val cleanedQuery = DeezerQueryBuilder.cleanFreeQuery(query)
             if (cleanedQuery != query) {
-                result = doSearch(cleanedQuery, "cleaned")
+                result = search(cleanedQuery, "cleaned")
             }
         }
 
@@ -99,8 +115,10 @@ class DeezerClient {
     /**
      * Search with specific artist and title parameters. The actual fallback
      * waterfall (which queries to try and in what order) lives in
-     * [DeezerSearchStrategies] — this just iterates and short-circuits on
-     * the first successful hit.
+     * [DeezerSearchStrategies]; [StrategyRace] runs it hedged — the
+     * highest-priority hit wins, lower steps start after a short delay and
+     * are cancelled once the result is known. Per-step latency and outcome
+     * go to [onStrategyStep].
      */
     suspend fun searchTrackByParts(artist: String?, title: String?): TrackInfo? = withContext(Dispatchers.IO) {
         if (debugInternetDisabled) {
@@ -108,11 +126,15 @@ class DeezerClient {
             return@withContext null
         }
 
-        for (step in DeezerSearchStrategies.buildStrategies(artist, title)) {
-            val result = doSearch(step.query, step.label)
-            if (result != null) return@withContext result
-        }
-        null
+        StrategyRace.first(
+            steps = DeezerSearchStrategies.buildStrategies(artist, title),
+            maxParallel = MAX_PARALLEL_STRATEGIES,
+            hedgeDelayMs = STRATEGY_HEDGE_DELAY_MS,
+            onStepDone = { step, latencyMs, outcome ->
+                Log.d(TAG, "Strategy [${step.label}]: $outcome after ${latencyMs}ms")
+                onStrategyStep?.invoke(step.label, latencyMs, outcome)
+            }
+        ) { step -> search(step.query, step.label) }
     }
 
     /**
@@ -205,7 +227,30 @@ class DeezerClient {
         }
     }
 
-    private suspend fun doSearch(query: String, step: String): TrackInfo? {
+    /** One search step through [lookups]: coalesced with identical in-flight steps, cached when definitive. */
+    private suspend fun search(query: String, step: String): TrackInfo? =
+        lookups.getOrLoad(DeezerLookupCache.key(step, query)) { doSearch(query, step) }
+
+    /**
+     * Executes the call without blocking; cancelling the coroutine cancels
+     * the HTTP request, so a step cancelled by [StrategyRace] frees its
+     * connection right away.
+     */
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private suspend fun Call.await(): Response = suspendCancellableCoroutine { continuation ->
+        continuation.invokeOnCancellation { cancel() }
+        enqueue(object : Callback {
+            override fun onResponse(call: Call, response: Response) {
+                continuation.resume(response) { response.close() }
+            }
+
+            override fun onFailure(call: Call, e: IOException) {
+                if (continuation.isActive) continuation.resumeWithException(e)
+            }
+        })
+    }
+
+    private suspend fun doSearch(query: String, step: String): Lookup<TrackInfo> {
         Log.d(TAG, "Searching [$step]: $query")
 
         val searchUrl = HttpUrl.Builder()
@@ -225,29 +270,31 @@ class DeezerClient {
         for (attempt in 1..MAX_RETRIES) {
             try {
                 return withContext(Dispatchers.IO) {
-                    client.newCall(request).execute().use { response ->
+                    client.newCall(request).await().use { response ->
                         when {
                             response.isSuccessful -> {
                                 val responseBody = response.body?.string()
                                 if (responseBody.isNullOrBlank()) {
                                     Log.e(TAG, "Empty response ($step)")
-                                    return@withContext null
+                                    return@withContext Lookup.Failed
                                 }
 
                                 try {
                                     val json = JSONObject(responseBody)
                                     val trackItem = json.optJSONArray("data")?.optJSONObject(0)
-                                        ?: return@withContext null
+                                        ?: return@withContext Lookup.NotFound
 
                                     val result = parseTrackItem(trackItem, step)
                                     if (result != null) {
                                         Log.d(TAG, "Found [$step]: ${result.artist} - ${result.title} (popularity=${result.popularity}, duration=${result.durationMs}ms)")
+                                        Lookup.Found(result)
+                                    } else {
+                                        Lookup.Failed
                                     }
-                                    result
                                 } catch (e: JSONException) {
                                     Log.e(TAG, "JSON parse error ($step)", e)
                                     onNetworkError?.invoke(DeezerError.ParseError(e))
-                                    null
+                                    Lookup.Failed
                                 }
                             }
                             response.code in 500..599 -> {
@@ -262,7 +309,7 @@ class DeezerClient {
                             else -> {
                                 Log.e(TAG, "HTTP error ($step): ${response.code}")
                                 onNetworkError?.invoke(DeezerError.HttpError(response.code))
-                                null
+                                Lookup.Failed
                             }
                         }
                     }
@@ -275,7 +322,7 @@ class DeezerClient {
             } catch (e: UnknownHostException) {
                 Log.e(TAG, "No network ($step)")
                 onNetworkError?.invoke(DeezerError.NoNetwork)
-                return null // Don't retry on no network
+                return Lookup.Failed // Don't retry on no network
             } catch (e: IOException) {
                 Log.w(TAG, "IO error ($step), attempt $attempt/$MAX_RETRIES: ${e.message}")
                 lastError = e
@@ -286,6 +333,6 @@ class DeezerClient {
         if (lastError != null) {
             Log.e(TAG, "Search failed after $MAX_RETRIES attempts ($step)", lastError)
         }
-        return null
+        return Lookup.Failed
     }
 }
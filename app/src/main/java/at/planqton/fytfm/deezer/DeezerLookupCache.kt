@@ -0,0 +1,140 @@
+package at.planqton.fytfm.deezer
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Outcome of one Deezer lookup. Only [Found] and [NotFound] are definitive
+ * and get cached; [Failed] (network, timeout, 5xx, parse errors) is retried
+ * on the next request.
+ */
+internal sealed class Lookup<out V> {
+    data class Found<V>(val value: V) : Lookup<V>()
+    object NotFound : Lookup<Nothing>()
+    object Failed : Lookup<Nothing>()
+}
+
+/**
+ * Single-flight + bounded TTL cache in front of [DeezerClient]'s search
+ * steps, keyed by strategy label and normalised query.
+ *
+ * - Concurrent requests for the same key share one in-flight load, e.g.
+ *   FM and DAB carrying the same song, or an RT repeated mid-search.
+ * - Hits live for [hitTtlMs], misses (talk, ads, news) for [missTtlMs],
+ *   so a failing RT isn't sent to Deezer again on every change.
+ * - At most [maxEntries], least recently used dropped first.
+ *
+ * Extracted as its own class so the coalescing and expiry rules can be
+ * tested without OkHttp.
+ */
+internal class DeezerLookupCache<V>(
+    private val maxEntries: Int = DEFAULT_MAX_ENTRIES,
+    private val hitTtlMs: Long = DEFAULT_HIT_TTL_MS,
+    private val missTtlMs: Long = DEFAULT_MISS_TTL_MS,
+    private val clock: () -> Long = { System.nanoTime() / 1_000_000 },
+) {
+    companion object {
+        const val DEFAULT_MAX_ENTRIES = 512
+        const val DEFAULT_HIT_TTL_MS = 6 * 60 * 60 * 1000L
+        const val DEFAULT_MISS_TTL_MS = 10 * 60 * 1000L
+
+        private val WHITESPACE = Regex("\\s+")
+
+        /**
+         * Case and whitespace only — punctuation stays, the strategies
+         * send Deezer's `artist:"…"` syntax.
+         */
+        fun key(step: String, query: String): String =
+            step + '|' + query.trim().lowercase().replace(WHITESPACE, " ")
+    }
+
+    /** Counter snapshot for the cache dialog. */
+    data class Stats(
+        val hits: Long,
+        val negativeHits: Long,
+        val misses: Long,
+        val coalesced: Long,
+        val size: Int,
+    )
+
+    private class Entry<V>(val value: V?, val expiresAt: Long)
+
+    private val entries = object : LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry<V>>): Boolean =
+            size > maxEntries
+    }
+    private val inFlight = HashMap<String, CompletableDeferred<Lookup<V>>>()
+    private val lock = Any()
+
+    private val hits = AtomicLong()
+    private val negativeHits = AtomicLong()
+    private val misses = AtomicLong()
+    private val coalesced = AtomicLong()
+
+    /**
+     * Cached value for [key] (null for a cached miss), else the result of
+     * [load] — shared with every concurrent caller of the same key.
+     */
+    suspend fun getOrLoad(key: String, load: suspend () -> Lookup<V>): V? {
+        val owner: CompletableDeferred<Lookup<V>>
+        val joined: CompletableDeferred<Lookup<V>>?
+        synchronized(lock) {
+            val entry = entries[key]
+            if (entry != null) {
+                if (entry.expiresAt > clock()) {
+                    hits.incrementAndGet()
+                    if (entry.value == null) negativeHits.incrementAndGet()
+                    return entry.value
+                }
+                entries.remove(key)
+            }
+            joined = inFlight[key]
+            if (joined == null) {
+                misses.incrementAndGet()
+                owner = CompletableDeferred()
+                inFlight[key] = owner
+            } else {
+                coalesced.incrementAndGet()
+                owner = joined
+            }
+        }
+
+        if (joined != null) {
+            // The owner was cancelled or failed: load on our own, uncached
+            val shared = try {
+                joined.await()
+            } catch (e: CancellationException) {
+                if (!joined.isCancelled) throw e
+                load()
+            }
+            return (shared as? Lookup.Found)?.value
+        }
+
+        val result = try {
+            load()
+        } catch (e: Throwable) {
+            synchronized(lock) { inFlight.remove(key) }
+            owner.cancel(CancellationException("Lookup owner failed", e))
+            throw e
+        }
+        synchronized(lock) {
+            inFlight.remove(key)
+            when (result) {
+                is Lookup.Found -> entries[key] = Entry(result.value, clock() + hitTtlMs)
+                Lookup.NotFound -> entries[key] = Entry(null, clock() + missTtlMs)
+                Lookup.Failed -> Unit
+            }
+        }
+        owner.complete(result)
+        return (result as? Lookup.Found)?.value
+    }
+
+    fun stats(): Stats = synchronized(lock) {
+        Stats(hits.get(), negativeHits.get(), misses.get(), coalesced.get(), entries.size)
+    }
+
+    fun clear() {
+        synchronized(lock) { entries.clear() }
+    }
+}
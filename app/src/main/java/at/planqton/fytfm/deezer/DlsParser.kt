@@ -55,21 +55,69 @@ object DlsParser {
     // Separators used in DLS
     private val SEPARATORS = listOf(" - ", " – ", " — ", " | ", " / ", " >>> ", " << ", " >> ", " * ")
 
-    // Whole-word matchers for STATION_KEYWORDS. Using substring-contains here
+    // Whole-word matcher for STATION_KEYWORDS. Using substring-contains here
     // caused false positives like "HOLLY HUMBERSTONE" → "one" hit, or
     // "WOLFMOTHER" → "fm" hit, so a real artist name was filtered as a station.
     // Lookarounds include digits so "fm4" / "88.6"-style matches still bind.
-    private val STATION_KEYWORD_PATTERNS: List<Regex> = STATION_KEYWORDS.map { keyword ->
-        Regex(
-            """(?<![\p{L}\p{N}])${Regex.escape(keyword)}(?![\p{L}\p{N}])""",
-            RegexOption.IGNORE_CASE,
-        )
+    // One alternation instead of one pattern per keyword: a single scan of the
+    // text, and it matches wherever any of the keywords would.
+    private val STATION_KEYWORD_PATTERN = Regex(
+        STATION_KEYWORDS.joinToString(
+            separator = "|",
+            prefix = """(?<![\p{L}\p{N}])(?:""",
+            postfix = """)(?![\p{L}\p{N}])""",
+        ) { Regex.escape(it) },
+        RegexOption.IGNORE_CASE,
+    )
+
+    // "preposition + station" matchers, in STATION_PREPOSITIONS order
+    private val PREPOSITION_PATTERNS: List<Pair<String, Regex>> = STATION_PREPOSITIONS.map { prep ->
+        prep to Regex("""\s+$prep\s+""", RegexOption.IGNORE_CASE)
     }
 
+    // "- STATION" at the end of the text
+    private val TRAILING_STATION_PATTERN = Regex("""\s*[-–—|]\s*([^-–—|]{2,40})\s*$""")
+
+    // Frequency like "88.6" or "104,9"
+    private val FREQUENCY_PATTERN = Regex("""\d{2,3}[.,]\d""")
+
+    // Characters that the cleanup collapses: "-", "–", "—", "|", "/"
+    private const val DASH_CHARS = "-–—|/"
+
+    // Padding stripped from both ends before the station cleanup
+    private const val FILL_CHARS = ".*…"
+
+    // Per-station memo: stations repeat the same DLS/RT dozens of times and
+    // ParseResult is immutable, so a repeat returns the stored result.
+    private const val MEMO_STATIONS = 16
+    private const val MEMO_ENTRIES_PER_STATION = 32
+    private val memo = lruMap<String, LinkedHashMap<String, ParseResult>>(MEMO_STATIONS)
+
     /**
-     * Parse DLS string and extract artist/title
+     * Parse DLS string and extract artist/title. Repeats of the same text
+     * for the same station come from the memo.
      */
     fun parse(dls: String, stationName: String? = null): ParseResult {
+        val stationKey = stationName ?: ""
+        synchronized(memo) {
+            memo[stationKey]?.get(dls)?.let { return it }
+        }
+        val result = parseUncached(dls, stationName)
+        synchronized(memo) {
+            memo.getOrPut(stationKey) { lruMap(MEMO_ENTRIES_PER_STATION) }[dls] = result
+        }
+        return result
+    }
+
+    /** Drops all memoized results. */
+    fun clearCache() {
+        synchronized(memo) { memo.clear() }
+    }
+
+    /**
+     * The parse itself, without the memo.
+     */
+    internal fun parseUncached(dls: String, stationName: String?): ParseResult {
         var text = dls.trim()
         val original = text
 
@@ -81,33 +129,111 @@ object DlsParser {
         Log.d(TAG, "Input: '$text'")
         Log.d(TAG, "Station: '$stationName'")
 
+        // Clean station name once for all station checks
+        val lowerStation = stationName?.replace("*", "")?.replace("'", "")?.replace("\"", "")?.trim()?.lowercase()
+
         // Step 1: Remove prefixes
         text = removePrefix(text)
 
-        // Step 2: Remove URLs
-        for (pattern in URL_PATTERNS) {
-            text = pattern.replace(text, " ").trim()
+        // Step 2: Remove URLs (every pattern needs a '.' or "://")
+        if (text.indexOf('.') >= 0 || text.indexOf(':') >= 0) {
+            for (pattern in URL_PATTERNS) {
+                text = pattern.replace(text, " ").trim()
+            }
         }
 
         // Step 3: Remove timestamps
-        text = TIME_PATTERN.replace(text, " ").trim()
+        if (text.indexOf(':') >= 0) {
+            text = TIME_PATTERN.replace(text, " ").trim()
+        }
 
         // Step 4: Remove trailing dots, asterisks, etc.
-        text = text.replace(Regex("""[\s.*…]+$"""), "").trim()
-        text = text.replace(Regex("""^[\s.*…]+"""), "").trim()
+        text = stripTrailingFill(text).trim()
+        text = stripLeadingFill(text).trim()
 
         // Step 5: Remove station suffix and promotional text
-        text = removeStationAndPromo(text, stationName)
+        text = removeStationAndPromo(text, stationName, lowerStation)
 
         // Step 6: Clean up
-        text = text.replace(Regex("""\s{2,}"""), " ")
-        text = text.replace(Regex("""(\s*[-–—|/]\s*){2,}"""), " - ")
+        text = collapseGaps(text)
         text = text.trim(' ', '-', '–', '—', '|', '/', '*', '.')
 
         Log.d(TAG, "After cleanup: '$text'")
 
         // Step 7: Extract artist and title
-        return extractArtistTitle(text, original, stationName)
+        return extractArtistTitle(text, original, lowerStation)
+    }
+
+    /** `\s` as java.util.regex defines it (ASCII whitespace only). */
+    private fun isRegexSpace(c: Char): Boolean =
+        c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\u000C' || c == '\r'
+
+    private fun isFill(c: Char): Boolean = isRegexSpace(c) || FILL_CHARS.indexOf(c) >= 0
+
+    /**
+     * Removes the run of whitespace, dots, asterisks and ellipses at the end.
+     * Like the `$` of the former `[\s.*…]+$` pattern, a final line
+     * terminator outside `\s` stays and the run before it goes.
+     */
+    internal fun stripTrailingFill(text: String): String {
+        var end = text.length
+        val keep = if (end > 0 && text[end - 1].let { it == '\u0085' || it == '\u2028' || it == '\u2029' }) 1 else 0
+        end -= keep
+        var cut = end
+        while (cut > 0 && isFill(text[cut - 1])) cut--
+        return if (cut == end) text else text.substring(0, cut) + text.substring(end)
+    }
+
+    /** Removes the run of whitespace, dots, asterisks and ellipses at the start. */
+    internal fun stripLeadingFill(text: String): String {
+        var start = 0
+        while (start < text.length && isFill(text[start])) start++
+        return if (start == 0) text else text.substring(start)
+    }
+
+    /**
+     * One pass over the gaps between words — maximal runs of whitespace
+     * and [DASH_CHARS]. A gap with two or more dashes becomes `" - "`;
+     * in any other gap, whitespace runs of two or more become one space.
+     * Same result as the former `\s{2,}` → `" "` followed by
+     * `(\s*[-–—|/]\s*){2,}` → `" - "`.
+     */
+    internal fun collapseGaps(text: String): String {
+        val out = StringBuilder(text.length)
+        var i = 0
+        val n = text.length
+        while (i < n) {
+            val c = text[i]
+            if (!isRegexSpace(c) && DASH_CHARS.indexOf(c) < 0) {
+                out.append(c)
+                i++
+                continue
+            }
+            var end = i
+            var dashes = 0
+            while (end < n && (isRegexSpace(text[end]) || DASH_CHARS.indexOf(text[end]) >= 0)) {
+                if (!isRegexSpace(text[end])) dashes++
+                end++
+            }
+            if (dashes >= 2) {
+                out.append(" - ")
+            } else {
+                var j = i
+                while (j < end) {
+                    if (isRegexSpace(text[j])) {
+                        var runEnd = j
+                        while (runEnd < end && isRegexSpace(text[runEnd])) runEnd++
+                        if (runEnd - j >= 2) out.append(' ') else out.append(text[j])
+                        j = runEnd
+                    } else {
+                        out.append(text[j])
+                        j++
+                    }
+                }
+            }
+            i = end
+        }
+        return out.toString()
     }
 
     /**
@@ -129,16 +255,11 @@ object DlsParser {
     /**
      * Intelligently remove station names and promotional text
      */
-    private fun removeStationAndPromo(text: String, stationName: String?): String {
+    private fun removeStationAndPromo(text: String, stationName: String?, lowerStation: String?): String {
         var result = text
 
-        // Clean station name
-        val cleanStation = stationName?.replace("*", "")?.replace("'", "")?.replace("\"", "")?.trim()
-        val lowerStation = cleanStation?.lowercase()
-
         // Strategy 1: Find "preposition + station" pattern anywhere
-        for (prep in STATION_PREPOSITIONS) {
-            val prepPattern = Regex("""\s+$prep\s+""", RegexOption.IGNORE_CASE)
+        for ((prep, prepPattern) in PREPOSITION_PATTERNS) {
             val prepMatch = prepPattern.find(result)
             if (prepMatch != null) {
                 val afterPrep = result.substring(prepMatch.range.last + 1)
@@ -162,14 +283,14 @@ object DlsParser {
                 val lastSepIndex = findLastSeparatorIndex(beforeStation)
                 if (lastSepIndex > 0) {
                     result = beforeStation.substring(0, lastSepIndex).trim()
-                    Log.d(TAG, "Found station '$cleanStation' at index $stationIndex, cut to: '$result'")
+                    Log.d(TAG, "Found station '$stationName' at index $stationIndex, cut to: '$result'")
                 }
             }
         }
 
         // Strategy 3: Look for promotional phrases
+        val currentLower = result.lowercase()
         for (promo in PROMO_PHRASES) {
-            val currentLower = result.lowercase()
             val promoIndex = currentLower.indexOf(promo)
             if (promoIndex > 0 && promoIndex < result.length) {
                 // Find the separator before the promo
@@ -184,8 +305,7 @@ object DlsParser {
         }
 
         // Strategy 4: Pattern "- STATION" at the end (with station keywords)
-        val endPattern = Regex("""\s*[-–—|]\s*([^-–—|]{2,40})\s*$""")
-        val endMatch = endPattern.find(result)
+        val endMatch = TRAILING_STATION_PATTERN.find(result)
         if (endMatch != null) {
             val potentialStation = endMatch.groupValues[1].trim()
             if (looksLikeStation(potentialStation, lowerStation)) {
@@ -210,11 +330,9 @@ object DlsParser {
             }
         }
 
-        // Check for station keywords (whole-word; see STATION_KEYWORD_PATTERNS).
-        for (pattern in STATION_KEYWORD_PATTERNS) {
-            if (pattern.containsMatchIn(lowerText)) {
-                return true
-            }
+        // Check for station keywords (whole-word; see STATION_KEYWORD_PATTERN).
+        if (STATION_KEYWORD_PATTERN.containsMatchIn(lowerText)) {
+            return true
         }
 
         // Check for promotional phrases (indicates station context)
@@ -225,7 +343,7 @@ object DlsParser {
         }
 
         // Contains frequency pattern (like "88.6", "104.9")
-        if (Regex("""\d{2,3}[.,]\d""").containsMatchIn(text)) {
+        if (FREQUENCY_PATTERN.containsMatchIn(text)) {
             return true
         }
 
@@ -254,7 +372,7 @@ object DlsParser {
     /**
      * Extract artist and title from cleaned text
      */
-    private fun extractArtistTitle(text: String, original: String, stationName: String?): ParseResult {
+    private fun extractArtistTitle(text: String, original: String, lowerStation: String?): ParseResult {
         // Try the classical "Lastname, Firstname (Year[-Year]) - Title" form
         // FIRST — the generic separator split always succeeded and made the
         // pattern below unreachable before.
@@ -274,7 +392,7 @@ object DlsParser {
 
                 if (parts.size >= 2) {
                     // Filter out any remaining station/slogan parts
-                    val cleanParts = parts.filter { !isStationOrSlogan(it, stationName) }
+                    val cleanParts = parts.filter { !isStationOrSlogan(it, lowerStation) }
 
                     if (cleanParts.size >= 2) {
                         val artist = cleanParts[0]
@@ -285,7 +403,7 @@ object DlsParser {
                         // Use first two parts
                         val artist = parts[0]
                         val title = parts[1]
-                        if (!isStationOrSlogan(artist, stationName)) {
+                        if (!isStationOrSlogan(artist, lowerStation)) {
                             Log.d(TAG, "FALLBACK: Artist='$artist', Title='$title'")
                             return ParseResult(original, artist, title, true)
                         }
@@ -305,23 +423,18 @@ object DlsParser {
     /**
      * Check if text looks like a station name or slogan
      */
-    private fun isStationOrSlogan(text: String, stationName: String?): Boolean {
+    private fun isStationOrSlogan(text: String, lowerStation: String?): Boolean {
         val lowerText = text.lowercase()
 
         // Match against known station
-        if (stationName != null) {
-            val cleanStation = stationName.replace("*", "").replace("'", "").replace("\"", "").trim().lowercase()
-            if (cleanStation.isNotBlank() && (lowerText.contains(cleanStation) || cleanStation.contains(lowerText))) {
+        if (lowerStation != null) {
+            if (lowerStation.isNotBlank() && (lowerText.contains(lowerStation) || lowerStation.contains(lowerText))) {
                 return true
             }
         }
 
-        // Station/slogan keywords (whole-word; see STATION_KEYWORD_PATTERNS).
-        var keywordCount = 0
-        for (pattern in STATION_KEYWORD_PATTERNS) {
-            if (pattern.containsMatchIn(lowerText)) keywordCount++
-        }
-        if (keywordCount >= 1 && text.length < 25) return true
+        // Station/slogan keywords (whole-word; see STATION_KEYWORD_PATTERN).
+        if (text.length < 25 && STATION_KEYWORD_PATTERN.containsMatchIn(lowerText)) return true
 
         // Promotional phrases
         for (promo in PROMO_PHRASES) {
@@ -334,6 +447,11 @@ object DlsParser {
         return false
     }
 
+    private fun <K, V> lruMap(maxEntries: Int): LinkedHashMap<K, V> =
+        object : LinkedHashMap<K, V>(maxEntries, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, V>?): Boolean = size > maxEntries
+        }
+
     /**
      * Result of DLS parsing
      */
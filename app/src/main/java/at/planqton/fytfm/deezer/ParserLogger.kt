@@ -64,6 +64,31 @@ object ParserLogger {
         }
     }
 
+    /**
+     * Aggregated runs of one Deezer search strategy (see [StrategyRace]).
+     * [runs] counts finished steps; cancelled steps are only counted in
+     * [cancelled] and not in the latency.
+     */
+    data class StrategyStats(
+        val label: String,
+        val runs: Int = 0,
+        val wins: Int = 0,
+        val cancelled: Int = 0,
+        val totalLatencyMs: Long = 0
+    ) {
+        val avgLatencyMs: Long
+            get() = if (runs == 0) 0 else totalLatencyMs / runs
+
+        val winRate: Int
+            get() = if (runs == 0) 0 else wins * 100 / runs
+
+        fun format(): String =
+            "$label: $wins/$runs won ($winRate%), avg ${avgLatencyMs}ms, $cancelled cancelled"
+    }
+
+    private val strategyStats = LinkedHashMap<String, StrategyStats>()
+    private val strategyListeners = CopyOnWriteArrayList<() -> Unit>()
+
     /**
      * Initialize with context to enable persistence
      */
@@ -184,6 +209,39 @@ object ParserLogger {
         listeners.forEach { it(entry) }
     }
 
+    /**
+     * Record one step of a Deezer strategy race. In-memory only — the
+     * numbers describe this session's network, not the parser.
+     */
+    fun logStrategy(label: String, latencyMs: Long, outcome: StrategyOutcome) {
+        synchronized(strategyStats) {
+            val stats = strategyStats[label] ?: StrategyStats(label)
+            strategyStats[label] = when (outcome) {
+                StrategyOutcome.CANCELLED -> stats.copy(cancelled = stats.cancelled + 1)
+                else -> stats.copy(
+                    runs = stats.runs + 1,
+                    wins = stats.wins + if (outcome == StrategyOutcome.WON) 1 else 0,
+                    totalLatencyMs = stats.totalLatencyMs + latencyMs
+                )
+            }
+        }
+        strategyListeners.forEach { it() }
+    }
+
+    fun getStrategyStats(): List<StrategyStats> = synchronized(strategyStats) { strategyStats.values.toList() }
+
+    fun clearStrategyStats() {
+        synchronized(strategyStats) { strategyStats.clear() }
+    }
+
+    fun addStrategyListener(listener: () -> Unit) {
+        strategyListeners.add(listener)
+    }
+
+    fun removeStrategyListener(listener: () -> Unit) {
+        strategyListeners.remove(listener)
+    }
+
     fun getFmEntries(): List<ParserLogEntry> = fmEntries.toList()
     fun getDabEntries(): List<ParserLogEntry> = dabEntries.toList()
 
@@ -235,10 +293,21 @@ object ParserLogger {
         return header + dabEntries.joinToString("\n") { it.format() }
     }
 
+    fun exportStrategies(): String {
+        val stats = getStrategyStats()
+        val header = buildString {
+            appendLine("=== fytFM Deezer Search Strategies ===")
+            appendLine("Strategies: ${stats.size}")
+            appendLine("=".repeat(40))
+            appendLine()
+        }
+        return header + stats.joinToString("\n") { it.format() }
+    }
+
     /**
-     * Export both logs combined
+     * Export both logs combined, followed by the strategy statistics
      */
     fun export(): String {
-        return exportFm() + "\n\n" + exportDab()
+        return exportFm() + "\n\n" + exportDab() + "\n\n" + exportStrategies()
     }
 }
@@ -4,6 +4,8 @@ import android.util.Log
 import at.planqton.fytfm.data.rdslog.RtCorrection
 import at.planqton.fytfm.data.rdslog.RtCorrectionDao
 import kotlinx.coroutines.*
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 
 /**
  * Combines fragmented Radio Text (RT) into "Artist - Title" format using Deezer API
@@ -31,6 +33,7 @@ class RtCombiner(
         private const val BUFFER_TIMEOUT_MS = 15000L // 15 seconds timeout for buffer
         private const val MAX_BUFFER_SIZE = 3 // Max RT messages to buffer
         private const val SHORT_RT_THRESHOLD = 25 // RT shorter than this without separator should be buffered
+        internal const val MAX_STATIONS = 128 // Stations (PIs) whose state is kept, least recently used dropped
         private val SEPARATORS = listOf(" - ", " – ", " — ", " / ", " | ")
     }
 
@@ -42,15 +45,30 @@ class RtCombiner(
     private fun shouldBufferFirst(rt: String): Boolean =
         RtCombinerHelpers.shouldBufferFirst(rt, SEPARATORS, SHORT_RT_THRESHOLD)
 
-    // RT-Buffer per station (PI-Code)
-    private val rtBuffer = mutableMapOf<Int, MutableList<RtEntry>>()
-    private val lastResult = mutableMapOf<Int, String>()
-    private val lastTrackInfo = mutableMapOf<Int, TrackInfo>() // Cache TrackInfo for debug display
-    private val lastProcessedRt = mutableMapOf<Int, String>() // Track last processed RT to avoid duplicates
-    private val lastSearchRt = mutableMapOf<Int, String>() // Track last stripped RT for debug display
-    private val lastOriginalRt = mutableMapOf<Int, String>() // Track last original RT for debug display
-    private val bufferResultRts = mutableMapOf<Int, Set<String>>() // RTs that were combined to find last result
-    private val currentResultRts = mutableMapOf<Int, Set<String>>() // All RTs belonging to current result (for silent early-out)
+    /**
+     * Everything remembered about one station (PI-Code). [lock] serializes
+     * [processRt] calls for the same station — e.g. a cancelled coroutine
+     * still finishing while MainActivity already relaunched the next one —
+     * while different stations proceed in parallel. The fields are volatile
+     * for the unlocked readers ([getLastTrackInfo], [forceReprocess]).
+     */
+    private class StationRtState {
+        val lock = Mutex()
+        @Volatile var buffer: MutableList<RtEntry>? = null // RT-Buffer
+        @Volatile var lastResult: String? = null
+        @Volatile var lastTrackInfo: TrackInfo? = null // Cache TrackInfo for debug display
+        @Volatile var lastProcessedRt: String? = null // Track last processed RT to avoid duplicates
+        @Volatile var lastSearchRt: String? = null // Track last stripped RT for debug display
+        @Volatile var lastOriginalRt: String? = null // Track last original RT for debug display
+        @Volatile var bufferResultRts: Set<String>? = null // RTs that were combined to find last result
+        @Volatile var currentResultRts: Set<String>? = null // All RTs belonging to current result (for silent early-out)
+    }
+
+    // State per station, bounded LRU (access order); guarded by itself
+    private val stations = object : LinkedHashMap<Int, StationRtState>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Int, StationRtState>): Boolean =
+            size > MAX_STATIONS
+    }
     private val scope = CoroutineScope(Dispatchers.IO + SupervisorJob())
 
     data class RtEntry(
@@ -58,10 +76,42 @@ class RtCombiner(
         val timestamp: Long = System.currentTimeMillis()
     )
 
-    // Current RT for correction buttons
-    private var currentRt: String? = null
-    private var currentTrackInfo: TrackInfo? = null
-    private var currentPi: Int = 0  // Current PI for clearing lastTrackInfo on "Not found"
+    // Current RT for correction buttons: that of the station whose RT came
+    // in last. A lookup still running for another station doesn't touch it.
+    @Volatile private var currentRt: String? = null
+    @Volatile private var currentTrackInfo: TrackInfo? = null
+    private var currentState: StationRtState? = null // guarded by currentLock
+    private val currentLock = Any()
+
+    /** Number of stations with state, at most [MAX_STATIONS]. */
+    internal val stationCount: Int
+        get() = synchronized(stations) { stations.size }
+
+    private fun stateFor(pi: Int): StationRtState =
+        synchronized(stations) { stations.getOrPut(pi) { StationRtState() } }
+
+    private fun existingState(pi: Int): StationRtState? =
+        synchronized(stations) { stations[pi] }
+
+    private fun allStates(): List<StationRtState> =
+        synchronized(stations) { stations.values.toList() }
+
+    /** [state]'s RT is the newest one: it owns [currentRt] from now on. */
+    private fun makeCurrent(state: StationRtState, rt: String) {
+        synchronized(currentLock) {
+            currentState = state
+            currentRt = rt
+        }
+    }
+
+    /** Updates [currentRt]/[currentTrackInfo] unless another station became current meanwhile. */
+    private fun updateCurrent(state: StationRtState, rt: String? = null, track: TrackInfo? = null) {
+        synchronized(currentLock) {
+            if (currentState !== state) return
+            if (rt != null) currentRt = rt
+            if (track != null) currentTrackInfo = track
+        }
+    }
 
     /**
      * Get current RT (for correction buttons)
@@ -82,18 +132,29 @@ class RtCombiner(
      * @return Formatted "Artist - Title" or null if not yet determined
      */
     suspend fun processRt(pi: Int, rt: String, frequency: Float? = null, rawOriginal: String? = null, skipBuffer: Boolean = false): String? {
-        currentPi = pi  // Store for clearing lastTrackInfo on "Not found"
         val trimmedRt = rt.trim()
         if (trimmedRt.isBlank()) return null
 
+        // One lookup per RT; the state's lock keeps RTs of the same station in order
+        val state = stateFor(pi)
+        return state.lock.withLock { processLocked(state, pi, trimmedRt, rawOriginal, skipBuffer) }
+    }
+
+    private suspend fun processLocked(
+        state: StationRtState,
+        pi: Int,
+        trimmedRt: String,
+        rawOriginal: String?,
+        skipBuffer: Boolean
+    ): String? {
         // Use rawOriginal for debug display if provided (e.g., original DLS before parsing)
         val displayOriginal = rawOriginal?.trim() ?: trimmedRt
 
         // Silent early-out: If this RT is part of the current result and nothing changed,
         // return cached immediately WITHOUT any debug updates or UI triggers
-        val resultRts = currentResultRts[pi]
+        val resultRts = state.currentResultRts
         val rtLower = trimmedRt.lowercase()
-        val cachedResult = lastResult[pi]
+        val cachedResult = state.lastResult
 
         if (resultRts != null && rtLower in resultRts && cachedResult != null) {
             // RT is part of current result - return cached silently
@@ -104,12 +165,12 @@ class RtCombiner(
         // it means a NEW song is starting - clear old caches
         if (resultRts != null && rtLower !in resultRts) {
             Log.d(TAG, "New RT '$rtLower' detected (not in $resultRts) - clearing old caches")
-            currentResultRts.remove(pi)
-            bufferResultRts.remove(pi)
-            lastResult.remove(pi)
-            lastTrackInfo.remove(pi)
-            lastProcessedRt.remove(pi)
-            rtBuffer.remove(pi)
+            state.currentResultRts = null
+            state.bufferResultRts = null
+            state.lastResult = null
+            state.lastTrackInfo = null
+            state.lastProcessedRt = null
+            state.buffer = null
         }
 
         // Check if RT is ignored
@@ -123,38 +184,38 @@ class RtCombiner(
         }
 
         // Skip if RT hasn't changed - return cached result but update debug display
-        if (lastProcessedRt[pi] == trimmedRt) {
-            val cachedTrack = lastTrackInfo[pi]
+        if (state.lastProcessedRt == trimmedRt) {
+            val cachedTrack = state.lastTrackInfo
             if (cachedTrack != null) {
-                val originalRt = lastOriginalRt[pi] ?: trimmedRt
-                val strippedRt = lastSearchRt[pi] ?: trimmedRt
+                val originalRt = state.lastOriginalRt ?: trimmedRt
+                val strippedRt = state.lastSearchRt ?: trimmedRt
                 onDebugUpdate?.invoke("Cached", originalRt, strippedRt, null, cachedTrack)
             }
-            return lastResult[pi]
+            return state.lastResult
         }
 
         // Check if this RT was part of a buffer combination that already found a result
-        val bufferRts = bufferResultRts[pi]
-        if (bufferRts != null && trimmedRt.lowercase() in bufferRts && lastResult[pi] != null) {
-            val cachedTrack = lastTrackInfo[pi]
+        val bufferRts = state.bufferResultRts
+        if (bufferRts != null && trimmedRt.lowercase() in bufferRts && state.lastResult != null) {
+            val cachedTrack = state.lastTrackInfo
             if (cachedTrack != null) {
-                val originalRt = lastOriginalRt[pi] ?: trimmedRt
-                val strippedRt = lastSearchRt[pi] ?: trimmedRt
-                Log.d(TAG, "RT '$trimmedRt' is part of buffered result, returning cached: ${lastResult[pi]}")
+                val originalRt = state.lastOriginalRt ?: trimmedRt
+                val strippedRt = state.lastSearchRt ?: trimmedRt
+                Log.d(TAG, "RT '$trimmedRt' is part of buffered result, returning cached: ${state.lastResult}")
                 onDebugUpdate?.invoke("Cached", originalRt, strippedRt, null, cachedTrack)
             }
-            return lastResult[pi]
+            return state.lastResult
         }
 
-        lastProcessedRt[pi] = trimmedRt
-        lastOriginalRt[pi] = displayOriginal
-        currentRt = displayOriginal
+        state.lastProcessedRt = trimmedRt
+        state.lastOriginalRt = displayOriginal
+        makeCurrent(state, displayOriginal)
 
         // Use trimmedRt directly for search (DlsParser already handles cleanup)
         val searchRt = trimmedRt
 
         // Cache the stripped RT for debug display
-        lastSearchRt[pi] = searchRt
+        state.lastSearchRt = searchRt
 
         Log.d(TAG, "Processing RT for PI=$pi: $displayOriginal")
         onDebugUpdate?.invoke("Processing...", displayOriginal, searchRt, null, null)
@@ -169,8 +230,8 @@ class RtCombiner(
                 val result = "${cachedTrack.artist} - ${cachedTrack.title}"
                 Log.d(TAG, "Found in local cache (offline): $result")
                 onDebugUpdate?.invoke("Cached (offline)", trimmedRt, searchRt, "local cache", cachedTrack)
-                lastResult[pi] = result
-                lastTrackInfo[pi] = cachedTrack
+                state.lastResult = result
+                state.lastTrackInfo = cachedTrack
                 return result
             }
 
@@ -186,49 +247,48 @@ class RtCombiner(
         if (bufferFirst) {
             Log.d(TAG, "Short RT without separator, buffering first: '$searchRt'")
             onDebugUpdate?.invoke("Buffering...", trimmedRt, searchRt, null, null)
-            addToBuffer(pi, searchRt)
-            val buffer = rtBuffer[pi] ?: return lastResult[pi]
+            val buffer = addToBuffer(state, pi, searchRt)
 
             // Only search when we have 2+ entries in buffer
             if (buffer.size >= 2) {
-                val (bufferResult, bufferTrack) = tryBufferCombinations(pi, buffer)
+                val (bufferResult, bufferTrack) = tryBufferCombinations(state, buffer)
                 if (bufferResult != null) {
                     // Save all buffer RTs so they're recognized as "already processed"
                     val bufferTexts = buffer.map { it.text.lowercase() }.toSet()
-                    bufferResultRts[pi] = bufferTexts
-                    currentResultRts[pi] = bufferTexts  // For silent early-out on next cycle
+                    state.bufferResultRts = bufferTexts
+                    state.currentResultRts = bufferTexts  // For silent early-out on next cycle
                     Log.d(TAG, "SET currentResultRts[$pi] = $bufferTexts")
 
                     // Update display to show combined RT
                     val combinedRt = buffer.joinToString(" | ") { it.text }
-                    lastOriginalRt[pi] = combinedRt
-                    lastSearchRt[pi] = combinedRt
-                    currentRt = combinedRt
+                    state.lastOriginalRt = combinedRt
+                    state.lastSearchRt = combinedRt
+                    updateCurrent(state, rt = combinedRt)
 
-                    lastResult[pi] = bufferResult
+                    state.lastResult = bufferResult
                     if (bufferTrack != null) {
-                        lastTrackInfo[pi] = bufferTrack
-                        currentTrackInfo = bufferTrack
+                        state.lastTrackInfo = bufferTrack
+                        updateCurrent(state, track = bufferTrack)
                     }
-                    clearBuffer(pi)
+                    state.buffer = null
                     onDebugUpdate?.invoke("Found!", combinedRt, combinedRt, null, bufferTrack)
                     return bufferResult
                 }
             }
 
             // Not enough buffer entries yet, return last result or null
-            return lastResult[pi]
+            return state.lastResult
         }
 
         // Try to find track
         Log.d(TAG, "Calling searchTrack...")
-        val (result, track) = searchTrack(pi, searchRt)
+        val (result, track) = searchTrack(state, searchRt)
         Log.d(TAG, "searchTrack returned: result=$result")
 
         if (result != null) {
-            lastResult[pi] = result
-            if (track != null) lastTrackInfo[pi] = track
-            clearBuffer(pi)
+            state.lastResult = result
+            if (track != null) state.lastTrackInfo = track
+            state.buffer = null
             return result
         }
 
@@ -237,25 +297,24 @@ class RtCombiner(
         // is already structured artist+title) — otherwise stale fragments
         // would still get concatenated into search queries via the fallback.
         if (!skipBuffer) {
-            addToBuffer(pi, searchRt)
-            val buffer = rtBuffer[pi] ?: return lastResult[pi]
+            val buffer = addToBuffer(state, pi, searchRt)
             if (buffer.size >= 2) {
-                val (bufferResult, bufferTrack) = tryBufferCombinations(pi, buffer)
+                val (bufferResult, bufferTrack) = tryBufferCombinations(state, buffer)
                 if (bufferResult != null) {
                     // Save buffer RTs for silent early-out on next cycle
                     val bufferTexts = buffer.map { it.text.lowercase() }.toSet()
-                    bufferResultRts[pi] = bufferTexts
-                    currentResultRts[pi] = bufferTexts
+                    state.bufferResultRts = bufferTexts
+                    state.currentResultRts = bufferTexts
 
-                    lastResult[pi] = bufferResult
-                    if (bufferTrack != null) lastTrackInfo[pi] = bufferTrack
-                    clearBuffer(pi)
+                    state.lastResult = bufferResult
+                    if (bufferTrack != null) state.lastTrackInfo = bufferTrack
+                    state.buffer = null
                     return bufferResult
                 }
             }
         }
 
-        return lastResult[pi]
+        return state.lastResult
     }
 
     /**
@@ -275,21 +334,21 @@ class RtCombiner(
     /**
      * Search for track using the given RT
      */
-    private suspend fun searchTrack(pi: Int, searchRt: String): Pair<String?, TrackInfo?> {
+    private suspend fun searchTrack(state: StationRtState, searchRt: String): Pair<String?, TrackInfo?> {
         // Already contains " - "? Likely complete "Artist - Title"
         if (searchRt.contains(" - ")) {
             val parts = searchRt.split(" - ", limit = 2)
             if (parts.size == 2) {
-                return validateWithDeezer(parts[0].trim(), parts[1].trim(), searchRt)
+                return validateWithDeezer(state, parts[0].trim(), parts[1].trim(), searchRt)
             }
         }
 
         // Try simple search
-        return validateWithDeezer(searchRt, "", searchRt)
+        return validateWithDeezer(state, searchRt, "", searchRt)
     }
 
-    private fun addToBuffer(pi: Int, rt: String) {
-        val buffer = rtBuffer.getOrPut(pi) { mutableListOf() }
+    private fun addToBuffer(state: StationRtState, pi: Int, rt: String): List<RtEntry> {
+        val buffer = state.buffer ?: mutableListOf<RtEntry>().also { state.buffer = it }
 
         // Remove old entries
         val now = System.currentTimeMillis()
@@ -305,6 +364,7 @@ class RtCombiner(
         while (buffer.size > MAX_BUFFER_SIZE) {
             buffer.removeAt(0)
         }
+        return buffer
     }
 
     /**
@@ -314,10 +374,11 @@ class RtCombiner(
     private fun isTrackRelevant(track: TrackInfo, searchTerms: List<String>): Boolean =
         RtCombinerHelpers.isTrackRelevant(track, searchTerms)
 
-    private suspend fun tryBufferCombinations(pi: Int, buffer: List<RtEntry>): Pair<String?, TrackInfo?> {
+    private suspend fun tryBufferCombinations(state: StationRtState, buffer: List<RtEntry>): Pair<String?, TrackInfo?> {
         if (buffer.size < 2) return Pair(null, null)
 
         val texts = buffer.map { it.text }
+        val stationRt = state.lastOriginalRt
         Log.d(TAG, "Trying combinations from buffer: $texts")
 
         // Collect all valid results and pick the best one
@@ -332,9 +393,9 @@ class RtCombiner(
                 val title = texts[j]
                 val query = "$artist $title"
 
-                onDebugUpdate?.invoke("Searching...", currentRt, texts.joinToString(" | "), query, null)
+                onDebugUpdate?.invoke("Searching...", stationRt, texts.joinToString(" | "), query, null)
 
-                val (result, track) = validateWithDeezer(artist, title, query)
+                val (result, track) = validateWithDeezer(state, artist, title, query)
                 if (result != null && track != null) {
                     // Validate that the result actually matches the search terms
                     if (isTrackRelevant(track, texts)) {
@@ -355,14 +416,14 @@ class RtCombiner(
 
         // Try simple concatenation search
         val combined = texts.joinToString(" ")
-        onDebugUpdate?.invoke("Searching combined...", currentRt, texts.joinToString(" | "), combined, null)
+        onDebugUpdate?.invoke("Searching combined...", stationRt, texts.joinToString(" | "), combined, null)
 
         // Try local cache first
         val cachedTrack = deezerCache?.searchLocal(combined)
         if (cachedTrack != null) {
             val result = "${cachedTrack.artist} - ${cachedTrack.title}"
             Log.d(TAG, "Found in local cache (combined): $result")
-            onDebugUpdate?.invoke("Cached (local)", currentRt, combined, "local cache", cachedTrack)
+            onDebugUpdate?.invoke("Cached (local)", stationRt, combined, "local cache", cachedTrack)
             return Pair(result, cachedTrack)
         }
 
@@ -373,16 +434,18 @@ class RtCombiner(
             val cachedTrack = cacheTrackAndGetUpdated(track)
             val result = "${cachedTrack.artist} - ${cachedTrack.title}"
             Log.d(TAG, "Found by combined search: $result")
-            onDebugUpdate?.invoke("Found!", currentRt, combined, combined, cachedTrack)
+            onDebugUpdate?.invoke("Found!", stationRt, combined, combined, cachedTrack)
             return Pair(result, cachedTrack)
         }
 
         return Pair(null, null)
     }
 
-    private suspend fun validateWithDeezer(possibleArtist: String, possibleTitle: String, rawQuery: String): Pair<String?, TrackInfo?> {
+    private suspend fun validateWithDeezer(state: StationRtState, possibleArtist: String, possibleTitle: String, rawQuery: String): Pair<String?, TrackInfo?> {
         Log.d(TAG, "validateWithDeezer: artist='$possibleArtist', title='$possibleTitle', query='$rawQuery'")
-        val normalizedRt = currentRt?.let { RtCorrection.normalizeRt(it) }
+        // This station's RT; currentRt may already belong to another station
+        val stationRt = state.lastOriginalRt
+        val normalizedRt = stationRt?.let { RtCorrection.normalizeRt(it) }
 
         // Get list of skipped trackIds for this RT
         val skippedTrackIds = if (normalizedRt != null) {
@@ -401,15 +464,15 @@ class RtCombiner(
         if (cachedTrack != null && cachedTrack.trackId !in skippedTrackIds) {
             val result = "${cachedTrack.artist} - ${cachedTrack.title}"
             Log.d(TAG, "Found in local cache: $result")
-            onDebugUpdate?.invoke("Cached (local)", currentRt, rawQuery, "local cache", cachedTrack)
-            currentTrackInfo = cachedTrack
+            onDebugUpdate?.invoke("Cached (local)", stationRt, rawQuery, "local cache", cachedTrack)
+            updateCurrent(state, track = cachedTrack)
             return Pair(result, cachedTrack)
         }
 
         // 2. Check if network is available - if not, return null (no API call)
         if (isNetworkAvailable?.invoke() == false) {
             Log.d(TAG, "No network available, skipping Deezer API")
-            onDebugUpdate?.invoke("Offline", currentRt, rawQuery, "no network", null)
+            onDebugUpdate?.invoke("Offline", stationRt, rawQuery, "no network", null)
             return Pair(null, null)
         }
 
@@ -425,8 +488,8 @@ class RtCombiner(
                 val cachedTrack = cacheTrackAndGetUpdated(track)
                 val result = "${cachedTrack.artist} - ${cachedTrack.title}"
                 Log.d(TAG, "Validated: $result")
-                onDebugUpdate?.invoke("Found!", currentRt, rawQuery, "artist:\"$possibleArtist\" track:\"$possibleTitle\"", cachedTrack)
-                currentTrackInfo = cachedTrack
+                onDebugUpdate?.invoke("Found!", stationRt, rawQuery, "artist:\"$possibleArtist\" track:\"$possibleTitle\"", cachedTrack)
+                updateCurrent(state, track = cachedTrack)
                 return Pair(result, cachedTrack)
             }
         }
@@ -442,14 +505,14 @@ class RtCombiner(
             val cachedTrack = cacheTrackAndGetUpdated(simpleTrack)
             val result = "${cachedTrack.artist} - ${cachedTrack.title}"
             Log.d(TAG, "Found by simple search: $result")
-            onDebugUpdate?.invoke("Found!", currentRt, rawQuery, rawQuery, cachedTrack)
-            currentTrackInfo = cachedTrack
+            onDebugUpdate?.invoke("Found!", stationRt, rawQuery, rawQuery, cachedTrack)
+            updateCurrent(state, track = cachedTrack)
             return Pair(result, cachedTrack)
         }
 
         // Clear lastTrackInfo for this PI so getLastTrackInfo returns null
-        lastTrackInfo.remove(currentPi)
-        onDebugUpdate?.invoke("Not found", currentRt, rawQuery, rawQuery, null)
+        state.lastTrackInfo = null
+        onDebugUpdate?.invoke("Not found", stationRt, rawQuery, rawQuery, null)
         return Pair(null, null)
     }
 
@@ -489,24 +552,16 @@ class RtCombiner(
         return track
     }
 
-    private fun clearBuffer(pi: Int) {
-        rtBuffer.remove(pi)
-    }
-
     /**
      * Clear all buffers (e.g., when changing station)
      */
     fun clearAll() {
-        rtBuffer.clear()
-        lastResult.clear()
-        lastTrackInfo.clear()
-        lastProcessedRt.clear()
-        lastSearchRt.clear()
-        lastOriginalRt.clear()
-        bufferResultRts.clear()
-        currentResultRts.clear()
-        currentRt = null
-        currentTrackInfo = null
+        synchronized(stations) { stations.clear() }
+        synchronized(currentLock) {
+            currentState = null
+            currentRt = null
+            currentTrackInfo = null
+        }
     }
 
     /**
@@ -516,11 +571,13 @@ class RtCombiner(
     fun forceReprocess() {
         val rt = currentRt ?: return
         // Clear cached result for this RT so next RDS update triggers new search
-        lastProcessedRt.entries.removeIf { it.value == rt }
-        lastSearchRt.entries.removeIf { true } // Clear all search RT
-        lastTrackInfo.entries.removeIf { true } // Clear all track info
-        lastResult.entries.removeIf { true } // Clear all results
-        currentResultRts.clear() // Clear silent early-out cache
+        for (state in allStates()) {
+            if (state.lastProcessedRt == rt) state.lastProcessedRt = null
+            state.lastSearchRt = null // Clear all search RT
+            state.lastTrackInfo = null // Clear all track info
+            state.lastResult = null // Clear all results
+            state.currentResultRts = null // Clear silent early-out cache
+        }
         currentTrackInfo = null
         Log.d(TAG, "Force re-process triggered for RT: $rt")
     }
@@ -528,20 +585,13 @@ class RtCombiner(
     /**
      * Get the last known TrackInfo for a station (for cover art, etc.)
      */
-    fun getLastTrackInfo(pi: Int): TrackInfo? = lastTrackInfo[pi]
+    fun getLastTrackInfo(pi: Int): TrackInfo? = existingState(pi)?.lastTrackInfo
 
     /**
      * Cleanup resources
      */
     fun destroy() {
         scope.cancel()
-        rtBuffer.clear()
-        lastResult.clear()
-        lastTrackInfo.clear()
-        lastProcessedRt.clear()
-        lastSearchRt.clear()
-        lastOriginalRt.clear()
-        bufferResultRts.clear()
-        currentResultRts.clear()
+        synchronized(stations) { stations.clear() }
     }
 }
@@ -0,0 +1,136 @@
+package at.planqton.fytfm.deezer
+
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.selects.onTimeout
+import kotlinx.coroutines.selects.select
+
+/** How one step of a [StrategyRace] ended. */
+enum class StrategyOutcome {
+    /** Highest-priority hit — its result was returned. */
+    WON,
+
+    /** Finished without a result. */
+    MISSED,
+
+    /** Finished with a result, but a higher-priority step hit as well. */
+    LOST,
+
+    /** Still running when the race was decided; cancelled. */
+    CANCELLED,
+}
+
+/**
+ * Hedged execution of an ordered list of search steps, e.g.
+ * [DeezerSearchStrategies.buildStrategies]. The result is the same as
+ * trying the steps one after another and stopping at the first hit — the
+ * highest-priority hit wins — but the steps overlap:
+ *
+ * - The next step is launched once the last launched one has been running
+ *   for `hedgeDelayMs` without deciding the race, or right away when
+ *   nothing is running anymore.
+ * - At most `maxParallel` steps run at once.
+ * - As soon as a step hits and every step before it has missed, the rest
+ *   are cancelled.
+ *
+ * So a miss on the first steps costs roughly one round-trip instead of the
+ * sum of all of them, while a quick hit on the first step never launches a
+ * second request.
+ *
+ * Extracted from [DeezerClient] so the ordering and cancellation rules are
+ * testable without OkHttp.
+ */
+internal object StrategyRace {
+
+    /**
+     * Runs [attempt] over [steps] as described above and returns the result
+     * of the highest-priority step that hit, or null when all missed.
+     * [onStepDone] is called once per launched step after the race is
+     * decided, with the step's latency (time until cancellation for
+     * [StrategyOutcome.CANCELLED]).
+     */
+    @OptIn(ExperimentalCoroutinesApi::class)
+    suspend fun <S, R : Any> first(
+        steps: List<S>,
+        maxParallel: Int,
+        hedgeDelayMs: Long,
+        clock: () -> Long = { System.nanoTime() / 1_000_000 },
+        onStepDone: (step: S, latencyMs: Long, outcome: StrategyOutcome) -> Unit = { _, _, _ -> },
+        attempt: suspend (S) -> R?,
+    ): R? = coroutineScope {
+        if (steps.isEmpty()) return@coroutineScope null
+
+        val results = arrayOfNulls<Any>(steps.size)
+        val finished = BooleanArray(steps.size)
+        val startedAt = LongArray(steps.size)
+        val latency = LongArray(steps.size)
+        val jobs = arrayOfNulls<Job>(steps.size)
+        val done = Channel<Int>(Channel.UNLIMITED)
+        var launched = 0
+        var running = 0
+        // Every step before this index has missed
+        var decided = 0
+        var winner = -1
+
+        fun launchNext() {
+            val i = launched++
+            running++
+            startedAt[i] = clock()
+            jobs[i] = launch {
+                results[i] = attempt(steps[i])
+                done.send(i)
+            }
+        }
+
+        launchNext()
+        while (true) {
+            while (decided < launched && finished[decided] && results[decided] == null) decided++
+            if (decided == steps.size) break
+            if (decided < launched && finished[decided]) {
+                winner = decided
+                break
+            }
+            if (running == 0) {
+                launchNext()
+                continue
+            }
+
+            val i = if (launched < steps.size && running < maxParallel) {
+                val wait = (startedAt[launched - 1] + hedgeDelayMs - clock()).coerceAtLeast(0)
+                select {
+                    done.onReceive { it }
+                    onTimeout(wait) { -1 }
+                }
+            } else {
+                done.receive()
+            }
+            if (i < 0) {
+                launchNext()
+            } else {
+                running--
+                finished[i] = true
+                latency[i] = clock() - startedAt[i]
+            }
+        }
+
+        for (i in 0 until launched) {
+            val outcome = when {
+                i == winner -> StrategyOutcome.WON
+                !finished[i] -> {
+                    jobs[i]?.cancel()
+                    latency[i] = clock() - startedAt[i]
+                    StrategyOutcome.CANCELLED
+                }
+                results[i] == null -> StrategyOutcome.MISSED
+                else -> StrategyOutcome.LOST
+            }
+            onStepDone(steps[i], latency[i], outcome)
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        if (winner >= 0) results[winner] as R else null
+    }
+}
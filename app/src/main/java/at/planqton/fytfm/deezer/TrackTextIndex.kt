@@ -0,0 +1,361 @@
+package at.planqton.fytfm.deezer
+
+/**
+ * In-memory Aho-Corasick automaton over the normalised artist and title
+ * strings of the cached tracks. [find] scans a normalised RT once and
+ * returns every track whose artist AND title both occur in it — the same
+ * STRICT rule as [DeezerCacheMatcher.matchesQuery], without touching SQLite.
+ *
+ * Representation, all primitive arrays:
+ * - trie states with first-child / next-sibling lists (the root has a
+ *   dense table), failure links and dictionary-suffix links
+ * - one pattern per distinct normalised string; a state ends at most one,
+ *   so a string's pattern id is found by walking the trie
+ * - track slots with artist/title pattern and popularity, chained per
+ *   artist pattern; freed slots go on a free list for the next [put]
+ *
+ * [put] adds to the trie incrementally; failure links are recomputed on
+ * the next [find] after a new pattern. Re-putting a track id with the same
+ * artist updates its slot in place; otherwise the slot is unlinked from
+ * its artist chain and reused. [clear] starts a new generation, which
+ * aborts a running [putIfAbsent] fill (see [DeezerCache]).
+ *
+ * Thread-safe; all access is synchronized on the index.
+ */
+internal class TrackTextIndex {
+
+    companion object {
+        private const val NONE = -1
+        private const val INITIAL_STATES = 1024
+        private const val INITIAL_PATTERNS = 256
+        private const val INITIAL_SLOTS = 256
+
+        /** a-z, 0-9, ä ö ü ß, space — everything [DeezerCacheMatcher.normalize] keeps. */
+        private const val ALPHABET = 41
+
+        /** Shorter strings never match (see [DeezerCacheMatcher.matchesQuery]). */
+        private const val MIN_PATTERN_LENGTH = 2
+
+        private fun symbolOf(c: Char): Int = when (c) {
+            in 'a'..'z' -> c - 'a'
+            in '0'..'9' -> 26 + (c - '0')
+            'ä' -> 36
+            'ö' -> 37
+            'ü' -> 38
+            'ß' -> 39
+            ' ' -> 40
+            else -> NONE
+        }
+    }
+
+    // ===== Trie (state 0 = root) =====
+    private var stateCount = 1
+    private val rootNext = IntArray(ALPHABET) { NONE }
+    private var firstChild = IntArray(INITIAL_STATES) { NONE }
+    private var nextSibling = IntArray(INITIAL_STATES) { NONE }
+    private var symbol = ByteArray(INITIAL_STATES)
+    private var fail = IntArray(INITIAL_STATES)
+    private var output = IntArray(INITIAL_STATES) { NONE }
+    private var dictLink = IntArray(INITIAL_STATES) { NONE }
+    private var linksDirty = false
+
+    // ===== Patterns =====
+    private var patternCount = 0
+    private var artistHead = IntArray(INITIAL_PATTERNS) { NONE }
+    private var seenStamp = IntArray(INITIAL_PATTERNS)
+    private var stamp = 0
+
+    // ===== Track slots =====
+    private val slotByTrackId = HashMap<String, Int>()
+    private val slotTrackId = ArrayList<String?>()
+    private var slotArtist = IntArray(INITIAL_SLOTS)
+    private var slotTitle = IntArray(INITIAL_SLOTS)
+    private var slotPopularity = IntArray(INITIAL_SLOTS)
+    private var nextWithArtist = IntArray(INITIAL_SLOTS)
+    private var freeSlot = NONE
+
+    private var generation = 0
+    private var complete = false
+
+    /** Whether a full fill from the database finished since the last [clear]. */
+    val isComplete: Boolean
+        get() = synchronized(this) { complete }
+
+    /** Number of live tracks. */
+    val size: Int
+        get() = synchronized(this) { slotByTrackId.size }
+
+    /** Slots allocated so far, live and free — bounded by the peak [size]. */
+    internal val slotCount: Int
+        get() = synchronized(this) { slotTrackId.size }
+
+    /** Current generation, for [putIfAbsent] and [markComplete]. */
+    fun generation(): Int = synchronized(this) { generation }
+
+    /** Adds or replaces a track — the path for fresh inserts. */
+    fun put(trackId: String, artist: String, title: String, popularity: Int) {
+        synchronized(this) { putLocked(trackId, artist, title, popularity) }
+    }
+
+    /**
+     * Adds a track unless its id is already present — the path for the
+     * fill from the database, so it never overwrites a newer [put].
+     * Returns false once [clear] started a new generation.
+     */
+    fun putIfAbsent(generation: Int, trackId: String, artist: String, title: String, popularity: Int): Boolean {
+        synchronized(this) {
+            if (generation != this.generation) return false
+            if (trackId !in slotByTrackId) putLocked(trackId, artist, title, popularity)
+            return true
+        }
+    }
+
+    /** Drops a track, e.g. after eviction; its strings stay in the trie until [clear]. */
+    fun remove(trackId: String) {
+        synchronized(this) { removeLocked(trackId) }
+    }
+
+    /** Marks the fill of [generation] as finished; ignored after a [clear]. */
+    fun markComplete(generation: Int) {
+        synchronized(this) {
+            if (generation == this.generation) complete = true
+        }
+    }
+
+    fun clear() {
+        synchronized(this) {
+            generation++
+            complete = false
+            stateCount = 1
+            rootNext.fill(NONE)
+            firstChild.fill(NONE)
+            nextSibling.fill(NONE)
+            output.fill(NONE)
+            dictLink.fill(NONE)
+            linksDirty = false
+            patternCount = 0
+            artistHead.fill(NONE)
+            slotByTrackId.clear()
+            slotTrackId.clear()
+            freeSlot = NONE
+        }
+    }
+
+    /**
+     * Track ids whose normalised artist and title both occur in
+     * [normalizedQuery], most popular first.
+     */
+    fun find(normalizedQuery: String): List<String> {
+        synchronized(this) {
+            if (slotByTrackId.isEmpty()) return emptyList()
+            if (linksDirty) buildLinks()
+            val current = nextStamp()
+
+            // One pass over the query marks every pattern that occurs in it
+            val matchedArtists = ArrayList<Int>()
+            var state = 0
+            for (c in normalizedQuery) {
+                val sym = symbolOf(c)
+                if (sym == NONE) {
+                    state = 0
+                    continue
+                }
+                state = step(state, sym)
+                var s = if (output[state] != NONE) state else dictLink[state]
+                while (s != NONE) {
+                    val pattern = output[s]
+                    if (seenStamp[pattern] != current) {
+                        seenStamp[pattern] = current
+                        if (artistHead[pattern] != NONE) matchedArtists += pattern
+                    }
+                    s = dictLink[s]
+                }
+            }
+
+            // Tracks of a matched artist whose title was matched as well
+            val hits = ArrayList<Int>()
+            for (pattern in matchedArtists) {
+                var slot = artistHead[pattern]
+                while (slot != NONE) {
+                    if (seenStamp[slotTitle[slot]] == current) hits += slot
+                    slot = nextWithArtist[slot]
+                }
+            }
+            hits.sortByDescending { slotPopularity[it] }
+            return hits.map { slotTrackId[it]!! }
+        }
+    }
+
+    // ===== Internals =====
+
+    private fun removeLocked(trackId: String) {
+        slotByTrackId.remove(trackId)?.let { freeSlotLocked(it) }
+    }
+
+    private fun putLocked(trackId: String, artist: String, title: String, popularity: Int) {
+        val normalizedArtist = DeezerCacheMatcher.normalize(artist)
+        val normalizedTitle = DeezerCacheMatcher.normalize(title)
+        if (normalizedArtist.length < MIN_PATTERN_LENGTH || normalizedTitle.length < MIN_PATTERN_LENGTH) {
+            removeLocked(trackId)
+            return
+        }
+
+        val artistPattern = patternId(normalizedArtist)
+        val titlePattern = patternId(normalizedTitle)
+        val existing = slotByTrackId[trackId]
+        if (existing != null && slotArtist[existing] == artistPattern) {
+            // Same artist chain: DeezerCache re-puts on every lookup
+            slotTitle[existing] = titlePattern
+            slotPopularity[existing] = popularity
+            return
+        }
+        if (existing != null) freeSlotLocked(existing)
+
+        val slot = allocateSlot()
+        slotTrackId[slot] = trackId
+        slotArtist[slot] = artistPattern
+        slotTitle[slot] = titlePattern
+        slotPopularity[slot] = popularity
+        nextWithArtist[slot] = artistHead[artistPattern]
+        artistHead[artistPattern] = slot
+        slotByTrackId[trackId] = slot
+    }
+
+    private fun allocateSlot(): Int {
+        if (freeSlot != NONE) {
+            val slot = freeSlot
+            freeSlot = nextWithArtist[slot]
+            return slot
+        }
+        val slot = slotTrackId.size
+        if (slot == slotArtist.size) growSlots()
+        slotTrackId += null
+        return slot
+    }
+
+    /** Unlinks [slot] from its artist chain and puts it on the free list. */
+    private fun freeSlotLocked(slot: Int) {
+        val pattern = slotArtist[slot]
+        if (artistHead[pattern] == slot) {
+            artistHead[pattern] = nextWithArtist[slot]
+        } else {
+            var prev = artistHead[pattern]
+            while (nextWithArtist[prev] != slot) prev = nextWithArtist[prev]
+            nextWithArtist[prev] = nextWithArtist[slot]
+        }
+        slotTrackId[slot] = null
+        slotArtist[slot] = NONE
+        nextWithArtist[slot] = freeSlot
+        freeSlot = slot
+    }
+
+    /** The pattern ending at [text]'s trie state, added if there is none. */
+    private fun patternId(text: String): Int {
+        var state = 0
+        for (c in text) {
+            val sym = symbolOf(c)
+            state = child(state, sym).takeIf { it != NONE } ?: addState(state, sym)
+        }
+        if (output[state] != NONE) return output[state]
+        val id = patternCount++
+        if (id == artistHead.size) growPatterns()
+        artistHead[id] = NONE
+        output[state] = id
+        linksDirty = true
+        return id
+    }
+
+    private fun child(state: Int, sym: Int): Int {
+        if (state == 0) return rootNext[sym]
+        var c = firstChild[state]
+        while (c != NONE && symbol[c].toInt() != sym) c = nextSibling[c]
+        return c
+    }
+
+    private fun addState(parent: Int, sym: Int): Int {
+        val s = stateCount++
+        if (s == fail.size) growStates()
+        symbol[s] = sym.toByte()
+        firstChild[s] = NONE
+        output[s] = NONE
+        dictLink[s] = NONE
+        fail[s] = 0
+        if (parent == 0) {
+            rootNext[sym] = s
+            nextSibling[s] = NONE
+        } else {
+            nextSibling[s] = firstChild[parent]
+            firstChild[parent] = s
+        }
+        return s
+    }
+
+    private fun step(from: Int, sym: Int): Int {
+        var state = from
+        while (true) {
+            val next = child(state, sym)
+            if (next != NONE) return next
+            if (state == 0) return 0
+            state = fail[state]
+        }
+    }
+
+    /** Breadth-first recomputation of failure and dictionary-suffix links. */
+    private fun buildLinks() {
+        val queue = IntArray(stateCount)
+        var head = 0
+        var tail = 0
+        for (sym in 0 until ALPHABET) {
+            val c = rootNext[sym]
+            if (c != NONE) {
+                fail[c] = 0
+                dictLink[c] = NONE
+                queue[tail++] = c
+            }
+        }
+        while (head < tail) {
+            val s = queue[head++]
+            var c = firstChild[s]
+            while (c != NONE) {
+                val f = step(fail[s], symbol[c].toInt())
+                fail[c] = f
+                dictLink[c] = if (output[f] != NONE) f else dictLink[f]
+                queue[tail++] = c
+                c = nextSibling[c]
+            }
+        }
+        linksDirty = false
+    }
+
+    private fun nextStamp(): Int {
+        if (stamp == Int.MAX_VALUE) {
+            seenStamp.fill(0)
+            stamp = 0
+        }
+        return ++stamp
+    }
+
+    private fun growStates() {
+        val size = fail.size * 2
+        firstChild = firstChild.copyOf(size)
+        nextSibling = nextSibling.copyOf(size)
+        symbol = symbol.copyOf(size)
+        fail = fail.copyOf(size)
+        output = output.copyOf(size)
+        dictLink = dictLink.copyOf(size)
+    }
+
+    private fun growPatterns() {
+        val size = artistHead.size * 2
+        artistHead = artistHead.copyOf(size)
+        seenStamp = seenStamp.copyOf(size)
+    }
+
+    private fun growSlots() {
+        val size = slotArtist.size * 2
+        slotArtist = slotArtist.copyOf(size)
+        slotTitle = slotTitle.copyOf(size)
+        slotPopularity = slotPopularity.copyOf(size)
+        nextWithArtist = nextWithArtist.copyOf(size)
+    }
+}
@@ -9,13 +9,14 @@ import androidx.annotation.DrawableRes
 import androidx.core.content.ContextCompat
 import androidx.core.graphics.drawable.DrawableCompat
 import at.planqton.fytfm.R
+import at.planqton.fytfm.data.http.HttpStack
+import at.planqton.fytfm.deezer.CoverSize
+import at.planqton.fytfm.deezer.CoverStore
 import java.io.ByteArrayOutputStream
 import java.io.File
 import java.io.IOException
-import java.io.InputStream
-import java.net.HttpURLConnection
+import okhttp3.Request
 import java.net.SocketTimeoutException
-import java.net.URL
 
 /**
  * Image-loading helpers for [FytFMMediaService]'s MediaMetadata artwork.
@@ -33,9 +34,11 @@ class MediaMetadataImageLoader(private val context: Context) {
         private const val TAG = "MediaImageLoader"
         private const val ARTWORK_SIZE = 300
         private const val JPEG_QUALITY = 85
-        private const val HTTP_TIMEOUT_MS = 5_000
+        private const val HTTP_TIMEOUT_S = 5L
     }
 
+    private val client = HttpStack.shared.client(HTTP_TIMEOUT_S, HTTP_TIMEOUT_S)
+
     /** PNG-compressed byte array of [bitmap] at its current resolution. */
     fun bitmapToByteArray(bitmap: Bitmap): ByteArray {
         val stream = ByteArrayOutputStream()
@@ -46,9 +49,18 @@ class MediaMetadataImageLoader(private val context: Context) {
     /**
      * Loads an image (local file OR http/https URL) and returns a JPEG byte
      * array resized to [ARTWORK_SIZE]². Returns null on any failure.
+     * Deezer covers with a [CoverSize.ARTWORK] variant are returned as
+     * stored, without decoding.
      */
     fun loadImageAsBytes(imagePath: String): ByteArray? {
         return try {
+            val artworkPath = CoverStore.pathFor(imagePath, CoverSize.ARTWORK)
+            if (artworkPath != imagePath) {
+                val bytes = File(artworkPath).readBytes()
+                Log.d(TAG, "Loaded artwork: ${bytes.size} bytes (stored variant) from $artworkPath")
+                return bytes
+            }
+
             val bitmap = if (imagePath.startsWith("http://") || imagePath.startsWith("https://")) {
                 loadBitmapFromUrl(imagePath)
             } else {
@@ -183,31 +195,21 @@ class MediaMetadataImageLoader(private val context: Context) {
             return null
         }
 
-        var connection: HttpURLConnection? = null
-        var inputStream: InputStream? = null
         return try {
-            connection = (URL(url).openConnection() as HttpURLConnection).apply {
-                connectTimeout = HTTP_TIMEOUT_MS
-                readTimeout = HTTP_TIMEOUT_MS
-                doInput = true
-                instanceFollowRedirects = true
-                connect()
-            }
-
-            val responseCode = connection.responseCode
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                Log.w(TAG, "HTTP error $responseCode for URL: $url")
-                return null
+            client.newCall(Request.Builder().url(url).build()).execute().use { response ->
+                if (response.code != 200) {
+                    Log.w(TAG, "HTTP error ${response.code} for URL: $url")
+                    return null
+                }
+
+                val bitmap = response.body?.byteStream()?.use { BitmapFactory.decodeStream(it) }
+                if (bitmap == null) {
+                    Log.w(TAG, "Failed to decode bitmap from URL (invalid format?): $url")
+                } else {
+                    Log.d(TAG, "Loaded bitmap from URL: $url (${bitmap.width}x${bitmap.height})")
+                }
+                bitmap
             }
-
-            inputStream = connection.inputStream
-            val bitmap = BitmapFactory.decodeStream(inputStream)
-            if (bitmap == null) {
-                Log.w(TAG, "Failed to decode bitmap from URL (invalid format?): $url")
-            } else {
-                Log.d(TAG, "Loaded bitmap from URL: $url (${bitmap.width}x${bitmap.height})")
-            }
-            bitmap
         } catch (e: SocketTimeoutException) {
             Log.w(TAG, "Timeout loading bitmap from URL: $url")
             null
@@ -220,9 +222,6 @@ class MediaMetadataImageLoader(private val context: Context) {
         } catch (e: Exception) {
             Log.e(TAG, "Error loading bitmap from URL: $url", e)
             null
-        } finally {
-            runCatching { inputStream?.close() }
-            runCatching { connection?.disconnect() }
         }
     }
 }
@@ -78,10 +78,22 @@ public final class RdsCharset {
     /** Dekodiert einen RDS-G0-Byte-Stream nach Unicode. */
     public static String decode(byte[] bytes) {
         if (bytes == null || bytes.length == 0) return "";
-        StringBuilder sb = new StringBuilder(bytes.length);
-        for (byte b : bytes) {
-            sb.append(G0[b & 0xFF]);
+        char[] chars = new char[bytes.length];
+        decodeInto(bytes, chars);
+        return new String(chars);
+    }
+
+    /**
+     * Dekodiert in einen vom Aufrufer gehaltenen Puffer — kein Garbage im
+     * Poll-Pfad (siehe {@link RdsTextBuffer}). Liefert die Anzahl
+     * geschriebener Zeichen; ist {@code out} zu klein, wird abgeschnitten.
+     */
+    public static int decodeInto(byte[] bytes, char[] out) {
+        if (bytes == null) return 0;
+        int len = Math.min(bytes.length, out.length);
+        for (int i = 0; i < len; i++) {
+            out[i] = G0[bytes[i] & 0xFF];
         }
-        return sb.toString();
+        return len;
     }
 }
@@ -0,0 +1,108 @@
+package at.planqton.fytfm.rds;
+
+/**
+ * Adaptive Taktung für das RDS-Polling im {@link at.planqton.fytfm.RdsManager}.
+ *
+ * Drei Phasen:
+ * <ul>
+ *   <li>{@link Phase#BURST} — direkt nach tune()/clearRds(): schnelles
+ *       Intervall, volle readRds()-Iterationen, bis PS und PI stehen
+ *       (oder {@link #BURST_MAX_MS} ohne Lock vergangen sind — Sender
+ *       ohne RDS sollen nicht ewig im Burst hängen).</li>
+ *   <li>{@link Phase#ACTIVE} — normaler Takt. Jede RT-Änderung oder ein
+ *       RSSI-Sprung ≥ {@link #RSSI_BUMP_DELTA} hält den Scheduler hier.</li>
+ *   <li>{@link Phase#STEADY} — nach {@link #STEADY_AFTER_MS} ohne
+ *       Änderung: langsamer Takt, weniger readRds()-Aufrufe. Die nächste
+ *       RT-Änderung / der nächste RSSI-Sprung holt ihn zurück nach ACTIVE.</li>
+ * </ul>
+ *
+ * Reine Logik ohne Android-/JNI-Abhängigkeit, Zeit wird vom Aufrufer
+ * übergeben — damit unit-testbar. Nicht thread-safe: wird nur vom
+ * Poll-Thread benutzt.
+ */
+public final class RdsPollScheduler {
+
+    public enum Phase { BURST, ACTIVE, STEADY }
+
+    public static final int BURST_INTERVAL_MS = 100;
+    public static final int BURST_READ_ITERATIONS = 12;
+    public static final int ACTIVE_INTERVAL_MS = 150;
+    public static final int ACTIVE_READ_ITERATIONS = 8;
+    public static final int STEADY_INTERVAL_MS = 500;
+    public static final int STEADY_READ_ITERATIONS = 4;
+
+    /** Maximale Burst-Dauer ohne PS+PI-Lock. */
+    public static final long BURST_MAX_MS = 8000;
+    /** Ruhezeit ohne RT-/RSSI-Änderung, nach der in STEADY gewechselt wird. */
+    public static final long STEADY_AFTER_MS = 5000;
+    /** RSSI-Differenz zum letzten Tick, die als „Signal bewegt sich" zählt. */
+    public static final int RSSI_BUMP_DELTA = 8;
+
+    private Phase phase = Phase.BURST;
+    private long burstStartMs;
+    private long lastActivityMs;
+    private int lastRssi = -1;
+
+    public RdsPollScheduler(long nowMs) {
+        reset(nowMs);
+    }
+
+    /** Nach tune()/clearRds(): zurück in den Burst. */
+    public void reset(long nowMs) {
+        phase = Phase.BURST;
+        burstStartMs = nowMs;
+        lastActivityMs = nowMs;
+        lastRssi = -1;
+    }
+
+    /**
+     * Wertet einen abgeschlossenen Poll-Tick aus.
+     *
+     * @param psLocked   PS hat den Stabilitäts-Filter passiert
+     * @param piLocked   PI ist bekannt
+     * @param rtChanged  RT hat sich in diesem Tick geändert
+     * @param rssi       RSSI dieses Ticks, &lt; 0 wenn nicht gelesen
+     */
+    public void onTick(long nowMs, boolean psLocked, boolean piLocked, boolean rtChanged, int rssi) {
+        boolean activity = rtChanged;
+        if (rssi >= 0) {
+            if (lastRssi >= 0 && Math.abs(rssi - lastRssi) >= RSSI_BUMP_DELTA) {
+                activity = true;
+            }
+            lastRssi = rssi;
+        }
+
+        if (phase == Phase.BURST) {
+            if ((psLocked && piLocked) || nowMs - burstStartMs >= BURST_MAX_MS) {
+                phase = Phase.ACTIVE;
+                lastActivityMs = nowMs;
+            }
+            return;
+        }
+
+        if (activity) {
+            lastActivityMs = nowMs;
+            phase = Phase.ACTIVE;
+        } else if (phase == Phase.ACTIVE && nowMs - lastActivityMs >= STEADY_AFTER_MS) {
+            phase = Phase.STEADY;
+        }
+    }
+
+    public Phase getPhase() { return phase; }
+
+    public int getIntervalMs() {
+        switch (phase) {
+            case BURST: return BURST_INTERVAL_MS;
+            case STEADY: return STEADY_INTERVAL_MS;
+            default: return ACTIVE_INTERVAL_MS;
+        }
+    }
+
+    public int getReadIterations() {
+        switch (phase) {
+            case BURST: return BURST_READ_ITERATIONS;
+            case STEADY: return STEADY_READ_ITERATIONS;
+            default: return ACTIVE_READ_ITERATIONS;
+        }
+    }
+}
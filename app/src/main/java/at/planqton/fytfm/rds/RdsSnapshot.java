@@ -0,0 +1,127 @@
+package at.planqton.fytfm.rds;
+
+import java.util.Arrays;
+
+/**
+ * Unveränderlicher Stand aller RDS-Werte nach einem Poll-Tick, plus eine
+ * Bitmaske welche Felder sich gegenüber dem zuletzt ausgelieferten
+ * Snapshot geändert haben.
+ *
+ * Der {@link at.planqton.fytfm.RdsManager} liefert nur Snapshots mit
+ * {@code changedMask != 0} aus — unveränderte Ticks erzeugen downstream
+ * keine Arbeit mehr. Konsumenten prüfen mit {@link #hasChanged(int)} nur
+ * die Felder, die sie interessieren (RT → Deezer/MediaSession, RSSI →
+ * Signal-Bars, PI/PS → Auto-Sync).
+ */
+public final class RdsSnapshot {
+
+    public static final int CHANGED_PS = 1;
+    public static final int CHANGED_RT = 1 << 1;
+    public static final int CHANGED_RSSI = 1 << 2;
+    public static final int CHANGED_PI = 1 << 3;
+    public static final int CHANGED_PTY = 1 << 4;
+    public static final int CHANGED_TP_TA = 1 << 5;
+    public static final int CHANGED_AF = 1 << 6;
+    public static final int CHANGED_PS_PARTIAL = 1 << 7;
+    public static final int CHANGED_ALL = CHANGED_PS | CHANGED_RT | CHANGED_RSSI | CHANGED_PI
+            | CHANGED_PTY | CHANGED_TP_TA | CHANGED_AF | CHANGED_PS_PARTIAL;
+
+    public final String ps;
+    /**
+     * PS-Zwischenstand der Zeichen-Abstimmung ({@link RdsTextVoter#getPartial()}),
+     * z.B. "OE_ ____" — nur für die Fortschrittsanzeige, nie für Logik.
+     * null wenn der Erzeuger keinen Zwischenstand liefert.
+     */
+    public final String psPartial;
+    public final String rt;
+    public final int rssi;
+    public final int pi;
+    public final int pty;
+    public final int tp;
+    public final int ta;
+    private final short[] afList;
+    public final int changedMask;
+
+    private RdsSnapshot(String ps, String psPartial, String rt, int rssi, int pi, int pty, int tp,
+                        int ta, short[] afList, int changedMask) {
+        this.ps = ps;
+        this.psPartial = psPartial;
+        this.rt = rt;
+        this.rssi = rssi;
+        this.pi = pi;
+        this.pty = pty;
+        this.tp = tp;
+        this.ta = ta;
+        this.afList = afList;
+        this.changedMask = changedMask;
+    }
+
+    /**
+     * Baut einen Snapshot und berechnet die Änderungsmaske gegen
+     * {@code previous}. Ohne Vorgänger (erster Tick / nach clearRds)
+     * gelten alle Felder als geändert.
+     */
+    public static RdsSnapshot of(RdsSnapshot previous, String ps, String rt, int rssi, int pi,
+                                 int pty, int tp, int ta, short[] afList) {
+        return of(previous, ps, null, rt, rssi, pi, pty, tp, ta, afList);
+    }
+
+    /** Wie {@link #of(RdsSnapshot, String, String, int, int, int, int, int, short[])}, mit PS-Zwischenstand. */
+    public static RdsSnapshot of(RdsSnapshot previous, String ps, String psPartial, String rt, int rssi,
+                                 int pi, int pty, int tp, int ta, short[] afList) {
+        int mask = changeMask(previous, ps, psPartial, rt, rssi, pi, pty, tp, ta, afList);
+        return new RdsSnapshot(ps, psPartial, rt, rssi, pi, pty, tp, ta,
+                afList != null ? afList.clone() : null, mask);
+    }
+
+    /**
+     * Nur die Änderungsmaske, ohne einen Snapshot zu bauen. Allokiert
+     * nichts — der Poll-Thread prüft damit jeden Tick und erzeugt erst bei
+     * {@code != 0} über {@link #of} ein Objekt.
+     */
+    public static int changeMask(RdsSnapshot previous, String ps, String rt, int rssi, int pi,
+                                 int pty, int tp, int ta, short[] afList) {
+        return changeMask(previous, ps, null, rt, rssi, pi, pty, tp, ta, afList);
+    }
+
+    public static int changeMask(RdsSnapshot previous, String ps, String psPartial, String rt, int rssi,
+                                 int pi, int pty, int tp, int ta, short[] afList) {
+        if (previous == null) return CHANGED_ALL;
+        int mask = 0;
+        if (!equal(ps, previous.ps)) mask |= CHANGED_PS;
+        if (!equal(psPartial, previous.psPartial)) mask |= CHANGED_PS_PARTIAL;
+        if (!equal(rt, previous.rt)) mask |= CHANGED_RT;
+        if (rssi != previous.rssi) mask |= CHANGED_RSSI;
+        if (pi != previous.pi) mask |= CHANGED_PI;
+        if (pty != previous.pty) mask |= CHANGED_PTY;
+        if (tp != previous.tp || ta != previous.ta) mask |= CHANGED_TP_TA;
+        if (!Arrays.equals(afList, previous.afList)) mask |= CHANGED_AF;
+        return mask;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /** true wenn mindestens eines der Felder in {@code mask} geändert ist. */
+    public boolean hasChanged(int mask) {
+        return (changedMask & mask) != 0;
+    }
+
+    public boolean isUnchanged() {
+        return changedMask == 0;
+    }
+
+    /** Kopie der AF-Liste (oder null) — der Snapshot selbst bleibt unveränderlich. */
+    public short[] getAfList() {
+        return afList != null ? afList.clone() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "RdsSnapshot{ps='" + ps + "', psPartial='" + psPartial + "', rt='" + rt + "', rssi=" + rssi
+                + ", pi=0x" + Integer.toHexString(pi) + ", pty=" + pty
+                + ", tp=" + tp + ", ta=" + ta + ", af=" + Arrays.toString(afList)
+                + ", changed=0x" + Integer.toHexString(changedMask) + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package at.planqton.fytfm.rds;
+
+/**
+ * Wiederverwendbarer Dekodier-Puffer für PS bzw. RT im Poll-Pfad.
+ *
+ * Entspricht {@code cleanRdsString(RdsCharset.decode(bytes))} im
+ * RdsManager (G0-Dekodierung, Trim, „not support"-Meldungen → leer),
+ * dekodiert aber in ein wiederverwendetes {@code char[]} und vergleicht
+ * das Ergebnis mit dem zuletzt gelieferten String. Nur wenn sich der Text
+ * tatsächlich geändert hat, wird ein neuer String erzeugt — im
+ * eingeschwungenen Zustand (gleicher Sender, gleicher RT) liefert
+ * {@link #decode(byte[])} immer dieselbe Instanz zurück.
+ *
+ * Nicht thread-safe: ein Puffer pro Feld, nur vom Poll-Thread benutzt.
+ */
+public final class RdsTextBuffer {
+
+    private static final String NOT_SUPPORT = "not support";
+
+    private char[] chars;
+    private String last = "";
+    private boolean changed = false;
+
+    public RdsTextBuffer(int initialCapacity) {
+        chars = new char[Math.max(initialCapacity, 8)];
+    }
+
+    /**
+     * Dekodiert {@code bytes}. Liefert "" für leere/ungültige Daten, sonst
+     * den bereinigten Text — bei unverändertem Inhalt dieselbe Instanz wie
+     * beim letzten Aufruf.
+     */
+    public String decode(byte[] bytes) {
+        changed = false;
+        if (bytes == null || bytes.length == 0) return "";
+        if (bytes.length > chars.length) {
+            chars = new char[bytes.length];
+        }
+        // G0 bildet 0x00–0x1F bereits auf Space ab — cleanRdsString()s
+        // Steuerzeichen-Filter entfällt damit, es bleibt der Trim.
+        int len = RdsCharset.decodeInto(bytes, chars);
+
+        // Trim wie String.trim(): alles <= U+0020 an den Rändern
+        int start = 0;
+        int end = len;
+        while (start < end && chars[start] <= ' ') start++;
+        while (end > start && chars[end - 1] <= ' ') end--;
+        if (start == end) return "";
+
+        if (containsIgnoreCase(chars, start, end, NOT_SUPPORT)) return "";
+
+        if (!contentEquals(last, chars, start, end)) {
+            last = new String(chars, start, end - start);
+            changed = true;
+        }
+        return last;
+    }
+
+    /** true wenn der letzte {@link #decode(byte[])}-Aufruf einen neuen String erzeugt hat. */
+    public boolean lastDecodeChanged() {
+        return changed;
+    }
+
+    /** Vergisst den zuletzt gelieferten Text (z.B. nach clearRds()). */
+    public void reset() {
+        last = "";
+        changed = false;
+    }
+
+    private static boolean contentEquals(String s, char[] buf, int start, int end) {
+        int len = end - start;
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != buf[start + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(char[] buf, int start, int end, String needle) {
+        int n = needle.length();
+        for (int i = start; i + n <= end; i++) {
+            int j = 0;
+            while (j < n && Character.toLowerCase(buf[i + j]) == needle.charAt(j)) j++;
+            if (j == n) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,235 @@
+package at.planqton.fytfm.rds;
+
+/**
+ * Zeichenweise Mehrheitsentscheidung für PS bzw. RT.
+ *
+ * Der alte Stabilitäts-Filter im RdsManager verlangte N identische Polls
+ * in Folge und fing bei jedem einzelnen Bit-Fehler wieder bei 1 an — bei
+ * schwachem Signal kam der PS darum oft erst nach Sekunden oder gar
+ * nicht. Hier hat jede Position einen Favoriten und einen Herausforderer
+ * mit Punktestand:
+ * <ul>
+ *   <li>Stimmt ein Sample mit dem Favoriten überein, steigt dessen Score
+ *       (bis {@code maxScore}), der Herausforderer verliert.</li>
+ *   <li>Weicht es ab, verliert der Favorit und das Zeichen sammelt als
+ *       Herausforderer Punkte; überholt es, wird getauscht.</li>
+ *   <li>Akzeptiert ist der Text, sobald an jeder Position
+ *       {@code Favorit − Herausforderer ≥ acceptConfidence} gilt.</li>
+ * </ul>
+ * Ein korruptes Zeichen kostet so nur an seiner Position Zuversicht, der
+ * Rest bleibt stehen. Weicht ein Sample an mehr als der Hälfte der
+ * Positionen ab, ist es eine neue Nachricht (Sender-/RT-Wechsel,
+ * dynamischer PS) und die Abstimmung beginnt von vorn.
+ *
+ * Gewichte: ein unauffälliges Sample zählt {@link #WEIGHT_CLEAN}, ein
+ * vom Aufrufer als verdächtig markiertes nur {@link #WEIGHT_SUSPICIOUS};
+ * Greek/Cyrillic-Zeichen neben lateinischen Buchstaben (typischer
+ * Bit-Fehler im G0-Charset) zählen gar nicht.
+ *
+ * Reine Logik, nicht thread-safe — nur vom Poll-Thread benutzt.
+ */
+public final class RdsTextVoter {
+
+    public static final int PS_LENGTH = 8;
+    public static final int RT_LENGTH = 64;
+
+    public static final int WEIGHT_CLEAN = 2;
+    public static final int WEIGHT_SUSPICIOUS = 1;
+
+    /** PS: drei saubere Samples (vorher fünf identische in Folge). */
+    public static final int PS_ACCEPT_CONFIDENCE = 6;
+    public static final int PS_MAX_SCORE = 8;
+    /** RT: zwei übereinstimmende Samples filtern Einzel-Bitfehler. */
+    public static final int RT_ACCEPT_CONFIDENCE = 4;
+    public static final int RT_MAX_SCORE = 6;
+
+    /** Platzhalter in {@link #getPartial()} für noch unsichere Positionen. */
+    public static final char UNKNOWN = '_';
+
+    private final int capacity;
+    private final int acceptConfidence;
+    private final int maxScore;
+
+    private final char[] best;
+    private final char[] alt;
+    private final int[] bestScore;
+    private final int[] altScore;
+    private final char[] sample;
+    private final int[] weights;
+    /** Position hat die Schwelle erreicht (für getPartial()). */
+    private final boolean[] sure;
+    /** Anzahl Positionen, die bisher mit Text (nicht Space) belegt waren. */
+    private int extent;
+    private int samples;
+
+    private boolean contentDirty = true;
+    private String cachedText = "";
+    private String cachedPartial = "";
+
+    public RdsTextVoter(int capacity, int acceptConfidence, int maxScore) {
+        this.capacity = capacity;
+        this.acceptConfidence = acceptConfidence;
+        this.maxScore = maxScore;
+        best = new char[capacity];
+        alt = new char[capacity];
+        bestScore = new int[capacity];
+        altScore = new int[capacity];
+        sample = new char[capacity];
+        weights = new int[capacity];
+        sure = new boolean[capacity];
+        reset();
+    }
+
+    public static RdsTextVoter forPs() {
+        return new RdsTextVoter(PS_LENGTH, PS_ACCEPT_CONFIDENCE, PS_MAX_SCORE);
+    }
+
+    public static RdsTextVoter forRt() {
+        return new RdsTextVoter(RT_LENGTH, RT_ACCEPT_CONFIDENCE, RT_MAX_SCORE);
+    }
+
+    public void reset() {
+        for (int i = 0; i < capacity; i++) {
+            best[i] = ' ';
+            alt[i] = ' ';
+            bestScore[i] = 0;
+            altScore[i] = 0;
+            sure[i] = false;
+        }
+        extent = 0;
+        samples = 0;
+        contentDirty = true;
+    }
+
+    /**
+     * Speist ein Sample ein. {@code text} ist bereits dekodiert/getrimmt;
+     * Positionen hinter dem Textende zählen als Space.
+     *
+     * @param suspicious Sample hat ein bekanntes Korruptionsmuster
+     *                   (siehe RdsManager.isPsSuspicious) — zählt weniger
+     */
+    public void addSample(String text, boolean suspicious) {
+        if (text == null || text.isEmpty()) return;
+        int len = Math.min(text.length(), capacity);
+        boolean hasLatin = false;
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) hasLatin = true;
+        }
+        int base = suspicious ? WEIGHT_SUSPICIOUS : WEIGHT_CLEAN;
+        int sampleExtent = 0;
+        for (int i = 0; i < capacity; i++) {
+            char c = i < len ? text.charAt(i) : ' ';
+            sample[i] = c;
+            weights[i] = (hasLatin && isGreekOrCyrillic(c)) ? 0 : base;
+            if (c != ' ') sampleExtent = i + 1;
+        }
+
+        // Neue Nachricht? Dann nicht gegen den alten Stand abstimmen.
+        int compare = Math.max(extent, sampleExtent);
+        if (samples > 0 && compare > 0) {
+            int mismatches = 0;
+            for (int i = 0; i < compare; i++) {
+                if (sample[i] != best[i]) mismatches++;
+            }
+            if (mismatches * 2 > compare) reset();
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            vote(i, sample[i], weights[i]);
+        }
+        extent = 0;
+        for (int i = capacity - 1; i >= 0; i--) {
+            if (best[i] != ' ') {
+                extent = i + 1;
+                break;
+            }
+        }
+        samples++;
+    }
+
+    private void vote(int i, char c, int w) {
+        if (w == 0) return;
+        char before = best[i];
+        if (c == best[i]) {
+            bestScore[i] = Math.min(bestScore[i] + w, maxScore);
+            altScore[i] = Math.max(altScore[i] - w, 0);
+        } else if (c == alt[i]) {
+            altScore[i] = Math.min(altScore[i] + w, maxScore);
+            bestScore[i] = Math.max(bestScore[i] - w, 0);
+        } else {
+            bestScore[i] = Math.max(bestScore[i] - w, 0);
+            alt[i] = c;
+            altScore[i] = w;
+        }
+        if (altScore[i] > bestScore[i]) {
+            char tc = best[i];
+            best[i] = alt[i];
+            alt[i] = tc;
+            int ts = bestScore[i];
+            bestScore[i] = altScore[i];
+            altScore[i] = ts;
+        }
+        boolean nowSure = getConfidence(i) >= acceptConfidence;
+        if (best[i] != before || nowSure != sure[i]) {
+            sure[i] = nowSure;
+            contentDirty = true;
+        }
+    }
+
+    /** Zuversicht an Position {@code i} (Favorit minus Herausforderer). */
+    public int getConfidence(int i) {
+        return bestScore[i] - altScore[i];
+    }
+
+    /** true wenn es Text gibt und jede Position die Schwelle erreicht. */
+    public boolean isLocked() {
+        if (extent == 0) return false;
+        for (int i = 0; i < capacity; i++) {
+            if (getConfidence(i) < acceptConfidence) return false;
+        }
+        return true;
+    }
+
+    /** Aktueller Favoriten-Text (getrimmt), unabhängig vom Lock. */
+    public String getText() {
+        refresh();
+        return cachedText;
+    }
+
+    /**
+     * Fortschrittsanzeige: sichere Positionen als Zeichen, unsichere als
+     * {@link #UNKNOWN}. Leer solange noch kein Sample kam.
+     */
+    public String getPartial() {
+        refresh();
+        return cachedPartial;
+    }
+
+    public int getSampleCount() {
+        return samples;
+    }
+
+    /** Baut Text/Partial nur neu, wenn sich ein Zeichen oder eine Schwelle geändert hat. */
+    private void refresh() {
+        if (!contentDirty) return;
+        contentDirty = false;
+        int start = 0;
+        int end = extent;
+        while (start < end && best[start] == ' ') start++;
+        cachedText = start < end ? new String(best, start, end - start) : "";
+        if (extent == 0) {
+            cachedPartial = "";
+            return;
+        }
+        char[] partial = new char[extent];
+        for (int i = 0; i < extent; i++) {
+            partial[i] = sure[i] ? best[i] : UNKNOWN;
+        }
+        cachedPartial = new String(partial);
+    }
+
+    private static boolean isGreekOrCyrillic(char c) {
+        return c >= 0x0370 && c <= 0x04FF;
+    }
+}
@@ -0,0 +1,53 @@
+package at.planqton.fytfm.scanner
+
+/**
+ * Channel raster for the AM scan in [RadioScanner.scanAM].
+ *
+ * The raster follows the radio area: 9 kHz (Europe, Africa, Asia) or
+ * 10 kHz (Americas), taken from the area's AM step. Channels sit on
+ * multiples of the raster (522, 531, … or 530, 540, …), so a band edge
+ * that is off-raster is rounded inwards.
+ *
+ * Pure logic so the raster and the noise-floor sample points can be
+ * tested without a tuner.
+ */
+internal object AmRaster {
+
+    const val RASTER_EU = 9
+    const val RASTER_US = 10
+
+    /** 10 kHz for areas stepping in 10 kHz or more, otherwise 9 kHz. */
+    fun rasterFor(stepKHz: Float): Int = if (stepKHz >= RASTER_US) RASTER_US else RASTER_EU
+
+    /** All channels of [band] in kHz, ascending. */
+    fun channels(band: RadioScanner.AmBand): IntArray {
+        val raster = rasterFor(band.stepKHz)
+        val first = (Math.ceil(band.minKHz.toDouble() / raster) * raster).toInt()
+        val last = (Math.floor(band.maxKHz.toDouble() / raster) * raster).toInt()
+        if (last < first) return IntArray(0)
+        return IntArray((last - first) / raster + 1) { first + it * raster }
+    }
+
+    /**
+     * [count] channels spread over [band] for the noise-floor measurement —
+     * the [ScanCalibration.sampleFrequencies] points snapped to the raster.
+     */
+    fun sampleChannels(band: RadioScanner.AmBand, count: Int): List<Float> {
+        val raster = rasterFor(band.stepKHz)
+        val all = channels(band)
+        if (all.isEmpty()) return emptyList()
+        return ScanCalibration.sampleFrequencies(band.minKHz, band.maxKHz, count)
+            .map { f -> (Math.round(f / raster) * raster).coerceIn(all.first(), all.last()).toFloat() }
+            .distinct()
+    }
+
+    /**
+     * Streaming splatter dedup, same rule as [CoarseFinePlanner.localMaxima]:
+     * [mid] is a station if it reaches [threshold], the lower neighbour
+     * [left] is weaker and the upper neighbour [right] is not stronger.
+     * A missing neighbour (band edge, failed tune) is passed as 0. Lets
+     * the scan report a channel as soon as the next one is measured.
+     */
+    fun isPeak(left: Int, mid: Int, right: Int, threshold: Int): Boolean =
+        mid >= threshold && left < mid && right <= mid
+}
@@ -0,0 +1,124 @@
+package at.planqton.fytfm.scanner
+
+import at.planqton.fytfm.FrequencySnap
+import kotlin.math.roundToInt
+
+/**
+ * Pure planning helpers for the two-resolution FM scan
+ * ([RadioScanner.scanFMCoarseToFine]):
+ *
+ * 1. **Coarse pass** over every [coarseGrid] channel (default 200 kHz) with
+ *    a single short RSSI read. An FM station still lifts the RSSI one
+ *    raster step off its carrier, so a station on an odd channel shows up
+ *    on a coarse neighbour — the coarse trigger sits [COARSE_MARGIN] below
+ *    the real threshold to catch that.
+ * 2. **Fine pass** only on [fineCandidates]: every 100 kHz channel in the
+ *    coarse cell around a coarse hit, measured with full settling.
+ * 3. [localMaxima] drops adjacent-channel splatter: of a contiguous run of
+ *    channels above the threshold only the RSSI peaks survive.
+ *
+ * Frequencies are handled as 100 kHz channel numbers (`985` = 98.5 MHz)
+ * internally and converted back through [FrequencySnap.snapFm], so float
+ * steps never drift off the raster.
+ */
+internal object CoarseFinePlanner {
+
+    /** Default coarse raster in MHz. */
+    const val DEFAULT_COARSE_STEP = 0.2f
+
+    /** Coarse trigger = fine threshold minus this (off-carrier reads are weaker). */
+    const val COARSE_MARGIN = 4
+
+    /** Settle time before the single coarse read. */
+    const val COARSE_SETTLE_MS = 50L
+
+    /** Stations assumed for the estimate when nothing better is known (typical EU band). */
+    const val TYPICAL_OCCUPANCY = 25
+
+    /** Rough per-channel cost of a fully settled fine read incl. tune, for [estimateMs]. */
+    const val FINE_CHANNEL_MS = 110L
+
+    /** Rough per-channel cost of a coarse read incl. tune, for [estimateMs]. */
+    const val COARSE_CHANNEL_MS = COARSE_SETTLE_MS + 15L
+
+    fun toChannel(mhz: Float): Int = (mhz * 10.0).roundToInt()
+
+    fun toMHz(channel: Int): Float = FrequencySnap.snapFm(channel / 10f)
+
+    /** Coarse step in 100 kHz channels, at least 1. */
+    fun stepChannels(stepMHz: Float): Int = maxOf(1, toChannel(stepMHz))
+
+    /** Coarse channels from [minMHz] to [maxMHz]; the band end is always included. */
+    fun coarseGrid(minMHz: Float, maxMHz: Float, stepMHz: Float): IntArray {
+        val first = toChannel(minMHz)
+        val last = toChannel(maxMHz)
+        val step = stepChannels(stepMHz)
+        val count = (last - first) / step + 1
+        val grid = IntArray(if ((last - first) % step == 0) count else count + 1)
+        for (i in 0 until count) grid[i] = first + i * step
+        grid[grid.size - 1] = last
+        return grid
+    }
+
+    /**
+     * Fine channels to measure: for every coarse hit the channels up to
+     * `step - 1` away on either side (±100 kHz at the default raster),
+     * clamped to the band, sorted and without duplicates.
+     */
+    fun fineCandidates(
+        coarseHits: IntArray,
+        stepMHz: Float,
+        minMHz: Float,
+        maxMHz: Float,
+    ): IntArray {
+        val reach = stepChannels(stepMHz) - 1
+        val first = toChannel(minMHz)
+        val last = toChannel(maxMHz)
+        val result = java.util.TreeSet<Int>()
+        for (hit in coarseHits) {
+            for (ch in (hit - reach)..(hit + reach)) {
+                if (ch in first..last) result.add(ch)
+            }
+        }
+        return result.toIntArray()
+    }
+
+    /**
+     * Splatter dedup on the fine results. [channels] must be sorted
+     * ascending, [rssi] parallel to it. A channel is kept when it reaches
+     * [threshold] and no directly adjacent measured channel (±100 kHz) is
+     * stronger; on a tie the lower frequency wins. Two stations 200 kHz
+     * apart with a weaker channel in between both survive.
+     *
+     * @return indices into [channels] of the kept stations
+     */
+    fun localMaxima(channels: IntArray, rssi: IntArray, threshold: Int): IntArray {
+        val kept = ArrayList<Int>()
+        for (i in channels.indices) {
+            if (rssi[i] < threshold) continue
+            val leftAdjacent = i > 0 && channels[i - 1] == channels[i] - 1
+            val rightAdjacent = i < channels.size - 1 && channels[i + 1] == channels[i] + 1
+            if (leftAdjacent && rssi[i - 1] >= rssi[i]) continue
+            if (rightAdjacent && rssi[i + 1] > rssi[i]) continue
+            kept.add(i)
+        }
+        return kept.toIntArray()
+    }
+
+    /**
+     * Approximate duration of a coarse-to-fine scan over the band with
+     * [expectedStations] stations, in ms. Assumes every station triggers
+     * one coarse channel whose whole cell is then measured fine.
+     */
+    fun estimateMs(minMHz: Float, maxMHz: Float, stepMHz: Float, expectedStations: Int): Long {
+        val coarse = coarseGrid(minMHz, maxMHz, stepMHz).size
+        val cell = 2 * (stepChannels(stepMHz) - 1) + 1
+        val bandChannels = toChannel(maxMHz) - toChannel(minMHz) + 1
+        val fine = minOf(bandChannels, expectedStations.coerceAtLeast(0) * cell)
+        return coarse * COARSE_CHANNEL_MS + fine * FINE_CHANNEL_MS
+    }
+
+    /** Approximate duration of the single-resolution scan (every 100 kHz, full settling), in ms. */
+    fun estimateFullScanMs(minMHz: Float, maxMHz: Float): Long =
+        (toChannel(maxMHz) - toChannel(minMHz) + 1) * FINE_CHANNEL_MS
+}
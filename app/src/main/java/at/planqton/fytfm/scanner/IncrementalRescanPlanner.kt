@@ -0,0 +1,75 @@
+package at.planqton.fytfm.scanner
+
+import java.util.TreeSet
+
+/**
+ * Channel planning for [RadioScanner.scanFMIncremental].
+ *
+ * The rescan first revisits what we already know — the saved presets plus
+ * channels the [at.planqton.fytfm.data.band.BandMap] saw strong recently —
+ * and only then sweeps the rest of the band. Channels are in tenths of a
+ * MHz like [CoarseFinePlanner] (875 = 87.5 MHz).
+ *
+ * Pure logic so the ordering and the splatter rules can be tested without
+ * a tuner.
+ */
+internal object IncrementalRescanPlanner {
+
+    /** BandMap readings older than this are not trusted as "known strong". */
+    const val STRONG_MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000
+
+    /**
+     * Channels to check first: [presets] in ascending order, then
+     * [strong] channels that are not a preset or right next to one (those
+     * are the preset's own splatter). Out-of-band channels are dropped.
+     */
+    fun priorityChannels(presets: IntArray, strong: IntArray, minCh: Int, maxCh: Int): IntArray {
+        val presetSet = TreeSet<Int>()
+        for (ch in presets) if (ch in minCh..maxCh) presetSet.add(ch)
+        val extra = TreeSet<Int>()
+        for (ch in strong) {
+            if (ch !in minCh..maxCh) continue
+            if (ch in presetSet || (ch - 1) in presetSet || (ch + 1) in presetSet) continue
+            extra.add(ch)
+        }
+        return (presetSet + extra).toIntArray()
+    }
+
+    /**
+     * Whether a measured priority channel counts as a station: it reaches
+     * [threshold] and, unless it is a preset, no measured neighbour in
+     * [rssiByChannel] is stronger (same rule as [CoarseFinePlanner.localMaxima]).
+     */
+    fun isConfirmed(channel: Int, isPreset: Boolean, rssiByChannel: Map<Int, Int>, threshold: Int): Boolean {
+        val rssi = rssiByChannel[channel] ?: return false
+        if (rssi < threshold) return false
+        if (isPreset) return true
+        val left = rssiByChannel[channel - 1] ?: 0
+        val right = rssiByChannel[channel + 1] ?: 0
+        return left < rssi && right <= rssi
+    }
+
+    /**
+     * The rest of the band for the sweep: every channel from [minCh] to
+     * [maxCh] that was not [checked] and is not a direct neighbour of a
+     * [confirmed] station.
+     */
+    fun sweepChannels(minCh: Int, maxCh: Int, checked: Set<Int>, confirmed: Set<Int>): IntArray {
+        val result = ArrayList<Int>(maxCh - minCh + 1)
+        for (ch in minCh..maxCh) {
+            if (ch in checked) continue
+            if ((ch - 1) in confirmed || (ch + 1) in confirmed) continue
+            result.add(ch)
+        }
+        return result.toIntArray()
+    }
+
+    /**
+     * New stations among the [swept] channels: local RSSI maxima against
+     * all readings of this rescan in [rssiByChannel], so a swept channel
+     * next to a stronger already-known station is dropped as splatter.
+     */
+    fun newPeaks(swept: IntArray, rssiByChannel: Map<Int, Int>, threshold: Int): IntArray =
+        swept.filter { isConfirmed(it, isPreset = false, rssiByChannel = rssiByChannel, threshold = threshold) }
+            .toIntArray()
+}
@@ -7,7 +7,10 @@ import android.util.Log
 import at.planqton.fytfm.RdsManager
 import at.planqton.fytfm.controller.FmNativeAdapter
 import at.planqton.fytfm.controller.FmNativeApi
+import at.planqton.fytfm.controller.TunerClock
 import at.planqton.fytfm.data.RadioStation
+import at.planqton.fytfm.data.band.BandMap
+import at.planqton.fytfm.data.stations.StationDiff
 import com.android.fmradio.FmNative
 import kotlin.concurrent.thread
 
@@ -22,10 +25,20 @@ import kotlin.concurrent.thread
  * the JNI hardware singleton can be substituted with a MockK mock in tests
  * — the previous direct `FmNative.getInstance()` call made the scanner
  * un-testable on the JVM.
+ *
+ * Wartezeiten und Zeitmessung laufen über [clock], damit ein Test mit
+ * simuliertem Tuner und virtueller Uhr einen ganzen Scan in Millisekunden
+ * durchspielen kann. Nur die RDS-Wartezeit in [collectRdsViaManager]
+ * bleibt echte Zeit, weil sie auf den Poll-Thread des [RdsManager] wartet.
+ *
+ * Jede Messung landet nebenbei in der [BandMap] (RSSI in Phase 1, PS/PI
+ * in Phase 2), damit das Wissen über das Band nicht mit dem Dialog verfällt.
  */
 class RadioScanner(
     private val rdsManager: RdsManager,
     private val fmNative: FmNativeApi? = defaultFmNative(),
+    private val bandMap: BandMap? = null,
+    private val clock: TunerClock = TunerClock.SYSTEM,
 ) {
 
     /**
@@ -39,6 +52,16 @@ class RadioScanner(
         REQUIRE_PS_OR_PI // Muss PS ODER PI haben
     }
 
+    /**
+     * AM-Band der aktiven Region (WorldArea): Grenzen in kHz und Schritt,
+     * aus dem sich das 9/10-kHz-Raster ergibt (siehe [AmRaster]).
+     */
+    data class AmBand(val minKHz: Float, val maxKHz: Float, val stepKHz: Float) {
+        companion object {
+            val DEFAULT = AmBand(AM_MIN, AM_MAX, AM_STEP)
+        }
+    }
+
     companion object {
         private const val TAG = "RadioScanner"
 
@@ -55,10 +78,11 @@ class RadioScanner(
         // Scan Settings
         private const val SCAN_RSSI_OFFSET_NORMAL = 15  // Threshold = NoiseFloor + Offset (normal mode)
         private const val SCAN_RSSI_OFFSET_SENSITIVE = 5  // Lower offset for sensitive mode (more weak stations)
-        private const val SCAN_SETTLE_TIME_MS = 250L
-        private const val SCAN_RSSI_SAMPLES = 3
         private const val NOISE_FLOOR_SAMPLES = 10  // Anzahl Frequenzen für Noise Floor Messung
-        private const val RDS_COLLECT_TIME_MS = 8000L  // 8 Sekunden pro Sender für RDS (optimiert für langsame Sender)
+        private const val AM_SETTLE_MS = 120L  // AM-AGC braucht länger als FM bis zum ersten brauchbaren RSSI
+        private const val AM_SAMPLE_INTERVAL_MS = 40L
+        private const val RDS_COLLECT_TIME_MS = 8000L  // max. 8 Sekunden pro Sender für RDS, nach RSSI skaliert
+        private const val RDS_WAIT_SLICE_MS = 300L  // awaitChange-Scheibe, damit Cancel/Skip schnell greift
 
         // fmsyu_jni Command Codes (NavRadio-Stil)
         private const val CMD_GETRSSI = 0x0b      // 11
@@ -71,6 +95,18 @@ class RadioScanner(
     }
 
     private val mainHandler = Handler(Looper.getMainLooper())
+
+    // Wiederverwendetes Bundle-Paar für readRssi() — wird pro Sample
+    // geleert statt neu angelegt (Phase 1 misst ~600 Samples pro Scan).
+    // Nur vom Scan-Thread benutzt.
+    private val rssiInBundle = Bundle()
+    private val rssiOutBundle = Bundle()
+
+    // Adaptives Settling für Phase 1 (siehe RssiSettleDetector). Ergebnis
+    // der letzten Messung für Fortschritt/Statistik. Nur Scan-Thread.
+    private val settleDetector = RssiSettleDetector()
+    private var lastDwellMs = 0L
+    private var lastSettleVerdict = RssiSettleDetector.Verdict.CONTINUE
     // Control flags are written from the main thread (stopScan/skipScan) and
     // read from the scan worker thread — without @Volatile the cancel/skip
     // request may never reach the scan loop.
@@ -130,7 +166,7 @@ class RadioScanner(
 
         thread {
             val foundStations = mutableListOf<RadioStation>()
-            val scanStartTime = System.currentTimeMillis()
+            val scanStartTime = clock.nowMs()
             var filteredCount = 0
 
             try {
@@ -173,6 +209,7 @@ class RadioScanner(
 
                 val totalSteps = ((FM_MAX - FM_MIN) / FM_STEP).toInt() + 1
                 var currentStep = 0
+                val dwellStats = DwellStats()
 
                 var freq = FM_MIN
                 while (freq <= FM_MAX && !isCancelled) {
@@ -181,15 +218,17 @@ class RadioScanner(
                     val currentFreq = (freq * 10).toInt() / 10.0f
 
                     // Restzeit berechnen
-                    val elapsedMs = System.currentTimeMillis() - scanStartTime
+                    val elapsedMs = clock.nowMs() - scanStartTime
                     val remainingSeconds = if (progress > 0) {
                         val totalEstimatedMs = (elapsedMs * 50) / progress
                         ((totalEstimatedMs - elapsedMs) / 1000).toInt()
                     } else 60
 
-                    mainHandler.post { onProgress(progress, currentFreq, remainingSeconds, 0, "Phase 1: Signal") }
+                    val phaseLabel = dwellStats.label("Phase 1: Signal", lastDwellMs)
+                    mainHandler.post { onProgress(progress, currentFreq, remainingSeconds, 0, phaseLabel) }
 
                     // Tune zur Frequenz
+                    rdsManager.noteTuned(currentFreq)
                     try {
                         native.tune(currentFreq)
                     } catch (e: Exception) {
@@ -198,11 +237,10 @@ class RadioScanner(
                         continue
                     }
 
-                    // Kurz warten bis Signal stabil
-                    Thread.sleep(SCAN_SETTLE_TIME_MS)
-
-                    // RSSI messen
-                    val rssi = measureRssi(SCAN_RSSI_SAMPLES)
+                    // RSSI messen bis stabil (oder sofort raus bei klarem Rauschen)
+                    val rssi = measureRssiSettled(dynamicThreshold)
+                    dwellStats.add(lastDwellMs, lastSettleVerdict)
+                    bandMap?.recordRssi(currentFreq, rssi)
 
                     if (rssi >= dynamicThreshold) {
                         val station = RadioStation(currentFreq, null, rssi, false)
@@ -227,7 +265,7 @@ class RadioScanner(
                     return@thread
                 }
 
-                Log.i(TAG, "Phase 1 complete: ${foundStations.size} stations found")
+                Log.i(TAG, "Phase 1 complete: ${foundStations.size} stations found, $dwellStats")
 
                 // ==================== PHASE 2: RDS VERIFICATION via RdsManager ====================
                 if (foundStations.isNotEmpty() && (requirePs || requirePi)) {
@@ -242,7 +280,13 @@ class RadioScanner(
                     }
 
                     val verifiedStations = mutableListOf<RadioStation>()
-                    val phase2StartTime = System.currentTimeMillis()
+                    val phase2StartTime = clock.nowMs()
+                    val verifyMode = when {
+                        requirePs && requirePi -> FilterMode.REQUIRE_PS_AND_PI
+                        requirePs -> FilterMode.REQUIRE_PS
+                        else -> FilterMode.REQUIRE_PI
+                    }
+                    val histogram = RdsVerifyHistogram()
 
                     foundStations.forEachIndexed { index, station ->
                         if (isCancelled) return@forEachIndexed
@@ -250,7 +294,7 @@ class RadioScanner(
                         val progress = 50 + ((index + 1).toFloat() / foundStations.size * 50).toInt()
 
                         // Restzeit für Phase 2 berechnen
-                        val phase2Elapsed = System.currentTimeMillis() - phase2StartTime
+                        val phase2Elapsed = clock.nowMs() - phase2StartTime
                         val remainingSeconds = if (index > 0) {
                             val avgPerStation = phase2Elapsed / index
                             ((foundStations.size - index) * avgPerStation / 1000).toInt()
@@ -266,8 +310,13 @@ class RadioScanner(
                         // Tune zur Frequenz
                         tuneToFrequency(station.frequency)
 
-                        // RDS-Daten sammeln (wie Debug-Display) - warten auf Daten
-                        val (hasPs, hasPi, psName, piCode) = collectRdsViaManager(RDS_COLLECT_TIME_MS)
+                        // RDS-Daten sammeln (wie Debug-Display) - bis der Filter entscheiden kann
+                        val rds = collectRdsViaManager(
+                            RdsVerifyPolicy.timeoutFor(station.rssi, RDS_COLLECT_TIME_MS), verifyMode
+                        )
+                        histogram.record(rds.elapsedMs, rds.satisfied)
+                        bandMap?.recordRds(station.frequency, rds.piCode, rds.psName)
+                        val (hasPs, hasPi, psName, piCode) = rds
 
                         // Filtern basierend auf Anforderungen
                         val psOk = !requirePs || hasPs
@@ -311,6 +360,8 @@ class RadioScanner(
                         return@thread
                     }
 
+                    Log.i(TAG, "Phase 2 verification times: $histogram")
+
                     // Ersetze foundStations mit verifizierten
                     foundStations.clear()
                     foundStations.addAll(verifiedStations)
@@ -327,13 +378,14 @@ class RadioScanner(
                     }
 
                     val stationsWithNames = mutableListOf<RadioStation>()
-                    val phase2StartTime = System.currentTimeMillis()
+                    val phase2StartTime = clock.nowMs()
+                    val histogram = RdsVerifyHistogram()
 
                     foundStations.forEachIndexed { index, station ->
                         if (isCancelled) return@forEachIndexed
 
                         val progress = 50 + ((index + 1).toFloat() / foundStations.size * 50).toInt()
-                        val phase2Elapsed = System.currentTimeMillis() - phase2StartTime
+                        val phase2Elapsed = clock.nowMs() - phase2StartTime
                         val remainingSeconds = if (index > 0) {
                             val avgPerStation = phase2Elapsed / index
                             ((foundStations.size - index) * avgPerStation / 1000).toInt()
@@ -346,7 +398,12 @@ class RadioScanner(
                         rdsManager.clearRds()
                         tuneToFrequency(station.frequency)
 
-                        val (_, _, psName, _) = collectRdsViaManager(RDS_COLLECT_TIME_MS)
+                        val rds = collectRdsViaManager(
+                            RdsVerifyPolicy.timeoutFor(station.rssi, RDS_COLLECT_TIME_MS), FilterMode.NONE
+                        )
+                        histogram.record(rds.elapsedMs, rds.satisfied)
+                        bandMap?.recordRds(station.frequency, rds.piCode, rds.psName)
+                        val psName = rds.psName
 
                         val stationWithName = station.copy(name = if (psName.isNotEmpty()) psName else null)
                         stationsWithNames.add(stationWithName)
@@ -373,6 +430,8 @@ class RadioScanner(
                         return@thread
                     }
 
+                    Log.i(TAG, "Phase 2 name collection times: $histogram")
+
                     foundStations.clear()
                     foundStations.addAll(stationsWithNames)
                 }
@@ -413,7 +472,7 @@ class RadioScanner(
 
         thread {
             val foundStations = mutableListOf<RadioStation>()
-            val scanStartTime = System.currentTimeMillis()
+            val scanStartTime = clock.nowMs()
 
             try {
                 Log.i(TAG, "════════════════════════════════════════════════════")
@@ -453,6 +512,7 @@ class RadioScanner(
 
                 val totalSteps = ((FM_MAX - FM_MIN) / FM_STEP).toInt() + 1
                 var currentStep = 0
+                val dwellStats = DwellStats()
 
                 var freq = FM_MIN
                 while (freq <= FM_MAX && !isCancelled) {
@@ -460,14 +520,16 @@ class RadioScanner(
                     val progress = ((currentStep.toFloat() / totalSteps) * 100).toInt()
                     val currentFreq = (freq * 10).toInt() / 10.0f
 
-                    val elapsedMs = System.currentTimeMillis() - scanStartTime
+                    val elapsedMs = clock.nowMs() - scanStartTime
                     val remainingSeconds = if (progress > 0) {
                         val totalEstimatedMs = (elapsedMs * 100) / progress
                         ((totalEstimatedMs - elapsedMs) / 1000).toInt()
                     } else 60
 
-                    mainHandler.post { onProgress(progress, currentFreq, remainingSeconds, "Signal-Scan") }
+                    val phaseLabel = dwellStats.label("Signal-Scan", lastDwellMs)
+                    mainHandler.post { onProgress(progress, currentFreq, remainingSeconds, phaseLabel) }
 
+                    rdsManager.noteTuned(currentFreq)
                     try {
                         native.tune(currentFreq)
                     } catch (e: Exception) {
@@ -476,9 +538,9 @@ class RadioScanner(
                         continue
                     }
 
-                    Thread.sleep(SCAN_SETTLE_TIME_MS)
-
-                    val rssi = measureRssi(SCAN_RSSI_SAMPLES)
+                    val rssi = measureRssiSettled(dynamicThreshold)
+                    dwellStats.add(lastDwellMs, lastSettleVerdict)
+                    bandMap?.recordRssi(currentFreq, rssi)
 
                     if (rssi >= dynamicThreshold) {
                         val station = RadioStation(currentFreq, null, rssi, false)
@@ -501,7 +563,7 @@ class RadioScanner(
                     return@thread
                 }
 
-                Log.i(TAG, "Signal scan complete: ${foundStations.size} stations found")
+                Log.i(TAG, "Signal scan complete: ${foundStations.size} stations found, $dwellStats")
                 logScanResults(foundStations)
                 postSortedComplete(foundStations, onComplete)
 
@@ -514,10 +576,343 @@ class RadioScanner(
         }
     }
 
+    /**
+     * FM Signal-Scan in zwei Auflösungen (nur Phase 1, ohne RDS):
+     * 1. Grob: jedes [coarseStep]-Raster (Standard 200 kHz) ein kurzer RSSI-Read
+     * 2. Fein: nur die 100-kHz-Nachbarn der Grob-Treffer, voll eingeschwungen
+     * Nachbarkanal-Splatter wird auf das lokale RSSI-Maximum reduziert
+     * (siehe [CoarseFinePlanner]). Gleiche Callbacks wie [scanFMSignalOnly];
+     * Sender werden erst nach dem Fein-Durchlauf gemeldet.
+     */
+    fun scanFMCoarseToFine(
+        onProgress: (progress: Int, frequency: Float, remainingSeconds: Int, phase: String) -> Unit,
+        onStationFound: ((RadioStation) -> Unit)? = null,
+        onComplete: (List<RadioStation>) -> Unit,
+        highSensitivity: Boolean = false,
+        coarseStep: Float = CoarseFinePlanner.DEFAULT_COARSE_STEP
+    ) {
+        if (isScanning) {
+            Log.w(TAG, "Scan already running")
+            return
+        }
+
+        isScanning = true
+        isCancelled = false
+        isSkipped = false
+
+        thread {
+            val foundStations = mutableListOf<RadioStation>()
+            val scanStartTime = clock.nowMs()
+
+            try {
+                Log.i(TAG, "════════════════════════════════════════════════════")
+                Log.i(TAG, "     COARSE→FINE SCAN (87.5-108.0 MHz, %.1f MHz)".format(coarseStep))
+                Log.i(TAG, "════════════════════════════════════════════════════")
+
+                val native = fmNative
+                if (native == null) {
+                    Log.e(TAG, "FmNative not available!")
+                    mainHandler.post { onComplete(emptyList()) }
+                    return@thread
+                }
+
+                try {
+                    native.openDev()
+                    native.powerUp(FM_MIN)
+                    native.setRds(true)
+                    Log.i(TAG, "Radio initialized for scanning")
+                } catch (e: Exception) {
+                    Log.w(TAG, "Radio init failed (may already be on): ${e.message}")
+                }
+
+                mainHandler.post { onProgress(0, FM_MIN, 30, "Noise Floor") }
+
+                val noiseFloor = measureNoiseFloor(native)
+                val rssiOffset = if (highSensitivity) SCAN_RSSI_OFFSET_SENSITIVE else SCAN_RSSI_OFFSET_NORMAL
+                val dynamicThreshold = noiseFloor + rssiOffset
+                val coarseThreshold = dynamicThreshold - CoarseFinePlanner.COARSE_MARGIN
+                Log.i(TAG, "Noise floor $noiseFloor → threshold $dynamicThreshold, coarse trigger $coarseThreshold")
+
+                // Grob-Durchlauf: ein Read pro Rasterpunkt, Fortschritt 0-50 %
+                val grid = CoarseFinePlanner.coarseGrid(FM_MIN, FM_MAX, coarseStep)
+                val hits = IntArray(grid.size)
+                var hitCount = 0
+                for ((i, channel) in grid.withIndex()) {
+                    if (isCancelled) break
+                    val freq = CoarseFinePlanner.toMHz(channel)
+                    val progress = (i + 1) * 50 / grid.size
+                    val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                    mainHandler.post { onProgress(progress, freq, remainingSeconds, "Grob-Scan") }
+
+                    rdsManager.noteTuned(freq)
+                    try {
+                        native.tune(freq)
+                    } catch (e: Exception) {
+                        Log.w(TAG, "Tune failed at %.1f".format(freq))
+                        continue
+                    }
+                    clock.sleep(CoarseFinePlanner.COARSE_SETTLE_MS)
+                    val rssi = readRssi(logMethod = i == 0)
+                    if (rssi >= coarseThreshold) hits[hitCount++] = channel
+                }
+
+                // Fein-Durchlauf: Nachbarn der Treffer voll messen, Fortschritt 50-100 %
+                val candidates = CoarseFinePlanner.fineCandidates(hits.copyOf(hitCount), coarseStep, FM_MIN, FM_MAX)
+                Log.i(TAG, "Coarse pass: ${grid.size} channels, $hitCount hits → ${candidates.size} fine channels")
+                val fineRssi = IntArray(candidates.size)
+                val dwellStats = DwellStats()
+                for ((i, channel) in candidates.withIndex()) {
+                    if (isCancelled) break
+                    val freq = CoarseFinePlanner.toMHz(channel)
+                    val progress = 50 + (i + 1) * 50 / candidates.size
+                    val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                    val phaseLabel = dwellStats.label("Fein-Scan", lastDwellMs)
+                    mainHandler.post { onProgress(progress, freq, remainingSeconds, phaseLabel) }
+
+                    rdsManager.noteTuned(freq)
+                    try {
+                        native.tune(freq)
+                    } catch (e: Exception) {
+                        Log.w(TAG, "Tune failed at %.1f".format(freq))
+                        continue
+                    }
+                    fineRssi[i] = measureRssiSettled(dynamicThreshold)
+                    dwellStats.add(lastDwellMs, lastSettleVerdict)
+                    bandMap?.recordRssi(freq, fineRssi[i])
+                }
+
+                // Splatter entfernen, auch bei Skip (bisher gemessene Kanäle)
+                for (i in CoarseFinePlanner.localMaxima(candidates, fineRssi, dynamicThreshold)) {
+                    val station = RadioStation(CoarseFinePlanner.toMHz(candidates[i]), null, fineRssi[i], false)
+                    foundStations.add(station)
+                    Log.i(TAG, "★ FOUND: %.1f MHz | RSSI: %d".format(station.frequency, station.rssi))
+                    mainHandler.post { onStationFound?.invoke(station) }
+                }
+
+                if (isCancelled) {
+                    if (isSkipped && foundStations.isNotEmpty()) {
+                        Log.i(TAG, "Scan skipped - keeping ${foundStations.size} stations")
+                        postSortedComplete(foundStations, onComplete)
+                    } else {
+                        Log.i(TAG, "Scan cancelled")
+                        mainHandler.post { onComplete(emptyList()) }
+                    }
+                    return@thread
+                }
+
+                val totalMs = clock.nowMs() - scanStartTime
+                Log.i(TAG, "Coarse→fine scan complete in ${totalMs}ms: ${foundStations.size} stations found, $dwellStats")
+                logScanResults(foundStations)
+                postSortedComplete(foundStations, onComplete)
+
+            } catch (e: Exception) {
+                Log.e(TAG, "Coarse→fine scan failed: ${e.message}", e)
+                postSortedComplete(foundStations, onComplete)
+            } finally {
+                isScanning = false
+            }
+        }
+    }
+
+    /** Restzeit aus bisheriger Laufzeit und Fortschritt hochgerechnet. */
+    private fun remainingSeconds(scanStartTime: Long, progress: Int): Int {
+        if (progress <= 0) return 30
+        val elapsedMs = clock.nowMs() - scanStartTime
+        val totalEstimatedMs = (elapsedMs * 100) / progress
+        return ((totalEstimatedMs - elapsedMs) / 1000).toInt()
+    }
+
+    /**
+     * Inkrementeller FM-Rescan gegen die gespeicherte Senderliste:
+     * 1. Bekannt: Preset-Frequenzen und in der [BandMap] zuletzt starke
+     *    Kanäle messen, bestätigte Sender sofort per RDS prüfen und melden
+     * 2. Rest: übriges Band durchlaufen (ohne Nachbarn bestätigter Sender),
+     *    nur neue lokale RSSI-Maxima bekommen eine RDS-Prüfung
+     * Ergebnis ist ein [StationDiff] statt einer neuen Liste. Verschwinden
+     * kann nur, was tatsächlich gemessen wurde — Skip liefert den Diff über
+     * die bis dahin geprüften Kanäle, Cancel [StationDiff.EMPTY].
+     *
+     * @param knownStations gespeicherte FM-Sender (Presets)
+     */
+    fun scanFMIncremental(
+        knownStations: List<RadioStation>,
+        onProgress: (progress: Int, frequency: Float, remainingSeconds: Int, phase: String) -> Unit,
+        onStationFound: ((RadioStation) -> Unit)? = null,
+        onComplete: (StationDiff) -> Unit,
+        highSensitivity: Boolean = false
+    ) {
+        if (isScanning) {
+            Log.w(TAG, "Scan already running")
+            return
+        }
+
+        isScanning = true
+        isCancelled = false
+        isSkipped = false
+
+        thread {
+            val foundStations = mutableListOf<RadioStation>()
+            val checkedKeys = HashSet<Int>()
+            // Über Schwelle, aber RDS noch offen — bei Skip nicht "verschwunden"
+            val pendingKeys = HashSet<Int>()
+            val scanStartTime = clock.nowMs()
+            val histogram = RdsVerifyHistogram()
+
+            try {
+                Log.i(TAG, "════════════════════════════════════════════════════")
+                Log.i(TAG, "     INCREMENTAL RESCAN (${knownStations.size} bekannte Sender)")
+                Log.i(TAG, "════════════════════════════════════════════════════")
+
+                val native = fmNative
+                if (native == null) {
+                    Log.e(TAG, "FmNative not available!")
+                    mainHandler.post { onComplete(StationDiff.EMPTY) }
+                    return@thread
+                }
+
+                try {
+                    native.openDev()
+                    native.powerUp(FM_MIN)
+                    native.setRds(true)
+                    Log.i(TAG, "Radio initialized for scanning")
+                } catch (e: Exception) {
+                    Log.w(TAG, "Radio init failed (may already be on): ${e.message}")
+                }
+                if (!rdsManager.isPolling) {
+                    Log.w(TAG, "RdsManager polling not active - starting...")
+                    rdsManager.startPolling(null)
+                }
+
+                mainHandler.post { onProgress(0, FM_MIN, 30, "Noise Floor") }
+                val noiseFloor = measureNoiseFloor(native)
+                val rssiOffset = if (highSensitivity) SCAN_RSSI_OFFSET_SENSITIVE else SCAN_RSSI_OFFSET_NORMAL
+                val dynamicThreshold = noiseFloor + rssiOffset
+
+                val minCh = CoarseFinePlanner.toChannel(FM_MIN)
+                val maxCh = CoarseFinePlanner.toChannel(FM_MAX)
+                val presetChannels = knownStations.map { CoarseFinePlanner.toChannel(it.frequency) }.toIntArray()
+                val strongChannels = bandMap
+                    ?.channelsAbove(dynamicThreshold, IncrementalRescanPlanner.STRONG_MAX_AGE_MS)
+                    ?.map { CoarseFinePlanner.toChannel(it) }?.toIntArray()
+                    ?: IntArray(0)
+                val priority = IncrementalRescanPlanner.priorityChannels(presetChannels, strongChannels, minCh, maxCh)
+                val presetSet = presetChannels.toHashSet()
+                val rssiByChannel = HashMap<Int, Int>()
+                Log.i(TAG, "Threshold $dynamicThreshold, ${priority.size} priority channels (${presetSet.size} presets)")
+
+                // Ein Kanal: tunen, RSSI messen, in BandMap + Map eintragen
+                fun measure(channel: Int): Int? {
+                    val freq = CoarseFinePlanner.toMHz(channel)
+                    rdsManager.noteTuned(freq)
+                    try {
+                        native.tune(freq)
+                    } catch (e: Exception) {
+                        Log.w(TAG, "Tune failed at %.1f".format(freq))
+                        return null
+                    }
+                    val rssi = measureRssiSettled(dynamicThreshold)
+                    bandMap?.recordRssi(freq, rssi)
+                    rssiByChannel[channel] = rssi
+                    checkedKeys.add(channel)
+                    return rssi
+                }
+
+                // Bestätigten Kanal per RDS prüfen und sofort melden
+                fun verify(channel: Int) {
+                    val freq = CoarseFinePlanner.toMHz(channel)
+                    val rssi = rssiByChannel[channel] ?: return
+                    pendingKeys.remove(channel)
+                    rdsManager.clearRds()
+                    tuneToFrequency(freq)
+                    val rds = collectRdsViaManager(RdsVerifyPolicy.timeoutFor(rssi, RDS_COLLECT_TIME_MS), FilterMode.NONE)
+                    histogram.record(rds.elapsedMs, rds.satisfied)
+                    bandMap?.recordRds(freq, rds.piCode, rds.psName)
+                    val station = RadioStation(freq, rds.psName.ifEmpty { null }, rssi, false, pi = rds.piCode)
+                    foundStations.add(station)
+                    Log.i(TAG, "★ %.1f MHz | RSSI: %d | \"%s\"".format(freq, rssi, rds.psName))
+                    mainHandler.post { onStationFound?.invoke(station) }
+                }
+
+                // Phase 1: Bekanntes zuerst, Fortschritt 0-40 % (Messen) / 40-60 % (RDS)
+                for ((i, channel) in priority.withIndex()) {
+                    if (isCancelled) break
+                    val progress = (i + 1) * 40 / priority.size
+                    val freq = CoarseFinePlanner.toMHz(channel)
+                    val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                    mainHandler.post { onProgress(progress, freq, remainingSeconds, "Bekannte Sender") }
+                    measure(channel)
+                }
+                val confirmed = priority.filter {
+                    IncrementalRescanPlanner.isConfirmed(it, it in presetSet, rssiByChannel, dynamicThreshold)
+                }
+                pendingKeys.addAll(confirmed)
+                for ((i, channel) in confirmed.withIndex()) {
+                    if (isCancelled) break
+                    val progress = 40 + (i + 1) * 20 / confirmed.size
+                    val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                    mainHandler.post { onProgress(progress, CoarseFinePlanner.toMHz(channel), remainingSeconds, "RDS") }
+                    verify(channel)
+                }
+
+                // Phase 2: Rest des Bands, Fortschritt 60-90 % (Messen) / 90-100 % (RDS neuer Sender)
+                if (!isCancelled) {
+                    val sweep = IncrementalRescanPlanner.sweepChannels(minCh, maxCh, checkedKeys, confirmed.toHashSet())
+                    Log.i(TAG, "Known pass: ${confirmed.size}/${priority.size} confirmed → sweeping ${sweep.size} channels")
+                    val dwellStats = DwellStats()
+                    val swept = ArrayList<Int>(sweep.size)
+                    for ((i, channel) in sweep.withIndex()) {
+                        if (isCancelled) break
+                        val progress = 60 + (i + 1) * 30 / sweep.size
+                        val freq = CoarseFinePlanner.toMHz(channel)
+                        val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                        val phaseLabel = dwellStats.label("Restband", lastDwellMs)
+                        mainHandler.post { onProgress(progress, freq, remainingSeconds, phaseLabel) }
+                        if (measure(channel) != null) {
+                            dwellStats.add(lastDwellMs, lastSettleVerdict)
+                            swept.add(channel)
+                        }
+                    }
+                    val peaks = IncrementalRescanPlanner.newPeaks(swept.toIntArray(), rssiByChannel, dynamicThreshold)
+                    pendingKeys.addAll(peaks.asList())
+                    for ((i, channel) in peaks.withIndex()) {
+                        if (isCancelled) break
+                        val progress = 90 + (i + 1) * 10 / peaks.size
+                        val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                        mainHandler.post { onProgress(progress, CoarseFinePlanner.toMHz(channel), remainingSeconds, "Neue Sender") }
+                        verify(channel)
+                    }
+                }
+
+                if (isCancelled && !isSkipped) {
+                    Log.i(TAG, "Rescan cancelled")
+                    mainHandler.post { onComplete(StationDiff.EMPTY) }
+                    return@thread
+                }
+
+                val diff = StationDiff.compute(knownStations, foundStations, checkedKeys - pendingKeys)
+                val totalMs = clock.nowMs() - scanStartTime
+                Log.i(TAG, "Rescan ${if (isSkipped) "skipped" else "complete"} in ${totalMs}ms: " +
+                    "${checkedKeys.size} channels, +${diff.added.size} -${diff.vanished.size} " +
+                    "PS~${diff.psChanged.size} PI~${diff.piChanged.size} =${diff.unchanged.size}")
+                Log.i(TAG, "RDS verification times: $histogram")
+                logScanResults(foundStations)
+                mainHandler.post { onComplete(diff) }
+
+            } catch (e: Exception) {
+                Log.e(TAG, "Rescan failed: ${e.message}", e)
+                val diff = StationDiff.compute(knownStations, foundStations, checkedKeys - pendingKeys)
+                mainHandler.post { onComplete(diff) }
+            } finally {
+                isScanning = false
+            }
+        }
+    }
+
     /**
      * RDS-Verifizierung für bereits gefundene Sender (Phase 2, separat aufrufbar)
      * Sammelt RDS-Daten und filtert nach gewähltem Modus.
-     * @param rdsTimeoutMs Wartezeit pro Sender in Millisekunden (Standard: 8000ms)
+     * @param rdsTimeoutMs maximale Wartezeit pro Sender in Millisekunden (Standard: 8000ms),
+     *   wird nach RSSI skaliert (siehe [RdsVerifyPolicy.timeoutFor])
      */
     fun collectRdsAndFilter(
         stations: List<RadioStation>,
@@ -544,7 +939,8 @@ class RadioScanner(
         thread {
             val verifiedStations = mutableListOf<RadioStation>()
             var filteredCount = 0
-            val startTime = System.currentTimeMillis()
+            val startTime = clock.nowMs()
+            val histogram = RdsVerifyHistogram()
 
             try {
                 Log.i(TAG, "════════════════════════════════════════════════════")
@@ -561,7 +957,7 @@ class RadioScanner(
                     if (isCancelled) return@forEachIndexed
 
                     val progress = ((index + 1).toFloat() / stations.size * 100).toInt()
-                    val elapsed = System.currentTimeMillis() - startTime
+                    val elapsed = clock.nowMs() - startTime
                     val remainingSeconds = if (index > 0) {
                         val avgPerStation = elapsed / index
                         ((stations.size - index) * avgPerStation / 1000).toInt()
@@ -575,8 +971,13 @@ class RadioScanner(
                     rdsManager.clearRds()
                     tuneToFrequency(station.frequency)
 
-                    // RDS-Daten sammeln
-                    val (hasPs, hasPi, psName, piCode) = collectRdsViaManager(rdsTimeoutMs)
+                    // RDS-Daten sammeln, Timeout nach Signalstärke
+                    val rds = collectRdsViaManager(
+                        RdsVerifyPolicy.timeoutFor(station.rssi, rdsTimeoutMs), filterMode
+                    )
+                    histogram.record(rds.elapsedMs, rds.satisfied)
+                    bandMap?.recordRds(station.frequency, rds.piCode, rds.psName)
+                    val (hasPs, hasPi, psName, piCode) = rds
 
                     // Filtern basierend auf Modus
                     val passesFilter = when (filterMode) {
@@ -632,6 +1033,7 @@ class RadioScanner(
                 }
 
                 Log.i(TAG, "RDS filter complete: ${verifiedStations.size} verified, $filteredCount filtered")
+                Log.i(TAG, "RDS verification times: $histogram")
                 logScanResults(verifiedStations)
                 postSortedComplete(verifiedStations, onComplete)
 
@@ -647,18 +1049,24 @@ class RadioScanner(
     /**
      * Sammelt RDS-Daten über den RdsManager (nutzt dessen Polling mit allen Fallbacks)
      * Der RdsManager hat 12x readRds() + multiple Fallback-Methoden für PI
+     *
+     * Wartet auf Snapshot-Änderungen ([RdsManager.awaitChange]) statt im
+     * 200-ms-Takt zu schlafen und hört auf, sobald [filterMode] entscheiden
+     * kann. Fehlt dann nur noch der PS, wird bis [RdsVerifyPolicy.NAME_GRACE_MS]
+     * weiter auf den Namen gewartet.
      * @return RdsResult mit PS und PI
      */
-    private fun collectRdsViaManager(timeoutMs: Long): RdsResult {
+    private fun collectRdsViaManager(timeoutMs: Long, filterMode: FilterMode): RdsResult {
         val startTime = System.currentTimeMillis()
+        val deadline = startTime + timeoutMs
         var foundPs = ""
         var foundPi = 0
+        var satisfiedAt = -1L
+        var version = rdsManager.changeVersion
 
-        // RdsManager polling läuft bereits - wir warten einfach auf Daten
+        // RdsManager polling läuft bereits - wir warten auf seine Änderungen
         // RdsManager macht: 12x readRds() + fetchPs() + GETRDSSTATE für PI + Fallbacks
-        while (System.currentTimeMillis() - startTime < timeoutMs && !isCancelled) {
-            Thread.sleep(200)  // Etwas schneller als Polling-Intervall (150ms)
-
+        while (!isCancelled) {
             // PS vom RdsManager lesen (hat alle Fallback-Methoden)
             if (foundPs.isEmpty()) {
                 val ps = rdsManager.ps
@@ -677,18 +1085,28 @@ class RadioScanner(
                 }
             }
 
-            // Früh abbrechen wenn beides gefunden
-            if (foundPs.isNotEmpty() && foundPi != 0) {
-                Log.i(TAG, "RDS complete: PS='$foundPs' PI=0x${foundPi.toString(16)}")
-                break
+            val now = System.currentTimeMillis()
+            if (satisfiedAt < 0 && RdsVerifyPolicy.isSatisfied(filterMode, foundPs.isNotEmpty(), foundPi != 0)) {
+                satisfiedAt = now
+                Log.i(TAG, "RDS sufficient for $filterMode after ${now - startTime}ms: PS='$foundPs' PI=0x${foundPi.toString(16)}")
             }
+            // Entschieden und Name da → fertig; sonst kurz auf den PS warten
+            if (satisfiedAt >= 0 && foundPs.isNotEmpty()) break
+            val waitUntil = if (satisfiedAt >= 0) minOf(deadline, satisfiedAt + RdsVerifyPolicy.NAME_GRACE_MS) else deadline
+            val remaining = waitUntil - now
+            if (remaining <= 0) break
+
+            // In Scheiben warten, damit Cancel/Skip schnell greift
+            version = rdsManager.awaitChange(version, minOf(remaining, RDS_WAIT_SLICE_MS))
         }
 
         return RdsResult(
             hasPs = foundPs.isNotEmpty(),
             hasPi = foundPi != 0,
             psName = foundPs,
-            piCode = foundPi
+            piCode = foundPi,
+            elapsedMs = System.currentTimeMillis() - startTime,
+            satisfied = satisfiedAt >= 0
         )
     }
 
@@ -696,44 +1114,132 @@ class RadioScanner(
         val hasPs: Boolean,
         val hasPi: Boolean,
         val psName: String,
-        val piCode: Int
+        val piCode: Int,
+        /** Wartezeit auf diesen Sender. */
+        val elapsedMs: Long = 0,
+        /** Filter-Modus konnte vor dem Timeout entscheiden. */
+        val satisfied: Boolean = false
     )
 
+    /**
+     * AM-Scan über Tune + RSSI im Raster der Region (9 oder 10 kHz):
+     * eigener Noise Floor über [ScanCalibration], adaptives Settling wie
+     * FM Phase 1 (nur mit längerer AGC-Wartezeit) und Splatter-Filter auf
+     * das lokale RSSI-Maximum. Ein Kanal wird gemeldet, sobald sein oberer
+     * Nachbar gemessen ist. Skip behält die bis dahin gefundenen Sender.
+     *
+     * @param band AM-Band der aktiven Region, Standard 522–1620 kHz / 9 kHz
+     */
     fun scanAM(
         onProgress: (progress: Int, frequency: Float, remainingSeconds: Int, filteredCount: Int) -> Unit,
-        onComplete: (List<RadioStation>) -> Unit
+        onStationFound: ((RadioStation) -> Unit)? = null,
+        onComplete: (List<RadioStation>) -> Unit,
+        band: AmBand = AmBand.DEFAULT,
+        highSensitivity: Boolean = false
     ) {
-        if (isScanning) return
+        if (isScanning) {
+            Log.w(TAG, "Scan already running")
+            return
+        }
+
         isScanning = true
         isCancelled = false
+        isSkipped = false
 
         thread {
             val foundStations = mutableListOf<RadioStation>()
-            val totalSteps = ((AM_MAX - AM_MIN) / AM_STEP).toInt()
-            var currentStep = 0
-            val startTime = System.currentTimeMillis()
+            val scanStartTime = clock.nowMs()
 
-            var freq = AM_MIN
-            while (freq <= AM_MAX && !isCancelled) {
-                currentStep++
-                val progress = (currentStep * 100) / totalSteps
+            try {
+                val channels = AmRaster.channels(band)
+                Log.i(TAG, "════════════════════════════════════════════════════")
+                Log.i(TAG, "   AM SCAN (%.0f-%.0f kHz, %d kHz raster, %d channels)".format(
+                    band.minKHz, band.maxKHz, AmRaster.rasterFor(band.stepKHz), channels.size))
+                Log.i(TAG, "════════════════════════════════════════════════════")
 
-                val elapsedMs = System.currentTimeMillis() - startTime
-                val remainingSeconds = if (progress > 0) {
-                    val totalEstimatedMs = (elapsedMs * 100) / progress
-                    ((totalEstimatedMs - elapsedMs) / 1000).toInt()
-                } else 0
+                val native = fmNative
+                if (native == null || channels.isEmpty()) {
+                    Log.e(TAG, "FmNative not available or empty AM band!")
+                    mainHandler.post { onComplete(emptyList()) }
+                    return@thread
+                }
 
-                mainHandler.post { onProgress(progress, freq, remainingSeconds, 0) }
+                try {
+                    native.openDev()
+                    native.powerUp(channels.first().toFloat())
+                    Log.i(TAG, "Radio initialized for AM scanning")
+                } catch (e: Exception) {
+                    Log.w(TAG, "Radio init failed (may already be on): ${e.message}")
+                }
 
-                // AM scanning - simplified for now
-                Thread.sleep(15)
+                mainHandler.post { onProgress(0, band.minKHz, 30, 0) }
+
+                val noiseFloor = measureNoiseFloor(
+                    native, AmRaster.sampleChannels(band, NOISE_FLOOR_SAMPLES), AM_SETTLE_MS, AM_SAMPLE_INTERVAL_MS
+                )
+                val threshold = ScanCalibration.thresholdFor(noiseFloor, highSensitivity)
+                Log.i(TAG, "AM noise floor $noiseFloor → threshold $threshold")
+
+                val dwellStats = DwellStats()
+                // Gleitendes Fenster für die Spitzen-Entscheidung des vorigen Kanals
+                var leftRssi = 0
+                var midRssi = 0
+
+                fun decide(index: Int, rightRssi: Int) {
+                    if (index < 0 || !AmRaster.isPeak(leftRssi, midRssi, rightRssi, threshold)) return
+                    val station = RadioStation(channels[index].toFloat(), null, midRssi, true)
+                    foundStations.add(station)
+                    Log.i(TAG, "★ FOUND: %d kHz | RSSI: %d".format(channels[index], midRssi))
+                    mainHandler.post { onStationFound?.invoke(station) }
+                }
 
-                freq += AM_STEP
-            }
+                for ((i, channel) in channels.withIndex()) {
+                    if (isCancelled) break
+                    val freq = channel.toFloat()
+                    val progress = (i + 1) * 100 / channels.size
+                    val remainingSeconds = remainingSeconds(scanStartTime, progress)
+                    mainHandler.post { onProgress(progress, freq, remainingSeconds, 0) }
+
+                    rdsManager.noteTuned(freq)
+                    val rssi = try {
+                        native.tune(freq)
+                        measureRssiSettled(threshold, AM_SETTLE_MS, AM_SAMPLE_INTERVAL_MS).also {
+                            dwellStats.add(lastDwellMs, lastSettleVerdict)
+                        }
+                    } catch (e: Exception) {
+                        Log.w(TAG, "Tune failed at $channel kHz")
+                        0
+                    }
+
+                    decide(i - 1, rssi)
+                    leftRssi = midRssi
+                    midRssi = rssi
+                }
+                // Letzter gemessener Kanal hat keinen oberen Nachbarn
+                if (!isCancelled) decide(channels.size - 1, 0)
+
+                if (isCancelled) {
+                    if (isSkipped && foundStations.isNotEmpty()) {
+                        Log.i(TAG, "AM scan skipped - keeping ${foundStations.size} stations")
+                        postSortedComplete(foundStations, onComplete)
+                    } else {
+                        Log.i(TAG, "AM scan cancelled")
+                        mainHandler.post { onComplete(emptyList()) }
+                    }
+                    return@thread
+                }
+
+                val totalMs = clock.nowMs() - scanStartTime
+                Log.i(TAG, "AM scan complete in ${totalMs}ms: ${foundStations.size} stations found, $dwellStats")
+                logScanResults(foundStations)
+                postSortedComplete(foundStations, onComplete)
 
-            isScanning = false
-            postSortedComplete(foundStations, onComplete)
+            } catch (e: Exception) {
+                Log.e(TAG, "AM scan failed: ${e.message}", e)
+                postSortedComplete(foundStations, onComplete)
+            } finally {
+                isScanning = false
+            }
         }
     }
 
@@ -843,6 +1349,7 @@ class RadioScanner(
                             val rssi = strengths?.getOrNull(index)?.toInt() ?: 0
 
                             if (freq >= FM_MIN && freq <= FM_MAX) {
+                                bandMap?.recordRssi(freq, rssi)
                                 val station = RadioStation(freq, null, rssi, false)
                                 foundStations.add(station)
                                 Log.i(TAG, "★ FOUND: %.1f MHz | RSSI: %d".format(freq, rssi))
@@ -877,6 +1384,7 @@ class RadioScanner(
     }
 
     private fun tuneToFrequency(frequency: Float): Boolean {
+        rdsManager.noteTuned(frequency)
         return try {
             fmNative?.tune(frequency) ?: false
         } catch (e: Exception) {
@@ -889,14 +1397,19 @@ class RadioScanner(
      * Misst den Noise Floor durch Sampling zufälliger Frequenzen.
      * Nimmt den Durchschnitt der niedrigsten Werte als Baseline.
      */
-    private fun measureNoiseFloor(native: FmNativeApi): Int {
+    private fun measureNoiseFloor(
+        native: FmNativeApi,
+        frequencies: List<Float> = ScanCalibration.sampleFrequencies(FM_MIN, FM_MAX, NOISE_FLOOR_SAMPLES),
+        initialSettleMs: Long = RssiSettleDetector.INITIAL_SETTLE_MS,
+        sampleIntervalMs: Long = RssiSettleDetector.SAMPLE_INTERVAL_MS
+    ): Int {
         val measurements = mutableListOf<Int>()
 
-        for (freq in ScanCalibration.sampleFrequencies(FM_MIN, FM_MAX, NOISE_FLOOR_SAMPLES)) {
+        for (freq in frequencies) {
             try {
+                rdsManager.noteTuned(freq)
                 native.tune(freq)
-                Thread.sleep(150)
-                val rssi = measureRssi(2)
+                val rssi = measureRssiSettled(RssiSettleDetector.NO_THRESHOLD, initialSettleMs, sampleIntervalMs)
                 if (rssi in 1..99) {
                     measurements.add(rssi)
                     Log.d(TAG, "Noise sample %.1f MHz: RSSI=%d".format(freq, rssi))
@@ -911,74 +1424,111 @@ class RadioScanner(
         return noiseFloor
     }
 
-    private fun measureRssi(samples: Int): Int {
-        val native = fmNative ?: return 0
-
-        var totalRssi = 0
-        var validSamples = 0
+    /**
+     * Misst RSSI nach einem tune(), bis [RssiSettleDetector] zufrieden ist:
+     * klares Rauschen nach zwei niedrigen, nicht steigenden Samples, sonst bis
+     * zwei Samples übereinstimmen.
+     * Verweildauer/Ergebnis in [lastDwellMs]/[lastSettleVerdict].
+     *
+     * @param threshold Sender-Schwelle; [RssiSettleDetector.NO_THRESHOLD] beim Noise-Floor
+     * @param initialSettleMs Wartezeit nach dem Tune (AM länger als FM)
+     */
+    private fun measureRssiSettled(
+        threshold: Int,
+        initialSettleMs: Long = RssiSettleDetector.INITIAL_SETTLE_MS,
+        sampleIntervalMs: Long = RssiSettleDetector.SAMPLE_INTERVAL_MS
+    ): Int {
+        val start = clock.nowMs()
+        settleDetector.reset(threshold)
+        clock.sleep(initialSettleMs)
+        var verdict = settleDetector.offer(readRssi(logMethod = true))
+        while (verdict == RssiSettleDetector.Verdict.CONTINUE) {
+            clock.sleep(sampleIntervalMs)
+            verdict = settleDetector.offer(readRssi(logMethod = false))
+        }
+        lastSettleVerdict = verdict
+        lastDwellMs = clock.nowMs() - start
+        return settleDetector.value
+    }
 
-        repeat(samples) { i ->
-            var rssi = 0
-            var method = ""
+    /** Ein RSSI-Sample über die drei bekannten Wege, 0 wenn keiner liefert. */
+    private fun readRssi(logMethod: Boolean): Int {
+        val native = fmNative ?: return 0
+        var rssi = 0
+        var method = ""
+
+        // Methode 1: fmsyu_jni
+        try {
+            rssiInBundle.clear()
+            rssiOutBundle.clear()
+            val result = native.fmsyu_jni(CMD_GETRSSI, rssiInBundle, rssiOutBundle)
+            if (result == 0) {
+                val level = rssiOutBundle.getInt("rssilevel", 0)
+                if (level > 0) {
+                    rssi = level
+                    method = "fmsyu_jni"
+                }
+            }
+        } catch (e: Throwable) {
+            Log.w(TAG, "fmsyu_jni RSSI failed: ${e.message}")
+        }
 
-            // Methode 1: fmsyu_jni
+        // Methode 2: getrssi()
+        if (rssi == 0) {
             try {
-                val inBundle = Bundle()
-                val outBundle = Bundle()
-                val result = native.fmsyu_jni(CMD_GETRSSI, inBundle, outBundle)
-                if (result == 0) {
-                    val level = outBundle.getInt("rssilevel", 0)
-                    if (level > 0) {
-                        rssi = level
-                        method = "fmsyu_jni"
-                    }
+                val level = native.getrssi()
+                if (level > 0) {
+                    rssi = level
+                    method = "getrssi"
                 }
             } catch (e: Throwable) {
-                Log.w(TAG, "fmsyu_jni RSSI failed: ${e.message}")
+                Log.w(TAG, "getrssi failed: ${e.message}")
             }
+        }
 
-            // Methode 2: getrssi()
-            if (rssi == 0) {
-                try {
-                    val level = native.getrssi()
-                    if (level > 0) {
-                        rssi = level
-                        method = "getrssi"
-                    }
-                } catch (e: Throwable) {
-                    Log.w(TAG, "getrssi failed: ${e.message}")
+        // Methode 3: sql_getrssi() - hat binder errors, als letztes versuchen
+        if (rssi == 0) {
+            try {
+                val level = native.sql_getrssi()
+                if (level > 0) {
+                    rssi = level
+                    method = "sql_getrssi"
                 }
+            } catch (e: Throwable) {
+                // Ignorieren - binder errors erwartet
             }
+        }
 
-            // Methode 3: sql_getrssi() - hat binder errors, als letztes versuchen
-            if (rssi == 0) {
-                try {
-                    val level = native.sql_getrssi()
-                    if (level > 0) {
-                        rssi = level
-                        method = "sql_getrssi"
-                    }
-                } catch (e: Throwable) {
-                    // Ignorieren - binder errors erwartet
-                }
-            }
+        // Log nur beim ersten Sample
+        if (logMethod && rssi > 0) {
+            Log.d(TAG, "RSSI via $method: $rssi")
+        }
+        return rssi
+    }
 
-            // Log nur beim ersten Sample
-            if (i == 0 && rssi > 0) {
-                Log.d(TAG, "RSSI via $method: $rssi")
-            }
+    /**
+     * Verweildauer-Statistik eines Phase-1-Durchlaufs: Durchschnitt und
+     * wie viele Kanäle schon nach einem Sample als Rauschen raus waren.
+     */
+    private class DwellStats {
+        private var channels = 0
+        private var totalMs = 0L
+        private var earlyRejects = 0
+
+        fun add(dwellMs: Long, verdict: RssiSettleDetector.Verdict) {
+            channels++
+            totalMs += dwellMs
+            if (verdict == RssiSettleDetector.Verdict.BELOW_NOISE) earlyRejects++
+        }
 
-            if (rssi in 1..99) {
-                totalRssi += rssi
-                validSamples++
-            }
+        /** Fortschritts-Text mit Verweildauer des letzten Kanals, z.B. "Signal-Scan · 110 ms/ch". */
+        fun label(phase: String, lastDwellMs: Long): String =
+            if (channels == 0) phase else "$phase · $lastDwellMs ms/ch"
 
-            if (i < samples - 1) {
-                try { Thread.sleep(50) } catch (e: InterruptedException) { }
-            }
+        override fun toString(): String {
+            val avg = if (channels > 0) totalMs / channels else 0
+            return "dwell avg=${avg}ms over $channels channels, early rejects=$earlyRejects"
         }
-
-        return if (validSamples > 0) totalRssi / validSamples else 0
     }
 
     private fun logScanResults(stations: List<RadioStation>) {
@@ -988,7 +1538,11 @@ class RadioScanner(
         log.append("════════════════════════════════════════════════════\n")
         stations.forEach { station ->
             val name = if (station.name.isNullOrEmpty()) "(kein RDS)" else station.name
-            log.append("  %5.1f MHz | RSSI: %2d | %s\n".format(station.frequency, station.rssi, name))
+            if (station.isAM) {
+                log.append("  %5.0f kHz | RSSI: %2d\n".format(station.frequency, station.rssi))
+            } else {
+                log.append("  %5.1f MHz | RSSI: %2d | %s\n".format(station.frequency, station.rssi, name))
+            }
         }
         log.append("════════════════════════════════════════════════════")
         Log.i(TAG, log.toString())
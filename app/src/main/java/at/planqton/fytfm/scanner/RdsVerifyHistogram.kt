@@ -0,0 +1,57 @@
+package at.planqton.fytfm.scanner
+
+/**
+ * Verification-time histogram of one RDS verification run, logged at the
+ * end of the scan. Stations that satisfied the filter are bucketed by how
+ * long they took; stations that ran into their timeout are counted
+ * separately, since their time is the timeout and says nothing about RDS.
+ *
+ * Scan thread only.
+ */
+internal class RdsVerifyHistogram {
+
+    companion object {
+        /** Upper bucket bounds in ms; the last bucket is open-ended. */
+        val BOUNDS_MS = longArrayOf(500, 1_000, 2_000, 4_000, 8_000)
+    }
+
+    private val counts = IntArray(BOUNDS_MS.size + 1)
+    private var timeouts = 0
+    private var timeoutMs = 0L
+    private var satisfiedMs = 0L
+
+    val satisfiedCount: Int get() = counts.sum()
+    val timeoutCount: Int get() = timeouts
+
+    /** Total time spent waiting on RDS, satisfied and timed out. */
+    val totalMs: Long get() = satisfiedMs + timeoutMs
+
+    fun record(elapsedMs: Long, satisfied: Boolean) {
+        if (!satisfied) {
+            timeouts++
+            timeoutMs += elapsedMs
+            return
+        }
+        satisfiedMs += elapsedMs
+        var bucket = BOUNDS_MS.indexOfFirst { elapsedMs <= it }
+        if (bucket < 0) bucket = BOUNDS_MS.size
+        counts[bucket]++
+    }
+
+    fun bucketCount(index: Int): Int = counts[index]
+
+    /** z.B. "≤0.5s:3 ≤1s:7 ≤2s:4 ≤4s:1 ≤8s:0 >8s:0 | timeout:5 | total 41.2s" */
+    override fun toString(): String {
+        val sb = StringBuilder()
+        for (i in BOUNDS_MS.indices) {
+            sb.append("≤").append(formatSeconds(BOUNDS_MS[i])).append(':').append(counts[i]).append(' ')
+        }
+        sb.append('>').append(formatSeconds(BOUNDS_MS.last())).append(':').append(counts[BOUNDS_MS.size])
+        sb.append(" | timeout:").append(timeouts)
+        sb.append(" | total ").append("%.1f".format(totalMs / 1000f)).append('s')
+        return sb.toString()
+    }
+
+    private fun formatSeconds(ms: Long): String =
+        if (ms % 1000 == 0L) "${ms / 1000}s" else "${ms / 1000f}s"
+}
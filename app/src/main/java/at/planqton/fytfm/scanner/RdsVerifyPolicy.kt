@@ -0,0 +1,61 @@
+package at.planqton.fytfm.scanner
+
+/**
+ * Pure rules for the RDS verification step of [RadioScanner] (Phase 2 of
+ * `scanFM` and `collectRdsAndFilter`):
+ *
+ * - [isSatisfied]: when a station has delivered enough for the active
+ *   [RadioScanner.FilterMode] to decide — the wait stops there instead of
+ *   always holding out for PS *and* PI.
+ * - [timeoutFor]: per-station upper bound scaled by the Phase-1 RSSI.
+ *   Strong stations decode within a couple of seconds, so a strong
+ *   station that is still silent after [STRONG_FACTOR] of the base has no
+ *   RDS. Stations below [WEAK_RSSI] (only found in high-sensitivity mode)
+ *   rarely decode at all and get [WEAK_FACTOR]. In between the factor
+ *   rises linearly to the full base timeout just above [WEAK_RSSI].
+ */
+internal object RdsVerifyPolicy {
+
+    /** Below this RSSI a station is at the edge of reception (default floor + normal offset). */
+    const val WEAK_RSSI = ScanCalibration.DEFAULT_NOISE_FLOOR + ScanCalibration.OFFSET_NORMAL
+
+    /** From this RSSI on RDS decodes quickly if it is there at all. */
+    const val STRONG_RSSI = 60
+
+    const val WEAK_FACTOR = 0.5f
+    const val STRONG_FACTOR = 0.4f
+
+    /** Never wait less than this — the PS voter needs a few clean groups. */
+    const val MIN_TIMEOUT_MS = 2_000L
+
+    /**
+     * After a PI-only mode is satisfied, keep listening this long for the
+     * PS so the station still gets a name in the list.
+     */
+    const val NAME_GRACE_MS = 1_500L
+
+    fun isSatisfied(mode: RadioScanner.FilterMode, hasPs: Boolean, hasPi: Boolean): Boolean =
+        when (mode) {
+            // Ohne Filter wird nur der Name gesammelt
+            RadioScanner.FilterMode.NONE -> hasPs
+            RadioScanner.FilterMode.REQUIRE_PS -> hasPs
+            RadioScanner.FilterMode.REQUIRE_PI -> hasPi
+            RadioScanner.FilterMode.REQUIRE_PS_AND_PI -> hasPs && hasPi
+            RadioScanner.FilterMode.REQUIRE_PS_OR_PI -> hasPs || hasPi
+        }
+
+    /**
+     * Timeout for a station measured at [rssi] given the configured
+     * [baseTimeoutMs]. Unknown RSSI (`<= 0`) keeps the base.
+     */
+    fun timeoutFor(rssi: Int, baseTimeoutMs: Long): Long {
+        if (baseTimeoutMs <= MIN_TIMEOUT_MS) return baseTimeoutMs
+        val factor = when {
+            rssi <= 0 -> 1f
+            rssi < WEAK_RSSI -> WEAK_FACTOR
+            rssi >= STRONG_RSSI -> STRONG_FACTOR
+            else -> 1f - (1f - STRONG_FACTOR) * (rssi - WEAK_RSSI) / (STRONG_RSSI - WEAK_RSSI)
+        }
+        return (baseTimeoutMs * factor).toLong().coerceIn(MIN_TIMEOUT_MS, baseTimeoutMs)
+    }
+}
@@ -0,0 +1,97 @@
+package at.planqton.fytfm.scanner
+
+/**
+ * Decides when an RSSI measurement after a tune is good enough, replacing
+ * the fixed "sleep 250 ms, then average 3 samples 50 ms apart" per channel
+ * in [RadioScanner] Phase 1.
+ *
+ * The caller tunes, waits [INITIAL_SETTLE_MS], then feeds one sample every
+ * [SAMPLE_INTERVAL_MS] into [offer] until it returns something other than
+ * [Verdict.CONTINUE]:
+ * - [Verdict.BELOW_NOISE]: two consecutive valid samples are at least
+ *   [REJECT_MARGIN] below the station threshold and not rising by more
+ *   than [TOLERANCE] — obvious noise. Most of the band ends here. A single
+ *   low sample is not enough: right after the tune the front end may
+ *   still be ramping up from the previous channel's level.
+ * - [Verdict.SETTLED]: two consecutive samples agree within [TOLERANCE];
+ *   [value] is their mean.
+ * - [Verdict.MAX_SAMPLES]: no convergence after [MAX_SAMPLES] reads;
+ *   [value] is the mean of the last (up to three) valid samples.
+ *
+ * Reused across channels via [reset] (no allocation per channel). Pure
+ * logic, not thread-safe — scan thread only.
+ */
+internal class RssiSettleDetector {
+
+    enum class Verdict { CONTINUE, SETTLED, BELOW_NOISE, MAX_SAMPLES }
+
+    companion object {
+        /** Wait after tune before the first sample (was 250 ms fixed). */
+        const val INITIAL_SETTLE_MS = 80L
+        /** Gap between samples (was 50 ms). */
+        const val SAMPLE_INTERVAL_MS = 30L
+        /** Two consecutive samples within this many units count as settled. */
+        const val TOLERANCE = 2
+        /** Two settled samples this far below the threshold → noise, stop. */
+        const val REJECT_MARGIN = 6
+        /** Upper bound of reads per channel, valid or not. */
+        const val MAX_SAMPLES = 6
+
+        /** [reset] without threshold (noise-floor sampling): never bails early. */
+        const val NO_THRESHOLD = Int.MIN_VALUE
+    }
+
+    private val samples = IntArray(MAX_SAMPLES)
+    private var validCount = 0
+    private var reads = 0
+    private var threshold = NO_THRESHOLD
+
+    /** Resulting RSSI once [offer] returned a final verdict, 0 if nothing valid was read. */
+    var value = 0
+        private set
+
+    /** Reads taken on the current channel (including invalid ones). */
+    val sampleCount: Int get() = reads
+
+    fun reset(threshold: Int = NO_THRESHOLD) {
+        this.threshold = threshold
+        validCount = 0
+        reads = 0
+        value = 0
+    }
+
+    fun offer(rssi: Int): Verdict {
+        reads++
+        // Same validity window as the scanner always used (0 = read failed)
+        if (rssi in 1..99) {
+            samples[validCount++] = rssi
+
+            if (validCount >= 2) {
+                val last = samples[validCount - 1]
+                val prev = samples[validCount - 2]
+                if (threshold != NO_THRESHOLD && prev < threshold - REJECT_MARGIN &&
+                    last < threshold - REJECT_MARGIN && last - prev <= TOLERANCE) {
+                    value = last
+                    return Verdict.BELOW_NOISE
+                }
+                if (kotlin.math.abs(last - prev) <= TOLERANCE) {
+                    value = (last + prev) / 2
+                    return Verdict.SETTLED
+                }
+            }
+        }
+        if (reads >= MAX_SAMPLES) {
+            value = tailAverage()
+            return Verdict.MAX_SAMPLES
+        }
+        return Verdict.CONTINUE
+    }
+
+    private fun tailAverage(): Int {
+        if (validCount == 0) return 0
+        val n = minOf(validCount, 3)
+        var sum = 0
+        for (i in validCount - n until validCount) sum += samples[i]
+        return sum / n
+    }
+}
@@ -15,6 +15,7 @@ import android.widget.Switch
 import android.widget.TextView
 import at.planqton.fytfm.R
 import at.planqton.fytfm.data.PresetRepository
+import at.planqton.fytfm.scanner.CoarseFinePlanner
 import at.planqton.fytfm.scanner.RadioScanner
 
 /**
@@ -25,7 +26,9 @@ data class ScanConfig(
     val autoFilter: Boolean,
     val filterMode: RadioScanner.FilterMode,
     val rdsTimeoutSeconds: Int,
-    val quickScan: Boolean = false
+    val quickScan: Boolean = false,
+    val coarseToFine: Boolean = false,
+    val incremental: Boolean = false
 )
 
 class ScanOptionsDialog(
@@ -38,6 +41,9 @@ class ScanOptionsDialog(
     private lateinit var rbQuickScan: RadioButton
     private lateinit var rbNative: RadioButton
     private lateinit var rbExperimental: RadioButton
+    private lateinit var rbCoarseFine: RadioButton
+    private lateinit var rbIncremental: RadioButton
+    private lateinit var tvScanEstimate: TextView
     private lateinit var cbRequirePs: CheckBox
     private lateinit var cbRequirePi: CheckBox
     private lateinit var rgFilterLogic: RadioGroup
@@ -72,6 +78,9 @@ class ScanOptionsDialog(
         rbQuickScan = findViewById(R.id.rbQuickScan)
         rbNative = findViewById(R.id.rbNative)
         rbExperimental = findViewById(R.id.rbExperimental)
+        rbCoarseFine = findViewById(R.id.rbCoarseFine)
+        rbIncremental = findViewById(R.id.rbIncremental)
+        tvScanEstimate = findViewById(R.id.tvScanEstimate)
         cbRequirePs = findViewById(R.id.cbRequirePs)
         cbRequirePi = findViewById(R.id.cbRequirePi)
         rgFilterLogic = findViewById(R.id.rgFilterLogic)
@@ -93,7 +102,10 @@ class ScanOptionsDialog(
 
     private fun setupListeners() {
         // Scan-Methode Änderungen
-        rgScanMethod.setOnCheckedChangeListener { _, _ -> updateFilterVisibility() }
+        rgScanMethod.setOnCheckedChangeListener { _, _ ->
+            updateFilterVisibility()
+            updateScanEstimate()
+        }
 
         // Filter-Checkbox Änderungen
         cbRequirePs.setOnCheckedChangeListener { _, _ -> updateFilterVisibility() }
@@ -128,7 +140,9 @@ class ScanOptionsDialog(
                     useNativeMethod = rbNative.isChecked || rbQuickScan.isChecked,
                     autoFilter = false,
                     filterMode = getFilterMode(),
-                    rdsTimeoutSeconds = seekRdsTimeout.progress
+                    rdsTimeoutSeconds = seekRdsTimeout.progress,
+                    coarseToFine = rbCoarseFine.isChecked,
+                    incremental = rbIncremental.isChecked
                 ))
             }
         }
@@ -141,7 +155,8 @@ class ScanOptionsDialog(
                 useNativeMethod = rbNative.isChecked,
                 autoFilter = true,
                 filterMode = getFilterMode(),
-                rdsTimeoutSeconds = seekRdsTimeout.progress
+                rdsTimeoutSeconds = seekRdsTimeout.progress,
+                coarseToFine = rbCoarseFine.isChecked
             ))
         }
 
@@ -151,28 +166,50 @@ class ScanOptionsDialog(
     }
 
     private fun updateFilterVisibility() {
-        val isQuickScan = rbQuickScan.isChecked
+        // Quick Scan filtert nicht, der Rescan prüft RDS selbst
+        val noFilter = rbQuickScan.isChecked || rbIncremental.isChecked
         val hasFilter = cbRequirePs.isChecked || cbRequirePi.isChecked
         val hasBothFilters = cbRequirePs.isChecked && cbRequirePi.isChecked
 
-        // Bei Quick Scan: Filter-Optionen deaktivieren
-        cbRequirePs.isEnabled = !isQuickScan
-        cbRequirePi.isEnabled = !isQuickScan
-        cbRequirePs.alpha = if (isQuickScan) 0.5f else 1.0f
-        cbRequirePi.alpha = if (isQuickScan) 0.5f else 1.0f
+        // Bei Quick Scan / Rescan: Filter-Optionen deaktivieren
+        cbRequirePs.isEnabled = !noFilter
+        cbRequirePi.isEnabled = !noFilter
+        cbRequirePs.alpha = if (noFilter) 0.5f else 1.0f
+        cbRequirePi.alpha = if (noFilter) 0.5f else 1.0f
 
-        // UND/ODER nur zeigen wenn beide Checkboxen aktiv und nicht Quick Scan
-        rgFilterLogic.visibility = if (hasBothFilters && !isQuickScan) View.VISIBLE else View.GONE
+        // UND/ODER nur zeigen wenn beide Checkboxen aktiv und Filter möglich
+        rgFilterLogic.visibility = if (hasBothFilters && !noFilter) View.VISIBLE else View.GONE
 
-        // Timeout-Slider zeigen wenn mindestens ein Filter aktiv und nicht Quick Scan
-        rdsTimeoutContainer.visibility = if (hasFilter && !isQuickScan) View.VISIBLE else View.GONE
+        // Timeout-Slider zeigen wenn mindestens ein Filter aktiv und Filter möglich
+        rdsTimeoutContainer.visibility = if (hasFilter && !noFilter) View.VISIBLE else View.GONE
 
-        // "Starten + Filter" Button nur aktiv wenn Filter ausgewählt und nicht Quick Scan
-        val canFilter = hasFilter && !isQuickScan
+        // "Starten + Filter" Button nur aktiv wenn Filter ausgewählt und möglich
+        val canFilter = hasFilter && !noFilter
         btnStartAndFilter.isEnabled = canFilter
         btnStartAndFilter.alpha = if (canFilter) 1.0f else 0.5f
     }
 
+    /**
+     * Geschätzte Dauer des Grob→Fein-Scans gegenüber dem vollen Frequenz-Scan.
+     * Belegung aus der gespeicherten FM-Senderliste, sonst typischer Wert.
+     */
+    private fun updateScanEstimate() {
+        if (!rbCoarseFine.isChecked) {
+            tvScanEstimate.visibility = View.GONE
+            return
+        }
+        val expected = presetRepository.loadFmStations().size
+            .takeIf { it > 0 } ?: CoarseFinePlanner.TYPICAL_OCCUPANCY
+        val estimateMs = CoarseFinePlanner.estimateMs(
+            RadioScanner.FM_MIN, RadioScanner.FM_MAX, CoarseFinePlanner.DEFAULT_COARSE_STEP, expected
+        )
+        val fullMs = CoarseFinePlanner.estimateFullScanMs(RadioScanner.FM_MIN, RadioScanner.FM_MAX)
+        tvScanEstimate.text = context.getString(
+            R.string.coarse_fine_estimate, (estimateMs / 1000).toInt(), (fullMs / 1000).toInt()
+        )
+        tvScanEstimate.visibility = View.VISIBLE
+    }
+
     private fun updateTimeoutLabel(seconds: Int) {
         tvRdsTimeout.text = context.getString(R.string.rds_wait_time, seconds)
     }
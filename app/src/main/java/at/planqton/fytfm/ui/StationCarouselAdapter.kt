@@ -9,6 +9,8 @@ import androidx.cardview.widget.CardView
 import androidx.core.content.ContextCompat
 import androidx.recyclerview.widget.RecyclerView
 import at.planqton.fytfm.R
+import at.planqton.fytfm.deezer.CoverSize
+import at.planqton.fytfm.ui.helper.loadCover
 import coil.dispose
 import coil.load
 import java.io.File
@@ -177,9 +179,7 @@ class StationCarouselAdapter(
                         crossfade(true)
                     }
                 } else {
-                    holder.stationLogo.load(File(coverSource)) {
-                        crossfade(true)
-                    }
+                    holder.stationLogo.loadCover(coverSource, size = CoverSize.CAROUSEL)
                 }
             } else {
                 // Cancel any pending Coil load and show placeholder
@@ -13,10 +13,12 @@ import android.widget.RadioButton
 import android.widget.RadioGroup
 import android.widget.SeekBar
 import android.widget.TextView
+import android.widget.Toast
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import at.planqton.fytfm.R
 import at.planqton.fytfm.data.RadioStation
+import at.planqton.fytfm.data.stations.StationDiff
 import at.planqton.fytfm.scanner.RadioScanner
 
 class StationListDialog(
@@ -26,7 +28,10 @@ class StationListDialog(
     private val onStationSelected: (RadioStation) -> Unit,
     private val initialMode: Boolean = true,  // true = FM, false = AM
     private val highSensitivity: Boolean = false,
-    private val config: ScanConfig
+    private val config: ScanConfig,
+    private val amBand: RadioScanner.AmBand = RadioScanner.AmBand.DEFAULT,
+    private val knownFmStations: List<RadioStation> = emptyList(),  // für config.incremental
+    private val onDiffApplied: ((StationDiff) -> Unit)? = null
 ) : Dialog(context) {
 
     private lateinit var btnFmTab: Button
@@ -53,6 +58,7 @@ class StationListDialog(
     private lateinit var seekRdsTimeout: SeekBar
 
     private var hasBeenFiltered = false  // Track ob bereits gefiltert wurde
+    private var pendingDiff: StationDiff? = null  // Ergebnis des Rescans, bis "Hinzufügen"
 
     private val scanAdapter = ScanStationAdapter { station ->
         onStationSelected(station)
@@ -159,6 +165,12 @@ class StationListDialog(
         }
 
         btnAdd.setOnClickListener {
+            val diff = pendingDiff
+            if (diff != null) {
+                if (!diff.isEmpty) onDiffApplied?.invoke(diff)
+                dismiss()
+                return@setOnClickListener
+            }
             val stations = if (isShowingFM) fmStations else amStations
             if (stations.isNotEmpty()) {
                 onStationsAdded(stations)
@@ -275,6 +287,7 @@ class StationListDialog(
     private fun startScan() {
         scanCancelled = false
         hasBeenFiltered = false  // Reset bei neuem Scan
+        pendingDiff = null
         scanProgressContainer.visibility = View.VISIBLE
         btnAdd.visibility = View.GONE
         btnFilter.visibility = View.GONE
@@ -317,36 +330,65 @@ class StationListDialog(
                     }
                 )
             } else {
-                // Experimenteller Scan - Progressbar
+                // Experimenteller Scan (voll oder Grob→Fein) - Progressbar
                 scanSpinner.visibility = View.GONE
                 scanProgress.visibility = View.VISIBLE
                 scanProgress.isIndeterminate = false
                 tvScanStatus.text = context.getString(R.string.signal_scan_status)
-                radioScanner.scanFMSignalOnly(
-                    highSensitivity = highSensitivity,
-                    onProgress = { progress, frequency, remainingSec, phase ->
-                        scanProgress.progress = progress
-                        val timeStr = if (remainingSec > 60) "%d:%02d".format(remainingSec / 60, remainingSec % 60) else "%ds".format(remainingSec)
-                        val countStr = " | ${scanResultsLive.size} ${context.getString(R.string.found_suffix)}"
-                        tvScanStatus.text = context.getString(R.string.scan_status_fm_phase_format, phase, frequency, timeStr, countStr)
-                    },
-                    onStationFound = { station ->
-                        scanResultsLive.add(station)
-                        scanAdapter.setStations(scanResultsLive.toList())
-                        stationRecycler.scrollToPosition(scanResultsLive.size - 1)
-                        if (scanResultsLive.isNotEmpty() && btnSkip.visibility != View.VISIBLE) {
-                            btnSkip.visibility = View.VISIBLE
-                        }
-                    },
-                    onComplete = { stations ->
-                        if (stations.isNotEmpty()) {
-                            fmStations = stations
-                        }
-                        onPhase1Complete()
+                val onProgress = { progress: Int, frequency: Float, remainingSec: Int, phase: String ->
+                    scanProgress.progress = progress
+                    val timeStr = if (remainingSec > 60) "%d:%02d".format(remainingSec / 60, remainingSec % 60) else "%ds".format(remainingSec)
+                    val countStr = " | ${scanResultsLive.size} ${context.getString(R.string.found_suffix)}"
+                    tvScanStatus.text = context.getString(R.string.scan_status_fm_phase_format, phase, frequency, timeStr, countStr)
+                }
+                val onStationFound = { station: RadioStation ->
+                    scanResultsLive.add(station)
+                    scanAdapter.setStations(scanResultsLive.toList())
+                    stationRecycler.scrollToPosition(scanResultsLive.size - 1)
+                    if (scanResultsLive.isNotEmpty() && btnSkip.visibility != View.VISIBLE) {
+                        btnSkip.visibility = View.VISIBLE
                     }
-                )
+                }
+                val onComplete = { stations: List<RadioStation> ->
+                    if (stations.isNotEmpty()) {
+                        fmStations = stations
+                    }
+                    onPhase1Complete()
+                }
+                if (config.incremental) {
+                    tvScanStatus.text = context.getString(R.string.incremental_scan)
+                    radioScanner.scanFMIncremental(
+                        knownStations = knownFmStations,
+                        onProgress = onProgress,
+                        onStationFound = onStationFound,
+                        onComplete = { diff ->
+                            pendingDiff = diff
+                            fmStations = scanResultsLive.sortedBy { it.frequency }
+                            onScanComplete()
+                            showDiffSummary(diff)
+                        },
+                        highSensitivity = highSensitivity
+                    )
+                } else if (config.coarseToFine) {
+                    radioScanner.scanFMCoarseToFine(
+                        onProgress = onProgress,
+                        onStationFound = onStationFound,
+                        onComplete = onComplete,
+                        highSensitivity = highSensitivity
+                    )
+                } else {
+                    radioScanner.scanFMSignalOnly(
+                        onProgress = onProgress,
+                        onStationFound = onStationFound,
+                        onComplete = onComplete,
+                        highSensitivity = highSensitivity
+                    )
+                }
             }
         } else {
+            scanSpinner.visibility = View.GONE
+            scanProgress.visibility = View.VISIBLE
+            scanProgress.isIndeterminate = false
             tvScanStatus.text = context.getString(R.string.scanning_am)
             radioScanner.scanAM(
                 onProgress = { progress, frequency, remainingSec, _ ->
@@ -354,6 +396,16 @@ class StationListDialog(
                     val timeStr = if (remainingSec > 60) "%d:%02d".format(remainingSec / 60, remainingSec % 60) else "%ds".format(remainingSec)
                     tvScanStatus.text = context.getString(R.string.scan_status_am_format, frequency.toInt(), timeStr)
                 },
+                onStationFound = { station ->
+                    scanResultsLive.add(station)
+                    scanAdapter.setStations(scanResultsLive.toList())
+                    stationRecycler.scrollToPosition(scanResultsLive.size - 1)
+                    if (btnSkip.visibility != View.VISIBLE) {
+                        btnSkip.visibility = View.VISIBLE
+                    }
+                },
+                band = amBand,
+                highSensitivity = highSensitivity,
                 onComplete = { stations ->
                     if (stations.isNotEmpty()) {
                         amStations = stations
@@ -391,7 +443,10 @@ class StationListDialog(
         btnScan.isEnabled = true
 
         val hasStations = if (isShowingFM) fmStations.isNotEmpty() else amStations.isNotEmpty()
-        btnAdd.visibility = if (hasStations) View.VISIBLE else View.GONE
+        val diff = pendingDiff
+        // Rescan: "Hinzufügen" übernimmt den Diff, nur sinnvoll wenn sich etwas geändert hat
+        val canAdd = if (diff != null) !diff.isEmpty else hasStations
+        btnAdd.visibility = if (canAdd) View.VISIBLE else View.GONE
 
         // Filtern-Button und Optionen anzeigen wenn:
         // - Es Sender gibt
@@ -399,7 +454,8 @@ class StationListDialog(
         // - Nicht autoFilter (sonst wurde bereits automatisch gefiltert)
         val canFilter = hasStations &&
                         !hasBeenFiltered &&
-                        !config.autoFilter
+                        !config.autoFilter &&
+                        diff == null
         btnFilter.visibility = if (canFilter) View.VISIBLE else View.GONE
         filterOptionsContainer.visibility = if (canFilter) View.VISIBLE else View.GONE
 
@@ -455,6 +511,18 @@ class StationListDialog(
         )
     }
 
+    private fun showDiffSummary(diff: StationDiff) {
+        val text = if (diff.isEmpty) {
+            context.getString(R.string.incremental_no_changes)
+        } else {
+            context.getString(
+                R.string.incremental_diff_summary,
+                diff.added.size, diff.vanished.size, diff.psChanged.size, diff.piChanged.size
+            )
+        }
+        Toast.makeText(context, text, Toast.LENGTH_LONG).show()
+    }
+
     fun setFmStations(stations: List<RadioStation>) {
         fmStations = stations
         if (isShowingFM) updateStationList()
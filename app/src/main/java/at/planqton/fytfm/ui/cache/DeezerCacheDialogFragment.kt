@@ -5,6 +5,7 @@ import android.net.Uri
 import android.os.Bundle
 import android.text.Editable
 import android.text.TextWatcher
+import android.text.format.Formatter
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
@@ -17,15 +18,19 @@ import androidx.recyclerview.widget.RecyclerView
 import at.planqton.fytfm.R
 import at.planqton.fytfm.deezer.CachedTrackAdapter
 import at.planqton.fytfm.deezer.DeezerCache
+import at.planqton.fytfm.deezer.DeezerClient
 
 /**
  * DialogFragment zur Anzeige des Deezer-Cache.
- * Zeigt alle gecachten Tracks mit Suchfunktion.
+ * Zeigt alle gecachten Tracks mit Suchfunktion sowie Belegung und Budget
+ * (Bytes/Tracks), oberhalb dessen die LRU-Verdrängung greift, und die
+ * Zähler des Such-Caches im DeezerClient (Treffer/Fehlschläge/geteilt).
  */
 class DeezerCacheDialogFragment : DialogFragment() {
 
     interface DeezerCacheCallback {
         fun getDeezerCache(): DeezerCache?
+        fun getDeezerClient(): DeezerClient? = null
     }
 
     private var callback: DeezerCacheCallback? = null
@@ -57,6 +62,8 @@ class DeezerCacheDialogFragment : DialogFragment() {
 
     private fun setupDialog(view: View) {
         val tvCount = view.findViewById<TextView>(R.id.tvCacheCount)
+        val tvBudget = view.findViewById<TextView>(R.id.tvCacheBudget)
+        val tvLookups = view.findViewById<TextView>(R.id.tvCacheLookups)
         val etSearch = view.findViewById<EditText>(R.id.etCacheSearch)
         val rvTracks = view.findViewById<RecyclerView>(R.id.rvCacheTracks)
         val tvEmpty = view.findViewById<TextView>(R.id.tvCacheEmpty)
@@ -76,9 +83,36 @@ class DeezerCacheDialogFragment : DialogFragment() {
         rvTracks.layoutManager = LinearLayoutManager(requireContext())
         rvTracks.adapter = adapter
 
-        val tracks = callback?.getDeezerCache()?.getAllCachedTracks() ?: emptyList()
+        val cache = callback?.getDeezerCache()
+        val tracks = cache?.getAllCachedTracks() ?: emptyList()
         tvCount.text = getString(R.string.tracks_count, tracks.size)
 
+        if (cache != null) {
+            val (count, bytes) = cache.getCacheStats()
+            tvBudget.text = getString(
+                R.string.cache_budget_format,
+                Formatter.formatShortFileSize(requireContext(), bytes),
+                Formatter.formatShortFileSize(requireContext(), cache.maxBytes),
+                count,
+                cache.maxTracks
+            )
+        } else {
+            tvBudget.visibility = View.GONE
+        }
+
+        val lookupStats = callback?.getDeezerClient()?.getLookupStats()
+        if (lookupStats != null) {
+            tvLookups.text = getString(
+                R.string.cache_lookup_stats_format,
+                lookupStats.hits,
+                lookupStats.negativeHits,
+                lookupStats.misses,
+                lookupStats.coalesced
+            )
+        } else {
+            tvLookups.visibility = View.GONE
+        }
+
         if (tracks.isEmpty()) {
             rvTracks.visibility = View.GONE
             tvEmpty.visibility = View.VISIBLE
@@ -4,6 +4,7 @@ import android.graphics.Bitmap
 import android.widget.ImageView
 import androidx.annotation.DrawableRes
 import at.planqton.fytfm.R
+import at.planqton.fytfm.deezer.CoverSize
 import at.planqton.fytfm.ui.helper.loadCover
 import at.planqton.fytfm.ui.helper.loadCoverOrFallback
 
@@ -20,6 +21,9 @@ import at.planqton.fytfm.ui.helper.loadCoverOrFallback
  * When the DAB list wants a different placeholder drawable than the primary
  * cover views (it uses the DAB+ logo instead of a generic radio icon), the
  * `DAB`-specific helpers below split the drawable automatically.
+ *
+ * Paths are loaded at the view's [CoverSize]: the now-playing view at
+ * [CoverSize.NOW_PLAYING], carousel and DAB list at [CoverSize.CAROUSEL].
  */
 class CoverViewTrio(
     private val nowPlaying: ImageView,
@@ -55,9 +59,9 @@ class CoverViewTrio(
 
     /** Load [path] with crossfade on all three (no fallback). */
     fun loadFromPath(path: String?) {
-        nowPlaying.loadCover(path)
-        carousel.loadCover(path)
-        dabList?.loadCover(path)
+        nowPlaying.loadCover(path, size = CoverSize.NOW_PLAYING)
+        carousel.loadCover(path, size = CoverSize.CAROUSEL)
+        dabList?.loadCover(path, size = CoverSize.CAROUSEL)
     }
 
     /**
@@ -70,9 +74,9 @@ class CoverViewTrio(
         @DrawableRes coversFallback: Int,
         @DrawableRes dabListFallback: Int = R.drawable.ic_fytfm_dab_plus_light,
     ) {
-        nowPlaying.loadCoverOrFallback(path, coversFallback)
-        carousel.loadCoverOrFallback(path, coversFallback)
-        dabList?.loadCoverOrFallback(path, dabListFallback)
+        nowPlaying.loadCoverOrFallback(path, coversFallback, size = CoverSize.NOW_PLAYING)
+        carousel.loadCoverOrFallback(path, coversFallback, size = CoverSize.CAROUSEL)
+        dabList?.loadCoverOrFallback(path, dabListFallback, size = CoverSize.CAROUSEL)
     }
 
     // ---- FM/AM helpers: update the two cover views only, NEVER the DAB list ----
@@ -86,7 +90,7 @@ class CoverViewTrio(
     }
 
     fun loadForCovers(path: String?, @DrawableRes fallback: Int) {
-        nowPlaying.loadCoverOrFallback(path, fallback)
-        carousel.loadCoverOrFallback(path, fallback)
+        nowPlaying.loadCoverOrFallback(path, fallback, size = CoverSize.NOW_PLAYING)
+        carousel.loadCoverOrFallback(path, fallback, size = CoverSize.CAROUSEL)
     }
 }
@@ -16,7 +16,8 @@ import java.util.Locale
  *
  *  - Tab buttons (FM / DAB+) toggling [currentParserTab]
  *  - Live log refresh via [ParserLogger]'s listener API
- *  - Coloured rendering of pass / fail entries into the overlay TextView
+ *  - Coloured rendering of pass / fail entries into the overlay TextView,
+ *    headed by the Deezer search-strategy statistics
  *  - Clear / Export button wiring
  *
  * The activity-result launcher used for the export "Save As" dialog stays in
@@ -43,6 +44,9 @@ class ParserOverlayBinder(
      *  [ParserLogger]. Stored so [release] can detach it. */
     private var parserLogListener: ((ParserLogger.ParserLogEntry) -> Unit)? = null
 
+    /** Refreshes the strategy statistics header; stored so [release] can detach it. */
+    private var strategyListener: (() -> Unit)? = null
+
     /**
      * Wire up the overlay: tab-button click handlers, Clear/Export button
      * handlers, and the [ParserLogger] listeners that trigger live refresh.
@@ -90,6 +94,14 @@ class ParserOverlayBinder(
             ParserLogger.addFmListener(it)
             ParserLogger.addDabListener(it)
         }
+        strategyListener = {
+            binding.root.post {
+                if (binding.debugParserOverlay.visibility == View.VISIBLE) {
+                    updateLogDisplay()
+                }
+            }
+        }
+        strategyListener?.let { ParserLogger.addStrategyListener(it) }
     }
 
     /** Refresh the tab-button background colours so the active tab reads
@@ -108,7 +120,8 @@ class ParserOverlayBinder(
 
     /** Repaint the overlay's log TextView with the current tab's entries.
      *  Most-recent first; failed parses (parsedResult == null) coloured red,
-     *  passes coloured green. */
+     *  passes coloured green. The Deezer strategy statistics (win rate and
+     *  latency per search strategy) head the list in gray. */
     fun updateLogDisplay() {
         val entries = if (currentParserTab == ParserLogger.Source.FM) {
             ParserLogger.getFmEntries()
@@ -116,11 +129,24 @@ class ParserOverlayBinder(
             ParserLogger.getDabEntries()
         }
 
+        val coloredText = android.text.SpannableStringBuilder()
+        val strategyStats = ParserLogger.getStrategyStats()
+        if (strategyStats.isNotEmpty()) {
+            val start = coloredText.length
+            coloredText.append(strategyStats.joinToString("\n") { it.format() })
+            coloredText.setSpan(
+                android.text.style.ForegroundColorSpan(android.graphics.Color.parseColor("#9E9E9E")),
+                start, coloredText.length,
+                android.text.Spannable.SPAN_EXCLUSIVE_EXCLUSIVE,
+            )
+            coloredText.append("\n\n")
+        }
+
         if (entries.isEmpty()) {
             val tabName = if (currentParserTab == ParserLogger.Source.FM) "FM" else "DAB+"
-            binding.parserLogText.text = context.getString(R.string.no_log_entries, tabName)
+            coloredText.append(context.getString(R.string.no_log_entries, tabName))
+            binding.parserLogText.text = coloredText
         } else {
-            val coloredText = android.text.SpannableStringBuilder()
             val greenColor = android.graphics.Color.parseColor("#4CAF50")
             val redColor = android.graphics.Color.parseColor("#F44336")
 
@@ -165,5 +191,7 @@ class ParserOverlayBinder(
             ParserLogger.removeDabListener(it)
         }
         parserLogListener = null
+        strategyListener?.let { ParserLogger.removeStrategyListener(it) }
+        strategyListener = null
     }
 }
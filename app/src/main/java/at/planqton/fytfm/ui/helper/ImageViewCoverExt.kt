@@ -4,11 +4,24 @@ import android.content.res.ColorStateList
 import android.graphics.Outline
 import android.view.View
 import android.view.ViewOutlineProvider
+import android.webkit.MimeTypeMap
 import android.widget.ImageView
 import androidx.annotation.ColorInt
 import androidx.annotation.DrawableRes
 import androidx.core.widget.ImageViewCompat
+import at.planqton.fytfm.deezer.CoverSize
+import at.planqton.fytfm.deezer.CoverStore
+import coil.ImageLoader
+import coil.decode.DataSource
+import coil.decode.ImageSource
+import coil.fetch.FetchResult
+import coil.fetch.Fetcher
+import coil.fetch.SourceResult
 import coil.load
+import coil.request.ImageRequest
+import coil.request.Options
+import okio.FileSystem
+import okio.Path.Companion.toOkioPath
 import java.io.File
 
 /**
@@ -29,14 +42,17 @@ fun View.applyRoundedCorners(radiusDp: Float) {
 /**
  * Loads a local cover image into the ImageView with a crossfade.
  * No-op when [path] is null or blank — caller is responsible for rendering
- * a fallback in that case.
+ * a fallback in that case. With [size], a Deezer cover is loaded from its
+ * stored variant for that size (see [CoverStore.pathFor]); the variant is
+ * picked on Coil's fetch dispatcher, not while binding.
  */
 fun ImageView.loadCover(
     path: String?,
     @DrawableRes fallbackRes: Int? = null,
+    size: CoverSize? = null,
 ) {
     if (path.isNullOrBlank()) return
-    load(File(path)) {
+    loadLocal(path, size) {
         crossfade(true)
         fallbackRes?.let {
             placeholder(it)
@@ -56,12 +72,16 @@ fun ImageView.loadCover(
  *
  * [placeholderTint] (optional) tintiert den Fallback-Vektor mit der
  * Akzentfarbe. Bei echtem Cover wird der Tint wieder gelöscht.
+ *
+ * [size] wählt bei Deezer-Covern die passende gespeicherte Größe (siehe
+ * [CoverStore.pathFor]).
  */
 fun ImageView.loadCoverOrFallback(
     path: String?,
     @DrawableRes fallbackRes: Int,
     @Suppress("UNUSED_PARAMETER")
     @ColorInt placeholderTint: Int? = null,
+    size: CoverSize? = null,
 ) {
     if (path.isNullOrBlank()) {
         scaleType = ImageView.ScaleType.FIT_CENTER
@@ -87,10 +107,50 @@ fun ImageView.loadCoverOrFallback(
         // würde das JPG eingefärbt bzw. die ungenutzten Ränder gefärbt.
         ImageViewCompat.setImageTintList(this, null)
         setBackgroundColor(android.graphics.Color.TRANSPARENT)
-        load(File(path)) {
+        loadLocal(path, size) {
             crossfade(true)
             placeholder(fallbackRes)
             error(fallbackRes)
         }
     }
 }
+
+/**
+ * Loads the local file [path]. With [size] the request carries a
+ * [SizedCover] instead of a File, so [CoverStore.pathFor] — a disk check
+ * per bind, carousel rebinds included — runs in [SizedCoverFetcher] off
+ * the main thread.
+ */
+private fun ImageView.loadLocal(path: String, size: CoverSize?, builder: ImageRequest.Builder.() -> Unit) {
+    if (size == null) {
+        load(File(path), builder = builder)
+        return
+    }
+    load(SizedCover(path, size)) {
+        fetcherFactory(SizedCoverFetcher.Factory)
+        // No Keyer for SizedCover: without an explicit key Coil skips the memory cache
+        memoryCacheKey("$path#${size.px}")
+        builder()
+    }
+}
+
+/** A local cover to be shown at [size]; which file that is, is decided at fetch time. */
+private data class SizedCover(val path: String, val size: CoverSize)
+
+/** Resolves a [SizedCover] to its stored variant and reads it like Coil's own file fetcher. */
+private class SizedCoverFetcher(private val cover: SizedCover) : Fetcher {
+
+    override suspend fun fetch(): FetchResult {
+        val file = File(CoverStore.pathFor(cover.path, cover.size))
+        return SourceResult(
+            source = ImageSource(file.toOkioPath(), FileSystem.SYSTEM),
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(file.extension.lowercase()),
+            dataSource = DataSource.DISK,
+        )
+    }
+
+    object Factory : Fetcher.Factory<SizedCover> {
+        override fun create(data: SizedCover, options: Options, imageLoader: ImageLoader): Fetcher =
+            SizedCoverFetcher(data)
+    }
+}
@@ -10,13 +10,13 @@ import androidx.lifecycle.lifecycleScope
 import at.planqton.fytfm.R
 import at.planqton.fytfm.data.PresetRepository
 import at.planqton.fytfm.data.RadioStation
+import at.planqton.fytfm.data.http.HttpStack
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
+import okhttp3.Request
 import java.io.File
 import java.io.FileOutputStream
-import java.net.HttpURLConnection
-import java.net.URL
 
 /**
  * Downloads an image URL, resizes it, saves to `filesDir/station_logos/`,
@@ -33,12 +33,14 @@ class StationLogoDownloader(
     companion object {
         private const val TAG = "StationLogoDownloader"
         private const val MAX_DIMENSION = 512
-        private const val CONNECT_TIMEOUT_MS = 15_000
-        private const val READ_TIMEOUT_MS = 15_000
+        private const val CONNECT_TIMEOUT_S = 15L
+        private const val READ_TIMEOUT_S = 15L
         private const val UA =
             "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"
     }
 
+    private val client = HttpStack.shared.client(CONNECT_TIMEOUT_S, READ_TIMEOUT_S)
+
     fun downloadAndSave(
         imageUrl: String,
         station: RadioStation,
@@ -82,24 +84,19 @@ class StationLogoDownloader(
     }
 
     private fun downloadAndDecode(imageUrl: String): Bitmap {
-        val url = URL(imageUrl)
-        val connection = (url.openConnection() as HttpURLConnection).apply {
-            connectTimeout = CONNECT_TIMEOUT_MS
-            readTimeout = READ_TIMEOUT_MS
-            setRequestProperty("User-Agent", UA)
-        }
-        try {
-            connection.connect()
-            if (connection.responseCode != 200) {
-                throw IllegalStateException("HTTP ${connection.responseCode}")
+        val request = Request.Builder()
+            .url(imageUrl)
+            .header("User-Agent", UA)
+            .build()
+        client.newCall(request).execute().use { response ->
+            if (response.code != 200) {
+                throw IllegalStateException("HTTP ${response.code}")
             }
-            val raw = connection.inputStream.use { BitmapFactory.decodeStream(it) }
+            val raw = response.body?.byteStream()?.use { BitmapFactory.decodeStream(it) }
                 ?: throw IllegalStateException("Bitmap decode failed")
             return if (raw.config == Bitmap.Config.HARDWARE) {
                 raw.copy(Bitmap.Config.ARGB_8888, false)
             } else raw
-        } finally {
-            connection.disconnect()
         }
     }
 
@@ -20,6 +20,7 @@ import androidx.recyclerview.widget.GridLayoutManager
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import at.planqton.fytfm.R
+import at.planqton.fytfm.data.http.HttpStack
 import at.planqton.fytfm.data.logo.LogoTemplateAdapter
 import at.planqton.fytfm.data.logo.RadioLogoRepository
 import at.planqton.fytfm.data.logo.RadioLogoTemplate
@@ -31,7 +32,6 @@ import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
-import okhttp3.OkHttpClient
 import okhttp3.Request
 import org.json.JSONObject
 import java.io.File
@@ -39,7 +39,6 @@ import java.io.FileOutputStream
 import java.net.URLEncoder
 import java.security.MessageDigest
 import java.util.Locale
-import java.util.concurrent.TimeUnit
 
 class LogoTemplateDialogFragment : DialogFragment() {
 
@@ -480,10 +479,7 @@ class LogoTemplateDialogFragment : DialogFragment() {
         val filename = hash.joinToString("") { "%02x".format(it) } + ".png"
         val localFile = File(templateDir, filename)
 
-        val client = OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .build()
+        val client = HttpStack.shared.client(connectTimeoutSeconds = 10, readTimeoutSeconds = 30)
 
         val request = Request.Builder()
             .url(logoUrl)
@@ -592,11 +588,7 @@ class LogoTemplateDialogFragment : DialogFragment() {
 
     private fun searchRadioLogos(query: String): List<ImageResult> {
         val results = mutableListOf<ImageResult>()
-        val client = OkHttpClient.Builder()
-            .connectTimeout(15, TimeUnit.SECONDS)
-            .readTimeout(15, TimeUnit.SECONDS)
-            .followRedirects(true)
-            .build()
+        val client = HttpStack.shared.client(connectTimeoutSeconds = 15, readTimeoutSeconds = 15)
 
         val encodedQuery = URLEncoder.encode(query, "UTF-8")
 
@@ -2,6 +2,7 @@ package at.planqton.fytfm.ui.pip
 
 import at.planqton.fytfm.R
 import at.planqton.fytfm.databinding.PipLayoutBinding
+import at.planqton.fytfm.deezer.CoverSize
 import at.planqton.fytfm.deezer.TrackInfo
 import at.planqton.fytfm.ui.helper.loadCoverOrFallback
 
@@ -51,7 +52,7 @@ class PipController(
             pipBinding.pipArtist.text = "${trackInfo.artist} - ${trackInfo.title}"
             // Only local paths — HTTP URLs aren't displayed in PiP.
             val localCover = trackInfo.coverUrl?.takeIf { it.startsWith("/") }
-            pipBinding.pipCoverImage.loadCoverOrFallback(localCover, R.drawable.ic_cover_placeholder)
+            pipBinding.pipCoverImage.loadCoverOrFallback(localCover, R.drawable.ic_cover_placeholder, size = CoverSize.CAROUSEL)
         } else {
             pipBinding.pipArtist.text = ""
             pipBinding.pipCoverImage.setImageResource(R.drawable.ic_cover_placeholder)
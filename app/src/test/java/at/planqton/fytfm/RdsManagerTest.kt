@@ -0,0 +1,144 @@
+package at.planqton.fytfm
+
+import android.os.Bundle
+import at.planqton.fytfm.controller.FmNativeApi
+import at.planqton.fytfm.data.band.BandMap
+import at.planqton.fytfm.sim.SimBand
+import at.planqton.fytfm.sim.SimStation
+import at.planqton.fytfm.sim.SimulatedFmTuner
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.Collections
+import java.util.IdentityHashMap
+
+/**
+ * Tests for [RdsManager]'s poll tick against [SimulatedFmTuner]. The tick
+ * is driven directly (no poll thread), each one a virtual 100 ms after the
+ * last, so RDS groups arrive at the modelled rate.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class RdsManagerTest {
+
+    private val stations = listOf(
+        SimStation(88.9f, rssi = 60, pi = 0xA201, ps = "OE3", rt = "Nachrichten"),
+        SimStation(94.3f, rssi = 45, pi = 0xA202, ps = "FM4"),
+    )
+
+    private lateinit var tuner: SimulatedFmTuner
+    private lateinit var bandMap: BandMap
+    private lateinit var rds: RdsManager
+
+    private val pollRds = RdsManager::class.java.getDeclaredMethod("pollRds").apply { isAccessible = true }
+
+    @Before
+    fun setup() {
+        tuner = SimulatedFmTuner(SimBand(stations, noiseJitter = 0, seed = 7L))
+        tuner.powerUp(88.9f)
+        bandMap = BandMap()
+    }
+
+    /** A chip without CMD_CURRENTFREQ: the BandMap key is the last real tune. */
+    private fun withoutCurrentFreq(tuner: SimulatedFmTuner): FmNativeApi = object : FmNativeApi by tuner {
+        override fun fmsyu_jni(cmd: Int, inBundle: Bundle, outBundle: Bundle): Int =
+            if (cmd == SimulatedFmTuner.CMD_CURRENTFREQ) -1 else tuner.fmsyu_jni(cmd, inBundle, outBundle)
+    }
+
+    private fun manager(api: FmNativeApi) = RdsManager(api).also { it.setBandMap(bandMap) }
+
+    private fun poll(ticks: Int) = repeat(ticks) {
+        tuner.clock.advance(100)
+        pollRds.invoke(rds)
+    }
+
+    // ============ BandMap ============
+
+    @Test
+    fun `ui frequency alone does not move band map writes to the new channel`() {
+        rds = manager(withoutCurrentFreq(tuner))
+        rds.tune(88.9f)
+        poll(20)
+        assertEquals(0xA201, bandMap.piAt(88.9f))
+
+        // User dialled 94.3, the coalesced tune has not reached the chip yet
+        rds.setUiFrequency(94.3f)
+        poll(5)
+
+        assertEquals(0, bandMap.rssiAt(94.3f))
+        assertEquals(0, bandMap.piAt(94.3f))
+        assertNull(bandMap.psAt(94.3f))
+        assertEquals(0xA201, bandMap.piAt(88.9f))
+    }
+
+    @Test
+    fun `band map follows the chip once the tune ran`() {
+        rds = manager(withoutCurrentFreq(tuner))
+        rds.setUiFrequency(94.3f)
+        rds.tune(94.3f)
+        poll(20)
+
+        assertEquals(0xA202, bandMap.piAt(94.3f))
+        assertEquals("FM4", bandMap.psAt(94.3f))
+        assertEquals(45, bandMap.rssiAt(94.3f))
+    }
+
+    @Test
+    fun `noteTuned keys ticks after a tune outside of RdsManager`() {
+        rds = manager(withoutCurrentFreq(tuner))
+        tuner.tune(94.3f)
+        rds.noteTuned(94.3f)
+        poll(20)
+
+        assertEquals(0xA202, bandMap.piAt(94.3f))
+        assertEquals(0, bandMap.piAt(88.9f))
+    }
+
+    @Test
+    fun `chip frequency round-trips through the CURRENTFREQ decoder`() {
+        rds = manager(tuner)
+        for (freq in listOf(87.5f, 88.9f, 99.9f, 103.7f, 108.0f)) {
+            rds.tune(freq)
+            poll(1)
+            assertEquals(freq, rds.hardwareFrequency, 0.001f)
+        }
+    }
+
+    // ============ Steady-state allocation ============
+
+    @Test
+    fun `steady-state ticks reuse bundles and strings and deliver nothing`() {
+        val bundles = Collections.newSetFromMap(IdentityHashMap<Bundle, Boolean>())
+        rds = manager(object : FmNativeApi by tuner {
+            override fun fmsyu_jni(cmd: Int, inBundle: Bundle, outBundle: Bundle): Int {
+                bundles += inBundle
+                bundles += outBundle
+                return tuner.fmsyu_jni(cmd, inBundle, outBundle)
+            }
+        })
+        rds.tune(88.9f)
+        poll(30)
+        assertEquals("OE3", rds.ps)
+        assertEquals("Nachrichten", rds.rt)
+
+        val ps = rds.ps
+        val partial = rds.partialPs
+        val rt = rds.rt
+        val version = rds.changeVersion
+        bundles.clear()
+        poll(50)
+
+        // One in/out pair for every fmsyu_jni call of every tick
+        assertEquals(2, bundles.size)
+        // Unchanged PS/RT come back as the same instances, no snapshot is built
+        assertSame(ps, rds.ps)
+        assertSame(partial, rds.partialPs)
+        assertSame(rt, rds.rt)
+        assertEquals(version, rds.changeVersion)
+    }
+}
@@ -0,0 +1,129 @@
+package at.planqton.fytfm.controller
+
+import android.os.Handler
+import android.os.Looper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+import java.time.Duration
+
+/**
+ * Tests for [TuneCoalescer]. Runs on Robolectric's paused main looper, so
+ * `idleFor` advances both the Handler queue and `SystemClock.uptimeMillis`.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class TuneCoalescerTest {
+
+    private val tuned = mutableListOf<Float>()
+    private lateinit var coalescer: TuneCoalescer
+
+    @Before
+    fun setUp() {
+        tuned.clear()
+        coalescer = TuneCoalescer(Handler(Looper.getMainLooper()), settleWindowMs = 150L) { tuned.add(it) }
+    }
+
+    private fun idle(ms: Long) = shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(ms))
+
+    @Test
+    fun `single request while idle tunes immediately`() {
+        coalescer.request(98.4f)
+        assertEquals(listOf(98.4f), tuned)
+        assertFalse(coalescer.hasPendingTune)
+    }
+
+    @Test
+    fun `burst of requests tunes only the last one after the window`() {
+        coalescer.request(98.4f) // leading edge
+        for (f in listOf(98.5f, 98.6f, 98.7f, 98.8f)) {
+            idle(20)
+            coalescer.request(f)
+        }
+        assertEquals(listOf(98.4f), tuned)
+
+        idle(149)
+        assertEquals(listOf(98.4f), tuned)
+        idle(1)
+        assertEquals(listOf(98.4f, 98.8f), tuned)
+
+        assertEquals(5L, coalescer.requestedCount)
+        assertEquals(2L, coalescer.tunedCount)
+        assertEquals(3L, coalescer.droppedCount)
+    }
+
+    @Test
+    fun `each new request re-arms the settle timer`() {
+        coalescer.request(90.0f)
+        coalescer.request(90.1f)
+        idle(100)
+        coalescer.request(90.2f)
+        idle(100)
+        assertEquals(listOf(90.0f), tuned)
+        idle(50)
+        assertEquals(listOf(90.0f, 90.2f), tuned)
+    }
+
+    @Test
+    fun `request right after a tune waits for the window`() {
+        coalescer.request(100.0f)
+        idle(50)
+        coalescer.request(101.0f)
+        assertEquals(listOf(100.0f), tuned)
+        idle(150)
+        assertEquals(listOf(100.0f, 101.0f), tuned)
+        assertEquals(0L, coalescer.droppedCount)
+    }
+
+    @Test
+    fun `request after a quiet period is immediate again`() {
+        coalescer.request(100.0f)
+        idle(500)
+        coalescer.request(102.0f)
+        assertEquals(listOf(100.0f, 102.0f), tuned)
+    }
+
+    @Test
+    fun `flush sends the pending target now`() {
+        coalescer.request(95.0f)
+        coalescer.request(96.0f)
+        coalescer.flush()
+        assertEquals(listOf(95.0f, 96.0f), tuned)
+        idle(500)
+        assertEquals(listOf(95.0f, 96.0f), tuned)
+    }
+
+    @Test
+    fun `cancel drops the pending target`() {
+        coalescer.request(95.0f)
+        coalescer.request(96.0f)
+        coalescer.cancel()
+        idle(500)
+        assertEquals(listOf(95.0f), tuned)
+        assertEquals(1L, coalescer.droppedCount)
+    }
+
+    @Test
+    fun `zero window tunes every request`() {
+        coalescer.settleWindowMs = 0L
+        coalescer.request(88.0f)
+        coalescer.request(88.1f)
+        idle(0)
+        assertEquals(listOf(88.0f, 88.1f), tuned)
+    }
+
+    @Test
+    fun `settle window is clamped`() {
+        coalescer.settleWindowMs = 60_000L
+        assertEquals(TuneCoalescer.MAX_SETTLE_WINDOW_MS, coalescer.settleWindowMs)
+        coalescer.settleWindowMs = -5L
+        assertEquals(0L, coalescer.settleWindowMs)
+        assertTrue(coalescer.summary().startsWith("req="))
+    }
+}
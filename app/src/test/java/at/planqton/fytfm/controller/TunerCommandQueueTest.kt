@@ -0,0 +1,276 @@
+package at.planqton.fytfm.controller
+
+import at.planqton.fytfm.controller.TunerCommandQueue.Priority
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.Collections
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+/**
+ * Tests for [TunerCommandQueue] and [QueuedFmNativeApi]. Each test blocks
+ * the worker with a latch-gated command so the ordering of everything
+ * queued behind it is deterministic.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class TunerCommandQueueTest {
+
+    /** Occupies the worker until the returned latch is released. */
+    private fun blockWorker(queue: TunerCommandQueue, timeoutMs: Long = 5_000L): CountDownLatch {
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        thread {
+            runCatching {
+                queue.execute(Priority.USER, "blocker", timeoutMs) {
+                    started.countDown()
+                    release.await(5, TimeUnit.SECONDS)
+                }
+            }
+        }
+        assertTrue(started.await(2, TimeUnit.SECONDS))
+        return release
+    }
+
+    private fun awaitPending(queue: TunerCommandQueue, count: Int) {
+        val deadline = System.currentTimeMillis() + 2_000
+        while (queue.pendingCount() < count && System.currentTimeMillis() < deadline) Thread.sleep(5)
+        assertEquals(count, queue.pendingCount())
+    }
+
+    @Test
+    fun `returns the block result to the caller`() {
+        val queue = TunerCommandQueue()
+        assertEquals(42, queue.execute(Priority.USER, "answer") { 42 })
+    }
+
+    @Test
+    fun `rethrows the block exception`() {
+        val queue = TunerCommandQueue()
+        try {
+            queue.execute<Unit>(Priority.USER, "boom") { throw IllegalStateException("chip said no") }
+            fail("expected exception")
+        } catch (e: IllegalStateException) {
+            assertEquals("chip said no", e.message)
+        }
+    }
+
+    @Test
+    fun `runs user before scan before rds poll regardless of submit order`() {
+        val queue = TunerCommandQueue()
+        val order = Collections.synchronizedList(mutableListOf<String>())
+        val release = blockWorker(queue)
+
+        val done = CountDownLatch(3)
+        thread { queue.execute(Priority.RDS_POLL, "poll") { order.add("poll") }; done.countDown() }
+        awaitPending(queue, 1)
+        thread { queue.execute(Priority.SCAN, "scan") { order.add("scan") }; done.countDown() }
+        awaitPending(queue, 2)
+        thread { queue.execute(Priority.USER, "tune") { order.add("tune") }; done.countDown() }
+        awaitPending(queue, 3)
+
+        release.countDown()
+        assertTrue(done.await(2, TimeUnit.SECONDS))
+        assertEquals(listOf("tune", "scan", "poll"), order)
+    }
+
+    @Test
+    fun `commands never run concurrently`() {
+        val queue = TunerCommandQueue()
+        val inFlight = AtomicInteger()
+        val maxInFlight = AtomicInteger()
+        val threads = (0 until 8).map { i ->
+            thread {
+                repeat(20) {
+                    queue.execute(Priority.values()[i % 3], "c$i") {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet()) { a, b -> maxOf(a, b) }
+                        Thread.sleep(1)
+                        inFlight.decrementAndGet()
+                    }
+                }
+            }
+        }
+        threads.forEach { it.join(10_000) }
+        assertEquals(1, maxInFlight.get())
+    }
+
+    @Test
+    fun `cancelPending drops queued commands of that priority only`() {
+        val queue = TunerCommandQueue()
+        val release = blockWorker(queue)
+        val pollCancelled = CountDownLatch(1)
+        val scanRan = CountDownLatch(1)
+
+        thread {
+            try {
+                queue.execute(Priority.RDS_POLL, "poll") { fail("cancelled poll must not run") }
+            } catch (e: CancellationException) {
+                pollCancelled.countDown()
+            }
+        }
+        awaitPending(queue, 1)
+        thread { queue.execute(Priority.SCAN, "scan") { scanRan.countDown() } }
+        awaitPending(queue, 2)
+
+        assertEquals(1, queue.cancelPending(Priority.RDS_POLL))
+        assertTrue(pollCancelled.await(2, TimeUnit.SECONDS))
+        release.countDown()
+        assertTrue(scanRan.await(2, TimeUnit.SECONDS))
+        assertEquals(1L, queue.stats(Priority.RDS_POLL).cancelled)
+    }
+
+    @Test
+    fun `caller times out instead of hanging on a stuck command`() {
+        val queue = TunerCommandQueue()
+        val release = blockWorker(queue)
+        try {
+            queue.execute(Priority.USER, "tune", 100L) { true }
+            fail("expected timeout")
+        } catch (e: TunerCommandQueue.TunerTimeoutException) {
+            // expected
+        } finally {
+            release.countDown()
+        }
+        assertEquals(1L, queue.stats(Priority.USER).timedOut)
+    }
+
+    @Test
+    fun `stuck command fails callers fast and keeps the single worker`() {
+        val queue = TunerCommandQueue(stuckThresholdMs = 50L)
+        val workers = Collections.synchronizedSet(mutableSetOf<Thread>())
+        queue.execute(Priority.USER, "first") { workers.add(Thread.currentThread()) }
+        val release = blockWorker(queue, timeoutMs = 50L)
+        try {
+            Thread.sleep(100)
+            assertEquals("blocker", queue.stuckCommand())
+            val start = System.nanoTime()
+            try {
+                queue.execute(Priority.USER, "after", 1_000L) { "never" }
+                fail("expected timeout")
+            } catch (e: TunerCommandQueue.TunerTimeoutException) {
+                // expected
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500)
+            assertEquals(1, queue.stuckCount())
+        } finally {
+            release.countDown()
+        }
+        assertEquals("fresh", queue.execute(Priority.USER, "later", 1_000L) { workers.add(Thread.currentThread()); "fresh" })
+        assertNull(queue.stuckCommand())
+        assertEquals(1, workers.size)
+    }
+
+    // ============ submit ============
+
+    @Test
+    fun `submit does not wait and reports the result through the callback`() {
+        val queue = TunerCommandQueue()
+        val release = blockWorker(queue)
+        val done = CountDownLatch(1)
+        var result: Boolean? = null
+        var failure: Throwable? = null
+
+        val start = System.nanoTime()
+        queue.submit(Priority.USER, "tune", { true }) { r, error ->
+            result = r
+            failure = error
+            done.countDown()
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500)
+        assertEquals(1, queue.pendingCount())
+
+        release.countDown()
+        assertTrue(done.await(2, TimeUnit.SECONDS))
+        assertEquals(true, result)
+        assertNull(failure)
+    }
+
+    @Test
+    fun `submitted command dropped by cancelPending reports cancellation`() {
+        val queue = TunerCommandQueue()
+        val release = blockWorker(queue)
+        val cancelled = CountDownLatch(1)
+        queue.submit(Priority.RDS_POLL, "poll", { fail("cancelled poll must not run") }) { _, error ->
+            if (error is CancellationException) cancelled.countDown()
+        }
+        queue.cancelPending(Priority.RDS_POLL)
+        release.countDown()
+        assertTrue(cancelled.await(2, TimeUnit.SECONDS))
+    }
+
+    @Test
+    fun `nested execute from the worker runs inline`() {
+        val queue = TunerCommandQueue()
+        val result = queue.execute(Priority.SCAN, "outer", 1_000L) {
+            queue.execute(Priority.USER, "inner", 1_000L) { "inner-ok" }
+        }
+        assertEquals("inner-ok", result)
+    }
+
+    @Test
+    fun `records timing per priority`() {
+        val queue = TunerCommandQueue()
+        queue.execute(Priority.SCAN, "slow") { Thread.sleep(20) }
+        queue.execute(Priority.SCAN, "fast") { }
+        val stats = queue.stats(Priority.SCAN)
+        assertEquals(2L, stats.executed)
+        assertTrue("maxRunMs=${stats.maxRunMs}", stats.maxRunMs >= 20)
+        assertEquals(0L, queue.stats(Priority.USER).executed)
+    }
+
+    @Test
+    fun `queued api forwards calls and user tune drops pending rds polls`() {
+        val delegate = mockk<FmNativeApi>(relaxed = true)
+        every { delegate.tune(any()) } returns true
+        val queue = TunerCommandQueue()
+        val api = QueuedFmNativeApi(delegate, queue, Priority.USER)
+
+        val release = blockWorker(queue)
+        val pollCancelled = CountDownLatch(1)
+        thread {
+            try {
+                queue.execute(Priority.RDS_POLL, "poll") { }
+            } catch (e: CancellationException) {
+                pollCancelled.countDown()
+            }
+        }
+        awaitPending(queue, 1)
+
+        var tuned = false
+        val tuneThread = thread { tuned = api.tune(101.5f) }
+        assertTrue(pollCancelled.await(2, TimeUnit.SECONDS))
+        release.countDown()
+        tuneThread.join(2_000)
+
+        assertTrue(tuned)
+        verify(exactly = 1) { delegate.tune(101.5f) }
+    }
+
+    @Test
+    fun `scan view does not cancel rds polls on tune`() {
+        val delegate = mockk<FmNativeApi>(relaxed = true)
+        val queue = TunerCommandQueue()
+        val api = QueuedFmNativeApi(delegate, queue, Priority.SCAN)
+        val release = blockWorker(queue)
+        thread { queue.execute(Priority.RDS_POLL, "poll") { } }
+        awaitPending(queue, 1)
+        val tuneThread = thread { api.tune(99.0f) }
+        awaitPending(queue, 2)
+        release.countDown()
+        tuneThread.join(2_000)
+        assertFalse(queue.stats(Priority.RDS_POLL).cancelled > 0)
+    }
+}
@@ -0,0 +1,115 @@
+package at.planqton.fytfm.data.band
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+/**
+ * Tests for [BandMap]: channel indexing, the opportunistic writers and
+ * the compact binary persistence.
+ */
+class BandMapTest {
+
+    @Test
+    fun `channel index covers the band and nothing outside`() {
+        assertEquals(0, BandMap.channelOf(87.5f))
+        assertEquals(BandMap.CHANNELS - 1, BandMap.channelOf(108.0f))
+        assertEquals(105, BandMap.channelOf(98.0f))
+        assertEquals(-1, BandMap.channelOf(87.4f))
+        assertEquals(-1, BandMap.channelOf(108.1f))
+        assertEquals(98.0f, BandMap.frequencyOf(105), 0.0001f)
+    }
+
+    @Test
+    fun `rssi is stored with its age, invalid reads are ignored`() {
+        val map = BandMap()
+        map.recordRssi(98.0f, 45, now = 1_000)
+        map.recordRssi(98.0f, 0, now = 2_000)
+        assertEquals(45, map.rssiAt(98.0f))
+        assertEquals(4_000L, map.rssiAgeMs(98.0f, now = 5_000))
+        assertEquals(-1L, map.rssiAgeMs(98.1f))
+        assertEquals(0, map.rssiAt(120.0f))
+    }
+
+    @Test
+    fun `rds keeps the known pi when only ps arrives`() {
+        val map = BandMap()
+        map.recordRds(99.9f, 0xA503, null, now = 1_000)
+        map.recordRds(99.9f, 0, "HITRADIO", now = 2_000)
+        assertEquals(0xA503, map.piAt(99.9f))
+        assertEquals("HITRADIO", map.psAt(99.9f))
+        assertNull(map.psAt(100.0f))
+    }
+
+    @Test
+    fun `unchanged rds only refreshes once a second`() {
+        val map = BandMap()
+        map.recordRds(99.9f, 0xA503, "OE3", now = 1_000)
+        val version = map.version
+        map.recordRds(99.9f, 0xA503, "OE3", now = 1_500)
+        assertEquals(version, map.version)
+        map.recordRds(99.9f, 0xA503, "OE3", now = 2_100)
+        assertTrue(map.version > version)
+    }
+
+    @Test
+    fun `af list becomes a channel set without the station itself`() {
+        val map = BandMap()
+        map.recordAf(99.9f, shortArrayOf(999, 1043, 884, 1200))
+        assertArrayEquals(floatArrayOf(88.4f, 104.3f), map.afsOf(99.9f), 0.0001f)
+    }
+
+    @Test
+    fun `same programme is found through the pi`() {
+        val map = BandMap()
+        map.recordRds(99.9f, 0xA503, "OE3")
+        map.recordRds(104.3f, 0xA503, "OE3")
+        map.recordRds(88.6f, 0xA386, "88.6")
+        assertArrayEquals(floatArrayOf(104.3f), map.sameProgrammeAs(99.9f), 0.0001f)
+    }
+
+    @Test
+    fun `channels above a threshold honour the age limit`() {
+        val map = BandMap()
+        map.recordRssi(88.6f, 50, now = 1_000)
+        map.recordRssi(99.9f, 60, now = 9_000)
+        map.recordRssi(104.3f, 20, now = 9_000)
+        assertArrayEquals(floatArrayOf(99.9f), map.channelsAbove(40, maxAgeMs = 5_000, now = 10_000), 0.0001f)
+        assertArrayEquals(floatArrayOf(88.6f, 99.9f), map.channelsAbove(40, maxAgeMs = 60_000, now = 10_000), 0.0001f)
+    }
+
+    @Test
+    fun `binary round trip restores everything`() {
+        val map = BandMap()
+        map.recordRssi(99.9f, 55, now = 1_000)
+        map.recordRds(99.9f, 0xA503, "OE3", now = 2_000)
+        map.recordAf(99.9f, shortArrayOf(1043))
+        map.recordRssi(108.0f, 30, now = 3_000)
+
+        val bytes = ByteArrayOutputStream().also { DataOutputStream(it).use { out -> map.writeTo(out) } }.toByteArray()
+        val restored = BandMap()
+        assertTrue(restored.readFrom(DataInputStream(ByteArrayInputStream(bytes))))
+
+        assertEquals(55, restored.rssiAt(99.9f))
+        assertEquals(0xA503, restored.piAt(99.9f))
+        assertEquals("OE3", restored.psAt(99.9f))
+        assertEquals(1_000L, restored.rdsAgeMs(99.9f, now = 3_000))
+        assertArrayEquals(floatArrayOf(104.3f), restored.afsOf(99.9f), 0.0001f)
+        assertEquals(30, restored.rssiAt(108.0f))
+        // Only the touched channels are written
+        assertTrue("size=${bytes.size}", bytes.size < 200)
+    }
+
+    @Test
+    fun `foreign data is rejected`() {
+        val restored = BandMap()
+        assertFalse(restored.readFrom(DataInputStream(ByteArrayInputStream(byteArrayOf(1, 2, 3, 4, 5)))))
+    }
+}
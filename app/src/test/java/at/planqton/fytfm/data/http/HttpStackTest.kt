@@ -0,0 +1,196 @@
+package at.planqton.fytfm.data.http
+
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import okio.Buffer
+import okio.GzipSink
+import okio.buffer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertThrows
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for [HttpStack] against a [MockWebServer]: immutable-image
+ * rewriting, offline/stale fallback and the per-host counters, including
+ * the network bytes for chunked and gzip bodies.
+ */
+class HttpStackTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private lateinit var server: MockWebServer
+    private lateinit var stack: HttpStack
+    private var online = true
+
+    @Before
+    fun setup() {
+        server = MockWebServer()
+        server.start()
+        stack = HttpStack(tmp.newFolder("http"), isOnline = { online })
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    private fun get(path: String): Pair<Int, String> {
+        val request = Request.Builder().url(server.url(path)).build()
+        return stack.client.newCall(request).execute().use { it.code to (it.body?.string() ?: "") }
+    }
+
+    private fun stats() = stack.hostStats().single()
+
+    // ============ Immutable images ============
+
+    @Test
+    fun `images are cached without network on repeat`() {
+        server.enqueue(MockResponse().setHeader("Content-Type", "image/jpeg").setBody("jpeg"))
+
+        assertEquals(200 to "jpeg", get("/cover.jpg"))
+        assertEquals(200 to "jpeg", get("/cover.jpg"))
+
+        assertEquals(1, server.requestCount)
+        assertEquals(1, stats().network)
+        assertEquals(1, stats().cacheHits)
+    }
+
+    @Test
+    fun `non-image responses keep their cache headers`() {
+        server.enqueue(MockResponse().setHeader("Content-Type", "application/json").setBody("{}"))
+        server.enqueue(MockResponse().setHeader("Content-Type", "application/json").setBody("{}"))
+
+        get("/search")
+        get("/search")
+
+        assertEquals(2, server.requestCount)
+        assertEquals(2, stats().network)
+    }
+
+    // ============ Offline ============
+
+    @Test
+    fun `offline serves stale entries from the cache`() {
+        server.enqueue(
+            MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Cache-Control", "max-age=0")
+                .setBody("stale")
+        )
+        get("/search")
+
+        online = false
+        assertEquals(200 to "stale", get("/search"))
+        assertEquals(1, server.requestCount)
+        assertEquals(1, stats().staleHits)
+    }
+
+    @Test
+    fun `offline without a cached entry answers 504`() {
+        online = false
+
+        assertEquals(504, get("/missing").first)
+        assertEquals(0, server.requestCount)
+        assertEquals(1, stats().failures)
+    }
+
+    @Test
+    fun `failing network falls back to a stale cached entry`() {
+        server.enqueue(
+            MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Cache-Control", "max-age=0")
+                .setBody("stale")
+        )
+        get("/search")
+        // OkHttp retries a dropped pooled connection once, so drop a few
+        repeat(3) { server.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START)) }
+
+        assertEquals(200 to "stale", get("/search"))
+        assertEquals(1, stats().network)
+        assertEquals(1, stats().staleHits)
+    }
+
+    @Test
+    fun `failing connectivity check counts as online`() {
+        stack = HttpStack(tmp.newFolder("throwing"), isOnline = { throw SecurityException("no ACCESS_NETWORK_STATE") })
+        server.enqueue(MockResponse().setHeader("Content-Type", "application/json").setBody("{}"))
+
+        assertEquals(200 to "{}", get("/search"))
+        assertEquals(1, server.requestCount)
+        assertEquals(1, stats().network)
+    }
+
+    @Test
+    fun `cancelled call is rethrown without fallback or counters`() {
+        server.enqueue(
+            MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Cache-Control", "max-age=0")
+                .setBody("stale")
+        )
+        get("/search")
+        server.enqueue(MockResponse().setBody("late").setHeadersDelay(5, TimeUnit.SECONDS))
+
+        val call = stack.client.newCall(Request.Builder().url(server.url("/search")).build())
+        Thread {
+            Thread.sleep(200)
+            call.cancel()
+        }.start()
+
+        assertThrows(IOException::class.java) { call.execute() }
+        assertEquals(1, stats().requests)
+        assertEquals(0, stats().staleHits)
+        assertEquals(0, stats().failures)
+    }
+
+    // ============ Network bytes ============
+
+    @Test
+    fun `chunked responses count the bytes read`() {
+        val body = "{\"data\":[" + "1,".repeat(500) + "1]}"
+        server.enqueue(MockResponse().setHeader("Content-Type", "application/json").setChunkedBody(body, 64))
+
+        assertEquals(200 to body, get("/search"))
+        assertEquals(body.length.toLong(), stats().networkBytes)
+    }
+
+    @Test
+    fun `gzip responses count the compressed bytes`() {
+        val body = "{\"data\":[" + "1,".repeat(500) + "1]}"
+        val gzipped = Buffer().apply { GzipSink(this).buffer().use { it.writeUtf8(body) } }
+        val wireSize = gzipped.size
+        server.enqueue(
+            MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "gzip")
+                .setChunkedBody(gzipped, 64)
+        )
+
+        assertEquals(200 to body, get("/search"))
+        assertEquals(wireSize, stats().networkBytes)
+    }
+
+    // ============ Shared stack ============
+
+    @Test
+    fun `derived clients share pool and cache but keep their timeouts`() {
+        val derived = stack.client(connectTimeoutSeconds = 3, readTimeoutSeconds = 7)
+
+        assertSame(stack.client.connectionPool, derived.connectionPool)
+        assertSame(stack.client.cache, derived.cache)
+        assertSame(stack.client.dispatcher, derived.dispatcher)
+        assertEquals(3_000, derived.connectTimeoutMillis)
+        assertEquals(7_000, derived.readTimeoutMillis)
+    }
+}
@@ -0,0 +1,134 @@
+package at.planqton.fytfm.data.pi
+
+import at.planqton.fytfm.data.pi.PiPsIndex.Entry
+import at.planqton.fytfm.data.pi.PiPsIndex.Source
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+
+/**
+ * Tests for [PiPsIndex]. Seeded from the real `pi_ps_seed.json` so the
+ * stations the old hardcoded `lookupPiByPs` chain knew keep resolving.
+ * Robolectric only for org.json.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class PiPsIndexTest {
+
+    private lateinit var index: PiPsIndex
+
+    @Before
+    fun setUp() {
+        val seed = JSONObject(File("src/main/assets/pi_ps_seed.json").readText())
+        index = PiPsIndex()
+        index.replaceAll(PiPsIndex.seedEntriesFromJson(seed))
+    }
+
+    @Test
+    fun `normalize folds umlauts, case and punctuation`() {
+        assertEquals("OE3", PiPsIndex.normalize("Ö3"))
+        assertEquals("RADIO WIEN", PiPsIndex.normalize("  Radio-Wien "))
+        assertEquals("88.6", PiPsIndex.normalize("88,6"))
+        assertEquals("", PiPsIndex.normalize(null))
+    }
+
+    @Test
+    fun `exact matches from the seed`() {
+        assertEquals(0xA503, index.lookup("OE3"))
+        assertEquals(0xA503, index.lookup("Ö3"))
+        assertEquals(0xA20E, index.lookup("RADIO NÖ"))
+        assertEquals(0xA386, index.lookup("88,6"))
+        assertEquals(0xD318, index.lookup("ANTENNE BAYERN"))
+    }
+
+    @Test
+    fun `spacing variants resolve through the joined token`() {
+        assertEquals(0xA503, index.lookup("OE 3"))
+        assertEquals(0xA504, index.lookup("FM 4"))
+        assertEquals(0xA0CA, index.lookup("KRONEHIT"))
+    }
+
+    @Test
+    fun `truncated ps resolves through a unique prefix`() {
+        assertEquals(0xA503, index.lookup("HITRAD"))
+    }
+
+    @Test
+    fun `specific token outweighs a shared one`() {
+        // WIEN is shared by Radio Wien and Antenne Wien, ENERGY is unique
+        assertEquals(0xA0E0, index.lookup("ENERGY WIEN"))
+    }
+
+    @Test
+    fun `ambiguous or unknown ps gives zero`() {
+        assertEquals(0, index.lookup("ANTENNE"))
+        assertEquals(0, index.lookup("RADIO"))
+        assertEquals(0, index.lookup("UNKNOWN"))
+        assertEquals(0, index.lookup(""))
+    }
+
+    @Test
+    fun `token shared by two seeded stations goes to the one seeded first`() {
+        // Radio Salzburg (A205) is listed before Antenne Salzburg (A31C), as in the old chain
+        assertEquals(0xA205, index.lookup("SALZBURG"))
+        assertEquals(0xA207, index.lookup("TIROL"))
+        // Any extra evidence still beats the tie-break: "ANT" is a prefix of the Antenne names
+        assertEquals(0xA31C, index.lookup("ANT SALZBURG"))
+    }
+
+    @Test
+    fun `tie without a seeded candidate gives zero`() {
+        val learned = PiPsIndex()
+        learned.replaceAll(listOf(
+            Entry(0xD3C1, "BAYERN 1", 2, Source.LEARNED),
+            Entry(0xD3C2, "BAYERN 3", 2, Source.LEARNED),
+        ))
+        assertEquals(0, learned.lookup("BAYERN"))
+    }
+
+    @Test
+    fun `learned pair becomes active after repeated observation`() {
+        val before = index.version
+        index.learn(0xD3C2, "BAYERN 3")
+        assertEquals(0, index.lookup("BAYERN 3"))
+        index.learn(0xD3C2, "BAYERN 3")
+        assertEquals(0xD3C2, index.lookup("BAYERN 3"))
+        assertNotEquals(before, index.version)
+    }
+
+    @Test
+    fun `conflicting evidence needs a clear winner`() {
+        index.replaceAll(listOf(
+            Entry(0xA100, "XYZ", 3, Source.LOG),
+            Entry(0xA200, "XYZ", 2, Source.LOG),
+        ))
+        assertEquals(0, index.lookup("XYZ"))
+
+        index.replaceAll(listOf(
+            Entry(0xA100, "XYZ", 5, Source.LOG),
+            Entry(0xA200, "XYZ", 2, Source.LOG),
+        ))
+        assertEquals(0xA100, index.lookup("XYZ"))
+    }
+
+    @Test
+    fun `learned pairs survive a json round trip`() {
+        var saved = 0
+        index.onLearned = { saved++ }
+        index.learn(0x6201, "NRK P1")
+        index.learn(0x6201, "NRK P1")
+        assertEquals(2, saved)
+        assertTrue(index.learnedPairs().all { it.source == Source.LEARNED })
+
+        val restored = PiPsIndex()
+        restored.replaceAll(PiPsIndex.learnedEntriesFromJson(index.learnedToJson()))
+        assertEquals(0x6201, restored.lookup("NRK P1"))
+    }
+}
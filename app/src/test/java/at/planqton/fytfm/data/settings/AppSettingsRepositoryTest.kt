@@ -183,6 +183,22 @@ class AppSettingsRepositoryTest {
         assertEquals(75, settings.getTickSoundVolume())
     }
 
+    // ============ Deezer cache budget ============
+
+    @Test
+    fun `Deezer cache budget defaults to the cache defaults`() {
+        assertEquals(at.planqton.fytfm.deezer.DeezerCache.DEFAULT_MAX_BYTES, settings.getDeezerCacheMaxBytes())
+        assertEquals(at.planqton.fytfm.deezer.DeezerCache.DEFAULT_MAX_TRACKS, settings.getDeezerCacheMaxTracks())
+    }
+
+    @Test
+    fun `Deezer cache budget setters clamp to the minimum`() {
+        settings.setDeezerCacheMaxBytes(0L)
+        settings.setDeezerCacheMaxTracks(-1)
+        assertEquals(at.planqton.fytfm.deezer.DeezerCache.MIN_MAX_BYTES, settings.getDeezerCacheMaxBytes())
+        assertEquals(at.planqton.fytfm.deezer.DeezerCache.MIN_MAX_TRACKS, settings.getDeezerCacheMaxTracks())
+    }
+
     // ============ Per-mode favourites filter ============
 
     @Test
@@ -0,0 +1,73 @@
+package at.planqton.fytfm.data.stations
+
+import at.planqton.fytfm.data.RadioStation
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [StationDiff.compute]: which saved stations count as added,
+ * vanished, renamed or re-identified after an incremental rescan.
+ */
+class StationDiffTest {
+
+    private fun fm(freq: Float, name: String? = null, pi: Int = 0) =
+        RadioStation(frequency = freq, name = name, rssi = 50, pi = pi)
+
+    private fun keys(vararg freqs: Float) = freqs.map { StationDiff.keyOf(it) }.toSet()
+
+    @Test
+    fun `station on a new frequency is added`() {
+        val diff = StationDiff.compute(emptyList(), listOf(fm(101.0f, "NEW")), keys(101.0f))
+        assertEquals(listOf(101.0f), diff.added.map { it.frequency })
+        assertFalse(diff.isEmpty)
+    }
+
+    @Test
+    fun `checked frequency without a station has vanished`() {
+        val diff = StationDiff.compute(listOf(fm(88.8f, "OLD")), emptyList(), keys(88.8f))
+        assertEquals(listOf(88.8f), diff.vanished.map { it.frequency })
+    }
+
+    @Test
+    fun `unchecked frequency never vanishes`() {
+        val diff = StationDiff.compute(listOf(fm(88.8f, "OLD")), emptyList(), keys(95.5f))
+        assertTrue(diff.vanished.isEmpty())
+        assertTrue(diff.isEmpty)
+    }
+
+    @Test
+    fun `PS and PI changes are reported separately`() {
+        val existing = listOf(fm(88.8f, "A", pi = 0x1111), fm(95.5f, "B", pi = 0x2222))
+        val found = listOf(fm(88.8f, "A2", pi = 0x1111), fm(95.5f, "B", pi = 0x3333))
+
+        val diff = StationDiff.compute(existing, found, keys(88.8f, 95.5f))
+
+        assertEquals(listOf(88.8f), diff.psChanged.map { it.after.frequency })
+        assertEquals("A", diff.psChanged.single().before.name)
+        assertEquals(listOf(95.5f), diff.piChanged.map { it.after.frequency })
+        assertTrue(diff.unchanged.isEmpty())
+    }
+
+    @Test
+    fun `undecoded PS or PI is not a change`() {
+        val existing = listOf(fm(88.8f, "A", pi = 0x1111))
+        val diff = StationDiff.compute(existing, listOf(fm(88.8f, name = null, pi = 0)), keys(88.8f))
+        assertTrue(diff.isEmpty)
+        assertEquals(existing, diff.unchanged)
+    }
+
+    @Test
+    fun `padded PS compares equal`() {
+        val diff = StationDiff.compute(listOf(fm(88.8f, "OE3")), listOf(fm(88.8f, "OE3     ")), keys(88.8f))
+        assertTrue(diff.psChanged.isEmpty())
+    }
+
+    @Test
+    fun `frequencies match despite float noise`() {
+        val diff = StationDiff.compute(listOf(fm(99.9f, "X")), listOf(fm(99.90001f, "X")), keys(99.9f))
+        assertTrue(diff.added.isEmpty())
+        assertEquals(1, diff.unchanged.size)
+    }
+}
@@ -204,6 +204,83 @@ class StationRepositoryTest {
         assertEquals(listOf(88.8f, 95.5f, 108.0f), merged.map { it.frequency })
     }
 
+    // ========== FM incremental rescan diff ==========
+
+    private fun diff(
+        existing: List<RadioStation>,
+        found: List<RadioStation>,
+        checked: List<Float>,
+    ) = StationDiff.compute(existing, found, checked.map { StationDiff.keyOf(it) }.toSet())
+
+    @Test
+    fun `applyFmDiff keeps stations the rescan did not check`() {
+        val existing = listOf(fm(88.8f, "Checked"), fm(99.5f, "Unchecked"))
+        repo.saveFmStations(existing)
+
+        val (merged, _) = repo.applyFmDiff(diff(existing, emptyList(), checked = listOf(88.8f)))
+
+        assertEquals(listOf(99.5f), merged.map { it.frequency })
+    }
+
+    @Test
+    fun `applyFmDiff adds new stations and keeps vanished favorites`() {
+        val existing = listOf(fm(88.8f, "Fav", isFavorite = true), fm(95.5f, "Gone"))
+        repo.saveFmStations(existing)
+
+        val (merged, overwritten) = repo.applyFmDiff(
+            diff(existing, listOf(fm(101.0f, "New")), checked = listOf(88.8f, 95.5f, 101.0f)),
+        )
+
+        assertEquals(listOf(88.8f, 101.0f), merged.map { it.frequency })
+        assertTrue(merged.first { it.frequency == 88.8f }.isFavorite)
+        assertTrue(overwritten.isEmpty())
+        assertEquals(merged, repo.loadFmStations())
+    }
+
+    @Test
+    fun `applyFmDiff updates PS and PI of non-favorites but keeps their logo`() {
+        val existing = listOf(fm(88.8f, "Old").copy(pi = 0x1111, logoPath = "/logo.png"))
+        repo.saveFmStations(existing)
+
+        val (merged, _) = repo.applyFmDiff(
+            diff(existing, listOf(fm(88.8f, "New").copy(pi = 0x2222)), checked = listOf(88.8f)),
+        )
+
+        val result = merged.single()
+        assertEquals("New", result.name)
+        assertEquals(0x2222, result.pi)
+        assertEquals("/logo.png", result.logoPath)
+    }
+
+    @Test
+    fun `applyFmDiff leaves favorite alone without overwriteFavorites`() {
+        overwriteFavorites = false
+        val existing = listOf(fm(88.8f, "Fav", isFavorite = true))
+        repo.saveFmStations(existing)
+
+        val (merged, overwritten) = repo.applyFmDiff(
+            diff(existing, listOf(fm(88.8f, "Other")), checked = listOf(88.8f)),
+        )
+
+        assertEquals("Fav", merged.single().name)
+        assertTrue(overwritten.isEmpty())
+    }
+
+    @Test
+    fun `applyFmDiff with overwriteFavorites reports the replaced favorite once`() {
+        overwriteFavorites = true
+        val existing = listOf(fm(88.8f, "Fav", isFavorite = true).copy(pi = 0x1111))
+        repo.saveFmStations(existing)
+
+        val (merged, overwritten) = repo.applyFmDiff(
+            diff(existing, listOf(fm(88.8f, "Other").copy(pi = 0x2222)), checked = listOf(88.8f)),
+        )
+
+        assertEquals("Other", merged.single().name)
+        assertFalse(merged.single().isFavorite)
+        assertEquals(listOf("Fav"), overwritten.map { it.name })
+    }
+
     // ========== DAB merge ==========
 
     @Test
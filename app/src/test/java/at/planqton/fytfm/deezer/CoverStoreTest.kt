@@ -0,0 +1,63 @@
+package at.planqton.fytfm.deezer
+
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+/**
+ * Tests for the pure parts of [CoverStore]: how consumers resolve a cover
+ * size and how far the single decode subsamples. Download and scaling need
+ * BitmapFactory and stay out of the JVM tests.
+ */
+class CoverStoreTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private fun coverDir(): File = tmp.newFolder(CoverStore.DIR_NAME)
+
+    // ============ pathFor ============
+
+    @Test
+    fun `pathFor returns the variant when it exists`() {
+        val dir = coverDir()
+        val original = File(dir, "abc.jpg").apply { writeText("x") }
+        val variant = File(dir, "abc_300.jpg").apply { writeText("x") }
+
+        assertEquals(variant.path, CoverStore.pathFor(original.path, CoverSize.ARTWORK))
+    }
+
+    @Test
+    fun `pathFor falls back to the original without a variant`() {
+        val original = File(coverDir(), "abc.jpg").apply { writeText("x") }
+
+        assertEquals(original.path, CoverStore.pathFor(original.path, CoverSize.NOW_PLAYING))
+    }
+
+    @Test
+    fun `pathFor leaves paths outside the cover directory alone`() {
+        val logos = tmp.newFolder("radio_logos")
+        val logo = File(logos, "oe3.png").apply { writeText("x") }
+        File(logos, "oe3_200.jpg").writeText("x")
+
+        assertEquals(logo.path, CoverStore.pathFor(logo.path, CoverSize.CAROUSEL))
+        assertEquals("https://cdn/x.jpg", CoverStore.pathFor("https://cdn/x.jpg", CoverSize.CAROUSEL))
+    }
+
+    // ============ sampleSizeFor ============
+
+    @Test
+    fun `sampleSizeFor keeps both sides at least the target`() {
+        assertEquals(1, CoverStore.sampleSizeFor(1000, 1000, 600))
+        assertEquals(2, CoverStore.sampleSizeFor(1000, 1000, 300))
+        assertEquals(4, CoverStore.sampleSizeFor(1000, 1000, 200))
+        assertEquals(1, CoverStore.sampleSizeFor(1000, 250, 200))
+    }
+
+    @Test
+    fun `sampleSizeFor never subsamples small images`() {
+        assertEquals(1, CoverStore.sampleSizeFor(120, 120, 200))
+    }
+}
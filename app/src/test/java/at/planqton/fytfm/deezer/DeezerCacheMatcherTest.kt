@@ -0,0 +1,84 @@
+package at.planqton.fytfm.deezer
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [DeezerCacheMatcher] — the normalisation and STRICT match rules
+ * behind the local cache lookup. The SQLite round-trip stays covered by
+ * DeezerCacheTest; this file pins the pure slice the benchmarks measure.
+ */
+class DeezerCacheMatcherTest {
+
+    // ============ normalize ============
+
+    @Test
+    fun `normalize lowercases and drops punctuation`() {
+        // Whitespace is collapsed before punctuation goes, so " - " leaves two spaces
+        assertEquals("acdc  thunderstruck", DeezerCacheMatcher.normalize("AC/DC - Thunderstruck!"))
+    }
+
+    @Test
+    fun `normalize keeps umlauts and sharp s`() {
+        assertEquals("die ärzte schrei nach liebe", DeezerCacheMatcher.normalize("Die Ärzte: Schrei nach Liebe"))
+        assertEquals("straße", DeezerCacheMatcher.normalize("  Straße  "))
+    }
+
+    @Test
+    fun `normalize collapses whitespace`() {
+        assertEquals("a b", DeezerCacheMatcher.normalize("a \t  b"))
+    }
+
+    // ============ matchesQuery ============
+
+    @Test
+    fun `query match needs both artist and title`() {
+        val query = DeezerCacheMatcher.normalize("Jetzt: Beatles - Yesterday auf Ö3")
+        assertTrue(DeezerCacheMatcher.matchesQuery(query, "Beatles", "Yesterday"))
+        assertFalse(DeezerCacheMatcher.matchesQuery(query, "Beatles", "Let It Be"))
+        assertFalse(DeezerCacheMatcher.matchesQuery(query, "Oasis", "Yesterday"))
+    }
+
+    @Test
+    fun `query match rejects rows with one-character fields`() {
+        val query = DeezerCacheMatcher.normalize("x - anything")
+        assertFalse(DeezerCacheMatcher.matchesQuery(query, "X", "anything"))
+        assertFalse(DeezerCacheMatcher.matchesQuery(query, "", "anything"))
+    }
+
+    // ============ matchesParts ============
+
+    @Test
+    fun `parts match in either direction`() {
+        assertTrue(DeezerCacheMatcher.matchesParts("beatles", "yesterday", "The Beatles", "Yesterday (Remastered)"))
+        assertTrue(DeezerCacheMatcher.matchesParts("the beatles", "yesterday remastered", "Beatles", "Yesterday"))
+    }
+
+    @Test
+    fun `parts match fails when either side differs`() {
+        assertFalse(DeezerCacheMatcher.matchesParts("beatles", "help", "The Beatles", "Yesterday"))
+        assertFalse(DeezerCacheMatcher.matchesParts("oasis", "yesterday", "The Beatles", "Yesterday"))
+    }
+
+    // ============ full-text query ============
+
+    @Test
+    fun `tokens are the distinct words in order`() {
+        assertEquals(listOf("ga", "radio"), DeezerCacheMatcher.tokens("ga  radio ga"))
+        assertEquals(emptyList<String>(), DeezerCacheMatcher.tokens(""))
+    }
+
+    @Test
+    fun `tokens are capped for long texts`() {
+        val long = (1..100).joinToString(" ") { "w$it" }
+        assertEquals(DeezerCacheMatcher.MAX_QUERY_TOKENS, DeezerCacheMatcher.tokens(long).size)
+    }
+
+    @Test
+    fun `ftsMatch ORs column-filtered terms`() {
+        assertEquals("artist:queen OR artist:radio", DeezerCacheMatcher.ftsMatch("artist", listOf("queen", "radio")))
+        assertEquals("title:karma* OR title:police*", DeezerCacheMatcher.ftsMatch("title", listOf("karma", "police"), prefix = true))
+    }
+}
@@ -1,6 +1,7 @@
 package at.planqton.fytfm.deezer
 
 import android.content.Context
+import android.database.sqlite.SQLiteDatabase
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
 import org.junit.After
@@ -132,6 +133,232 @@ class DeezerCacheTest {
         assertNull(cache.searchLocalByParts("Radiohead", null))
     }
 
+    @Test
+    fun `searchLocal returns the most popular strict match`() = runTest {
+        cache.cacheTrack(makeTrack("Queen", "Under Pressure", trackId = "q-low", popularity = 10))
+        cache.cacheTrack(makeTrack("Queen", "Under Pressure", trackId = "q-high", popularity = 900))
+
+        assertEquals("q-high", cache.searchLocal("QUEEN - UNDER PRESSURE")?.trackId)
+    }
+
+    @Test
+    fun `searchLocal ignores rows that share only some words with the query`() = runTest {
+        cache.cacheTrack(makeTrack("Queen", "Under Pressure", trackId = "1"))
+        cache.cacheTrack(makeTrack("Queen", "Radio Ga Ga", trackId = "2"))
+
+        // "queen" and "radio" are both in the query, but "ga ga" is not
+        assertNull(cache.searchLocal("Queen - Radio Days"))
+    }
+
+    @Test
+    fun `re-caching a track moves its index entry`() = runTest {
+        cache.cacheTrack(makeTrack("Radiohead", "Creep", trackId = "1"))
+        cache.cacheTrack(makeTrack("Radiohead", "No Surprises", trackId = "1"))
+
+        assertNull(cache.searchLocal("Radiohead - Creep"))
+        assertEquals("No Surprises", cache.searchLocal("Radiohead - No Surprises")?.title)
+    }
+
+    @Test
+    fun `searchLocalByParts finds a longer cached name from a prefix`() = runTest {
+        cache.cacheTrack(makeTrack("Radiohead", "Karma Police", trackId = "1"))
+
+        assertNotNull(cache.searchLocalByParts("Radio", "Karma Police"))
+    }
+
+    @Test
+    fun `clearCache also empties the search index`() = runTest {
+        cache.cacheTrack(makeTrack("Radiohead", "Creep", trackId = "1"))
+        cache.clearCache()
+
+        assertNull(cache.searchLocal("Radiohead - Creep"))
+    }
+
+    @Test
+    fun `searchLocal answers from the text index once it is loaded`() = runTest {
+        cache.cacheTrack(makeTrack("Queen", "Under Pressure", trackId = "q-low", popularity = 10))
+        cache.loadTextIndex()
+        // Cached after the fill: must reach the index through cacheTrack
+        cache.cacheTrack(makeTrack("Queen", "Under Pressure", trackId = "q-high", popularity = 900))
+        cache.cacheTrack(makeTrack("Falco", "Jeanny", trackId = "f-1"))
+
+        assertEquals("q-high", cache.searchLocal("Jetzt: QUEEN - UNDER PRESSURE")?.trackId)
+        assertEquals("f-1", cache.searchLocal("Falco - Jeanny")?.trackId)
+        assertNull(cache.searchLocal("Queen - Radio Days"))
+    }
+
+    @Test
+    fun `clearCache drops the loaded text index`() = runTest {
+        cache.cacheTrack(makeTrack("Radiohead", "Creep", trackId = "1"))
+        cache.loadTextIndex()
+        cache.clearCache()
+
+        assertNull(cache.searchLocal("Radiohead - Creep"))
+    }
+
+    // ========== budget / LRU eviction ==========
+
+    private fun coverFile(name: String, bytes: Int): File =
+        File(File(context.filesDir, "deezer_covers").apply { mkdirs() }, name).apply { writeBytes(ByteArray(bytes)) }
+
+    @Test
+    fun `getCacheStats counts rows and cover bytes incrementally`() = runTest {
+        val cover = coverFile("a.jpg", 10_000)
+        cache.cacheTrack(makeTrack("Falco", "Jeanny", trackId = "1").copy(coverUrl = cover.absolutePath))
+        cache.cacheTrack(makeTrack("Wanda", "Bologna", trackId = "2"))
+        val (count, bytes) = cache.getCacheStats()
+        assertEquals(2, count)
+
+        // Re-caching replaces the row without counting it twice
+        cache.cacheTrack(makeTrack("Wanda", "Bologna", trackId = "2"))
+        assertEquals(count to bytes, cache.getCacheStats())
+        assertTrue(bytes > 10_000)
+
+        cache.clearCache()
+        assertEquals(0 to 0L, cache.getCacheStats())
+    }
+
+    @Test
+    fun `shared cover is counted once and leaves with its last track`() = runTest {
+        cache.cacheTrack(makeTrack("Opus", "Live is Life", trackId = "0"))
+        val row = cache.getCacheStats().second
+        val cover = coverFile("shared.jpg", 10_000)
+
+        cache.cacheTrack(makeTrack("Falco", "Jeanny", trackId = "1").copy(coverUrl = cover.absolutePath))
+        cache.cacheTrack(makeTrack("Falco", "Vienna Calling", trackId = "2").copy(coverUrl = cover.absolutePath))
+        assertEquals(3 to 3 * row + 10_000, cache.getCacheStats())
+
+        // Re-caching without the cover drops one reference, the other keeps it counted
+        cache.cacheTrack(makeTrack("Falco", "Jeanny", trackId = "1"))
+        assertEquals(3 to 3 * row + 10_000, cache.getCacheStats())
+
+        cache.cacheTrack(makeTrack("Falco", "Vienna Calling", trackId = "2"))
+        assertEquals(3 to 3 * row, cache.getCacheStats())
+    }
+
+    @Test
+    fun `track budget evicts the least recently hit tracks`() = runTest {
+        cache.setBudget(DeezerCache.DEFAULT_MAX_BYTES, DeezerCache.MIN_MAX_TRACKS)
+        for (i in 0 until DeezerCache.MIN_MAX_TRACKS) {
+            cache.cacheTrack(makeTrack("Artist$i", "Title$i", trackId = "t$i"))
+        }
+        // Age all rows, then hit t0 so it is the most recently used
+        cache.writableDatabase.execSQL("UPDATE tracks SET last_hit_at = rowid")
+        assertNotNull(cache.searchLocal("Artist0 - Title0"))
+
+        cache.cacheTrack(makeTrack("Artist50", "Title50", trackId = "t50"))
+
+        val remaining = cache.getAllCachedTracks().map { it.trackId }.toSet()
+        assertEquals(45, remaining.size)
+        assertEquals(45, cache.getCacheStats().first)
+        assertTrue("hit track survives", "t0" in remaining)
+        assertTrue("new track survives", "t50" in remaining)
+        assertFalse("oldest track is evicted", "t1" in remaining)
+        assertNull(cache.searchLocal("Artist1 - Title1"))
+    }
+
+    @Test
+    fun `byte budget evicts tracks and deletes their covers`() = runTest {
+        cache.setBudget(DeezerCache.MIN_MAX_BYTES, DeezerCache.DEFAULT_MAX_TRACKS)
+        val covers = (0 until 3).map { coverFile("c$it.jpg", 400_000) }
+        covers.forEachIndexed { i, cover ->
+            cache.cacheTrack(makeTrack("Artist$i", "Title$i", trackId = "c$i").copy(coverUrl = cover.absolutePath))
+            cache.writableDatabase.execSQL("UPDATE tracks SET last_hit_at = rowid")
+        }
+
+        assertTrue(cache.getCacheStats().second <= DeezerCache.MIN_MAX_BYTES)
+        assertEquals(listOf("c1", "c2"), cache.getAllCachedTracks().mapNotNull { it.trackId }.sorted())
+        assertFalse("evicted cover is deleted", covers[0].exists())
+        assertTrue(covers[2].exists())
+    }
+
+    @Test
+    fun `byte budget charges a shared cover once`() = runTest {
+        cache.setBudget(DeezerCache.MIN_MAX_BYTES, DeezerCache.DEFAULT_MAX_TRACKS)
+        val shared = coverFile("shared.jpg", 400_000)
+        val own = coverFile("own.jpg", 400_000)
+        cache.cacheTrack(makeTrack("Artist0", "Title0", trackId = "s0").copy(coverUrl = shared.absolutePath))
+        cache.cacheTrack(makeTrack("Artist1", "Title1", trackId = "s1").copy(coverUrl = shared.absolutePath))
+        cache.cacheTrack(makeTrack("Artist2", "Title2", trackId = "o2").copy(coverUrl = own.absolutePath))
+
+        // 800 KB of covers: within budget, though three rows reference 1.2 MB
+        assertEquals(listOf("o2", "s0", "s1"), cache.getAllCachedTracks().mapNotNull { it.trackId }.sorted())
+        assertTrue(shared.exists())
+    }
+
+    // ========== schema upgrade ==========
+
+    @Test
+    fun `v1 database is upgraded in place and its tracks become searchable`() {
+        cache.close()
+        val dbFile = context.getDatabasePath("deezer_cache.db")
+        dbFile.delete()
+        dbFile.parentFile?.mkdirs()
+        SQLiteDatabase.openOrCreateDatabase(dbFile, null).use { db ->
+            // v1 schema, trimmed to the NOT NULL columns
+            db.execSQL("""
+                CREATE TABLE tracks (
+                    track_id TEXT PRIMARY KEY, artist TEXT NOT NULL, title TEXT NOT NULL,
+                    all_artists TEXT, all_artist_ids TEXT, album TEXT, album_id TEXT, album_url TEXT,
+                    album_type TEXT, total_tracks INTEGER DEFAULT 0, duration_ms INTEGER DEFAULT 0,
+                    popularity INTEGER DEFAULT 0, explicit INTEGER DEFAULT 0, preview_url TEXT,
+                    track_number INTEGER DEFAULT 0, disc_number INTEGER DEFAULT 0, isrc TEXT,
+                    release_date TEXT, cover_url TEXT, cover_url_small TEXT, cover_url_medium TEXT,
+                    deezer_url TEXT, local_cover_path TEXT, cached_at INTEGER NOT NULL
+                )
+            """)
+            db.execSQL("INSERT INTO tracks(track_id, artist, title, album, cached_at) VALUES ('v1-1', 'Falco', 'Jeanny', 'Falco 3', 1)")
+            db.execSQL("INSERT INTO tracks(track_id, artist, title, cached_at) VALUES ('v1-2', 'Wanda', 'Bologna', 2)")
+            db.version = 1
+        }
+
+        cache = DeezerCache(context)
+
+        assertEquals(setOf("v1-1", "v1-2"), cache.getAllCachedTracks().map { it.trackId }.toSet())
+        val hit = cache.searchLocal("Falco - Jeanny")
+        assertEquals("v1-1", hit?.trackId)
+        assertEquals("Falco 3", hit?.album)
+        assertNotNull(cache.searchLocalByParts("Wanda", "Bologna"))
+        assertEquals("v1 rows are counted by the stats table", 2, cache.getCacheStats().first)
+    }
+
+    @Test
+    fun `upgrade counts a cover shared by old rows once`() = runTest {
+        cache.close()
+        val dbFile = context.getDatabasePath("deezer_cache.db")
+        dbFile.delete()
+        dbFile.parentFile?.mkdirs()
+        val cover = coverFile("old.jpg", 10_000)
+        SQLiteDatabase.openOrCreateDatabase(dbFile, null).use { db ->
+            db.execSQL("""
+                CREATE TABLE tracks (
+                    track_id TEXT PRIMARY KEY, artist TEXT NOT NULL, title TEXT NOT NULL,
+                    all_artists TEXT, all_artist_ids TEXT, album TEXT, album_id TEXT, album_url TEXT,
+                    album_type TEXT, total_tracks INTEGER DEFAULT 0, duration_ms INTEGER DEFAULT 0,
+                    popularity INTEGER DEFAULT 0, explicit INTEGER DEFAULT 0, preview_url TEXT,
+                    track_number INTEGER DEFAULT 0, disc_number INTEGER DEFAULT 0, isrc TEXT,
+                    release_date TEXT, cover_url TEXT, cover_url_small TEXT, cover_url_medium TEXT,
+                    deezer_url TEXT, local_cover_path TEXT, cached_at INTEGER NOT NULL
+                )
+            """)
+            for (id in listOf("v1-1", "v1-2")) {
+                db.execSQL(
+                    "INSERT INTO tracks(track_id, artist, title, local_cover_path, cached_at) VALUES (?, 'Falco', ?, ?, 1)",
+                    arrayOf<Any>(id, id, cover.absolutePath)
+                )
+            }
+            db.version = 1
+        }
+
+        cache = DeezerCache(context)
+        val (count, bytes) = cache.getCacheStats()
+        cache.cacheTrack(makeTrack("Wanda", "Bologna", trackId = "new"))
+        val row = cache.getCacheStats().second - bytes
+
+        assertEquals(2, count)
+        assertEquals(2 * row + 10_000, bytes)
+    }
+
     // ========== export / import ==========
 
     @Test
@@ -0,0 +1,161 @@
+package at.planqton.fytfm.deezer
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Tests for [DeezerLookupCache] — the single-flight and TTL rules in front
+ * of DeezerClient's search steps. A fake clock drives expiry.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class DeezerLookupCacheTest {
+
+    private var now = 0L
+
+    private fun cache(maxEntries: Int = 16) =
+        DeezerLookupCache<String>(maxEntries = maxEntries, hitTtlMs = 1_000, missTtlMs = 100, clock = { now })
+
+    // ============ key ============
+
+    @Test
+    fun `key ignores case and whitespace but keeps punctuation`() {
+        assertEquals(
+            DeezerLookupCache.key("simple", "Queen  -  Radio Ga Ga"),
+            DeezerLookupCache.key("simple", " queen - radio ga ga ")
+        )
+        assertEquals("exact|artist:\"queen\"", DeezerLookupCache.key("exact", "artist:\"Queen\""))
+    }
+
+    @Test
+    fun `key separates strategies`() {
+        assertNotEquals(DeezerLookupCache.key("simple", "x"), DeezerLookupCache.key("cleaned", "x"))
+    }
+
+    // ============ TTL ============
+
+    @Test
+    fun `hit is served from cache until it expires`() = runTest {
+        val cache = cache()
+        var loads = 0
+        val load: suspend () -> Lookup<String> = { loads++; Lookup.Found("track") }
+
+        assertEquals("track", cache.getOrLoad("k", load))
+        now = 999
+        assertEquals("track", cache.getOrLoad("k", load))
+        assertEquals(1, loads)
+
+        now = 1_000
+        cache.getOrLoad("k", load)
+        assertEquals(2, loads)
+    }
+
+    @Test
+    fun `miss is cached for the shorter miss TTL`() = runTest {
+        val cache = cache()
+        var loads = 0
+        val load: suspend () -> Lookup<String> = { loads++; Lookup.NotFound }
+
+        assertNull(cache.getOrLoad("k", load))
+        now = 50
+        assertNull(cache.getOrLoad("k", load))
+        assertEquals(1, loads)
+
+        now = 100
+        cache.getOrLoad("k", load)
+        assertEquals(2, loads)
+    }
+
+    @Test
+    fun `failed lookups are not cached`() = runTest {
+        val cache = cache()
+        var loads = 0
+        val load: suspend () -> Lookup<String> = { loads++; Lookup.Failed }
+
+        assertNull(cache.getOrLoad("k", load))
+        assertNull(cache.getOrLoad("k", load))
+        assertEquals(2, loads)
+    }
+
+    @Test
+    fun `cache is bounded and drops the least recently used key`() = runTest {
+        val cache = cache(maxEntries = 2)
+        var loads = 0
+        val load: suspend () -> Lookup<String> = { loads++; Lookup.Found("v") }
+
+        cache.getOrLoad("a", load)
+        cache.getOrLoad("b", load)
+        cache.getOrLoad("a", load) // a is now more recent than b
+        cache.getOrLoad("c", load) // drops b
+        assertEquals(3, loads)
+
+        cache.getOrLoad("a", load)
+        assertEquals(3, loads)
+        cache.getOrLoad("b", load)
+        assertEquals(4, loads)
+        assertEquals(2, cache.stats().size)
+    }
+
+    // ============ single-flight ============
+
+    @Test
+    fun `concurrent identical lookups share one load`() = runTest {
+        val cache = cache()
+        val gate = CompletableDeferred<Unit>()
+        var loads = 0
+        val load: suspend () -> Lookup<String> = {
+            loads++
+            gate.await()
+            Lookup.Found("track")
+        }
+
+        val first = async { cache.getOrLoad("k", load) }
+        val second = async { cache.getOrLoad("k", load) }
+        runCurrent()
+        gate.complete(Unit)
+
+        assertEquals("track", first.await())
+        assertEquals("track", second.await())
+        assertEquals(1, loads)
+        assertEquals(1L, cache.stats().coalesced)
+    }
+
+    @Test
+    fun `waiter loads itself when the owner is cancelled`() = runTest {
+        val cache = cache()
+        val gate = CompletableDeferred<Unit>()
+        var loads = 0
+
+        val owner = async { cache.getOrLoad("k") { loads++; gate.await(); Lookup.Found("owner") } }
+        runCurrent()
+        val waiter = async { cache.getOrLoad("k") { loads++; Lookup.Found("waiter") } }
+        runCurrent()
+        owner.cancel()
+
+        assertEquals("waiter", waiter.await())
+        assertEquals(2, loads)
+    }
+
+    // ============ counters ============
+
+    @Test
+    fun `stats count hits, negative hits and misses`() = runTest {
+        val cache = cache()
+        cache.getOrLoad("hit") { Lookup.Found("v") }
+        cache.getOrLoad("hit") { Lookup.Found("v") }
+        cache.getOrLoad("miss") { Lookup.NotFound }
+        cache.getOrLoad("miss") { Lookup.NotFound }
+
+        val stats = cache.stats()
+        assertEquals(2L, stats.hits)
+        assertEquals(1L, stats.negativeHits)
+        assertEquals(2L, stats.misses)
+        assertEquals(0L, stats.coalesced)
+    }
+}
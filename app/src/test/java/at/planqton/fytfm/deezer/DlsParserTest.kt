@@ -3,7 +3,9 @@ package at.planqton.fytfm.deezer
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNotSame
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
 import org.junit.Assert.assertTrue
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -231,4 +233,123 @@ class DlsParserTest {
         assertFalse(r.success)
         assertEquals("nonsense", r.original)
     }
+
+    // ========== fill, gap and trailing-separator cleanup ==========
+    // The hand-written scanners replaced a regex chain. Each row pins the
+    // output and checks it against the former pattern, so both stay in step.
+
+    private val legacyTrailingFill = Regex("""[\s.*…]+$""")
+    private val legacyLeadingFill = Regex("""^[\s.*…]+""")
+    private val legacyWhitespace = Regex("""\s{2,}""")
+    private val legacyDashRun = Regex("""(\s*[-–—|/]\s*){2,}""")
+
+    private val fillCases = listOf(
+        // input to (trailing stripped, leading stripped)
+        "Foo - Bar * .." to ("Foo - Bar" to "Foo - Bar * .."),
+        "Foo - Bar…" to ("Foo - Bar" to "Foo - Bar…"),
+        "Foo - Bar . * … " to ("Foo - Bar" to "Foo - Bar . * … "),
+        "Foo - Bar ..\n" to ("Foo - Bar" to "Foo - Bar ..\n"),
+        "... Foo - Bar" to ("... Foo - Bar" to "Foo - Bar"),
+        "…Foo - Bar…" to ("…Foo - Bar" to "Foo - Bar…"),
+        "Foo.*.Bar" to ("Foo.*.Bar" to "Foo.*.Bar"),
+        "*** ..." to ("" to ""),
+        "" to ("" to ""),
+        // `$` matches before a final terminator outside `\s`, which stays
+        "Foo - Bar ..\u2028" to ("Foo - Bar\u2028" to "Foo - Bar ..\u2028"),
+        "Foo - Bar… \u0085" to ("Foo - Bar\u0085" to "Foo - Bar… \u0085"),
+        "Foo - Bar\u2028.." to ("Foo - Bar\u2028" to "Foo - Bar\u2028.."),
+    )
+
+    private val gapCases = listOf(
+        "Foo  -  Bar" to "Foo - Bar",
+        "Foo -- Bar" to "Foo - Bar",
+        "Foo --Bar" to "Foo - Bar",
+        "Foo - | - Bar" to "Foo - Bar",
+        "Foo -\t- Bar" to "Foo - Bar",
+        "Foo // Bar" to "Foo - Bar",
+        "Foo–—Bar" to "Foo - Bar",
+        "Foo -  - Bar | Baz" to "Foo - Bar | Baz",
+        "Foo\t\tBar" to "Foo Bar",
+        "Foo \t Bar" to "Foo Bar",
+        "Foo - Bar  " to "Foo - Bar ",
+        "Foo / Bar" to "Foo / Bar",
+        "A-B" to "A-B",
+        "AC/DC - Thunderstruck" to "AC/DC - Thunderstruck",
+        "Foo - Bar | |" to "Foo - Bar - ",
+    )
+
+    private val trailingSeparatorCases = listOf(
+        // input to (artist, title)
+        "Foo - Bar -" to ("Foo" to "Bar"),
+        "Foo - Bar - ..." to ("Foo" to "Bar"),
+        "Foo - Bar | |" to ("Foo" to "Bar"),
+        "Foo - Bar //" to ("Foo" to "Bar"),
+        "- Foo - Bar -" to ("Foo" to "Bar"),
+        "*** Foo - Bar ***" to ("Foo" to "Bar"),
+        "Foo\t\t-\t\tBar" to ("Foo" to "Bar"),
+        "Foo -- Bar" to ("Foo" to "Bar"),
+        "Foo / Bar" to ("Foo" to "Bar"),
+        "AC/DC - Thunderstruck" to ("AC/DC" to "Thunderstruck"),
+    )
+
+    @Test
+    fun `fill stripping matches the pinned table and the former patterns`() {
+        for ((input, expected) in fillCases) {
+            val (trailing, leading) = expected
+            assertEquals("trailing '$input'", trailing, DlsParser.stripTrailingFill(input))
+            assertEquals("trailing legacy '$input'", legacyTrailingFill.replace(input, ""), trailing)
+            assertEquals("leading '$input'", leading, DlsParser.stripLeadingFill(input))
+            assertEquals("leading legacy '$input'", legacyLeadingFill.replace(input, ""), leading)
+        }
+    }
+
+    @Test
+    fun `gap collapsing matches the pinned table and the former patterns`() {
+        for ((input, expected) in gapCases) {
+            assertEquals("'$input'", expected, DlsParser.collapseGaps(input))
+            val legacy = legacyDashRun.replace(legacyWhitespace.replace(input, " "), " - ")
+            assertEquals("legacy '$input'", legacy, expected)
+        }
+    }
+
+    @Test
+    fun `trailing separators and padding do not leak into artist or title`() {
+        for ((input, expected) in trailingSeparatorCases) {
+            val r = DlsParser.parseUncached(input, null)
+            assertTrue("'$input'", r.success)
+            assertEquals("artist '$input'", expected.first, r.artist)
+            assertEquals("title '$input'", expected.second, r.title)
+        }
+    }
+
+    // ========== per-station memo ==========
+
+    @Test
+    fun `repeated text for the same station returns the memoized result`() {
+        val first = DlsParser.parse("Wolfmother - Woman", "Radio 88.6")
+        assertSame(first, DlsParser.parse("Wolfmother - Woman", "Radio 88.6"))
+    }
+
+    @Test
+    fun `memo is kept per station`() {
+        // Known station name filters the first part; without it the split succeeds
+        assertTrue(DlsParser.parse("Sunshine - Foo").success)
+        assertFalse(DlsParser.parse("Sunshine - Foo", "Sunshine").success)
+        assertTrue(DlsParser.parse("Sunshine - Foo").success)
+    }
+
+    @Test
+    fun `memoized result equals an uncached parse`() {
+        val input = "ONAIR: WOLFMOTHER - Woman - Radio 88.6 - So rockt das Leben."
+        assertEquals(DlsParser.parseUncached(input, null), DlsParser.parse(input))
+    }
+
+    @Test
+    fun `clearCache drops memoized results`() {
+        val first = DlsParser.parse("Foo - Memo")
+        DlsParser.clearCache()
+        val second = DlsParser.parse("Foo - Memo")
+        assertNotSame(first, second)
+        assertEquals(first, second)
+    }
 }
@@ -39,6 +39,7 @@ class ParserLoggerTest {
         context.getSharedPreferences("parser_logger", Context.MODE_PRIVATE)
             .edit { clear() }
         resetSingleton()
+        ParserLogger.clearStrategyStats()
         ParserLogger.init(context)
     }
 
@@ -323,6 +324,42 @@ class ParserLoggerTest {
         assertNull(ParserLogger.ParserLogEntry.fromJson(json))
     }
 
+    // ============ Strategy stats ============
+
+    @Test
+    fun `logStrategy aggregates runs, wins and latency per label`() {
+        ParserLogger.logStrategy("original", 100, StrategyOutcome.WON)
+        ParserLogger.logStrategy("original", 300, StrategyOutcome.MISSED)
+        ParserLogger.logStrategy("cleaned", 200, StrategyOutcome.LOST)
+        ParserLogger.logStrategy("cleaned", 50, StrategyOutcome.CANCELLED)
+
+        val stats = ParserLogger.getStrategyStats()
+        assertEquals(listOf("original", "cleaned"), stats.map { it.label })
+        assertEquals(2, stats[0].runs)
+        assertEquals(1, stats[0].wins)
+        assertEquals(50, stats[0].winRate)
+        assertEquals(200L, stats[0].avgLatencyMs)
+        // Cancelled steps are counted separately and kept out of the latency
+        assertEquals(1, stats[1].runs)
+        assertEquals(1, stats[1].cancelled)
+        assertEquals(200L, stats[1].avgLatencyMs)
+    }
+
+    @Test
+    fun `strategy listener fires and export includes the strategy section`() {
+        var calls = 0
+        val listener = { calls++; Unit }
+        ParserLogger.addStrategyListener(listener)
+        ParserLogger.logStrategy("swapped", 120, StrategyOutcome.WON)
+        ParserLogger.removeStrategyListener(listener)
+        ParserLogger.logStrategy("swapped", 120, StrategyOutcome.WON)
+
+        assertEquals(1, calls)
+        val out = ParserLogger.export()
+        assertTrue(out.contains("Deezer Search Strategies"))
+        assertTrue(out.contains("swapped: 2/2 won (100%), avg 120ms, 0 cancelled"))
+    }
+
     // ============ Export ============
 
     @Test
@@ -2,6 +2,12 @@ package at.planqton.fytfm.deezer
 
 import at.planqton.fytfm.data.rdslog.RtCorrectionDao
 import io.mockk.*
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.test.runTest
 import org.junit.After
 import org.junit.Assert.*
@@ -10,6 +16,7 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.annotation.Config
+import java.util.Collections
 
 /**
  * Unit tests for RtCombiner
@@ -306,4 +313,130 @@ class RtCombinerTest {
         assertEquals("Artist - Title", result)
         coVerify(exactly = 1) { mockDeezerClient.searchTrackByParts("Artist", "Title") }
     }
+
+    // ============ Per-station state ============
+    // State is one LRU entry per PI, bounded by MAX_STATIONS, with RTs of
+    // the same station serialized and different stations running in parallel.
+
+    /** Local cache answers every "Artist - Title" split, so no network path is involved. */
+    private fun stubCacheEchoesParts() {
+        every { mockDeezerCache.searchLocalByParts(any(), any()) } answers {
+            TrackInfo(firstArg(), secondArg(), trackId = "${firstArg<String>()}|${secondArg<String>()}")
+        }
+    }
+
+    @Test
+    fun `station state is bounded and drops the least recently used PI`() = runTest {
+        stubCacheEchoesParts()
+        rtCombiner = build()
+
+        rtCombiner.processRt(1, "Keep - Me")
+        for (pi in 2..5000) {
+            rtCombiner.processRt(pi, "Artist $pi - Title $pi")
+            // Touch PI 1 now and then so it stays recent
+            if (pi % (RtCombiner.MAX_STATIONS / 2) == 0) rtCombiner.getLastTrackInfo(1)
+        }
+
+        assertEquals(RtCombiner.MAX_STATIONS, rtCombiner.stationCount)
+        assertEquals("Keep", rtCombiner.getLastTrackInfo(1)?.artist)
+        assertEquals("Artist 5000", rtCombiner.getLastTrackInfo(5000)?.artist)
+        assertNull(rtCombiner.getLastTrackInfo(2))
+    }
+
+    @Test
+    fun `stress - thousands of PIs and concurrent RTs through processRt`() {
+        stubCacheEchoesParts()
+        rtCombiner = build()
+        val stations = 3000
+        val rtsPerStation = 3
+
+        runBlocking(Dispatchers.Default) {
+            val results = (0 until stations).flatMap { pi ->
+                (0 until rtsPerStation).map { n ->
+                    async { pi to rtCombiner.processRt(pi, "Artist $pi - Title $n") }
+                }
+            }.awaitAll()
+
+            // Every RT resolved to its own split, regardless of interleaving
+            for ((pi, result) in results) {
+                assertTrue(result, result!!.startsWith("Artist $pi - Title "))
+            }
+        }
+
+        assertTrue(rtCombiner.stationCount <= RtCombiner.MAX_STATIONS)
+
+        // State is still consistent afterwards: a repeated RT resolves as before
+        val last = stations - 1
+        runBlocking {
+            val repeated = rtCombiner.processRt(last, "Artist $last - Title 0")
+            assertEquals("Artist $last - Title 0", repeated)
+        }
+    }
+
+    @Test
+    fun `RTs of one station never interleave while a lookup suspends`() {
+        every { mockDeezerCache.searchLocal(any()) } returns null
+        every { mockDeezerCache.searchLocalByParts(any(), any()) } returns null
+        val events = Collections.synchronizedList(mutableListOf<String>())
+        coEvery { mockDeezerClient.searchTrackByParts(any(), any()) } coAnswers {
+            val artist = firstArg<String>()
+            events += "start $artist"
+            delay(50)
+            events += "end $artist"
+            TrackInfo(artist, secondArg(), trackId = artist)
+        }
+        rtCombiner = build()
+
+        runBlocking(Dispatchers.Default) {
+            listOf("One - Song", "Two - Song", "Three - Song")
+                .map { rt -> async { rtCombiner.processRt(7, rt) } }
+                .awaitAll()
+        }
+
+        assertEquals(6, events.size)
+        for (i in events.indices step 2) {
+            val artist = events[i].removePrefix("start ")
+            assertEquals(events.toString(), "end $artist", events[i + 1])
+        }
+    }
+
+    @Test
+    fun `lookup resuming after another station took over uses its own RT`() {
+        val mockDao = mockk<RtCorrectionDao>(relaxed = true)
+        coEvery { mockDao.isRtIgnored(any()) } returns false
+        coEvery { mockDao.getSkippedTrackIds(any()) } returns emptyList()
+        every { mockDeezerCache.searchLocal(any()) } returns null
+        every { mockDeezerCache.searchLocalByParts(any(), any()) } returns null
+        coEvery { mockDeezerClient.searchTrack(any()) } returns null
+        val entered = CompletableDeferred<Unit>()
+        val release = CompletableDeferred<Unit>()
+        coEvery { mockDeezerClient.searchTrackByParts("Slow", "Song") } coAnswers {
+            entered.complete(Unit)
+            release.await()
+            TrackInfo("Slow", "Song", trackId = "slow", popularity = 50)
+        }
+        coEvery { mockDeezerClient.searchTrackByParts("Song", "Slow") } returns null
+        coEvery { mockDeezerClient.searchTrackByParts("Fast", "Song") } returns
+            TrackInfo("Fast", "Song", trackId = "fast", popularity = 50)
+        rtCombiner = build(correctionDao = mockDao)
+
+        runBlocking(Dispatchers.Default) {
+            // Two short RTs: the second one tries both artist/title permutations
+            rtCombiner.processRt(1, "Slow")
+            val slow = async { rtCombiner.processRt(1, "Song") }
+            entered.await()
+
+            // Station 2 becomes current while station 1 waits in its first permutation
+            assertEquals("Fast - Song", rtCombiner.processRt(2, "Fast - Song"))
+            release.complete(Unit)
+            assertEquals("Slow - Song", slow.await())
+        }
+
+        // Both permutations looked up the skips of station 1's RT, not of station 2's
+        coVerify(exactly = 2) { mockDao.getSkippedTrackIds("song") }
+        coVerify(exactly = 1) { mockDao.getSkippedTrackIds("fast - song") }
+        assertEquals("Fast - Song", rtCombiner.getCurrentRt())
+        assertEquals("fast", rtCombiner.getCurrentTrackInfo()?.trackId)
+        assertEquals("slow", rtCombiner.getLastTrackInfo(1)?.trackId)
+    }
 }
@@ -0,0 +1,149 @@
+package at.planqton.fytfm.deezer
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [StrategyRace] — hedged execution of the Deezer search steps.
+ * Each fake step is `(latency, result)`; virtual time of [runTest] makes
+ * the hedge delay and latencies exact.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class StrategyRaceTest {
+
+    private data class Step(val name: String, val latencyMs: Long, val result: String?)
+
+    private class Recorder {
+        val started = mutableListOf<String>()
+        val cancelled = mutableListOf<String>()
+        val outcomes = mutableListOf<Pair<String, StrategyOutcome>>()
+        var running = 0
+        var maxRunning = 0
+    }
+
+    private suspend fun TestScope.race(
+        steps: List<Step>,
+        recorder: Recorder = Recorder(),
+        maxParallel: Int = 3,
+        hedgeDelayMs: Long = 400,
+    ): String? = StrategyRace.first(
+        steps = steps,
+        maxParallel = maxParallel,
+        hedgeDelayMs = hedgeDelayMs,
+        clock = { testScheduler.currentTime },
+        onStepDone = { step, _, outcome -> recorder.outcomes += step.name to outcome },
+    ) { step ->
+        recorder.started += step.name
+        recorder.running++
+        recorder.maxRunning = maxOf(recorder.maxRunning, recorder.running)
+        try {
+            delay(step.latencyMs)
+            step.result
+        } catch (e: CancellationException) {
+            recorder.cancelled += step.name
+            throw e
+        } finally {
+            recorder.running--
+        }
+    }
+
+    // ============ Priority ============
+
+    @Test
+    fun `fast hit on the first step never launches a second request`() = runTest {
+        val recorder = Recorder()
+        val result = race(listOf(Step("a", 100, "A"), Step("b", 100, "B")), recorder)
+
+        assertEquals("A", result)
+        assertEquals(listOf("a"), recorder.started)
+        assertEquals(100L, testScheduler.currentTime)
+        assertEquals(listOf("a" to StrategyOutcome.WON), recorder.outcomes)
+    }
+
+    @Test
+    fun `higher-priority hit wins even when a lower step answers first`() = runTest {
+        val recorder = Recorder()
+        val result = race(listOf(Step("a", 1_000, "A"), Step("b", 50, "B")), recorder)
+
+        assertEquals("A", result)
+        assertEquals(1_000L, testScheduler.currentTime)
+        assertEquals(listOf("a" to StrategyOutcome.WON, "b" to StrategyOutcome.LOST), recorder.outcomes)
+    }
+
+    @Test
+    fun `lower step wins once every step before it missed`() = runTest {
+        val result = race(listOf(Step("a", 1_000, null), Step("b", 50, "B")))
+
+        assertEquals("B", result)
+        // b started at the hedge (400) and finished at 450, but a decides at 1000
+        assertEquals(1_000L, testScheduler.currentTime)
+    }
+
+    @Test
+    fun `all misses return null and report every step`() = runTest {
+        val recorder = Recorder()
+        val result = race(listOf(Step("a", 100, null), Step("b", 100, null), Step("c", 100, null)), recorder)
+
+        assertNull(result)
+        assertEquals(listOf("a", "b", "c"), recorder.outcomes.map { it.first })
+        assertTrue(recorder.outcomes.all { it.second == StrategyOutcome.MISSED })
+    }
+
+    @Test
+    fun `empty strategy list returns null without work`() = runTest {
+        val recorder = Recorder()
+        assertNull(race(emptyList(), recorder))
+        assertTrue(recorder.started.isEmpty())
+    }
+
+    // ============ Hedging ============
+
+    @Test
+    fun `quick miss launches the next step without waiting for the hedge`() = runTest {
+        val result = race(listOf(Step("a", 100, null), Step("b", 100, "B")))
+
+        assertEquals("B", result)
+        assertEquals(200L, testScheduler.currentTime)
+    }
+
+    @Test
+    fun `slow step gets a hedge after the delay`() = runTest {
+        val recorder = Recorder()
+        val result = race(listOf(Step("a", 5_000, null), Step("b", 100, "B")), recorder, hedgeDelayMs = 400)
+
+        assertEquals("B", result)
+        assertEquals(listOf("a", "b"), recorder.started)
+        assertEquals(2, recorder.maxRunning)
+    }
+
+    @Test
+    fun `parallelism stays within maxParallel`() = runTest {
+        val recorder = Recorder()
+        val steps = (1..6).map { Step("s$it", 2_000, null) }
+        race(steps, recorder, maxParallel = 2, hedgeDelayMs = 100)
+
+        assertEquals(2, recorder.maxRunning)
+        assertEquals(6, recorder.started.size)
+    }
+
+    // ============ Cancellation ============
+
+    @Test
+    fun `steps still running when the race is decided are cancelled`() = runTest {
+        val recorder = Recorder()
+        val result = race(listOf(Step("a", 500, "A"), Step("b", 5_000, "B")), recorder)
+
+        assertEquals("A", result)
+        assertEquals(500L, testScheduler.currentTime)
+        assertEquals(listOf("b"), recorder.cancelled)
+        assertEquals(0, recorder.running)
+        assertEquals(listOf("a" to StrategyOutcome.WON, "b" to StrategyOutcome.CANCELLED), recorder.outcomes)
+    }
+}
@@ -0,0 +1,196 @@
+package at.planqton.fytfm.deezer
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [TrackTextIndex] — the in-memory automaton in front of the
+ * SQLite lookup. Its answers must equal [DeezerCacheMatcher.matchesQuery]
+ * over every live track.
+ */
+class TrackTextIndexTest {
+
+    private fun find(index: TrackTextIndex, rt: String) = index.find(DeezerCacheMatcher.normalize(rt))
+
+    @Test
+    fun `finds tracks whose artist and title both occur`() {
+        val index = TrackTextIndex()
+        index.put("1", "Beatles", "Yesterday", 0)
+        index.put("2", "Beatles", "Let It Be", 0)
+        index.put("3", "Oasis", "Wonderwall", 0)
+
+        assertEquals(listOf("1"), find(index, "Jetzt: Beatles - Yesterday auf Ö3"))
+        assertEquals(emptyList<String>(), find(index, "Oasis - Yesterday"))
+    }
+
+    @Test
+    fun `overlapping and nested patterns are all reported`() {
+        val index = TrackTextIndex()
+        index.put("1", "Ga", "Radio Ga Ga", 0)
+        index.put("2", "Queen", "Radio Ga Ga", 0)
+        index.put("3", "Radio", "Ga Ga", 0)
+
+        assertEquals(setOf("1", "2", "3"), find(index, "QUEEN - RADIO GA GA").toSet())
+    }
+
+    @Test
+    fun `results are ordered by popularity`() {
+        val index = TrackTextIndex()
+        index.put("low", "Queen", "Under Pressure", 10)
+        index.put("high", "Queen", "Under Pressure", 900)
+
+        assertEquals(listOf("high", "low"), find(index, "Queen - Under Pressure"))
+    }
+
+    @Test
+    fun `put replaces an existing track id`() {
+        val index = TrackTextIndex()
+        index.put("1", "Radiohead", "Creep", 0)
+        index.put("1", "Radiohead", "No Surprises", 0)
+
+        assertEquals(emptyList<String>(), find(index, "Radiohead - Creep"))
+        assertEquals(listOf("1"), find(index, "Radiohead - No Surprises"))
+        assertEquals(1, index.size)
+    }
+
+    @Test
+    fun `re-put keeps the slot count bounded`() {
+        val index = TrackTextIndex()
+        repeat(100) {
+            index.put("1", "Radiohead", "Creep", it)
+            index.put("2", if (it % 2 == 0) "Radiohead" else "Muse", "Creep", 0)
+        }
+
+        assertEquals(2, index.slotCount)
+        assertEquals(listOf("1", "2"), find(index, "Radiohead Muse - Creep"))
+        assertEquals(listOf("1"), find(index, "Radiohead - Creep"))
+    }
+
+    @Test
+    fun `moving a track to another artist unlinks it from the old one`() {
+        val index = TrackTextIndex()
+        index.put("1", "Queen", "Under Pressure", 0)
+        index.put("2", "Queen", "Bohemian Rhapsody", 0)
+        index.put("3", "Queen", "Radio Ga Ga", 0)
+        index.put("2", "Bowie", "Under Pressure", 0)
+
+        assertEquals(listOf("1"), find(index, "Queen - Under Pressure"))
+        assertEquals(emptyList<String>(), find(index, "Queen - Bohemian Rhapsody"))
+        assertEquals(listOf("2"), find(index, "Bowie - Under Pressure"))
+        assertEquals(listOf("3"), find(index, "Queen - Radio Ga Ga"))
+        assertEquals(3, index.slotCount)
+    }
+
+    @Test
+    fun `removed slots are reused`() {
+        val index = TrackTextIndex()
+        index.put("1", "Queen", "Under Pressure", 0)
+        index.put("2", "Falco", "Jeanny", 0)
+        index.remove("1")
+        index.put("3", "Opus", "Live is Life", 0)
+
+        assertEquals(2, index.slotCount)
+        assertEquals(listOf("3"), find(index, "Opus - Live is Life"))
+        assertEquals(listOf("2"), find(index, "Falco - Jeanny"))
+        assertEquals(emptyList<String>(), find(index, "Queen - Under Pressure"))
+    }
+
+    @Test
+    fun `remove drops only that track`() {
+        val index = TrackTextIndex()
+        index.put("1", "Queen", "Under Pressure", 0)
+        index.put("2", "Queen", "Under Pressure", 0)
+        index.remove("1")
+
+        assertEquals(listOf("2"), find(index, "Queen - Under Pressure"))
+        assertEquals(1, index.size)
+    }
+
+    @Test
+    fun `one-character fields are never indexed`() {
+        val index = TrackTextIndex()
+        index.put("1", "X", "anything", 0)
+
+        assertEquals(emptyList<String>(), find(index, "x - anything"))
+        assertEquals(0, index.size)
+    }
+
+    @Test
+    fun `putIfAbsent keeps a newer put and stops after clear`() {
+        val index = TrackTextIndex()
+        val generation = index.generation()
+        index.put("1", "Radiohead", "No Surprises", 0)
+
+        assertTrue(index.putIfAbsent(generation, "1", "Radiohead", "Creep", 0))
+        assertEquals(listOf("1"), find(index, "Radiohead - No Surprises"))
+
+        index.clear()
+        assertFalse(index.putIfAbsent(generation, "2", "Falco", "Jeanny", 0))
+        index.markComplete(generation)
+        assertFalse(index.isComplete)
+        assertEquals(emptyList<String>(), find(index, "Falco - Jeanny"))
+    }
+
+    @Test
+    fun `agrees with matchesQuery on random data`() {
+        val random = java.util.Random(7)
+        val alphabet = "abc "
+        fun text(length: Int) = (1..length).map { alphabet[random.nextInt(alphabet.length)] }.joinToString("")
+
+        repeat(200) {
+            val index = TrackTextIndex()
+            val tracks = HashMap<String, Pair<String, String>>()
+            repeat(40) {
+                val id = "t${random.nextInt(15)}"
+                val track = text(1 + random.nextInt(4)) to text(1 + random.nextInt(4))
+                index.put(id, track.first, track.second, 0)
+                tracks[id] = track
+
+                val query = text(random.nextInt(16))
+                val expected = tracks.filterValues { (artist, title) ->
+                    DeezerCacheMatcher.matchesQuery(query, artist, title)
+                }.keys
+                assertEquals(query, expected, index.find(query).toSet())
+            }
+        }
+    }
+
+    @Test
+    fun `agrees with matchesQuery under re-puts and removes`() {
+        val random = java.util.Random(11)
+        val alphabet = "abc "
+        fun text(length: Int) = (1..length).map { alphabet[random.nextInt(alphabet.length)] }.joinToString("")
+
+        repeat(200) {
+            val index = TrackTextIndex()
+            val tracks = HashMap<String, Pair<String, String>>()
+            repeat(60) {
+                val id = "t${random.nextInt(8)}"
+                if (random.nextInt(4) == 0) {
+                    index.remove(id)
+                    tracks.remove(id)
+                } else {
+                    val track = text(2 + random.nextInt(3)) to text(2 + random.nextInt(3))
+                    index.put(id, track.first, track.second, 0)
+                    if (DeezerCacheMatcher.normalize(track.first).length >= 2 &&
+                        DeezerCacheMatcher.normalize(track.second).length >= 2
+                    ) {
+                        tracks[id] = track
+                    } else {
+                        tracks.remove(id)
+                    }
+                }
+
+                val query = text(random.nextInt(16))
+                val expected = tracks.filterValues { (artist, title) ->
+                    DeezerCacheMatcher.matchesQuery(query, artist, title)
+                }.keys
+                assertEquals(query, expected, index.find(query).toSet())
+                assertEquals(tracks.size, index.size)
+                assertTrue(index.slotCount <= 8)
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package at.planqton.fytfm.rds
+
+import at.planqton.fytfm.rds.RdsPollScheduler.Phase
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Tests for [RdsPollScheduler]. Pins the phase transitions that decide
+ * how often RdsManager hits the JNI: a regression either slows
+ * time-to-first-PS (leaving BURST too early) or burns CPU on long drives
+ * (never reaching STEADY).
+ */
+class RdsPollSchedulerTest {
+
+    @Test
+    fun `starts in burst with fast interval and full iterations`() {
+        val s = RdsPollScheduler(0L)
+        assertEquals(Phase.BURST, s.phase)
+        assertEquals(RdsPollScheduler.BURST_INTERVAL_MS, s.intervalMs)
+        assertEquals(RdsPollScheduler.BURST_READ_ITERATIONS, s.readIterations)
+    }
+
+    @Test
+    fun `stays in burst while only PS is locked`() {
+        val s = RdsPollScheduler(0L)
+        s.onTick(500L, true, false, false, 100)
+        assertEquals(Phase.BURST, s.phase)
+    }
+
+    @Test
+    fun `leaves burst once PS and PI are locked`() {
+        val s = RdsPollScheduler(0L)
+        s.onTick(800L, true, true, false, 100)
+        assertEquals(Phase.ACTIVE, s.phase)
+        assertEquals(RdsPollScheduler.ACTIVE_INTERVAL_MS, s.intervalMs)
+    }
+
+    @Test
+    fun `leaves burst after the max burst time even without RDS lock`() {
+        // Station without RDS must not poll at burst rate forever.
+        val s = RdsPollScheduler(0L)
+        s.onTick(RdsPollScheduler.BURST_MAX_MS - 1, false, false, false, 60)
+        assertEquals(Phase.BURST, s.phase)
+        s.onTick(RdsPollScheduler.BURST_MAX_MS, false, false, false, 60)
+        assertEquals(Phase.ACTIVE, s.phase)
+    }
+
+    @Test
+    fun `backs off to steady after a quiet period`() {
+        val s = RdsPollScheduler(0L)
+        s.onTick(1_000L, true, true, false, 100)
+        s.onTick(1_000L + RdsPollScheduler.STEADY_AFTER_MS - 1, true, true, false, 101)
+        assertEquals(Phase.ACTIVE, s.phase)
+        s.onTick(1_000L + RdsPollScheduler.STEADY_AFTER_MS, true, true, false, 100)
+        assertEquals(Phase.STEADY, s.phase)
+        assertEquals(RdsPollScheduler.STEADY_INTERVAL_MS, s.intervalMs)
+        assertEquals(RdsPollScheduler.STEADY_READ_ITERATIONS, s.readIterations)
+    }
+
+    @Test
+    fun `RT change bumps steady back to active`() {
+        val s = steadyScheduler()
+        s.onTick(20_000L, true, true, true, 100)
+        assertEquals(Phase.ACTIVE, s.phase)
+    }
+
+    @Test
+    fun `RSSI jump bumps steady back to active, small jitter does not`() {
+        val s = steadyScheduler()
+        s.onTick(20_000L, true, true, false, 100 + RdsPollScheduler.RSSI_BUMP_DELTA - 1)
+        assertEquals(Phase.STEADY, s.phase)
+        s.onTick(20_150L, true, true, false, 100 - RdsPollScheduler.RSSI_BUMP_DELTA)
+        assertEquals(Phase.ACTIVE, s.phase)
+    }
+
+    @Test
+    fun `unread RSSI does not count as a jump`() {
+        val s = steadyScheduler()
+        s.onTick(20_000L, true, true, false, -1)
+        assertEquals(Phase.STEADY, s.phase)
+    }
+
+    @Test
+    fun `reset returns to burst`() {
+        val s = steadyScheduler()
+        s.reset(30_000L)
+        assertEquals(Phase.BURST, s.phase)
+        // Burst timeout counts from the reset, not from construction.
+        s.onTick(30_000L + RdsPollScheduler.BURST_MAX_MS - 1, false, false, false, 60)
+        assertEquals(Phase.BURST, s.phase)
+    }
+
+    private fun steadyScheduler(): RdsPollScheduler {
+        val s = RdsPollScheduler(0L)
+        s.onTick(1_000L, true, true, false, 100)
+        s.onTick(10_000L, true, true, false, 100)
+        assertEquals(Phase.STEADY, s.phase)
+        return s
+    }
+}
@@ -0,0 +1,108 @@
+package at.planqton.fytfm.rds
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [RdsSnapshot]. The change mask decides which downstream
+ * consumers (Deezer, MediaSession, auto-sync, signal bars) run at all —
+ * a missed bit means a stale UI, a spurious bit means wasted work on
+ * every poll tick.
+ */
+class RdsSnapshotTest {
+
+    private fun snap(
+        previous: RdsSnapshot? = null,
+        ps: String = "OE3",
+        rt: String = "Artist - Title",
+        rssi: Int = 120,
+        pi: Int = 0xA503,
+        pty: Int = 10,
+        tp: Int = 1,
+        ta: Int = 0,
+        af: ShortArray? = shortArrayOf(1037),
+    ) = RdsSnapshot.of(previous, ps, rt, rssi, pi, pty, tp, ta, af)
+
+    @Test
+    fun `first snapshot marks every field as changed`() {
+        val s = snap()
+        assertEquals(RdsSnapshot.CHANGED_ALL, s.changedMask)
+        assertFalse(s.isUnchanged)
+    }
+
+    @Test
+    fun `identical values produce an empty mask`() {
+        val first = snap()
+        val second = snap(previous = first)
+        assertTrue(second.isUnchanged)
+        assertEquals(0, second.changedMask)
+    }
+
+    @Test
+    fun `RT change sets only the RT bit`() {
+        val first = snap()
+        val second = snap(previous = first, rt = "Other - Song")
+        assertEquals(RdsSnapshot.CHANGED_RT, second.changedMask)
+        assertTrue(second.hasChanged(RdsSnapshot.CHANGED_RT))
+        assertFalse(second.hasChanged(RdsSnapshot.CHANGED_PS or RdsSnapshot.CHANGED_PI))
+    }
+
+    @Test
+    fun `RSSI change sets only the RSSI bit`() {
+        val first = snap()
+        val second = snap(previous = first, rssi = 121)
+        assertEquals(RdsSnapshot.CHANGED_RSSI, second.changedMask)
+    }
+
+    @Test
+    fun `PS and PI changes are reported together`() {
+        val first = snap()
+        val second = snap(previous = first, ps = "FM4", pi = 0xA504)
+        assertEquals(RdsSnapshot.CHANGED_PS or RdsSnapshot.CHANGED_PI, second.changedMask)
+    }
+
+    @Test
+    fun `TP or TA change sets the TP_TA bit`() {
+        val first = snap()
+        assertEquals(RdsSnapshot.CHANGED_TP_TA, snap(previous = first, ta = 1).changedMask)
+        assertEquals(RdsSnapshot.CHANGED_TP_TA, snap(previous = first, tp = 0).changedMask)
+    }
+
+    @Test
+    fun `AF list is compared by content, not identity`() {
+        val first = snap(af = shortArrayOf(1037, 995))
+        assertTrue(snap(previous = first, af = shortArrayOf(1037, 995)).isUnchanged)
+        assertEquals(RdsSnapshot.CHANGED_AF, snap(previous = first, af = null).changedMask)
+    }
+
+    @Test
+    fun `AF list is defensively copied`() {
+        val af = shortArrayOf(1037)
+        val s = snap(af = af)
+        af[0] = 999
+        assertArrayEquals(shortArrayOf(1037), s.afList)
+        // Mutating the returned copy must not leak into the snapshot either.
+        s.afList!![0] = 999
+        assertArrayEquals(shortArrayOf(1037), s.afList)
+    }
+
+    @Test
+    fun `changeMask agrees with the mask of a built snapshot`() {
+        val first = snap()
+        assertEquals(RdsSnapshot.CHANGED_ALL,
+            RdsSnapshot.changeMask(null, "OE3", "Artist - Title", 120, 0xA503, 10, 1, 0, shortArrayOf(1037)))
+        assertEquals(0,
+            RdsSnapshot.changeMask(first, "OE3", "Artist - Title", 120, 0xA503, 10, 1, 0, shortArrayOf(1037)))
+        assertEquals(snap(previous = first, rt = "X", rssi = 90).changedMask,
+            RdsSnapshot.changeMask(first, "OE3", "X", 90, 0xA503, 10, 1, 0, shortArrayOf(1037)))
+    }
+
+    @Test
+    fun `null AF list stays null`() {
+        assertNull(snap(af = null).afList)
+    }
+}
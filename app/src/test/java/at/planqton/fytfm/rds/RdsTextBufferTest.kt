@@ -0,0 +1,110 @@
+package at.planqton.fytfm.rds
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import java.lang.management.ManagementFactory
+
+/**
+ * Tests for [RdsTextBuffer]. The buffer replaces
+ * `cleanRdsString(RdsCharset.decode(bytes))` on the RDS poll thread, so it
+ * must produce the same text — and, in the steady state where the chip
+ * keeps returning the same PS/RT, must not allocate at all.
+ */
+class RdsTextBufferTest {
+
+    private fun bytes(s: String) = s.toByteArray(Charsets.ISO_8859_1)
+
+    @Test
+    fun `trims surrounding whitespace like String trim`() {
+        val buf = RdsTextBuffer(8)
+        assertEquals("OE3", buf.decode(bytes("  OE3   ")))
+    }
+
+    @Test
+    fun `control bytes behave like the G0 table plus trim`() {
+        // G0 maps 0x00..0x1F to spaces, so only the edges disappear.
+        val buf = RdsTextBuffer(8)
+        assertEquals("O E3", buf.decode(byteArrayOf(0x00, 'O'.code.toByte(), 0x0D, 'E'.code.toByte(), '3'.code.toByte(), 0x0A)))
+    }
+
+    @Test
+    fun `not support message decodes to empty`() {
+        val buf = RdsTextBuffer(8)
+        assertEquals("", buf.decode(bytes("RDS Not Support")))
+    }
+
+    @Test
+    fun `empty and blank input decode to empty`() {
+        val buf = RdsTextBuffer(8)
+        assertEquals("", buf.decode(ByteArray(0)))
+        assertEquals("", buf.decode(bytes("        ")))
+        assertEquals("", buf.decode(null))
+    }
+
+    @Test
+    fun `matches the allocating decode path for G0 bytes`() {
+        val raw = byteArrayOf(0x20, 0x91.toByte(), 0x41, 0x42, 0x20, 0x20)
+        val expected = RdsCharset.decode(raw).trim()
+        assertEquals(expected, RdsTextBuffer(4).decode(raw))
+    }
+
+    @Test
+    fun `unchanged content returns the same instance`() {
+        val buf = RdsTextBuffer(8)
+        val first = buf.decode(bytes("FM4     "))
+        assertTrue(buf.lastDecodeChanged())
+        val second = buf.decode(bytes("FM4     "))
+        assertSame(first, second)
+        assertFalse(buf.lastDecodeChanged())
+    }
+
+    @Test
+    fun `changed content creates a new string`() {
+        val buf = RdsTextBuffer(8)
+        val first = buf.decode(bytes("FM4"))
+        val second = buf.decode(bytes("OE1"))
+        assertNotSame(first, second)
+        assertEquals("OE1", second)
+        assertTrue(buf.lastDecodeChanged())
+    }
+
+    @Test
+    fun `grows beyond the initial capacity`() {
+        val buf = RdsTextBuffer(8)
+        val rt = "Artist Name - A Rather Long Song Title For Radiotext"
+        assertEquals(rt, buf.decode(bytes(rt)))
+    }
+
+    @Test
+    fun `reset forgets the last text`() {
+        val buf = RdsTextBuffer(8)
+        buf.decode(bytes("OE3"))
+        buf.reset()
+        buf.decode(bytes("OE3"))
+        assertTrue(buf.lastDecodeChanged())
+    }
+
+    @Test
+    fun `steady state decode does not allocate`() {
+        val mx = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(mx != null && mx.isThreadAllocatedMemorySupported)
+        mx!!.isThreadAllocatedMemoryEnabled = true
+
+        val buf = RdsTextBuffer(64)
+        val rt = bytes("Now playing: Artist - Title                                     ")
+        repeat(1_000) { buf.decode(rt) } // warm-up / JIT
+
+        val threadId = Thread.currentThread().id
+        val before = mx.getThreadAllocatedBytes(threadId)
+        repeat(10_000) { buf.decode(rt) }
+        val allocated = mx.getThreadAllocatedBytes(threadId) - before
+
+        // One String per call would be > 500 KB; allow slack for the MXBean itself.
+        assertTrue("allocated $allocated bytes for 10k unchanged decodes", allocated < 16 * 1024)
+    }
+}
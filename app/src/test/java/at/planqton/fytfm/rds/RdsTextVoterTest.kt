@@ -0,0 +1,118 @@
+package at.planqton.fytfm.rds
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [RdsTextVoter]. The voter replaces the old "five identical PS
+ * polls in a row" filter in RdsManager, so the interesting cases are how
+ * fast it locks on clean input and how little a single bit error costs.
+ */
+class RdsTextVoterTest {
+
+    private fun RdsTextVoter.feed(text: String, times: Int, suspicious: Boolean = false) {
+        repeat(times) { addSample(text, suspicious) }
+    }
+
+    @Test
+    fun `ps locks after three clean samples`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("OE3", 2)
+        assertFalse(voter.isLocked)
+        voter.addSample("OE3", false)
+        assertTrue(voter.isLocked)
+        assertEquals("OE3", voter.text)
+    }
+
+    @Test
+    fun `single corrupted character only costs confidence at its position`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("OE3", 2)
+        voter.addSample("OX3", false)
+        assertEquals(0, voter.getConfidence(1))
+        assertEquals(RdsTextVoter.PS_ACCEPT_CONFIDENCE, voter.getConfidence(0))
+        assertEquals(RdsTextVoter.PS_ACCEPT_CONFIDENCE, voter.getConfidence(2))
+
+        voter.addSample("OE3", false)
+        assertFalse(voter.isLocked)
+        voter.addSample("OE3", false)
+        // The old filter would have needed five more identical polls here
+        assertTrue(voter.isLocked)
+        assertEquals("OE3", voter.text)
+    }
+
+    @Test
+    fun `suspicious samples count half`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("E E E", 3, suspicious = true)
+        assertFalse(voter.isLocked)
+        voter.feed("E E E", 3, suspicious = true)
+        assertTrue(voter.isLocked)
+    }
+
+    @Test
+    fun `greek character next to latin text does not vote`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("OE3", 2)
+        voter.addSample("OEα", false)
+        assertEquals(4, voter.getConfidence(2))
+        assertEquals("OE3", voter.text)
+        voter.addSample("OE3", false)
+        assertTrue(voter.isLocked)
+    }
+
+    @Test
+    fun `different message starts a new vote`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("OE3", 3)
+        assertTrue(voter.isLocked)
+
+        voter.addSample("FM4", false)
+        assertFalse(voter.isLocked)
+        assertEquals("FM4", voter.text)
+        assertEquals(1, voter.sampleCount)
+    }
+
+    @Test
+    fun `partial shows only confident positions`() {
+        val voter = RdsTextVoter.forPs()
+        assertEquals("", voter.partial)
+        voter.addSample("OE3", false)
+        assertEquals("___", voter.partial)
+
+        voter.feed("OE3", 2)
+        voter.addSample("OEX", false)
+        assertEquals("OE_", voter.partial)
+    }
+
+    @Test
+    fun `rt locks after two matching samples`() {
+        val voter = RdsTextVoter.forRt()
+        voter.addSample("Artist - Title", false)
+        assertFalse(voter.isLocked)
+        voter.addSample("Artist - Title", false)
+        assertTrue(voter.isLocked)
+        assertEquals("Artist - Title", voter.text)
+    }
+
+    @Test
+    fun `unchanged text is not rebuilt`() {
+        val voter = RdsTextVoter.forPs()
+        voter.feed("OE3", 3)
+        val first = voter.text
+        voter.addSample("OE3", false)
+        assertSame(first, voter.text)
+    }
+
+    @Test
+    fun `empty samples are ignored`() {
+        val voter = RdsTextVoter.forPs()
+        voter.addSample("", false)
+        voter.addSample(null, false)
+        assertEquals(0, voter.sampleCount)
+        assertFalse(voter.isLocked)
+    }
+}
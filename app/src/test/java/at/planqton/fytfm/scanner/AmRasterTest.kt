@@ -0,0 +1,57 @@
+package at.planqton.fytfm.scanner
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [AmRaster]: 9/10 kHz raster selection, channel alignment and
+ * the streaming peak rule of the AM scan.
+ */
+class AmRasterTest {
+
+    @Test
+    fun `european band uses the 9 kHz raster`() {
+        val channels = AmRaster.channels(RadioScanner.AmBand(522f, 1620f, 9f))
+        assertEquals(522, channels.first())
+        assertEquals(531, channels[1])
+        assertEquals(1620, channels.last())
+        assertEquals(123, channels.size)
+    }
+
+    @Test
+    fun `american band uses the 10 kHz raster`() {
+        val channels = AmRaster.channels(RadioScanner.AmBand(530f, 1710f, 10f))
+        assertEquals(530, channels.first())
+        assertEquals(540, channels[1])
+        assertEquals(1710, channels.last())
+        assertEquals(119, channels.size)
+    }
+
+    @Test
+    fun `off-raster band edges are rounded inwards`() {
+        val channels = AmRaster.channels(RadioScanner.AmBand(520f, 1611f, 9f))
+        assertEquals(522, channels.first())
+        assertEquals(1611, channels.last())
+        assertTrue(channels.all { it % 9 == 0 })
+    }
+
+    @Test
+    fun `noise samples sit on the raster inside the band`() {
+        val band = RadioScanner.AmBand(522f, 1620f, 9f)
+        val samples = AmRaster.sampleChannels(band, 10)
+        assertEquals(10, samples.size)
+        assertTrue(samples.all { it.toInt() % 9 == 0 && it in 522f..1620f })
+    }
+
+    @Test
+    fun `peak rule matches the fm splatter dedup`() {
+        assertTrue(AmRaster.isPeak(0, 50, 30, 40))
+        assertFalse(AmRaster.isPeak(55, 50, 30, 40))   // stronger below
+        assertFalse(AmRaster.isPeak(30, 50, 51, 40))   // stronger above
+        assertFalse(AmRaster.isPeak(50, 50, 0, 40))    // tie → lower channel wins
+        assertTrue(AmRaster.isPeak(30, 50, 50, 40))    // tie above → this one
+        assertFalse(AmRaster.isPeak(0, 39, 0, 40))     // below threshold
+    }
+}
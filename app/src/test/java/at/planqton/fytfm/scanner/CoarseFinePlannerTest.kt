@@ -0,0 +1,99 @@
+package at.planqton.fytfm.scanner
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [CoarseFinePlanner]: the coarse raster, which fine channels
+ * get measured, and the splatter dedup that decides what counts as one
+ * station.
+ */
+class CoarseFinePlannerTest {
+
+    @Test
+    fun `coarse grid covers the band and always ends on the band edge`() {
+        val grid = CoarseFinePlanner.coarseGrid(87.5f, 108.0f, 0.2f)
+        assertEquals(875, grid.first())
+        assertEquals(1080, grid.last())
+        assertEquals(877, grid[1])
+        // 875..1079 in steps of 2 = 103 channels, plus 1080
+        assertEquals(104, grid.size)
+    }
+
+    @Test
+    fun `coarse grid without remainder has no duplicate end`() {
+        val grid = CoarseFinePlanner.coarseGrid(87.5f, 87.9f, 0.2f)
+        assertArrayEquals(intArrayOf(875, 877, 879), grid)
+    }
+
+    @Test
+    fun `fine candidates are the cell around each hit, merged and clamped`() {
+        val fine = CoarseFinePlanner.fineCandidates(intArrayOf(875, 981, 983), 0.2f, 87.5f, 108.0f)
+        assertArrayEquals(intArrayOf(875, 876, 980, 981, 982, 983, 984), fine)
+    }
+
+    @Test
+    fun `wider coarse step widens the fine cell`() {
+        val fine = CoarseFinePlanner.fineCandidates(intArrayOf(990), 0.3f, 87.5f, 108.0f)
+        assertArrayEquals(intArrayOf(988, 989, 990, 991, 992), fine)
+    }
+
+    @Test
+    fun `splatter on adjacent channels collapses to the peak`() {
+        val channels = intArrayOf(980, 981, 982)
+        val rssi = intArrayOf(45, 60, 47)
+        assertArrayEquals(intArrayOf(1), CoarseFinePlanner.localMaxima(channels, rssi, 40))
+    }
+
+    @Test
+    fun `two stations 200 kHz apart both survive`() {
+        val channels = intArrayOf(980, 981, 982)
+        val rssi = intArrayOf(55, 42, 58)
+        assertArrayEquals(intArrayOf(0, 2), CoarseFinePlanner.localMaxima(channels, rssi, 40))
+    }
+
+    @Test
+    fun `tie keeps the lower frequency`() {
+        val channels = intArrayOf(980, 981)
+        val rssi = intArrayOf(50, 50)
+        assertArrayEquals(intArrayOf(0), CoarseFinePlanner.localMaxima(channels, rssi, 40))
+    }
+
+    @Test
+    fun `non adjacent channels are independent`() {
+        // 98.2 and 98.4 were measured in different cells — no neighbour relation
+        val channels = intArrayOf(982, 984)
+        val rssi = intArrayOf(50, 60)
+        assertArrayEquals(intArrayOf(0, 1), CoarseFinePlanner.localMaxima(channels, rssi, 40))
+    }
+
+    @Test
+    fun `below threshold is never kept`() {
+        val channels = intArrayOf(980, 981)
+        val rssi = intArrayOf(30, 39)
+        assertEquals(0, CoarseFinePlanner.localMaxima(channels, rssi, 40).size)
+    }
+
+    @Test
+    fun `channel conversion stays on the raster`() {
+        assertEquals(981, CoarseFinePlanner.toChannel(98.1f))
+        assertEquals(98.1f, CoarseFinePlanner.toMHz(981), 0.0001f)
+        assertEquals(108.0f, CoarseFinePlanner.toMHz(1080), 0.0001f)
+    }
+
+    @Test
+    fun `typical occupancy is clearly faster than the full scan`() {
+        val full = CoarseFinePlanner.estimateFullScanMs(87.5f, 108.0f)
+        val coarse = CoarseFinePlanner.estimateMs(87.5f, 108.0f, 0.2f, CoarseFinePlanner.TYPICAL_OCCUPANCY)
+        assertTrue("coarse=$coarse full=$full", coarse < full * 0.7)
+    }
+
+    @Test
+    fun `crowded band never estimates more fine channels than the band has`() {
+        val full = CoarseFinePlanner.estimateFullScanMs(87.5f, 108.0f)
+        val crowded = CoarseFinePlanner.estimateMs(87.5f, 108.0f, 0.2f, 500)
+        assertTrue(crowded <= full + 104 * CoarseFinePlanner.COARSE_CHANNEL_MS)
+    }
+}
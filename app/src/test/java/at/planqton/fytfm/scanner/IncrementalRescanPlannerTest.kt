@@ -0,0 +1,83 @@
+package at.planqton.fytfm.scanner
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [IncrementalRescanPlanner]: priority order, which measured
+ * channels count as stations and what is left for the sweep.
+ */
+class IncrementalRescanPlannerTest {
+
+    private val min = 875
+    private val max = 1080
+
+    @Test
+    fun `presets come first, then strong extras`() {
+        val order = IncrementalRescanPlanner.priorityChannels(
+            presets = intArrayOf(1015, 888),
+            strong = intArrayOf(950, 888),
+            minCh = min, maxCh = max,
+        )
+        assertArrayEquals(intArrayOf(888, 1015, 950), order)
+    }
+
+    @Test
+    fun `strong channels next to a preset are skipped as splatter`() {
+        val order = IncrementalRescanPlanner.priorityChannels(
+            presets = intArrayOf(888),
+            strong = intArrayOf(887, 889, 891),
+            minCh = min, maxCh = max,
+        )
+        assertArrayEquals(intArrayOf(888, 891), order)
+    }
+
+    @Test
+    fun `out-of-band channels are dropped`() {
+        val order = IncrementalRescanPlanner.priorityChannels(
+            presets = intArrayOf(760, 900),
+            strong = intArrayOf(1090),
+            minCh = min, maxCh = max,
+        )
+        assertArrayEquals(intArrayOf(900), order)
+    }
+
+    @Test
+    fun `preset above threshold is confirmed even next to a stronger channel`() {
+        val rssi = mapOf(900 to 40, 901 to 50)
+        assertTrue(IncrementalRescanPlanner.isConfirmed(900, isPreset = true, rssiByChannel = rssi, threshold = 30))
+        assertFalse(IncrementalRescanPlanner.isConfirmed(900, isPreset = false, rssiByChannel = rssi, threshold = 30))
+    }
+
+    @Test
+    fun `preset below threshold is not confirmed`() {
+        assertFalse(IncrementalRescanPlanner.isConfirmed(900, true, mapOf(900 to 20), 30))
+        assertFalse(IncrementalRescanPlanner.isConfirmed(900, true, emptyMap(), 30))
+    }
+
+    @Test
+    fun `sweep skips checked channels and neighbours of confirmed stations`() {
+        val sweep = IncrementalRescanPlanner.sweepChannels(
+            minCh = 900, maxCh = 910,
+            checked = setOf(900, 905),
+            confirmed = setOf(905),
+        )
+        assertArrayEquals(intArrayOf(901, 902, 903, 907, 908, 909, 910), sweep)
+    }
+
+    @Test
+    fun `new peak next to a stronger known station is splatter`() {
+        val rssi = mapOf(905 to 60, 906 to 45, 908 to 20, 909 to 40, 910 to 35)
+        val peaks = IncrementalRescanPlanner.newPeaks(intArrayOf(906, 908, 909, 910), rssi, threshold = 30)
+        assertArrayEquals(intArrayOf(909), peaks)
+    }
+
+    @Test
+    fun `sweep over an empty map covers the whole band`() {
+        val sweep = IncrementalRescanPlanner.sweepChannels(min, max, emptySet(), emptySet())
+        assertEquals(206, sweep.size)
+    }
+}
@@ -0,0 +1,134 @@
+package at.planqton.fytfm.scanner
+
+import android.os.Looper
+import at.planqton.fytfm.RdsManager
+import at.planqton.fytfm.data.RadioStation
+import at.planqton.fytfm.sim.SimBand
+import at.planqton.fytfm.sim.SimStation
+import at.planqton.fytfm.sim.SimulatedFmTuner
+import io.mockk.mockk
+import io.mockk.unmockkAll
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows
+import org.robolectric.annotation.Config
+import java.util.concurrent.CountDownLatch
+
+/**
+ * End-to-end scan tests against [SimulatedFmTuner] on a virtual clock:
+ * full-band scans finish in wall-clock milliseconds, and the clock says
+ * how long they would have taken on the modelled hardware. Covers what
+ * [RadioScannerTest] cannot with call-by-call mocks — which stations a
+ * scan reports and what it costs.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class RadioScannerSimulationTest {
+
+    // Stations on odd channels sit on the 200 kHz coarse grid; 99.4 is
+    // between two coarse points and only found by the 100 kHz fine pass
+    private val stations = listOf(
+        SimStation(88.9f, rssi = 60, pi = 0xA201, ps = "OE3"),
+        SimStation(94.3f, rssi = 45, pi = 0xA202, ps = "FM4"),
+        SimStation(99.4f, rssi = 58, pi = 0xA204, ps = "KRONEHIT"),
+        SimStation(101.5f, rssi = 55, pi = 0xA203, ps = "OE1"),
+    )
+
+    private val rdsManager: RdsManager = mockk(relaxed = true)
+
+    @After
+    fun tearDown() {
+        unmockkAll()
+    }
+
+    private fun newTuner() = SimulatedFmTuner(SimBand(stations, noiseFloor = 20, noiseJitter = 1, seed = 42L))
+
+    private fun scanner(tuner: SimulatedFmTuner) = RadioScanner(rdsManager, tuner, clock = tuner.clock)
+
+    /** Same looper-draining wait as [RadioScannerTest]. */
+    private fun awaitCompletion(latch: CountDownLatch) {
+        val deadline = System.currentTimeMillis() + 5_000
+        while (latch.count > 0 && System.currentTimeMillis() < deadline) {
+            Shadows.shadowOf(Looper.getMainLooper()).idle()
+            if (latch.count == 0L) break
+            Thread.sleep(20)
+        }
+        Shadows.shadowOf(Looper.getMainLooper()).idle()
+        assertTrue("scan callback was not invoked within 5s", latch.count == 0L)
+    }
+
+    private fun runCoarseToFine(tuner: SimulatedFmTuner): List<RadioStation> {
+        val latch = CountDownLatch(1)
+        var result: List<RadioStation> = emptyList()
+        scanner(tuner).scanFMCoarseToFine(
+            onProgress = { _, _, _, _ -> },
+            onComplete = { result = it; latch.countDown() },
+        )
+        awaitCompletion(latch)
+        return result
+    }
+
+    private fun runSignalOnly(tuner: SimulatedFmTuner): List<RadioStation> {
+        val latch = CountDownLatch(1)
+        var result: List<RadioStation> = emptyList()
+        scanner(tuner).scanFMSignalOnly(
+            onProgress = { _, _, _, _ -> },
+            onComplete = { result = it; latch.countDown() },
+        )
+        awaitCompletion(latch)
+        return result
+    }
+
+    @Test
+    fun `coarse-to-fine scan reports exactly the modelled stations`() {
+        val found = runCoarseToFine(newTuner())
+        assertEquals(listOf(88.9f, 94.3f, 99.4f, 101.5f), found.map { it.frequency })
+    }
+
+    @Test
+    fun `off-grid station is refined to its own channel, not a coarse neighbour`() {
+        val found = runCoarseToFine(newTuner()).map { it.frequency }
+        assertTrue(99.4f in found)
+        assertTrue(99.3f !in found && 99.5f !in found)
+    }
+
+    @Test
+    fun `signal-only scan visits every channel and finds every station`() {
+        val tuner = newTuner()
+        val start = tuner.clock.nowMs()
+        val found = runSignalOnly(tuner).map { it.frequency }
+
+        assertTrue(found.containsAll(listOf(88.9f, 94.3f, 99.4f, 101.5f)))
+        // Noise floor samples plus one tune per channel
+        assertTrue("tunes: ${tuner.tuneCount}", tuner.tuneCount >= 206)
+        val perChannel = (tuner.clock.nowMs() - start) / 206
+        assertTrue("virtual ms per channel: $perChannel", perChannel >= RssiSettleDetector.INITIAL_SETTLE_MS)
+    }
+
+    @Test
+    fun `coarse-to-fine is faster than the full scan on the same band`() {
+        val full = newTuner()
+        runSignalOnly(full)
+        val coarse = newTuner()
+        runCoarseToFine(coarse)
+
+        assertTrue(
+            "coarse ${coarse.clock.nowMs()} ms vs full ${full.clock.nowMs()} ms",
+            coarse.clock.nowMs() < full.clock.nowMs(),
+        )
+        assertTrue(coarse.tuneCount < full.tuneCount)
+    }
+
+    @Test
+    fun `same seed gives the same scan`() {
+        val a = newTuner()
+        val b = newTuner()
+        assertEquals(runCoarseToFine(a), runCoarseToFine(b))
+        assertEquals(a.clock.nowMs(), b.clock.nowMs())
+        assertEquals(a.rssiReads, b.rssiReads)
+    }
+}
@@ -37,8 +37,10 @@ import java.util.concurrent.TimeUnit
  * gating when no scan is running, and the bail-fast paths when [FmNativeApi]
  * is null. Plus the [RadioScanner.scanFMNative] hardware-autoscan path,
  * which is the only scan flow without a per-frequency `Thread.sleep` —
- * the manual scanFM/scanAM paths sleep 250ms × 200+ frequencies, too slow
- * for unit tests without restructuring the loop.
+ * the manual scanFM/scanAM paths sleep at least 80ms × 200+ frequencies
+ * on the real clock; they run against the simulated tuner on a virtual
+ * clock in [RadioScannerSimulationTest] instead.
+ * The settle decision itself is covered by [RssiSettleDetectorTest].
  */
 @RunWith(RobolectricTestRunner::class)
 @Config(manifest = Config.NONE, sdk = [33])
@@ -0,0 +1,40 @@
+package at.planqton.fytfm.scanner
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [RdsVerifyHistogram]: bucket boundaries and the separate
+ * timeout count.
+ */
+class RdsVerifyHistogramTest {
+
+    @Test
+    fun `satisfied times land in their bucket, bounds inclusive`() {
+        val h = RdsVerifyHistogram()
+        h.record(500, true)
+        h.record(501, true)
+        h.record(3_000, true)
+        h.record(9_000, true)
+
+        assertEquals(1, h.bucketCount(0))
+        assertEquals(1, h.bucketCount(1))
+        assertEquals(1, h.bucketCount(3))
+        assertEquals(1, h.bucketCount(RdsVerifyHistogram.BOUNDS_MS.size))
+        assertEquals(4, h.satisfiedCount)
+    }
+
+    @Test
+    fun `timeouts are counted apart from the buckets`() {
+        val h = RdsVerifyHistogram()
+        h.record(1_200, true)
+        h.record(8_000, false)
+        h.record(4_000, false)
+
+        assertEquals(1, h.satisfiedCount)
+        assertEquals(2, h.timeoutCount)
+        assertEquals(13_200L, h.totalMs)
+        assertTrue(h.toString().contains("timeout:2"))
+    }
+}
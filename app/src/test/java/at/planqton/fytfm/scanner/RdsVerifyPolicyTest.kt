@@ -0,0 +1,70 @@
+package at.planqton.fytfm.scanner
+
+import at.planqton.fytfm.scanner.RadioScanner.FilterMode
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Tests for [RdsVerifyPolicy]: when RDS verification may stop early and
+ * how long a station is given at most.
+ */
+class RdsVerifyPolicyTest {
+
+    // ============ isSatisfied ============
+
+    @Test
+    fun `single requirement modes stop on their own field`() {
+        assertTrue(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS, hasPs = true, hasPi = false))
+        assertFalse(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS, hasPs = false, hasPi = true))
+        assertTrue(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PI, hasPs = false, hasPi = true))
+        assertFalse(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PI, hasPs = true, hasPi = false))
+    }
+
+    @Test
+    fun `and needs both, or needs either`() {
+        assertFalse(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS_AND_PI, hasPs = true, hasPi = false))
+        assertTrue(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS_AND_PI, hasPs = true, hasPi = true))
+        assertTrue(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS_OR_PI, hasPs = false, hasPi = true))
+        assertFalse(RdsVerifyPolicy.isSatisfied(FilterMode.REQUIRE_PS_OR_PI, hasPs = false, hasPi = false))
+    }
+
+    @Test
+    fun `no filter waits for the name only`() {
+        assertTrue(RdsVerifyPolicy.isSatisfied(FilterMode.NONE, hasPs = true, hasPi = false))
+        assertFalse(RdsVerifyPolicy.isSatisfied(FilterMode.NONE, hasPs = false, hasPi = true))
+    }
+
+    // ============ timeoutFor ============
+
+    @Test
+    fun `unknown rssi keeps the base timeout`() {
+        assertEquals(8_000L, RdsVerifyPolicy.timeoutFor(0, 8_000L))
+    }
+
+    @Test
+    fun `strong station gets the short timeout`() {
+        assertEquals(3_200L, RdsVerifyPolicy.timeoutFor(RdsVerifyPolicy.STRONG_RSSI, 8_000L))
+        assertEquals(3_200L, RdsVerifyPolicy.timeoutFor(90, 8_000L))
+    }
+
+    @Test
+    fun `barely received station is cut short`() {
+        assertEquals(4_000L, RdsVerifyPolicy.timeoutFor(RdsVerifyPolicy.WEAK_RSSI - 1, 8_000L))
+    }
+
+    @Test
+    fun `medium station gets the most time and it falls off with rssi`() {
+        val atWeak = RdsVerifyPolicy.timeoutFor(RdsVerifyPolicy.WEAK_RSSI, 8_000L)
+        val middle = RdsVerifyPolicy.timeoutFor((RdsVerifyPolicy.WEAK_RSSI + RdsVerifyPolicy.STRONG_RSSI) / 2, 8_000L)
+        assertEquals(8_000L, atWeak)
+        assertTrue(middle in 3_201L..7_999L)
+    }
+
+    @Test
+    fun `never below the minimum and short bases stay untouched`() {
+        assertEquals(RdsVerifyPolicy.MIN_TIMEOUT_MS, RdsVerifyPolicy.timeoutFor(90, 3_000L))
+        assertEquals(1_000L, RdsVerifyPolicy.timeoutFor(90, 1_000L))
+    }
+}
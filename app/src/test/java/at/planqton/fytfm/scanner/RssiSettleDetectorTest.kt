@@ -0,0 +1,103 @@
+package at.planqton.fytfm.scanner
+
+import at.planqton.fytfm.scanner.RssiSettleDetector.Verdict
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Tests for [RssiSettleDetector]. Pin when a Phase-1 channel measurement
+ * may stop — stopping too early misses weak stations, stopping too late
+ * brings back the minute-long full-band scan.
+ */
+class RssiSettleDetectorTest {
+
+    private val detector = RssiSettleDetector()
+
+    private fun feed(vararg rssi: Int): Verdict {
+        var verdict = Verdict.CONTINUE
+        for (r in rssi) {
+            verdict = detector.offer(r)
+            if (verdict != Verdict.CONTINUE) break
+        }
+        return verdict
+    }
+
+    @Test
+    fun `clear noise bails after two low samples`() {
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.CONTINUE, feed(25))
+        assertEquals(Verdict.BELOW_NOISE, feed(24))
+        assertEquals(24, detector.value)
+        assertEquals(2, detector.sampleCount)
+    }
+
+    @Test
+    fun `falling level from the previous channel is noise as well`() {
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.BELOW_NOISE, feed(30, 21))
+        assertEquals(21, detector.value)
+    }
+
+    @Test
+    fun `rising ramp that starts below the margin is measured, not rejected`() {
+        detector.reset(threshold = 40)
+        // Front end still coming up from the previous channel's noise
+        assertEquals(Verdict.SETTLED, feed(20, 30, 42, 50, 51))
+        assertEquals(50, detector.value)
+        assertEquals(5, detector.sampleCount)
+    }
+
+    @Test
+    fun `sample just below threshold is measured properly`() {
+        detector.reset(threshold = 40)
+        // 36 is within REJECT_MARGIN of the threshold → needs convergence
+        assertEquals(Verdict.CONTINUE, feed(36))
+        assertEquals(Verdict.SETTLED, feed(37))
+        assertEquals(36, detector.value)
+    }
+
+    @Test
+    fun `rising signal settles once two samples agree`() {
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.SETTLED, feed(45, 52, 55, 56))
+        assertEquals(55, detector.value)
+        assertEquals(4, detector.sampleCount)
+    }
+
+    @Test
+    fun `unstable signal stops at max samples with tail average`() {
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.MAX_SAMPLES, feed(40, 50, 40, 50, 40, 50))
+        assertEquals(46, detector.value) // (50 + 40 + 50) / 3
+        assertEquals(RssiSettleDetector.MAX_SAMPLES, detector.sampleCount)
+    }
+
+    @Test
+    fun `invalid reads count against the budget but not the value`() {
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.SETTLED, feed(0, 120, 50, 51))
+        assertEquals(50, detector.value)
+
+        detector.reset(threshold = 40)
+        assertEquals(Verdict.MAX_SAMPLES, feed(0, 0, 0, 0, 0, 0))
+        assertEquals(0, detector.value)
+    }
+
+    @Test
+    fun `noise floor sampling never bails early`() {
+        detector.reset()
+        assertEquals(Verdict.CONTINUE, feed(5))
+        assertEquals(Verdict.SETTLED, feed(6))
+        assertEquals(5, detector.value)
+    }
+
+    @Test
+    fun `reset clears the previous channel`() {
+        detector.reset(threshold = 40)
+        feed(60, 61)
+        detector.reset(threshold = 40)
+        assertEquals(0, detector.value)
+        assertEquals(0, detector.sampleCount)
+        assertEquals(Verdict.BELOW_NOISE, feed(20, 20))
+    }
+}
@@ -0,0 +1,99 @@
+package at.planqton.fytfm.sim
+
+import kotlin.math.abs
+import kotlin.math.roundToInt
+
+/**
+ * One transmitter in a [SimBand].
+ *
+ * @param rssi settled RSSI on the carrier, in the chip's 0..99 units
+ * @param groupErrorRate probability that a single RDS group is lost
+ *   (0.0 = perfect reception, 1.0 = no RDS at all)
+ */
+data class SimStation(
+    val frequency: Float,
+    val rssi: Int,
+    val pi: Int = 0,
+    val ps: String = "",
+    val rt: String = "",
+    val pty: Int = 0,
+    val tp: Boolean = false,
+    val ta: Boolean = false,
+    val groupErrorRate: Double = 0.0,
+)
+
+/**
+ * Band model for [SimulatedFmTuner]: which stations exist and how the
+ * tuner behaves around them. All timings are in virtual milliseconds.
+ *
+ * - RSSI on a channel is the strongest contribution of any station,
+ *   falling off by [splatterPerChannel] per 100 kHz, never below
+ *   [noiseFloor]. Each read adds a deterministic ±[noiseJitter].
+ * - After a tune the reading ramps linearly from the previous channel's
+ *   level to the new one over [settleMs].
+ * - RDS arrives as one group every [groupIntervalMs]: four 0A groups (PS
+ *   segments 0..3), then one 2A group (next RadioText segment), repeating.
+ *   Each group is lost with the station's [SimStation.groupErrorRate],
+ *   decided by a hash of [seed], the tune number and the group number —
+ *   the same call sequence always yields the same result.
+ */
+class SimBand(
+    val stations: List<SimStation>,
+    val noiseFloor: Int = 20,
+    val noiseJitter: Int = 1,
+    val splatterPerChannel: Int = 14,
+    val settleMs: Long = 60L,
+    val tuneLatencyMs: Long = 15L,
+    val commandLatencyMs: Long = 2L,
+    val seekMsPerChannel: Long = 30L,
+    val autoScanMsPerChannel: Long = 40L,
+    val groupIntervalMs: Long = 88L,
+    val seed: Long = 1L,
+) {
+    companion object {
+        const val FM_MIN_CH = 875
+        const val FM_MAX_CH = 1080
+
+        /** Groups per RDS cycle: four PS segments, one RT segment. */
+        const val GROUPS_PER_CYCLE = 5
+
+        fun channelOf(freqMHz: Float): Int = (freqMHz * 10f).roundToInt()
+    }
+
+    private val byChannel: Map<Int, SimStation> = stations.associateBy { channelOf(it.frequency) }
+
+    fun stationAt(channel: Int): SimStation? = byChannel[channel]
+
+    /** Settled RSSI on [channel] without jitter. */
+    fun targetRssi(channel: Int): Int {
+        var best = noiseFloor
+        for (s in stations) {
+            val level = s.rssi - splatterPerChannel * abs(channelOf(s.frequency) - channel)
+            if (level > best) best = level
+        }
+        return best.coerceIn(0, 99)
+    }
+
+    /** Deterministic jitter in -[noiseJitter]..[noiseJitter] for the [read]-th read after [tune]. */
+    fun jitter(tune: Long, read: Long): Int {
+        if (noiseJitter == 0) return 0
+        val span = 2 * noiseJitter + 1
+        return (Math.floorMod(mix(seed, tune, read), span.toLong())).toInt() - noiseJitter
+    }
+
+    /** Whether group number [group] after the [tune]-th tune reached the decoder. */
+    fun groupReceived(station: SimStation, tune: Long, group: Long): Boolean {
+        if (station.groupErrorRate <= 0.0) return true
+        if (station.groupErrorRate >= 1.0) return false
+        val u = (mix(seed xor 0x5DEECE66DL, tune, group) ushr 11).toDouble() / (1L shl 53).toDouble()
+        return u >= station.groupErrorRate
+    }
+
+    private fun mix(a: Long, b: Long, c: Long): Long {
+        // SplitMix64 finaliser over the combined inputs
+        var z = a * -0x61c8864680b583ebL + b * 0x2545F4914F6CDD1DL + c
+        z = (z xor (z ushr 30)) * -0x40a7b892e31b1a47L
+        z = (z xor (z ushr 27)) * -0x6b2fb644ecceee15L
+        return z xor (z ushr 31)
+    }
+}
@@ -0,0 +1,292 @@
+package at.planqton.fytfm.sim
+
+import android.os.Bundle
+import at.planqton.fytfm.controller.FmNativeApi
+import com.android.fmradio.FmNative
+
+/**
+ * Deterministic [FmNativeApi] backed by a [SimBand] and a [VirtualClock].
+ *
+ * Implements the `fmsyu_jni` commands the app relies on with the same
+ * bundle keys the head unit uses:
+ * - `0x01` AUTOSCAN → `param0`/`param1` short arrays (MHz × 10, RSSI)
+ * - `0x0b` GETRSSI → `rssilevel`
+ * - `0x12` CURRENTFREQ → `frequency` (MHz × 10, as RdsManager decodes it)
+ * - `0x15` RDSONOFF ← `rdsonoff`
+ * - `0x1b` GETRDSSTATE → `PIcode`, `PTYstate`, `TPstate`, `TAstate`
+ * - `0x1e` RDSGETPS → `PSname` (8 bytes, space for missing segments)
+ * - `0x1f` RDSGETTEXT → `TextSize`, `Text`
+ * RDS commands return -1 until the first group after the tune arrived;
+ * unknown commands return -1.
+ *
+ * Every call costs the modelled latency on the shared clock, so a test can
+ * read scan time, time-to-PS or tune throughput straight off [clock].
+ * Counters ([tuneCount], [rssiReads], [commandCount]) expose how hard the
+ * code under test drove the tuner. Thread-safe.
+ */
+class SimulatedFmTuner(
+    val band: SimBand,
+    val clock: VirtualClock = VirtualClock(),
+) : FmNativeApi {
+
+    companion object {
+        const val CMD_AUTOSCAN = FmNative.CMD_AUTOSCAN
+        const val CMD_GETRSSI = FmNative.CMD_GETRSSI
+        const val CMD_CURRENTFREQ = 0x12
+        const val CMD_RDSONOFF = FmNative.CMD_RDSONOFF
+        const val CMD_GETRDSSTATE = 0x1b
+        const val CMD_RDSGETPS = FmNative.CMD_RDSGETPS
+        const val CMD_RDSGETTEXT = FmNative.CMD_RDSGETTEXT
+
+        private const val PS_LENGTH = 8
+        private const val RT_MAX = 64
+        private const val RT_SEGMENT = 4
+
+        /** AUTOSCAN/seek margin over the noise floor, as the chip's sensitivity 0 (sensitive) vs. 1..3. */
+        private const val MARGIN_SENSITIVE = 5
+        private const val MARGIN_NORMAL = 15
+    }
+
+    private val lock = Any()
+    private var powered = false
+    private var rdsEnabled = true
+    private val commandCounts = HashMap<Int, Int>()
+
+    // Current channel and what the decoder has collected since the tune
+    private var channel = SimBand.FM_MIN_CH
+    private var tuneSerial = 0L
+    private var tunedAt = 0L
+    private var rssiBeforeTune = 0
+    private var readsSinceTune = 0L
+    private var groupsProcessed = 0L
+    private var groupsReceived = 0
+    private val psChars = CharArray(PS_LENGTH) { ' ' }
+    private val rtChars = CharArray(RT_MAX) { ' ' }
+    private var psSegments = 0
+    private var rtSegments = 0
+
+    var tuneCount = 0
+        private set
+    var rssiReads = 0
+        private set
+    var muted = false
+        private set
+
+    fun commandCount(cmd: Int): Int = synchronized(lock) { commandCounts[cmd] ?: 0 }
+
+    /** Currently tuned frequency in MHz. */
+    val frequency: Float get() = synchronized(lock) { channel / 10f }
+
+    // ===== FmNativeApi =====
+
+    override fun powerOn(frequency: Float): Boolean = powerUp(frequency)
+
+    override fun powerOff(): Boolean = synchronized(lock) {
+        powered = false
+        true
+    }
+
+    override fun openDev(): Boolean = true
+
+    override fun powerUp(frequency: Float): Boolean {
+        synchronized(lock) { powered = true }
+        return tune(frequency)
+    }
+
+    override fun tune(frequency: Float): Boolean {
+        synchronized(lock) {
+            if (!powered) return false
+            val target = SimBand.channelOf(frequency)
+            if (target !in SimBand.FM_MIN_CH..SimBand.FM_MAX_CH) return false
+            rssiBeforeTune = currentRssiLocked(jitter = false)
+            clock.advance(band.tuneLatencyMs)
+            channel = target
+            tuneCount++
+            tuneSerial++
+            tunedAt = clock.nowMs()
+            readsSinceTune = 0
+            groupsProcessed = 0
+            groupsReceived = 0
+            psChars.fill(' ')
+            rtChars.fill(' ')
+            psSegments = 0
+            rtSegments = 0
+            return true
+        }
+    }
+
+    override fun seek(frequency: Float, isUp: Boolean): FloatArray? {
+        synchronized(lock) {
+            if (!powered) return null
+            val start = SimBand.channelOf(frequency)
+            val span = SimBand.FM_MAX_CH - SimBand.FM_MIN_CH + 1
+            val step = if (isUp) 1 else -1
+            for (i in 1 until span) {
+                val ch = SimBand.FM_MIN_CH + Math.floorMod(start - SimBand.FM_MIN_CH + i * step, span)
+                clock.advance(band.seekMsPerChannel)
+                if (isStationChannel(ch, band.noiseFloor + MARGIN_NORMAL)) {
+                    tune(ch / 10f)
+                    return floatArrayOf(ch / 10f)
+                }
+            }
+            return null
+        }
+    }
+
+    override fun setMute(mute: Boolean): Int = synchronized(lock) {
+        muted = mute
+        0
+    }
+
+    override fun setMonoMode(enabled: Boolean): Boolean = true
+    override fun setLocalMode(enabled: Boolean): Boolean = true
+    override fun setRadioArea(area: Int): Boolean = true
+
+    override fun getrssi(): Int = readRssi()
+
+    override fun sql_getrssi(): Int = readRssi()
+
+    override fun isLibraryLoaded(): Boolean = true
+
+    override fun setRds(enabled: Boolean): Int = synchronized(lock) {
+        rdsEnabled = enabled
+        0
+    }
+
+    override fun stopScan(): Boolean = true
+
+    // RDS is modelled on the fmsyu_jni path only; the direct readers behave
+    // like a chip that does not implement them.
+    override fun readRds(): Short = 0
+    override fun activeAf(): Short = 0
+    override fun getPs(): ByteArray? = null
+    override fun getPsString(): String? = null
+    override fun getLrText(): ByteArray? = null
+    override fun getRadioText(): String? = null
+
+    override fun fmsyu_jni(cmd: Int, inBundle: Bundle, outBundle: Bundle): Int {
+        synchronized(lock) {
+            commandCounts[cmd] = (commandCounts[cmd] ?: 0) + 1
+            clock.advance(band.commandLatencyMs)
+            if (!powered) return -1
+            return when (cmd) {
+                CMD_GETRSSI -> {
+                    outBundle.putInt("rssilevel", readRssi())
+                    0
+                }
+                CMD_CURRENTFREQ -> {
+                    outBundle.putInt("frequency", channel)
+                    0
+                }
+                CMD_RDSONOFF -> {
+                    rdsEnabled = inBundle.getInt("rdsonoff", 1) != 0
+                    0
+                }
+                CMD_GETRDSSTATE -> {
+                    val station = decodeRdsLocked()
+                    if (station == null || groupsReceived == 0) return -1
+                    outBundle.putInt("PIcode", station.pi)
+                    outBundle.putInt("PTYstate", station.pty)
+                    outBundle.putInt("TPstate", if (station.tp) 1 else 0)
+                    outBundle.putInt("TAstate", if (station.ta) 1 else 0)
+                    0
+                }
+                CMD_RDSGETPS -> {
+                    if (decodeRdsLocked() == null || psSegments == 0) return -1
+                    outBundle.putByteArray("PSname", String(psChars).toByteArray(Charsets.ISO_8859_1))
+                    0
+                }
+                CMD_RDSGETTEXT -> {
+                    val station = decodeRdsLocked()
+                    if (station == null || rtSegments == 0) return -1
+                    val size = rtLength(station)
+                    outBundle.putInt("TextSize", size)
+                    outBundle.putByteArray("Text", String(rtChars, 0, size).toByteArray(Charsets.ISO_8859_1))
+                    0
+                }
+                CMD_AUTOSCAN -> autoScanLocked(inBundle, outBundle)
+                else -> -1
+            }
+        }
+    }
+
+    // ===== Model =====
+
+    private fun readRssi(): Int {
+        synchronized(lock) {
+            rssiReads++
+            if (!powered) return 0
+            return currentRssiLocked(jitter = true)
+        }
+    }
+
+    private fun currentRssiLocked(jitter: Boolean): Int {
+        val target = band.targetRssi(channel)
+        val elapsed = clock.nowMs() - tunedAt
+        val level = if (band.settleMs <= 0 || elapsed >= band.settleMs || tuneSerial == 0L) {
+            target
+        } else {
+            rssiBeforeTune + ((target - rssiBeforeTune) * elapsed / band.settleMs).toInt()
+        }
+        val noise = if (jitter) band.jitter(tuneSerial, readsSinceTune++) else 0
+        return (level + noise).coerceIn(1, 99)
+    }
+
+    private fun isStationChannel(ch: Int, threshold: Int): Boolean {
+        val rssi = band.targetRssi(ch)
+        return band.stationAt(ch) != null && rssi >= threshold
+    }
+
+    /**
+     * Feeds every group that completed since the last call into the PS/RT
+     * buffers. Returns the station on the channel, null if there is none
+     * or RDS is off.
+     */
+    private fun decodeRdsLocked(): SimStation? {
+        val station = band.stationAt(channel) ?: return null
+        if (!rdsEnabled) return null
+        val completed = (clock.nowMs() - tunedAt) / band.groupIntervalMs
+        val rtSegmentCount = (rtLength(station) + RT_SEGMENT - 1) / RT_SEGMENT
+        while (groupsProcessed < completed) {
+            val group = groupsProcessed++
+            if (!band.groupReceived(station, tuneSerial, group)) continue
+            groupsReceived++
+            val slot = (group % SimBand.GROUPS_PER_CYCLE).toInt()
+            if (slot < 4) {
+                val text = station.ps.padEnd(PS_LENGTH).take(PS_LENGTH)
+                psChars[slot * 2] = text[slot * 2]
+                psChars[slot * 2 + 1] = text[slot * 2 + 1]
+                psSegments = psSegments or (1 shl slot)
+            } else if (rtSegmentCount > 0) {
+                val segment = ((group / SimBand.GROUPS_PER_CYCLE) % rtSegmentCount).toInt()
+                val text = station.rt.padEnd(rtSegmentCount * RT_SEGMENT).take(RT_MAX)
+                for (i in 0 until RT_SEGMENT) {
+                    val pos = segment * RT_SEGMENT + i
+                    if (pos < text.length) rtChars[pos] = text[pos]
+                }
+                rtSegments = rtSegments or (1 shl segment)
+            }
+        }
+        return station
+    }
+
+    private fun rtLength(station: SimStation): Int = minOf(station.rt.length, RT_MAX)
+
+    private fun autoScanLocked(inBundle: Bundle, outBundle: Bundle): Int {
+        val startCh = inBundle.getInt("param0", SimBand.FM_MIN_CH)
+        val sensitivity = inBundle.getInt("sensitivity", 2)
+        val threshold = band.noiseFloor + if (sensitivity == 0) MARGIN_SENSITIVE else MARGIN_NORMAL
+        val freqs = ArrayList<Short>()
+        val levels = ArrayList<Short>()
+        for (ch in maxOf(startCh, SimBand.FM_MIN_CH)..SimBand.FM_MAX_CH) {
+            clock.advance(band.autoScanMsPerChannel)
+            if (isStationChannel(ch, threshold)) {
+                freqs.add(ch.toShort())
+                levels.add(band.targetRssi(ch).toShort())
+            }
+        }
+        outBundle.putShortArray("param0", freqs.toShortArray())
+        outBundle.putShortArray("param1", levels.toShortArray())
+        return 0
+    }
+}
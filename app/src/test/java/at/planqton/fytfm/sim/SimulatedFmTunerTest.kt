@@ -0,0 +1,191 @@
+package at.planqton.fytfm.sim
+
+import android.os.Bundle
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Tests for [SimulatedFmTuner]: RSSI model, RDS group timing, determinism
+ * of the error model and the `fmsyu_jni` bundle contract. Robolectric for
+ * a real [Bundle].
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(manifest = Config.NONE, sdk = [33])
+class SimulatedFmTunerTest {
+
+    private lateinit var tuner: SimulatedFmTuner
+
+    private fun band(errorRate: Double = 0.0, seed: Long = 1L) = SimBand(
+        stations = listOf(
+            SimStation(88.8f, rssi = 60, pi = 0xA201, ps = "RADIO_XY", rt = "ABCDEFGH", groupErrorRate = errorRate),
+            SimStation(99.9f, rssi = 50, pi = 0xA202, ps = "FM4"),
+        ),
+        noiseFloor = 20,
+        noiseJitter = 0,
+        commandLatencyMs = 0,
+        seed = seed,
+    )
+
+    @Before
+    fun setup() {
+        tuner = SimulatedFmTuner(band())
+        tuner.powerUp(95.0f)
+    }
+
+    private fun cmd(cmd: Int, inBundle: Bundle = Bundle()): Pair<Int, Bundle> {
+        val out = Bundle()
+        return tuner.fmsyu_jni(cmd, inBundle, out) to out
+    }
+
+    private fun ps(): String? {
+        val (result, out) = cmd(SimulatedFmTuner.CMD_RDSGETPS)
+        return if (result == 0) String(out.getByteArray("PSname")!!, Charsets.ISO_8859_1) else null
+    }
+
+    // ===== RSSI =====
+
+    @Test
+    fun `settled rssi falls off with channel distance`() {
+        tuner.tune(88.8f)
+        tuner.clock.advance(100)
+        assertEquals(60, tuner.getrssi())
+        tuner.tune(88.9f)
+        tuner.clock.advance(100)
+        assertEquals(46, tuner.getrssi())
+        tuner.tune(95.0f)
+        tuner.clock.advance(100)
+        assertEquals(20, tuner.getrssi())
+    }
+
+    @Test
+    fun `rssi ramps from the previous channel during settle`() {
+        tuner.clock.advance(100)
+        tuner.tune(88.8f)
+        tuner.clock.advance(30)
+        assertEquals(40, tuner.getrssi())
+    }
+
+    @Test
+    fun `GETRSSI reports through the rssilevel key`() {
+        tuner.tune(99.9f)
+        tuner.clock.advance(100)
+        val (result, out) = cmd(SimulatedFmTuner.CMD_GETRSSI)
+        assertEquals(0, result)
+        assertEquals(50, out.getInt("rssilevel"))
+    }
+
+    // ===== RDS =====
+
+    @Test
+    fun `PS builds up one segment per 0A group`() {
+        tuner.tune(88.8f)
+        tuner.clock.advance(351)
+        assertEquals("RADIO_  ", ps())
+        tuner.clock.advance(1)
+        assertEquals("RADIO_XY", ps())
+    }
+
+    @Test
+    fun `rds state is unavailable before the first group`() {
+        tuner.tune(88.8f)
+        tuner.clock.advance(87)
+        assertEquals(-1, cmd(SimulatedFmTuner.CMD_GETRDSSTATE).first)
+        tuner.clock.advance(1)
+        val (result, out) = cmd(SimulatedFmTuner.CMD_GETRDSSTATE)
+        assertEquals(0, result)
+        assertEquals(0xA201, out.getInt("PIcode"))
+    }
+
+    @Test
+    fun `radiotext arrives in 2A groups`() {
+        tuner.tune(88.8f)
+        tuner.clock.advance(10 * 88)
+        val (result, out) = cmd(SimulatedFmTuner.CMD_RDSGETTEXT)
+        assertEquals(0, result)
+        assertEquals(8, out.getInt("TextSize"))
+        assertEquals("ABCDEFGH", String(out.getByteArray("Text")!!, Charsets.ISO_8859_1))
+    }
+
+    @Test
+    fun `tune clears the decoder`() {
+        tuner.tune(88.8f)
+        tuner.clock.advance(1000)
+        tuner.tune(99.9f)
+        assertNull(ps())
+    }
+
+    @Test
+    fun `no rds on an empty channel or with every group lost`() {
+        tuner.tune(95.0f)
+        tuner.clock.advance(5000)
+        assertNull(ps())
+
+        tuner = SimulatedFmTuner(band(errorRate = 1.0))
+        tuner.powerUp(88.8f)
+        tuner.clock.advance(5000)
+        assertNull(ps())
+    }
+
+    @Test
+    fun `group losses are deterministic per seed`() {
+        fun timeToPs(seed: Long): Long {
+            val t = SimulatedFmTuner(band(errorRate = 0.5, seed = seed))
+            t.powerUp(88.8f)
+            val start = t.clock.nowMs()
+            while (t.clock.nowMs() - start < 60_000) {
+                t.clock.advance(88)
+                val out = Bundle()
+                if (t.fmsyu_jni(SimulatedFmTuner.CMD_RDSGETPS, Bundle(), out) == 0 &&
+                    String(out.getByteArray("PSname")!!, Charsets.ISO_8859_1) == "RADIO_XY"
+                ) return t.clock.nowMs() - start
+            }
+            return -1
+        }
+        val first = timeToPs(7L)
+        assertTrue(first >= 4 * 88)
+        assertEquals(first, timeToPs(7L))
+        // Over a few seeds, losing half the groups must cost time on average
+        val average = (1L..20L).map { timeToPs(it) }.average()
+        assertTrue("lossy reception must be slower than 4 groups, was $average", average > 4 * 88)
+    }
+
+    // ===== Seek / autoscan / frequency =====
+
+    @Test
+    fun `seek finds the next station and wraps around the band`() {
+        assertArrayEquals(floatArrayOf(99.9f), tuner.seek(95.0f, isUp = true), 0.001f)
+        assertArrayEquals(floatArrayOf(88.8f), tuner.seek(99.9f, isUp = true), 0.001f)
+        assertArrayEquals(floatArrayOf(99.9f), tuner.seek(88.8f, isUp = false), 0.001f)
+        assertEquals(99.9f, tuner.frequency, 0.001f)
+    }
+
+    @Test
+    fun `autoscan lists stations and costs virtual time per channel`() {
+        val start = tuner.clock.nowMs()
+        val (result, out) = cmd(SimulatedFmTuner.CMD_AUTOSCAN, Bundle().apply { putInt("param0", 875) })
+        assertEquals(0, result)
+        assertArrayEquals(shortArrayOf(888, 999), out.getShortArray("param0"))
+        assertArrayEquals(shortArrayOf(60, 50), out.getShortArray("param1"))
+        assertEquals(206 * 40L, tuner.clock.nowMs() - start)
+    }
+
+    @Test
+    fun `current frequency is reported times 10`() {
+        tuner.tune(103.7f)
+        assertEquals(1037, cmd(SimulatedFmTuner.CMD_CURRENTFREQ).second.getInt("frequency"))
+    }
+
+    @Test
+    fun `tuner refuses to tune while powered off`() {
+        tuner.powerOff()
+        assertEquals(false, tuner.tune(88.8f))
+        assertEquals(-1, cmd(SimulatedFmTuner.CMD_GETRSSI).first)
+    }
+}
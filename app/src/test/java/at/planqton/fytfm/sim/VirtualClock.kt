@@ -0,0 +1,22 @@
+package at.planqton.fytfm.sim
+
+import at.planqton.fytfm.controller.TunerClock
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * [TunerClock] that never blocks: [sleep] just moves time forward. Shared
+ * between the code under test and [SimulatedFmTuner], so settle waits and
+ * tune latencies add up to the modelled hardware time.
+ */
+class VirtualClock(startMs: Long = 0L) : TunerClock {
+
+    private val now = AtomicLong(startMs)
+
+    override fun nowMs(): Long = now.get()
+
+    override fun sleep(ms: Long) {
+        if (ms > 0) now.addAndGet(ms)
+    }
+
+    fun advance(ms: Long) = sleep(ms)
+}
@@ -0,0 +1,63 @@
+plugins {
+    alias(libs.plugins.kotlin.jvm)
+    alias(libs.plugins.jmh)
+}
+
+// JMH-Benchmarks für die Text-Pipeline (RT/DLS → Parser → Deezer-Query).
+// Die Quellen werden direkt aus :app kompiliert, damit gemessen wird, was
+// ausgeliefert wird; android.util.Log kommt als No-op-Stub aus src/main.
+val appSources = rootProject.file("app/src/main/java")
+val pipelineSources = listOf(
+    "at/planqton/fytfm/data/http/HttpStack.kt",
+    "at/planqton/fytfm/rds/RdsCharset.java",
+    "at/planqton/fytfm/deezer/ClassicalMusicNormalizer.kt",
+    "at/planqton/fytfm/deezer/DeezerCacheMatcher.kt",
+    "at/planqton/fytfm/deezer/DeezerClient.kt",
+    "at/planqton/fytfm/deezer/DeezerLookupCache.kt",
+    "at/planqton/fytfm/deezer/DeezerQueryBuilder.kt",
+    "at/planqton/fytfm/deezer/DeezerResponseParser.kt",
+    "at/planqton/fytfm/deezer/DeezerSearchStrategies.kt",
+    "at/planqton/fytfm/deezer/DlsParser.kt",
+    "at/planqton/fytfm/deezer/RtCombinerHelpers.kt",
+    "at/planqton/fytfm/deezer/StrategyRace.kt",
+    "at/planqton/fytfm/deezer/TrackTextIndex.kt",
+    "android/**",
+)
+
+sourceSets {
+    main {
+        java.srcDir(appSources)
+        java.setIncludes(pipelineSources)
+        kotlin.srcDir(appSources)
+        kotlin.setIncludes(pipelineSources)
+    }
+}
+
+kotlin {
+    jvmToolchain(17)
+    // Benchmarks measure internal helpers (DeezerQueryBuilder, RtCombinerHelpers, ...)
+    target.compilations.getByName("jmh").associateWith(target.compilations.getByName("main"))
+}
+
+dependencies {
+    implementation(libs.okhttp)
+    implementation(libs.org.json)
+    implementation(libs.kotlinx.coroutines.core)
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("ms")
+    warmupIterations.set(3)
+    warmup.set("2s")
+    iterations.set(5)
+    timeOnIteration.set("2s")
+    fork.set(1)
+    // gc.alloc.rate.norm = Bytes pro Operation, die zweite Kennzahl neben dem Durchsatz
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+}
@@ -0,0 +1,54 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.deezer.ClassicalMusicNormalizer
+import at.planqton.fytfm.deezer.DlsParser
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * [ClassicalMusicNormalizer] as the search stage calls it: format check on
+ * every parsed track, artist/title normalisation and search variations on
+ * the ones that look classical. Input is the [DlsParser] output for the
+ * corpus, so the mix of classical and pop lines matches the capture.
+ */
+@State(Scope.Thread)
+open class ClassicalMusicNormalizerBenchmark {
+
+    @Param(Corpus.FM, Corpus.DAB)
+    lateinit var corpus: String
+
+    private lateinit var tracks: Cycle<Pair<String, String>>
+    private lateinit var classical: Cycle<Pair<String, String>>
+
+    @Setup
+    fun setup() {
+        val parsed = Corpus.load(corpus)
+            .map { DlsParser.parse(it.raw) }
+            .filter { it.success && it.artist != null && it.title != null }
+            .map { it.artist!! to it.title!! }
+        tracks = Cycle(parsed)
+        classical = Cycle(parsed.filter { ClassicalMusicNormalizer.isClassicalFormat("${it.first} ${it.second}") }
+            .ifEmpty { parsed })
+    }
+
+    @Benchmark
+    fun isClassicalFormat(): Boolean {
+        val (artist, title) = tracks.next()
+        return ClassicalMusicNormalizer.isClassicalFormat("$artist $title")
+    }
+
+    @Benchmark
+    fun normalizeArtist(): String = ClassicalMusicNormalizer.normalizeArtist(classical.next().first)
+
+    @Benchmark
+    fun normalizeTitle(): String = ClassicalMusicNormalizer.normalizeTitle(classical.next().second)
+
+    @Benchmark
+    fun searchVariations(): List<Pair<String, String>> {
+        val (artist, title) = classical.next()
+        return ClassicalMusicNormalizer.getSearchVariations(artist, title)
+    }
+}
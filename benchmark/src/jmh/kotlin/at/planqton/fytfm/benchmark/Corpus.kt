@@ -0,0 +1,57 @@
+package at.planqton.fytfm.benchmark
+
+/**
+ * One line of a [at.planqton.fytfm.deezer.ParserLogger] export: the raw
+ * RT/DLS string and the result the app logged for it (`null` for `X`).
+ */
+data class CorpusEntry(val raw: String, val logged: String?)
+
+/**
+ * Loads the RT/DLS corpus from `src/jmh/resources/corpus/<name>.txt`.
+ *
+ * The files use the `ParserLogger.exportFm()` / `exportDab()` format, but
+ * the shipped `fm-rt` and `dab-dls` corpora are synthetic: hand-written
+ * station texts plus DlsParser edge cases, not captures from a device. Treat
+ * their numbers as relative, not as field throughput. To add real data,
+ * paste an export from the parser log dialog into a new file and add its
+ * name to the benchmarks' `@Param` lists. Header lines are skipped; every
+ * `[HH:mm:ss] raw → result` line becomes one entry.
+ */
+object Corpus {
+
+    const val FM = "fm-rt"
+    const val DAB = "dab-dls"
+
+    private val LINE = Regex("""^\[\d{2}:\d{2}:\d{2}] (.*) → (.*)$""")
+
+    fun load(name: String): List<CorpusEntry> {
+        val stream = Corpus::class.java.getResourceAsStream("/corpus/$name.txt")
+            ?: throw IllegalArgumentException("Unknown corpus '$name'")
+        val entries = stream.bufferedReader(Charsets.UTF_8).use { parse(it.readText()) }
+        require(entries.isNotEmpty()) { "Corpus '$name' has no entries" }
+        return entries
+    }
+
+    fun parse(export: String): List<CorpusEntry> {
+        return export.lineSequence().mapNotNull { line ->
+            LINE.matchEntire(line)?.let { match ->
+                val result = match.groupValues[2]
+                CorpusEntry(match.groupValues[1], result.takeUnless { it == "X" })
+            }
+        }.toList()
+    }
+}
+
+/**
+ * Round-robin over a fixed list, so every benchmark invocation handles
+ * the next corpus line and one operation = one RT/DLS update.
+ */
+class Cycle<T>(private val items: List<T>) {
+    private var index = 0
+
+    fun next(): T {
+        val item = items[index]
+        index = if (index + 1 == items.size) 0 else index + 1
+        return item
+    }
+}
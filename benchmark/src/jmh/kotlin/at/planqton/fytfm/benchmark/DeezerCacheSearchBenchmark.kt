@@ -0,0 +1,73 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.deezer.DeezerCacheMatcher
+import at.planqton.fytfm.deezer.DlsParser
+import at.planqton.fytfm.deezer.TrackTextIndex
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * The STRICT verification of `DeezerCache.searchLocal` over an in-memory
+ * table: normalise the query, then test rows in popularity order until the
+ * first hit. On the device the FTS index narrows the table to candidates
+ * first; this walks every row, so it is the cost of verifying [cacheSize]
+ * candidates (and what a lookup cost before the index). Excludes SQLite,
+ * which is not available on the JVM.
+ *
+ * The table holds the corpus tracks plus generated filler rows; queries
+ * are the raw corpus lines, so misses (jingles, traffic) walk every row.
+ *
+ * [searchTextIndex] answers the same queries from [TrackTextIndex], the
+ * automaton `searchLocal` uses once it is loaded: one scan of the query,
+ * independent of [cacheSize] apart from the hits.
+ */
+@State(Scope.Thread)
+open class DeezerCacheSearchBenchmark {
+
+    @Param(Corpus.FM, Corpus.DAB)
+    lateinit var corpus: String
+
+    @Param("100", "1000", "5000")
+    @JvmField
+    var cacheSize: Int = 0
+
+    private lateinit var rows: Array<Pair<String, String>>
+    private lateinit var queries: Cycle<String>
+    private val textIndex = TrackTextIndex()
+
+    @Setup
+    fun setup() {
+        val entries = Corpus.load(corpus)
+        val known = entries.map { DlsParser.parse(it.raw) }
+            .filter { it.success && it.artist != null && it.title != null }
+            .map { it.artist!! to it.title!! }
+        // Known tracks spread over the table, so hits don't all stop on the first rows
+        val table = ArrayList<Pair<String, String>>(cacheSize)
+        for (i in 0 until cacheSize) table += "Filler Artist $i" to "Filler Title ${i * 7919 % cacheSize}"
+        known.forEachIndexed { i, track -> table[(i * 131 + 17) % cacheSize] = track }
+        rows = table.toTypedArray()
+        rows.forEachIndexed { i, (artist, title) -> textIndex.put("t$i", artist, title, 0) }
+        textIndex.find("") // builds the failure links outside the measurement
+        queries = Cycle(entries.map { it.raw })
+    }
+
+    @Benchmark
+    fun searchLocal(): Pair<String, String>? {
+        val normalizedQuery = DeezerCacheMatcher.normalize(queries.next())
+        if (normalizedQuery.length < 3) return null
+        for (row in rows) {
+            if (DeezerCacheMatcher.matchesQuery(normalizedQuery, row.first, row.second)) return row
+        }
+        return null
+    }
+
+    @Benchmark
+    fun searchTextIndex(): String? {
+        val normalizedQuery = DeezerCacheMatcher.normalize(queries.next())
+        if (normalizedQuery.length < 3) return null
+        return textIndex.find(normalizedQuery).firstOrNull()
+    }
+}
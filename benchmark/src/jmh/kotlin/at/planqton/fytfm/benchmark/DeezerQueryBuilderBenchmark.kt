@@ -0,0 +1,42 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.deezer.DeezerQueryBuilder
+import at.planqton.fytfm.deezer.DeezerSearchStrategies
+import at.planqton.fytfm.deezer.DlsParser
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Query building for the Deezer lookup: [DeezerQueryBuilder.cleanFreeQuery]
+ * on the raw line (free-text path) and the full strategy list from
+ * [DeezerSearchStrategies.buildStrategies] on the parsed artist/title —
+ * everything that runs before the first HTTP request.
+ */
+@State(Scope.Thread)
+open class DeezerQueryBuilderBenchmark {
+
+    @Param(Corpus.FM, Corpus.DAB)
+    lateinit var corpus: String
+
+    private lateinit var raw: Cycle<String>
+    private lateinit var parsed: Cycle<Pair<String?, String?>>
+
+    @Setup
+    fun setup() {
+        val entries = Corpus.load(corpus)
+        raw = Cycle(entries.map { it.raw })
+        parsed = Cycle(entries.map { DlsParser.parse(it.raw) }.filter { it.success }.map { it.artist to it.title })
+    }
+
+    @Benchmark
+    fun cleanFreeQuery(): String = DeezerQueryBuilder.cleanFreeQuery(raw.next())
+
+    @Benchmark
+    fun buildStrategies(): List<DeezerSearchStrategies.SearchStep> {
+        val (artist, title) = parsed.next()
+        return DeezerSearchStrategies.buildStrategies(artist, title)
+    }
+}
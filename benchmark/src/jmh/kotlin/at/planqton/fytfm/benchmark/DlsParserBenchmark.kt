@@ -0,0 +1,45 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.deezer.DlsParser
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * [DlsParser] on every corpus line — runs for each RT change on FM and
+ * each DLS change on DAB+. [parse] and [parseWithStation] measure the
+ * engine without the memo (with and without a station name, since the
+ * station-aware cleanup is the more expensive branch); [parseMemoHit] is
+ * a station repeating its current text.
+ */
+@State(Scope.Thread)
+open class DlsParserBenchmark {
+
+    @Param(Corpus.FM, Corpus.DAB)
+    lateinit var corpus: String
+
+    private lateinit var texts: Cycle<String>
+    private lateinit var repeated: String
+
+    @Setup
+    fun setup() {
+        val entries = Corpus.load(corpus)
+        texts = Cycle(entries.map { it.raw })
+        repeated = entries.first().raw
+    }
+
+    @Benchmark
+    fun parse(): DlsParser.ParseResult = DlsParser.parseUncached(texts.next(), null)
+
+    @Benchmark
+    fun parseWithStation(): DlsParser.ParseResult = DlsParser.parseUncached(texts.next(), STATION)
+
+    @Benchmark
+    fun parseMemoHit(): DlsParser.ParseResult = DlsParser.parse(repeated, STATION)
+
+    private companion object {
+        const val STATION = "Radio 88.6"
+    }
+}
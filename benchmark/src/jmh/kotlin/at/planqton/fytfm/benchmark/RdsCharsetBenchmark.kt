@@ -0,0 +1,44 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.rds.RdsCharset
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * RDS G0 decode of a full RadioText buffer (64 bytes max, as delivered by
+ * `RDSGETTEXT`). [decode] is the allocating path, [decodeInto] the poll
+ * path into a reused buffer — its allocation rate should stay at zero.
+ *
+ * The corpus is UTF-8 text, so the bytes are its ISO-8859-1 encoding; the
+ * table lookup costs the same for every byte value.
+ */
+@State(Scope.Thread)
+open class RdsCharsetBenchmark {
+
+    @Param(Corpus.FM)
+    lateinit var corpus: String
+
+    private lateinit var texts: Cycle<ByteArray>
+    private val buffer = CharArray(RT_LENGTH)
+
+    @Setup
+    fun setup() {
+        texts = Cycle(Corpus.load(corpus).map { entry ->
+            val bytes = entry.raw.toByteArray(Charsets.ISO_8859_1)
+            bytes.copyOf(minOf(bytes.size, RT_LENGTH))
+        })
+    }
+
+    @Benchmark
+    fun decode(): String = RdsCharset.decode(texts.next())
+
+    @Benchmark
+    fun decodeInto(): Int = RdsCharset.decodeInto(texts.next(), buffer)
+
+    private companion object {
+        const val RT_LENGTH = 64
+    }
+}
@@ -0,0 +1,53 @@
+package at.planqton.fytfm.benchmark
+
+import at.planqton.fytfm.deezer.DlsParser
+import at.planqton.fytfm.deezer.RtCombinerHelpers
+import at.planqton.fytfm.deezer.TrackInfo
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * [RtCombinerHelpers] with [at.planqton.fytfm.deezer.RtCombiner]'s
+ * production separators and thresholds: the buffer decision on every RT
+ * and the relevance check of a Deezer hit against the buffered terms.
+ */
+@State(Scope.Thread)
+open class RtCombinerHelpersBenchmark {
+
+    @Param(Corpus.FM, Corpus.DAB)
+    lateinit var corpus: String
+
+    private lateinit var raw: Cycle<String>
+    private lateinit var candidates: Cycle<Pair<TrackInfo, List<String>>>
+
+    @Setup
+    fun setup() {
+        val entries = Corpus.load(corpus)
+        raw = Cycle(entries.map { it.raw })
+        // Hit = the parsed track, terms = its own raw line split like a buffered artist/title pair
+        candidates = Cycle(entries.mapNotNull { entry ->
+            val parsed = DlsParser.parse(entry.raw)
+            if (!parsed.success || parsed.artist == null || parsed.title == null) return@mapNotNull null
+            TrackInfo(artist = parsed.artist!!, title = parsed.title!!) to listOf(parsed.artist!!, parsed.title!!)
+        })
+    }
+
+    @Benchmark
+    fun shouldBufferFirst(): Boolean =
+        RtCombinerHelpers.shouldBufferFirst(raw.next(), SEPARATORS, SHORT_RT_THRESHOLD)
+
+    @Benchmark
+    fun isTrackRelevant(): Boolean {
+        val (track, terms) = candidates.next()
+        return RtCombinerHelpers.isTrackRelevant(track, terms)
+    }
+
+    private companion object {
+        // Mirrors RtCombiner's companion object
+        const val SHORT_RT_THRESHOLD = 25
+        val SEPARATORS = listOf(" - ", " – ", " — ", " / ", " | ")
+    }
+}
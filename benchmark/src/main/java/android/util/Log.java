@@ -0,0 +1,25 @@
+package android.util;
+
+/**
+ * No-op-Ersatz für {@code android.util.Log}, damit die Pipeline-Quellen aus
+ * :app auf der JVM laufen. Die Log-Strings werden beim Aufrufer trotzdem
+ * gebaut — deren Kosten bleiben in den Messwerten, wie auf dem Gerät.
+ */
+public final class Log {
+
+    private Log() {}
+
+    public static int v(String tag, String msg) { return 0; }
+
+    public static int d(String tag, String msg) { return 0; }
+
+    public static int i(String tag, String msg) { return 0; }
+
+    public static int w(String tag, String msg) { return 0; }
+
+    public static int w(String tag, String msg, Throwable tr) { return 0; }
+
+    public static int e(String tag, String msg) { return 0; }
+
+    public static int e(String tag, String msg, Throwable tr) { return 0; }
+}